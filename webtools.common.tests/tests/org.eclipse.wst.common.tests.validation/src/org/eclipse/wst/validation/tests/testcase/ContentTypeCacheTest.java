@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation.tests.testcase;
+
+import java.io.ByteArrayInputStream;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.content.IContentType;
+import org.eclipse.core.runtime.content.IContentTypeManager;
+import org.eclipse.wst.validation.internal.ContentTypeCache;
+
+/**
+ * Test that the content type cache answers a remembered content type, and that it forgets it when the
+ * file changes or when the content types change.
+ */
+@SuppressWarnings("restriction")
+public class ContentTypeCacheTest extends TestCase {
+
+	/** An extension that no content type claims until the test adds it. */
+	private static final String Extension = "cttest"; //$NON-NLS-1$
+
+	private TestEnvironment _env;
+	private IProject		_project;
+	private IFile			_file;
+	private ContentTypeCache _cache;
+
+	public static Test suite() {
+		return new TestSuite(ContentTypeCacheTest.class);
+	}
+
+	public ContentTypeCacheTest(String name){
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		_env = new TestEnvironment();
+		_env.turnoffAutoBuild();
+		_project = _env.createProject("ContentTypeCacheTest"); //$NON-NLS-1$
+		IPath folder = _env.addFolder(_project.getFullPath(), "files"); //$NON-NLS-1$
+		_file = _env.addFile(folder, "a." + Extension, "some contents"); //$NON-NLS-1$ //$NON-NLS-2$
+		_cache = ContentTypeCache.getDefault();
+		_cache.clear();
+	}
+
+	protected void tearDown() throws Exception {
+		_cache.clear();
+		_project.delete(true, null);
+		_env.dispose();
+		super.tearDown();
+	}
+
+	/**
+	 * The second request for an unchanged file is answered from the cache.
+	 */
+	public void testHit() {
+		long hits = _cache.getHits();
+		long misses = _cache.getMisses();
+		IContentType type = _cache.getContentType(_file);
+		assertEquals(misses + 1, _cache.getMisses());
+		assertEquals(hits, _cache.getHits());
+
+		assertEquals(type, _cache.getContentType(_file));
+		assertEquals(hits + 1, _cache.getHits());
+		assertEquals(misses + 1, _cache.getMisses());
+		assertEquals(1, _cache.size());
+	}
+
+	/**
+	 * Changing the contents of the file removes its entry, and the next request determines the content type
+	 * again.
+	 */
+	public void testContentChange() throws Exception {
+		_cache.getContentType(_file);
+		assertEquals(1, _cache.size());
+
+		_file.setContents(new ByteArrayInputStream("other contents".getBytes()), true, false, null); //$NON-NLS-1$
+		assertEquals("The delta must remove the entry of the changed file", 0, _cache.size()); //$NON-NLS-1$
+
+		long misses = _cache.getMisses();
+		_cache.getContentType(_file);
+		assertEquals(misses + 1, _cache.getMisses());
+	}
+
+	/**
+	 * Giving the extension of the file to a content type removes every entry, and the file gets the new
+	 * content type.
+	 */
+	public void testContentTypeChange() throws Exception {
+		assertNull(_cache.getContentType(_file));
+		assertEquals(1, _cache.size());
+
+		IContentType text = Platform.getContentTypeManager().getContentType(IContentTypeManager.CT_TEXT);
+		text.addFileSpec(Extension, IContentType.FILE_EXTENSION_SPEC);
+		try {
+			assertEquals("A content type change must clear the cache", 0, _cache.size()); //$NON-NLS-1$
+			assertEquals(text, _cache.getContentType(_file));
+		}
+		finally {
+			text.removeFileSpec(Extension, IContentType.FILE_EXTENSION_SPEC);
+		}
+		assertEquals(0, _cache.size());
+		assertNull(_cache.getContentType(_file));
+	}
+}
@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation.tests.testcase;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.wst.validation.ValidationFramework;
+import org.eclipse.wst.validation.Validator;
+import org.eclipse.wst.validation.internal.DependencyImpact;
+import org.eclipse.wst.validation.internal.DependencyIndex;
+
+/**
+ * Test the impact analysis of changed resources, with a deep chain of schema like files, where each file
+ * imports the one before it, and a file that imports every file in the chain. There are also unrelated
+ * files in the project, which a full build would validate.
+ */
+@SuppressWarnings("restriction")
+public class DependencyImpactTest extends TestCase {
+
+	private static final int Chain = 20;
+	private static final int Unrelated = 20;
+
+	private TestEnvironment _env;
+	private IProject		_project;
+	private DependencyIndex	_index;
+	private String			_id;
+	private IFile[]			_chain = new IFile[Chain];
+	private IFile			_all;
+
+	public static Test suite() {
+		return new TestSuite(DependencyImpactTest.class);
+	}
+
+	public DependencyImpactTest(String name){
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		_env = new TestEnvironment();
+		_env.turnoffAutoBuild();
+		_project = _env.createProject("DependencyImpact"); //$NON-NLS-1$
+		IPath folder = _env.addFolder(_project.getFullPath(), "schemas"); //$NON-NLS-1$
+		for (int i=0; i<Chain; i++)_chain[i] = _env.addFile(folder, "s" + i + ".test1", "# a dummy file"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		for (int i=0; i<Unrelated; i++)_env.addFile(folder, "u" + i + ".test1", "# a dummy file"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		_all = _env.addFile(folder, "all.test1", "# a dummy file"); //$NON-NLS-1$ //$NON-NLS-2$
+
+		for (Validator v : ValidationFramework.getDefault().getValidators()){
+			if ("org.eclipse.wst.validation.tests.T1AValidator".equals(v.getValidatorClassname()))_id = v.getId(); //$NON-NLS-1$
+		}
+		assertNotNull("The T1A validator must exist", _id); //$NON-NLS-1$
+
+		_index = (DependencyIndex)ValidationFramework.getDefault().getDependencyIndex();
+		for (int i=1; i<Chain; i++)_index.set(_id, _chain[i], new IResource[]{_chain[i-1]});
+		_index.set(_id, _all, _chain);
+	}
+
+	protected void tearDown() throws Exception {
+		_index.clear(_project);
+		_project.delete(true, null);
+		_env.dispose();
+		super.tearDown();
+	}
+
+	/**
+	 * A change to the first file revalidates the rest of the chain in import order, and the file that imports
+	 * everything only once, at the end.
+	 */
+	public void testChain() {
+		DependencyImpact impact = analyze(_chain[0], DependencyImpact.DefaultLimit);
+		List<DependencyImpact.Target> targets = impact.getTargets();
+		assertFalse(impact.isOverLimit());
+		assertEquals(Chain, targets.size());
+		for (int i=1; i<Chain; i++){
+			assertEquals(_chain[i], targets.get(i-1).getResource());
+		}
+		assertEquals(_all, targets.get(Chain-1).getResource());
+		for (DependencyImpact.Target target : targets){
+			assertEquals(_id, target.getValidator().getId());
+			assertEquals(_chain[0], target.getTrigger());
+		}
+	}
+
+	/**
+	 * A change in the middle of the chain only revalidates the files after it.
+	 */
+	public void testMiddle() {
+		DependencyImpact impact = analyze(_chain[Chain/2], DependencyImpact.DefaultLimit);
+		assertEquals(Chain - Chain/2, impact.getTargets().size());
+		assertEquals(_chain[Chain/2 + 1], impact.getTargets().get(0).getResource());
+	}
+
+	/**
+	 * A cycle does not stop the analysis, and every file is still only validated once.
+	 */
+	public void testCycle() {
+		_index.set(_id, _chain[0], new IResource[]{_chain[Chain-1]});
+		DependencyImpact impact = analyze(_chain[Chain/2], DependencyImpact.DefaultLimit);
+		Set<IResource> seen = new HashSet<IResource>();
+		for (DependencyImpact.Target target : impact.getTargets()){
+			assertTrue("Validated twice: " + target.getResource(), seen.add(target.getResource())); //$NON-NLS-1$
+		}
+		assertEquals(Chain, seen.size());
+		assertFalse(seen.contains(_chain[Chain/2]));
+	}
+
+	/**
+	 * When there are more validations than the limit, the project is built instead.
+	 */
+	public void testLimit() {
+		DependencyImpact impact = analyze(_chain[0], 5);
+		assertTrue(impact.isOverLimit());
+		assertTrue(impact.getTargets().isEmpty());
+		assertTrue(impact.getProjects().contains(_project));
+	}
+
+	/**
+	 * When there are more validations than the limit, the projects that are only reached after the limit was
+	 * passed are still built.
+	 */
+	public void testLimitReachesEveryProject() throws Exception {
+		IProject other = _env.createProject("DependencyImpactOther"); //$NON-NLS-1$
+		try {
+			IFile last = _env.addFile(other.getFullPath(), "last.test1", "# a dummy file"); //$NON-NLS-1$ //$NON-NLS-2$
+			_index.set(_id, last, new IResource[]{_chain[Chain-1]});
+			DependencyImpact impact = analyze(_chain[0], 5);
+			assertTrue(impact.isOverLimit());
+			assertTrue(impact.getProjects().contains(_project));
+			assertTrue(impact.getProjects().contains(other));
+		}
+		finally {
+			_index.clear(other);
+			other.delete(true, null);
+		}
+	}
+
+	private DependencyImpact analyze(IResource changed, int limit){
+		return DependencyImpact.analyze(_index, Collections.singletonList(changed), limit);
+	}
+}
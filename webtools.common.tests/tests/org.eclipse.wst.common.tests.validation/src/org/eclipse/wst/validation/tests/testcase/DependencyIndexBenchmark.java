@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation.tests.testcase;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.wst.validation.internal.DependencyIndex;
+
+/**
+ * Measure the memory used by the dependency index, and how long it takes to query it, at different sizes.
+ * Only resource handles are used, so nothing is created in the workspace.
+ * <p>
+ * This is not part of the ValidationTestSuite, since the largest size needs a large heap. Run it on its own
+ * and compare the numbers that it prints.
+ * </p>
+ */
+@SuppressWarnings("restriction")
+public class DependencyIndexBenchmark extends TestCase {
+
+	/** Every resource that is depended on has this many dependents. */
+	private static final int Fanout = 10;
+
+	private static final int Lookups = 200000;
+
+	private static final String[] Validators = {"T1A", "T1B", "T2A"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+	public static Test suite() {
+		return new TestSuite(DependencyIndexBenchmark.class);
+	}
+
+	public DependencyIndexBenchmark(String name){
+		super(name);
+	}
+
+	public void test10k(){
+		run(10000);
+	}
+
+	public void test100k(){
+		run(100000);
+	}
+
+	public void test1m(){
+		run(1000000);
+	}
+
+	private void run(int edges){
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		IResource[] dependents = new IResource[edges];
+		IResource[] dependsOn = new IResource[edges / Fanout];
+		for (int i=0; i<dependsOn.length; i++)dependsOn[i] = root.getFile(new Path("/Bench/s" + i + ".xsd")); //$NON-NLS-1$ //$NON-NLS-2$
+		for (int i=0; i<edges; i++)dependents[i] = root.getFile(new Path("/Bench/d" + i + ".xml")); //$NON-NLS-1$ //$NON-NLS-2$
+
+		DependencyIndex index = new DependencyIndex();
+		int existing = index.size();
+		long before = usedMemory();
+		long start = System.nanoTime();
+		for (int i=0; i<edges; i++){
+			index.add(Validators[i % Validators.length], dependents[i], dependsOn[i % dependsOn.length]);
+		}
+		long build = System.nanoTime() - start;
+		long memory = usedMemory() - before;
+		assertEquals(existing + edges, index.size());
+
+		int found = 0;
+		start = System.nanoTime();
+		for (int i=0; i<Lookups; i++){
+			if (index.isDependedOn(dependsOn[i % dependsOn.length]))found++;
+		}
+		long isDependedOn = System.nanoTime() - start;
+		assertEquals(Lookups, found);
+
+		found = 0;
+		start = System.nanoTime();
+		for (int i=0; i<Lookups; i++){
+			found += index.get(Validators[i % Validators.length], dependsOn[i % dependsOn.length]).length;
+		}
+		long get = System.nanoTime() - start;
+		assertTrue(found > 0);
+
+		System.out.println("DependencyIndex edges=" + edges + //$NON-NLS-1$
+			" build=" + build/1000000 + "ms" + //$NON-NLS-1$ //$NON-NLS-2$
+			" memory=" + memory/1024 + "KB (" + memory/edges + " bytes/edge)" + //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			" isDependedOn=" + isDependedOn/Lookups + "ns" + //$NON-NLS-1$ //$NON-NLS-2$
+			" get=" + get/Lookups + "ns"); //$NON-NLS-1$ //$NON-NLS-2$
+
+		index.clear(root.getProject("Bench")); //$NON-NLS-1$
+		assertEquals(existing, index.size());
+	}
+
+	private static long usedMemory(){
+		Runtime rt = Runtime.getRuntime();
+		for (int i=0; i<3; i++)System.gc();
+		return rt.totalMemory() - rt.freeMemory();
+	}
+}
@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation.tests.testcase;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.wst.validation.internal.DependencyIndex;
+import org.eclipse.wst.validation.internal.plugin.ValidationPlugin;
+
+/**
+ * Test that the dependency index is written and read back, that an index in the old format is migrated,
+ * and that a resource that many resources depend on keeps all of its edges as they are added and removed.
+ */
+@SuppressWarnings("restriction")
+public class DependencyIndexTest extends TestCase {
+
+	private static final int Dependents = 200;
+	private static final String IdA = "org.eclipse.wst.common.tests.validation.DependencyIndexTest.a"; //$NON-NLS-1$
+	private static final String IdB = "org.eclipse.wst.common.tests.validation.DependencyIndexTest.b"; //$NON-NLS-1$
+
+	private TestEnvironment _env;
+	private IProject		_project;
+	private IFile			_hub;
+	private IFile			_other;
+	private IFile[]			_dependents = new IFile[Dependents];
+
+	/** The index file of the workspace, which is put back after the test. */
+	private File			_indexFile;
+	private File			_saved;
+
+	public static Test suite() {
+		return new TestSuite(DependencyIndexTest.class);
+	}
+
+	public DependencyIndexTest(String name){
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		_env = new TestEnvironment();
+		_env.turnoffAutoBuild();
+		_project = _env.createProject("DependencyIndexTest"); //$NON-NLS-1$
+		IPath folder = _env.addFolder(_project.getFullPath(), "files"); //$NON-NLS-1$
+		_hub = _env.addFile(folder, "hub.test1", "# a dummy file"); //$NON-NLS-1$ //$NON-NLS-2$
+		_other = _env.addFile(folder, "other.test1", "# a dummy file"); //$NON-NLS-1$ //$NON-NLS-2$
+		for (int i=0; i<Dependents; i++)_dependents[i] = _env.addFile(folder, "d" + i + ".test1", "# a dummy file"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+		IPath state = ValidationPlugin.getPlugin().getStateLocation();
+		_indexFile = state.append("dep.index").toFile(); //$NON-NLS-1$
+		_saved = state.append("dep.index.test").toFile(); //$NON-NLS-1$
+		_saved.delete();
+		if (_indexFile.exists())assertTrue(_indexFile.renameTo(_saved));
+	}
+
+	protected void tearDown() throws Exception {
+		_indexFile.delete();
+		if (_saved.exists())_saved.renameTo(_indexFile);
+		_project.delete(true, null);
+		_env.dispose();
+		super.tearDown();
+	}
+
+	/**
+	 * Many resources depend on the hub, some of them are removed again, and the index must answer the same
+	 * thing before and after it is written and read back.
+	 */
+	public void testRoundTrip() throws Exception {
+		DependencyIndex index = new DependencyIndex();
+		Set<IResource> expectedA = new HashSet<IResource>();
+		for (int i=0; i<Dependents; i++){
+			index.set(IdA, _dependents[i], new IResource[]{_hub, _other});
+			expectedA.add(_dependents[i]);
+			if (i % 3 == 0)index.add(IdB, _dependents[i], _hub);
+		}
+		for (int i=0; i<Dependents; i+=5){
+			index.set(IdA, _dependents[i], null);
+			expectedA.remove(_dependents[i]);
+		}
+		for (int i=0; i<Dependents; i+=10){
+			index.add(IdA, _dependents[i], _hub);
+			expectedA.add(_dependents[i]);
+		}
+		Set<IResource> expectedB = asSet(index.get(IdB, _hub));
+		assertEquals((Dependents+2)/3, expectedB.size());
+		check(index, expectedA, expectedB);
+
+		index.saving(null);
+		DependencyIndex restored = new DependencyIndex();
+		check(restored, expectedA, expectedB);
+		assertEquals(index.size(), restored.size());
+	}
+
+	/**
+	 * An index that was written in the original format is read, and written back in the new format.
+	 */
+	public void testVersion1() throws Exception {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(_indexFile)));
+		try {
+			out.writeInt(1);
+			out.writeInt(1);
+			out.writeUTF(_hub.getFullPath().toPortableString());
+			out.writeInt(Dependents);
+			for (int i=0; i<Dependents; i++){
+				out.writeUTF(_dependents[i].getFullPath().toPortableString());
+				out.writeInt(1);
+				out.writeUTF(IdA);
+			}
+		}
+		finally {
+			out.close();
+		}
+
+		Set<IResource> expected = new HashSet<IResource>(Arrays.asList(_dependents));
+		DependencyIndex index = new DependencyIndex();
+		assertEquals(expected, asSet(index.get(IdA, _hub)));
+		assertEquals(Dependents, index.size());
+
+		index.saving(null);
+		DependencyIndex migrated = new DependencyIndex();
+		assertEquals(expected, asSet(migrated.get(IdA, _hub)));
+		assertEquals(Dependents, migrated.size());
+	}
+
+	private void check(DependencyIndex index, Set<IResource> expectedA, Set<IResource> expectedB){
+		assertEquals(expectedA, asSet(index.get(IdA, _hub)));
+		assertEquals(expectedB, asSet(index.get(IdB, _hub)));
+		assertTrue(index.isDependedOn(_hub));
+		assertTrue(index.isDependedOn(_other));
+		assertFalse(index.isDependedOn(_dependents[0]));
+	}
+
+	private static Set<IResource> asSet(IResource[] resources){
+		return new HashSet<IResource>(Arrays.asList(resources));
+	}
+}
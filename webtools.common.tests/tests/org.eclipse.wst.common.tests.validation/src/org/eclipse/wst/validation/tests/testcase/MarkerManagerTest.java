@@ -0,0 +1,96 @@
+package org.eclipse.wst.validation.tests.testcase;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.wst.validation.ValidatorMessage;
+import org.eclipse.wst.validation.internal.MarkerManager;
+import org.eclipse.wst.validation.internal.ValConstants;
+import org.eclipse.wst.validation.internal.ValOperation;
+
+/**
+ * Test flushing a marker batch. The markers that are the same as the markers that the resource already has
+ * must be kept, the other old markers deleted, and the remaining new markers created.
+ */
+@SuppressWarnings("restriction")
+public class MarkerManagerTest extends TestCase {
+
+	private static final String ValidatorId = "org.eclipse.wst.common.tests.validation.MarkerManagerTest";
+
+	private TestEnvironment _env;
+	private IProject		_project;
+	private IFile			_file;
+
+	public static Test suite() {
+		return new TestSuite(MarkerManagerTest.class);
+	}
+
+	public MarkerManagerTest(String name){
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		_env = new TestEnvironment();
+		_env.turnoffAutoBuild();
+		_project = _env.createProject("MarkerManagerTest");
+		IPath folder = _env.addFolder(_project.getFullPath(), "files");
+		_file = _env.addFile(folder, "markers.txt", "some contents");
+	}
+
+	protected void tearDown() throws Exception {
+		_project.delete(true, null);
+		_env.dispose();
+		super.tearDown();
+	}
+
+	public void testFlush() throws Exception {
+		MarkerManager mm = MarkerManager.getDefault();
+		mm.createMarker(message("kept", 1), ValidatorId);
+		mm.createMarker(message("deleted", 2), ValidatorId);
+		IMarker kept = find("kept");
+		IMarker deleted = find("deleted");
+		assertNotNull(kept);
+		assertNotNull(deleted);
+
+		// the batch only treats markers that were created before the operation started as stale
+		Thread.sleep(50);
+		ValOperation operation = new ValOperation();
+		MarkerManager.Batch batch = mm.beginBatch(_file, operation);
+		mm.createMarker(message("kept", 1), ValidatorId, operation);
+		mm.createMarker(message("created", 3), ValidatorId, operation);
+		mm.createMarker(message("created", 3), ValidatorId, operation);
+		assertNull("The markers must not be created before the batch is flushed", find("created"));
+		assertTrue("The stale markers must not be deleted before the batch is flushed", deleted.exists());
+		mm.flush(batch);
+
+		IMarker[] markers = _file.findMarkers(ValConstants.ProblemMarker, false, IResource.DEPTH_ZERO);
+		assertEquals(3, markers.length);
+		assertTrue("The unchanged marker must be kept", kept.exists());
+		assertEquals(kept.getId(), find("kept").getId());
+		assertTrue(operation.isKeptMarker(_file, kept.getId()));
+		assertFalse("The stale marker must be deleted", deleted.exists());
+		assertEquals(3, find("created").getAttribute(IMarker.LINE_NUMBER, -1));
+	}
+
+	private ValidatorMessage message(String text, int line){
+		ValidatorMessage m = ValidatorMessage.create(text, _file);
+		m.setAttribute(IMarker.MESSAGE, text);
+		m.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
+		m.setAttribute(IMarker.LINE_NUMBER, line);
+		return m;
+	}
+
+	private IMarker find(String text) throws Exception {
+		for (IMarker marker : _file.findMarkers(ValConstants.ProblemMarker, false, IResource.DEPTH_ZERO)){
+			if (text.equals(marker.getAttribute(IMarker.MESSAGE, null)))return marker;
+		}
+		return null;
+	}
+}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation.tests.testcase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.wst.validation.IPerformanceMonitor;
+import org.eclipse.wst.validation.IPerformanceMonitor.CollectionLevel;
+import org.eclipse.wst.validation.PerformanceCounters;
+import org.eclipse.wst.validation.internal.PerformanceMonitor;
+import org.eclipse.wst.validation.internal.PerformanceReport;
+
+/**
+ * Measure the cost of adding a performance counter at each collection level, from one thread and from
+ * several threads at the same time. The Default level is measured with the collecting monitor, since
+ * the other monitors write every event.
+ * <p>
+ * It only prints timings, so it is left out of the ValidationTestSuite. The totals and percentiles that the
+ * histograms collect are checked by {@link PerformanceMonitorTest}.
+ * </p>
+ */
+@SuppressWarnings("restriction")
+public class PerformanceMonitorBenchmark extends TestCase {
+
+	private static final int Events = 2000000;
+
+	private static final String[] Validators = {"T1A", "T1B", "T2A", "T2B", "T5"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+
+	public static Test suite() {
+		return new TestSuite(PerformanceMonitorBenchmark.class);
+	}
+
+	public PerformanceMonitorBenchmark(String name){
+		super(name);
+	}
+
+	public void testNone() throws InterruptedException {
+		IPerformanceMonitor pm = PerformanceMonitor.create(false, null, false, null);
+		run("None", pm, 1); //$NON-NLS-1$
+		run("None", pm, 4); //$NON-NLS-1$
+	}
+
+	public void testDefault() throws InterruptedException {
+		// the collecting monitor keeps every event, so each run gets a new one
+		IPerformanceMonitor pm = new PerformanceMonitor.Collecting();
+		pm.setCollectionLevel(CollectionLevel.Default);
+		run("Default", pm, 1); //$NON-NLS-1$
+	}
+
+	public void testHistogram() throws Exception {
+		IPerformanceMonitor pm = PerformanceMonitor.create(false, null, false, null);
+		pm.setCollectionLevel(CollectionLevel.Histogram);
+		run("Histogram", pm, 1); //$NON-NLS-1$
+		run("Histogram", pm, 4); //$NON-NLS-1$
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		((PerformanceMonitor)pm).dump(out, true);
+		System.out.println("dump=" + out.size() + " bytes"); //$NON-NLS-1$ //$NON-NLS-2$
+
+		PerformanceReport report = new PerformanceReport();
+		report.add(new ByteArrayInputStream(out.toByteArray()));
+		report.print(System.out);
+	}
+
+	/**
+	 * Add the events from the given number of threads, and print how long an event took.
+	 */
+	private void run(String level, final IPerformanceMonitor pm, int threads) throws InterruptedException {
+		final int perThread = Events / threads;
+		final PerformanceCounters[] counters = new PerformanceCounters[1024];
+		for (int i=0; i<counters.length; i++){
+			String id = Validators[i % Validators.length];
+			counters[i] = new PerformanceCounters(id, id, null, 1, i % 7, 1000 * i, -1, 1000L * (i + 1) * (i % 13 + 1));
+		}
+
+		Thread[] workers = new Thread[threads];
+		for (int t=0; t<threads; t++){
+			workers[t] = new Thread(){
+				@Override
+				public void run() {
+					for (int i=0; i<perThread; i++){
+						if (pm.isCollecting())pm.add(counters[i & (counters.length - 1)]);
+					}
+				}
+			};
+		}
+		long start = System.nanoTime();
+		for (Thread t : workers)t.start();
+		for (Thread t : workers)t.join();
+		long elapsed = System.nanoTime() - start;
+
+		System.out.println("PerformanceMonitor level=" + level + " threads=" + threads + //$NON-NLS-1$ //$NON-NLS-2$
+			" events=" + perThread * threads + " time=" + elapsed / 1000000 + "ms" + //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			" perEvent=" + elapsed * threads / (perThread * (long)threads) + "ns"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
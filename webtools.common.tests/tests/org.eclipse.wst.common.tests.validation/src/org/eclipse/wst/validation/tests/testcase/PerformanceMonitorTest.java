@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation.tests.testcase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.wst.validation.IPerformanceMonitor;
+import org.eclipse.wst.validation.IPerformanceMonitor.CollectionLevel;
+import org.eclipse.wst.validation.PerformanceCounters;
+import org.eclipse.wst.validation.PerformanceSnapshot;
+import org.eclipse.wst.validation.internal.PerformanceMonitor;
+import org.eclipse.wst.validation.internal.PerformanceReport;
+
+/**
+ * Test the totals and percentiles that the performance monitor collects at the Histogram level, from one
+ * thread and from several, and that they survive being dumped and read back by the report.
+ */
+@SuppressWarnings("restriction")
+public class PerformanceMonitorTest extends TestCase {
+
+	/** A percentile is only accurate to within about 6%. */
+	private static final double Accuracy = 0.06;
+
+	private static final long Millisecond = 1000000;
+
+	private IPerformanceMonitor _pm;
+
+	public static Test suite() {
+		return new TestSuite(PerformanceMonitorTest.class);
+	}
+
+	public PerformanceMonitorTest(String name){
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		_pm = PerformanceMonitor.create(false, null, false, null);
+		_pm.setCollectionLevel(CollectionLevel.Histogram);
+	}
+
+	/**
+	 * 99% of the invocations take a millisecond, and the rest take 100 milliseconds.
+	 */
+	public void testPercentiles() {
+		for (int i=0; i<990; i++)_pm.add(counters("A", Millisecond, -1)); //$NON-NLS-1$
+		for (int i=0; i<10; i++)_pm.add(counters("A", 100 * Millisecond, -1)); //$NON-NLS-1$
+		for (int i=0; i<100; i++)_pm.add(counters("B", 5000, 2000)); //$NON-NLS-1$
+
+		List<PerformanceSnapshot> snapshot = _pm.getSnapshot(false);
+		assertEquals(2, snapshot.size());
+		PerformanceSnapshot a = find(snapshot, "A"); //$NON-NLS-1$
+		assertEquals(1000, a.getInvocations());
+		assertEquals(990 * Millisecond + 10 * 100 * Millisecond, a.getElapsedNanos());
+		assertNear(Millisecond, a.getElapsedPercentile(50));
+		assertNear(Millisecond, a.getElapsedPercentile(99));
+		assertNear(100 * Millisecond, a.getElapsedPercentile(100));
+		assertEquals(-1, a.getCpuPercentile(50));
+
+		PerformanceSnapshot b = find(snapshot, "B"); //$NON-NLS-1$
+		assertEquals(100, b.getInvocations());
+		assertEquals(100 * 2000, b.getCpuTime());
+		assertNear(5000, b.getElapsedPercentile(99));
+		assertNear(2000, b.getCpuPercentile(50));
+	}
+
+	/**
+	 * No invocation is lost when several threads add counters at the same time.
+	 */
+	public void testThreads() throws InterruptedException {
+		final int perThread = 20000;
+		Thread[] workers = new Thread[4];
+		for (int t=0; t<workers.length; t++){
+			workers[t] = new Thread(){
+				@Override
+				public void run() {
+					for (int i=0; i<perThread; i++)_pm.add(counters("A", (i % 10 + 1) * 1000, -1)); //$NON-NLS-1$
+				}
+			};
+		}
+		for (Thread t : workers)t.start();
+		for (Thread t : workers)t.join();
+
+		PerformanceSnapshot a = find(_pm.getSnapshot(false), "A"); //$NON-NLS-1$
+		assertEquals(perThread * workers.length, a.getInvocations());
+		assertEquals(55000L * perThread / 10 * workers.length, a.getElapsedNanos());
+		assertTrue(a.getElapsedPercentile(50) <= a.getElapsedPercentile(99));
+	}
+
+	/**
+	 * Dumping with a reset empties the monitor, and the report adds the dumps back together.
+	 */
+	public void testDump() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (int i=0; i<10; i++)_pm.add(counters("A", Millisecond, -1)); //$NON-NLS-1$
+		((PerformanceMonitor)_pm).dump(out, true);
+		assertTrue("The dump must reset the histograms", _pm.getSnapshot(false).isEmpty()); //$NON-NLS-1$
+		for (int i=0; i<5; i++)_pm.add(counters("A", Millisecond, -1)); //$NON-NLS-1$
+		((PerformanceMonitor)_pm).dump(out, true);
+
+		PerformanceReport report = new PerformanceReport();
+		report.add(new ByteArrayInputStream(out.toByteArray()));
+		ByteArrayOutputStream printed = new ByteArrayOutputStream();
+		report.print(new PrintStream(printed, true));
+		String text = printed.toString();
+		assertTrue(text, text.startsWith("# 2 dumps, 1 validators")); //$NON-NLS-1$
+		assertTrue(text, text.indexOf("\nA\t15\t") > 0); //$NON-NLS-1$
+	}
+
+	private static PerformanceCounters counters(String id, long elapsedNanos, long cpuTime){
+		return new PerformanceCounters(id, id, null, 1, elapsedNanos / Millisecond, cpuTime, -1, elapsedNanos);
+	}
+
+	private static PerformanceSnapshot find(List<PerformanceSnapshot> snapshot, String id){
+		for (PerformanceSnapshot ps : snapshot){
+			if (id.equals(ps.getValidatorId()))return ps;
+		}
+		fail("There is no snapshot for " + id); //$NON-NLS-1$
+		return null;
+	}
+
+	private static void assertNear(long expected, long actual){
+		assertTrue("Expected about " + expected + " but was " + actual, //$NON-NLS-1$ //$NON-NLS-2$
+			Math.abs(actual - expected) <= expected * Accuracy);
+	}
+}
@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation.tests.testcase;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.wst.validation.internal.Tracing;
+import org.eclipse.wst.validation.internal.ValConstants;
+import org.eclipse.wst.validation.tests.T11A;
+
+/** Test a validator that streams a large number of messages. */
+@SuppressWarnings("restriction")
+public class TestSuite11 extends TestCase {
+	
+	/** The limit on the number of messages that are reported for a resource. */
+	private static final int Limit = 1000;
+	
+	private TestEnvironment _env;
+	private IProject		_project;
+	private IFile			_few;
+	private IFile			_many;
+	
+	public static Test suite() {
+		return new TestSuite(TestSuite11.class);
+	} 
+	
+	public TestSuite11(String name){
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		_env = new TestEnvironment();
+		_env.turnoffAutoBuild();
+		_project = _env.createProject("TestSuite11");
+		
+		IPath first = _env.addFolder(_project.getFullPath(), "first");
+		_few = _env.addFile(first, "few.t11a", "10");
+		_many = _env.addFile(first, "many.t11a", "100000");
+		
+		TestEnvironment.enableOnlyThisValidator("org.eclipse.wst.validation.tests.T11A");
+	}
+	
+	protected void tearDown() throws Exception {
+		_project.delete(true, null);
+		_env.dispose();
+		super.tearDown();
+	}
+	
+	/**
+	 * The duplicate messages are ignored, and only a limited number of messages are reported for a resource,
+	 * followed by a message that says how many were not reported.
+	 */
+	public void testStreaming() throws Exception {
+		Tracing.log("TestSuite11-01: testStreaming starting");
+		IProgressMonitor monitor = new NullProgressMonitor();
+		
+		long start = System.currentTimeMillis();
+		_env.incrementalBuildAndWait(monitor);
+		long elapsed = System.currentTimeMillis() - start;
+		assertTrue("The validator must be given a streaming reporter", T11A.wasStreamed());
+		
+		assertEquals("The duplicates should have been ignored", 10, _env.getErrors(_few));
+		assertEquals("Only one message is expected for each line", 10, countMarkers(_few));
+
+		assertEquals("The errors should have stopped at the limit", Limit, _env.getErrors(_many));
+		assertEquals("A message about the messages that were not reported is expected", Limit+1, countMarkers(_many));
+		
+		// the markers should be the same when the file is validated again
+		_many.touch(monitor);
+		_env.incrementalBuildAndWait(monitor);
+		assertEquals(Limit+1, countMarkers(_many));
+		
+		Tracing.log("TestSuite11-02: testStreaming finished in " + elapsed + "ms");
+	}
+	
+	private int countMarkers(IResource resource) throws Exception {
+		return resource.findMarkers(ValConstants.ProblemMarker, false, IResource.DEPTH_ZERO).length;
+	}
+
+}
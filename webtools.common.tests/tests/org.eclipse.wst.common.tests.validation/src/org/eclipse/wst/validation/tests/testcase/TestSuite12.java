@@ -0,0 +1,176 @@
+package org.eclipse.wst.validation.tests.testcase;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.wst.validation.internal.ValOperation;
+import org.eclipse.wst.validation.internal.ValType;
+import org.eclipse.wst.validation.internal.ValWorkerPool;
+import org.eclipse.wst.validation.internal.ValidationReport;
+import org.eclipse.wst.validation.internal.ValidationRunner;
+import org.eclipse.wst.validation.tests.T12A;
+
+/**
+ * Test running manual validation in parallel, the way that the headless validation application runs it, and
+ * the report that it streams the results to.
+ */
+@SuppressWarnings("restriction")
+public class TestSuite12 extends TestCase {
+
+	private static final int Projects = 3;
+
+	/** The number of files in each project. This is enough for each project to be split into several shards. */
+	private static final int Files = 70;
+
+	private TestEnvironment _env;
+	private IProject[]		_projects = new IProject[Projects];
+	private Map<IProject, Set<IResource>> _map = new HashMap<IProject, Set<IResource>>(Projects*2);
+
+	/** The number of errors that the files have in total. */
+	private int				_errors;
+
+	public static Test suite() {
+		return new TestSuite(TestSuite12.class);
+	}
+
+	public TestSuite12(String name){
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		_env = new TestEnvironment();
+		_env.turnoffAutoBuild();
+		for (int i=0; i<Projects; i++){
+			_projects[i] = _env.createProject("TestSuite12-" + i);
+			IPath folder = _env.addFolder(_projects[i].getFullPath(), "files");
+			Set<IResource> files = new HashSet<IResource>(Files*2);
+			for (int j=0; j<Files; j++){
+				files.add(_env.addFile(folder, "f" + j + ".t12a", String.valueOf(j % 3)));
+				_errors += j % 3;
+			}
+			_map.put(_projects[i], files);
+		}
+		TestEnvironment.enableOnlyThisValidator("org.eclipse.wst.validation.tests.T12A");
+	}
+
+	protected void tearDown() throws Exception {
+		ValWorkerPool.getDefault().setPoolSizeOverride(0);
+		for (IProject project : _projects)project.delete(true, null);
+		_env.dispose();
+		super.tearDown();
+	}
+
+	/**
+	 * Validating in parallel must report the same messages as validating sequentially, and the validator,
+	 * which is not thread safe, must only ever see one project at a time.
+	 */
+	public void testParallel() throws Exception {
+		ValWorkerPool.getDefault().setPoolSizeOverride(1);
+		List<String> sequential = getMessages(validate(false));
+
+		ValWorkerPool.getDefault().setPoolSizeOverride(4);
+		List<String> parallel = getMessages(validate(true));
+
+		assertEquals(_errors, sequential.size());
+		assertEquals("The parallel validation must report the same messages", sequential, parallel);
+	}
+
+	/**
+	 * Cancel a parallel validation part way through, and check that every project that was started was
+	 * also finished.
+	 */
+	public void testCancel() throws Exception {
+		ValWorkerPool.getDefault().setPoolSizeOverride(4);
+		T12A.reset();
+		NullProgressMonitor monitor = new NullProgressMonitor(){
+			@Override
+			public boolean isCanceled() {
+				return T12A.getValidated() >= Files / 2;
+			}
+		};
+		ValOperation vo = ValidationRunner.validate(_map, ValType.Manual, monitor, false,
+			ValidationReport.create(ValidationReport.FormatJsonLines, new StringWriter()), true);
+
+		assertTrue("The validation should have been canceled", vo.isCanceled());
+		assertTrue("A project should have been started", T12A.getStarted() > 0);
+		assertEquals("Every project that was started must be finished", T12A.getStarted(), T12A.getFinished());
+		assertEquals(0, T12A.getOverlaps());
+	}
+
+	/**
+	 * Check that the report has a line for every message, followed by the validator timings and the summary.
+	 */
+	public void testReport() throws Exception {
+		ValWorkerPool.getDefault().setPoolSizeOverride(4);
+		String report = validate(true);
+
+		BufferedReader rdr = new BufferedReader(new StringReader(report));
+		int messages = 0;
+		String summary = null;
+		String line;
+		while ((line = rdr.readLine()) != null){
+			assertNull("The summary must be the last line", summary);
+			assertTrue("Every line must be a JSON object: " + line, line.startsWith("{\"kind\":") && line.endsWith("}"));
+			if (line.startsWith("{\"kind\":\"message\"")){
+				messages++;
+				assertTrue(line, line.indexOf("\"validator\":\"" + T12A.id() + "\"") > 0);
+				assertTrue(line, line.indexOf("\"severity\":\"error\"") > 0);
+				assertTrue(line, line.indexOf("\"line\":") > 0);
+			}
+			else if (line.startsWith("{\"kind\":\"summary\""))summary = line;
+		}
+		assertEquals("Every message must be streamed to the report", _errors, messages);
+		assertNotNull("The report must end with a summary", summary);
+		assertTrue(summary, summary.indexOf("\"errors\":" + _errors + ",") > 0);
+		assertTrue(summary, summary.indexOf("\"canceled\":false") > 0);
+	}
+
+	/**
+	 * Validate the projects with T12A, and answer the jsonl report.
+	 */
+	private String validate(boolean parallel) throws Exception {
+		T12A.reset();
+		StringWriter out = new StringWriter();
+		ValidationReport report = ValidationReport.create(ValidationReport.FormatJsonLines, out);
+		ValOperation vo = ValidationRunner.validate(_map, ValType.Manual, new NullProgressMonitor(), false, report, parallel);
+		report.finish(vo.isCanceled(), 0);
+
+		assertEquals("Every file should have been validated", Projects*Files, T12A.getValidated());
+		assertEquals("Every project should have been finished", Projects, T12A.getFinished());
+		assertEquals("The project sessions must not overlap", 0, T12A.getOverlaps());
+		assertEquals(_errors, report.getErrors());
+		return out.toString();
+	}
+
+	/**
+	 * Answer the message lines of the report, sorted.
+	 */
+	private static List<String> getMessages(String report) throws Exception {
+		List<String> list = new ArrayList<String>(1000);
+		BufferedReader rdr = new BufferedReader(new StringReader(report));
+		String line;
+		while ((line = rdr.readLine()) != null){
+			if (line.startsWith("{\"kind\":\"message\""))list.add(line);
+		}
+		Collections.sort(list);
+		return list;
+	}
+
+}
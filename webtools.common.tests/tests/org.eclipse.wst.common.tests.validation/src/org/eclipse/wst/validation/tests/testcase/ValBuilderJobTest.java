@@ -0,0 +1,210 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation.tests.testcase;
+
+import java.io.ByteArrayInputStream;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.jobs.IJobManager;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.wst.validation.ValidationFramework;
+import org.eclipse.wst.validation.internal.ValBuilderJob;
+import org.eclipse.wst.validation.internal.ValWorkerPool;
+import org.eclipse.wst.validation.internal.operations.ValidationBuilder;
+import org.eclipse.wst.validation.tests.T12A;
+
+/**
+ * Test build validation when it is being run by a pool of project jobs. Project jobs that are canceled
+ * before they start must still give back their project, so that the builder job finishes and later builds
+ * are validated. A validator that is not thread safe must only ever see one project at a time. Builds of a
+ * project that arrive while its request is waiting are merged into that request.
+ */
+@SuppressWarnings("restriction")
+public class ValBuilderJobTest extends TestCase {
+	
+	private static final int Projects = 6;
+	private static final int Files = 100;
+	
+	/** How long to wait, in milliseconds, for the build validation to finish. */
+	private static final long Timeout = 60000;
+	
+	private TestEnvironment _env;
+	private IProject[]		_projects = new IProject[Projects];
+	
+	public static Test suite() {
+		return new TestSuite(ValBuilderJobTest.class);
+	}
+	
+	public ValBuilderJobTest(String name){
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		_env = new TestEnvironment();
+		_env.turnoffAutoBuild();
+		for (int i=0; i<Projects; i++){
+			_projects[i] = _env.createProject("ValBuilderJob" + i);
+			IPath folder = _env.addFolder(_projects[i].getFullPath(), "files");
+			for (int j=0; j<Files; j++)_env.addFile(folder, "f" + j + ".test1", "# a dummy file");
+		}
+		TestEnvironment.enableOnlyThisValidator("org.eclipse.wst.validation.tests.T1AValidator");
+		ValWorkerPool.getDefault().setPoolSizeOverride(2);
+	}
+	
+	protected void tearDown() throws Exception {
+		ValWorkerPool.getDefault().setPoolSizeOverride(0);
+		for (IProject project : _projects)project.delete(true, null);
+		_env.dispose();
+		super.tearDown();
+	}
+	
+	/**
+	 * Cancel while project jobs are waiting to be started, and then check that the builder job still
+	 * finishes, and that the next build is validated.
+	 */
+	public void testCancelPooled() throws Exception {
+		IJobManager manager = Job.getJobManager();
+		for (IProject project : _projects)ValBuilderJob.validateProject(project, null, IncrementalProjectBuilder.FULL_BUILD);
+		waitForRunning();
+		
+		// keep the project jobs that are scheduled from now on waiting, so that they are canceled before they start
+		manager.suspend();
+		try {
+			Thread.sleep(500);
+			ValidationFramework.getDefault().cancel();
+		}
+		finally {
+			manager.resume();
+		}
+		waitForIdle();
+		
+		ValBuilderJob.resetStatistics();
+		ValBuilderJob.validateProject(_projects[0], null, IncrementalProjectBuilder.FULL_BUILD);
+		waitForIdle();
+		assertEquals("The next build must be validated", 1, ValBuilderJob.getStarted());
+	}
+	
+	/**
+	 * Validate every project with a validator that is not thread safe, and check that the project jobs
+	 * never give it a second project before it has finished with the first one.
+	 */
+	public void testProjectSessions() throws Exception {
+		for (IProject project : _projects){
+			IPath folder = project.getFolder("files").getFullPath();
+			for (int j=0; j<20; j++)_env.addFile(folder, "s" + j + ".t12a", "1");
+		}
+		TestEnvironment.enableOnlyThisValidator("org.eclipse.wst.validation.tests.T12A");
+		ValWorkerPool.getDefault().setPoolSizeOverride(4);
+		T12A.reset();
+		
+		for (IProject project : _projects)ValBuilderJob.validateProject(project, null, IncrementalProjectBuilder.FULL_BUILD);
+		waitForIdle();
+		
+		assertEquals("Every project should have been validated", Projects, T12A.getFinished());
+		assertEquals("Every file should have been validated", Projects*20, T12A.getValidated());
+		assertEquals("The project sessions must not overlap", 0, T12A.getOverlaps());
+	}
+	
+	/**
+	 * Hold the build validation back while several projects are built, and check that the builds of the same
+	 * project are merged into one request, and that the queue statistics count them.
+	 */
+	public void testMerge() throws Exception {
+		IJobManager manager = Job.getJobManager();
+		waitForIdle();
+		ValBuilderJob.resetStatistics();
+		manager.suspend();
+		try {
+			for (int i=0; i<3; i++)ValBuilderJob.validateProject(_projects[0], null, IncrementalProjectBuilder.FULL_BUILD);
+			ValBuilderJob.validateProject(_projects[1], null, IncrementalProjectBuilder.FULL_BUILD);
+			assertEquals(4, ValBuilderJob.getSubmitted());
+			assertEquals("The builds of the same project must be merged", 2, ValBuilderJob.getCoalesced());
+			assertEquals(2, ValBuilderJob.getQueueDepth());
+			assertEquals(2, ValBuilderJob.getMaxQueueDepth());
+			Thread.sleep(200);
+		}
+		finally {
+			manager.resume();
+		}
+		waitForIdle();
+		
+		assertEquals("Only one request per project should have been started", 2, ValBuilderJob.getStarted());
+		assertEquals(0, ValBuilderJob.getQueueDepth());
+		assertTrue("The requests were held back", ValBuilderJob.getMaxWait() >= 200);
+		assertTrue(ValBuilderJob.getTotalWait() >= ValBuilderJob.getMaxWait());
+	}
+	
+	/**
+	 * Change a file in two incremental builds that are merged into one request, and check that it is only
+	 * validated for its newest change, while the other files of the older build are still validated.
+	 */
+	public void testSupersede() throws Exception {
+		IProject project = _projects[0];
+		IFile first = project.getFile("files/f0.test1");
+		IFile second = project.getFile("files/f1.test1");
+		project.build(IncrementalProjectBuilder.FULL_BUILD, null);
+		waitForIdle();
+		
+		IJobManager manager = Job.getJobManager();
+		ValBuilderJob.resetStatistics();
+		manager.suspend();
+		try {
+			change(first);
+			change(second);
+			project.build(IncrementalProjectBuilder.INCREMENTAL_BUILD, null);
+			change(first);
+			project.build(IncrementalProjectBuilder.INCREMENTAL_BUILD, null);
+			assertEquals(2, ValBuilderJob.getSubmitted());
+			assertEquals(1, ValBuilderJob.getCoalesced());
+			assertEquals(1, ValBuilderJob.getQueueDepth());
+		}
+		finally {
+			manager.resume();
+		}
+		waitForIdle();
+		
+		assertEquals(1, ValBuilderJob.getStarted());
+		assertEquals("The older change of the file must not be validated", 1, ValBuilderJob.getSuperseded());
+	}
+	
+	private static void change(IFile file) throws Exception {
+		String contents = "# changed " + System.nanoTime();
+		file.setContents(new ByteArrayInputStream(contents.getBytes()), true, false, null);
+	}
+	
+	private void waitForRunning() throws InterruptedException {
+		long end = System.currentTimeMillis() + Timeout;
+		while (System.currentTimeMillis() < end){
+			for (Job job : Job.getJobManager().find(ValidationBuilder.FAMILY_VALIDATION_JOB)){
+				if (job.getState() == Job.RUNNING)return;
+			}
+			if (ValBuilderJob.isIdle())return;
+			Thread.sleep(10);
+		}
+		fail("The build validation did not start");
+	}
+	
+	private void waitForIdle() throws InterruptedException {
+		long end = System.currentTimeMillis() + Timeout;
+		while (!ValBuilderJob.isIdle()){
+			assertTrue("The build validation did not finish", System.currentTimeMillis() < end);
+			Thread.sleep(50);
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package org.eclipse.wst.validation.tests.testcase;
+
+import java.io.ByteArrayInputStream;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.wst.validation.ValidationFramework;
+import org.eclipse.wst.validation.ValidationResult;
+import org.eclipse.wst.validation.Validator;
+import org.eclipse.wst.validation.ValidatorMessage;
+import org.eclipse.wst.validation.internal.ValOperation;
+import org.eclipse.wst.validation.internal.ValidationLedger;
+import org.eclipse.wst.validation.tests.T12A;
+
+/**
+ * Test that the validation ledger replays a recorded result after it has been written and read back, and
+ * that it stops replaying it once the file or the project is changed.
+ */
+@SuppressWarnings("restriction")
+public class ValidationLedgerTest extends TestCase {
+
+	private TestEnvironment _env;
+	private IProject		_project;
+	private IFile			_file;
+	private Validator		_validator;
+
+	public static Test suite() {
+		return new TestSuite(ValidationLedgerTest.class);
+	}
+
+	public ValidationLedgerTest(String name){
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		_env = new TestEnvironment();
+		_env.turnoffAutoBuild();
+		_project = _env.createProject("ValidationLedgerTest");
+		IPath folder = _env.addFolder(_project.getFullPath(), "files");
+		_file = _env.addFile(folder, "ledger.t12a", "1");
+		_validator = ValidationFramework.getDefault().getValidator(T12A.id(), _project);
+		assertNotNull(_validator);
+	}
+
+	protected void tearDown() throws Exception {
+		ValidationLedger.getDefault().clear(_project);
+		_project.delete(true, null);
+		_env.dispose();
+		super.tearDown();
+	}
+
+	public void testRoundTrip() throws Exception {
+		ValidationLedger ledger = ValidationLedger.getDefault();
+		ledger.record(_validator, _file, result("error"), _file.getModificationStamp(), new ValOperation(),
+			new NullProgressMonitor());
+		ledger.saveAndReload();
+
+		ValidationResult vr = ledger.lookup(_validator, _file);
+		assertNotNull("The result must be replayed after the ledger is read back", vr);
+		assertEquals(1, vr.getSeverityError());
+		assertEquals(1, vr.getMessages().length);
+		assertEquals("error", vr.getMessages()[0].getAttribute(IMarker.MESSAGE));
+	}
+
+	public void testInvalidation() throws Exception {
+		ValidationLedger ledger = ValidationLedger.getDefault();
+		ledger.record(_validator, _file, result("error"), _file.getModificationStamp(), new ValOperation(),
+			new NullProgressMonitor());
+		assertNotNull(ledger.lookup(_validator, _file));
+
+		_file.setContents(new ByteArrayInputStream("2".getBytes()), true, false, null);
+		assertNull("A changed file must be validated again", ledger.lookup(_validator, _file));
+
+		ledger.record(_validator, _file, result("error"), _file.getModificationStamp(), new ValOperation(),
+			new NullProgressMonitor());
+		assertNotNull(ledger.lookup(_validator, _file));
+		ledger.clear(_project);
+		assertNull("A cleared project must be validated again", ledger.lookup(_validator, _file));
+	}
+
+	/**
+	 * A string attribute that is too long for writeUTF must survive being written and read back.
+	 */
+	public void testLongString() throws Exception {
+		StringBuffer b = new StringBuffer(70000);
+		for (int i=0; i<70000; i++)b.append((char)('a' + i % 26));
+		String text = b.toString();
+
+		ValidationLedger ledger = ValidationLedger.getDefault();
+		ledger.record(_validator, _file, result(text), _file.getModificationStamp(), new ValOperation(),
+			new NullProgressMonitor());
+		ledger.saveAndReload();
+
+		ValidationResult vr = ledger.lookup(_validator, _file);
+		assertNotNull("The result must be replayed after the ledger is read back", vr);
+		assertEquals(text, vr.getMessages()[0].getAttribute(IMarker.MESSAGE));
+	}
+
+	private ValidationResult result(String text){
+		ValidationResult vr = new ValidationResult();
+		ValidatorMessage m = ValidatorMessage.create(text, _file);
+		m.setAttribute(IMarker.MESSAGE, text);
+		m.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
+		m.setAttribute(IMarker.LINE_NUMBER, 1);
+		vr.add(m);
+		vr.setSeverityError(1);
+		return vr;
+	}
+}
@@ -25,6 +25,16 @@ public class ValidationTestSuite extends TestSuite {
 		suite.addTest(TestSuite8.suite());
         suite.addTest(TestSuite9.suite());
         suite.addTest(TestSuite10.suite());
+        suite.addTest(TestSuite11.suite());
+        suite.addTest(TestSuite12.suite());
+        suite.addTest(DependencyImpactTest.suite());
+        suite.addTest(DependencyIndexTest.suite());
+        suite.addTest(ValBuilderJobTest.suite());
+        suite.addTest(MarkerManagerTest.suite());
+        suite.addTest(ValidationLedgerTest.suite());
+        suite.addTest(PerformanceMonitorTest.suite());
+        suite.addTest(ContentTypeCacheTest.suite());
+        suite.addTest(ValidatorFilterIndexTest.suite());
         return suite;
     }
 
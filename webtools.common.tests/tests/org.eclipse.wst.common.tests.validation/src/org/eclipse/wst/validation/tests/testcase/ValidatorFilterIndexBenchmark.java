@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation.tests.testcase;
+
+import java.util.BitSet;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.wst.validation.Friend;
+import org.eclipse.wst.validation.Validator;
+import org.eclipse.wst.validation.internal.ContentTypeWrapper;
+import org.eclipse.wst.validation.internal.ValManager;
+import org.eclipse.wst.validation.internal.ValType;
+import org.eclipse.wst.validation.internal.ValidatorFilterIndex;
+
+/**
+ * Compare asking every validator whether it should validate a resource, with asking the compiled
+ * ValidatorFilterIndex, over a synthetic tree of 200,000 files. Only resource handles are used, so nothing is
+ * created on disk. The two approaches must also give the same answers.
+ * <p>
+ * The tree is too large for the ValidationTestSuite, where {@link ValidatorFilterIndexTest} checks the same
+ * answers over a small set of files. Run this on its own to see the time that the index saves.
+ * </p>
+ */
+@SuppressWarnings("restriction")
+public class ValidatorFilterIndexBenchmark extends TestCase {
+
+	private static final int Files = 200000;
+
+	private static final String[] Folders = {"src", "src/main/webapp", "WebContent/WEB-INF", "bin", "schemas/xsd"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+	private static final String[] Extensions = {"xml", "xsd", "wsdl", "jsp", "html", "java", "T1A", "txt", "dtd", "css"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$
+
+	private TestEnvironment _env;
+	private IProject		_project;
+
+	public static Test suite() {
+		return new TestSuite(ValidatorFilterIndexBenchmark.class);
+	}
+
+	public ValidatorFilterIndexBenchmark(String name){
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		_env = new TestEnvironment();
+		_project = _env.createProject("FilterBench"); //$NON-NLS-1$
+	}
+
+	protected void tearDown() throws Exception {
+		_project.delete(true, null);
+		_env.dispose();
+		super.tearDown();
+	}
+
+	public void testFilters(){
+		IResource[] files = new IResource[Files];
+		for (int i=0; i<Files; i++){
+			String name = Folders[i % Folders.length] + "/f" + i + "." + Extensions[(i / Folders.length) % Extensions.length]; //$NON-NLS-1$ //$NON-NLS-2$
+			files[i] = _project.getFile(new Path(name));
+		}
+
+		ValManager vm = ValManager.getDefault();
+		Validator[] validators = vm.getValidators(_project);
+		BitSet all = new BitSet(validators.length);
+		all.set(0, validators.length);
+
+		BitSet[] expected = new BitSet[Files];
+		long start = System.nanoTime();
+		for (int i=0; i<Files; i++){
+			ContentTypeWrapper ctw = new ContentTypeWrapper();
+			expected[i] = new BitSet(validators.length);
+			for (int j=0; j<validators.length; j++){
+				if (Friend.shouldValidate(validators[j], files[i], ValType.Build, ctw))expected[i].set(j);
+			}
+		}
+		long oneByOne = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		ValidatorFilterIndex index = ValidatorFilterIndex.compile(_project, validators, 0);
+		long compile = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		for (int i=0; i<Files; i++){
+			BitSet actual = index.match(files[i], ValType.Build, new ContentTypeWrapper(), all);
+			assertEquals(files[i].toString(), expected[i], actual);
+		}
+		long compiled = System.nanoTime() - start;
+
+		System.out.println("ValidatorFilterIndex files=" + Files + " validators=" + validators.length + //$NON-NLS-1$ //$NON-NLS-2$
+			" oneByOne=" + oneByOne/1000000 + "ms" + //$NON-NLS-1$ //$NON-NLS-2$
+			" compile=" + compile/1000 + "us" + //$NON-NLS-1$ //$NON-NLS-2$
+			" compiled=" + compiled/1000000 + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation.tests.testcase;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.wst.validation.Friend;
+import org.eclipse.wst.validation.Validator;
+import org.eclipse.wst.validation.internal.ContentTypeWrapper;
+import org.eclipse.wst.validation.internal.ValManager;
+import org.eclipse.wst.validation.internal.ValType;
+import org.eclipse.wst.validation.internal.ValidatorFilterIndex;
+
+/**
+ * Test that the compiled ValidatorFilterIndex gives the same answers as asking every validator in turn,
+ * over file names that exercise the extension, file, folder and full path rules of the test validators in
+ * both upper and lower case.
+ */
+@SuppressWarnings("restriction")
+public class ValidatorFilterIndexTest extends TestCase {
+
+	private static final String[] Folders = {"", "source/", "SOURCE/", "src/main/", "WebContent/WEB-INF/"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+	private static final String[] Names = {"a.test1", "b.TEST1", "c.Test2", "d.jsp", "e.JSPX", "f.java", "g.html", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
+		"h.HTM", "i.test4", "j.test5", "k.t1b", "l.T1C", "m.t12a", "somefile.txt", "SOMEFILE.TXT", "file.specific", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$
+		"FILE.SPECIFIC", "full.specific", "FULL.SPECIFIC", "n.txt", "noextension"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+
+	private TestEnvironment _env;
+	private IProject		_project;
+
+	public static Test suite() {
+		return new TestSuite(ValidatorFilterIndexTest.class);
+	}
+
+	public ValidatorFilterIndexTest(String name){
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		_env = new TestEnvironment();
+		_project = _env.createProject("ValidatorFilterIndexTest"); //$NON-NLS-1$
+	}
+
+	protected void tearDown() throws Exception {
+		_project.delete(true, null);
+		_env.dispose();
+		super.tearDown();
+	}
+
+	public void testSameAnswers(){
+		compare(ValType.Build);
+		compare(ValType.Manual);
+	}
+
+	/**
+	 * In a Turkish locale an upper case I does not lower case to an i, the case insensitive rules must
+	 * still match.
+	 */
+	public void testTurkishLocale(){
+		Locale locale = Locale.getDefault();
+		Locale.setDefault(new Locale("tr", "TR")); //$NON-NLS-1$ //$NON-NLS-2$
+		try {
+			compare(ValType.Build);
+			ValidatorFilterIndex index = ValidatorFilterIndex.compile(_project, getValidators(), 0);
+			BitSet all = new BitSet();
+			all.set(0, getValidators().length);
+			assertEquals(index.match(file("file.specific"), ValType.Build, new ContentTypeWrapper(), all), //$NON-NLS-1$
+				index.match(file("FILE.SPECIFIC"), ValType.Build, new ContentTypeWrapper(), all)); //$NON-NLS-1$
+			assertEquals(index.match(file("a.test1"), ValType.Build, new ContentTypeWrapper(), all), //$NON-NLS-1$
+				index.match(file("a.TEST1"), ValType.Build, new ContentTypeWrapper(), all)); //$NON-NLS-1$
+		}
+		finally {
+			Locale.setDefault(locale);
+		}
+	}
+
+	private void compare(ValType valType){
+		Validator[] validators = getValidators();
+		ValidatorFilterIndex index = ValidatorFilterIndex.compile(_project, validators, 0);
+		BitSet all = new BitSet(validators.length);
+		all.set(0, validators.length);
+		int matched = 0;
+		for (IResource file : getFiles()){
+			BitSet expected = new BitSet(validators.length);
+			ContentTypeWrapper ctw = new ContentTypeWrapper();
+			for (int j=0; j<validators.length; j++){
+				if (Friend.shouldValidate(validators[j], file, valType, ctw))expected.set(j);
+			}
+			assertEquals(file.toString(), expected, index.match(file, valType, new ContentTypeWrapper(), all));
+			matched += expected.cardinality();
+		}
+		assertTrue("Some of the files should have been matched", matched > 0); //$NON-NLS-1$
+	}
+
+	private Validator[] getValidators(){
+		return ValManager.getDefault().getValidators(_project);
+	}
+
+	private List<IResource> getFiles(){
+		List<IResource> files = new ArrayList<IResource>(Folders.length * Names.length);
+		for (String folder : Folders){
+			for (String name : Names)files.add(file(folder + name));
+		}
+		return files;
+	}
+
+	/** Only a handle is needed, nothing is created on disk. */
+	private IResource file(String path){
+		return _project.getFile(new Path(path));
+	}
+}
@@ -0,0 +1,77 @@
+package org.eclipse.wst.validation.tests;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.wst.common.tests.validation.Activator;
+import org.eclipse.wst.validation.AbstractValidator;
+import org.eclipse.wst.validation.ValidationEvent;
+import org.eclipse.wst.validation.ValidationResult;
+import org.eclipse.wst.validation.ValidationState;
+import org.eclipse.wst.validation.internal.operations.LocalizedMessage;
+import org.eclipse.wst.validation.internal.provisional.core.IMessage;
+import org.eclipse.wst.validation.internal.provisional.core.IReporter;
+import org.eclipse.wst.validation.internal.provisional.core.IStreamingReporter;
+
+/**
+ * This validator is used to test the streaming of messages. The first line of the file is the number of
+ * errors to report, and every error is reported twice. The errors are spread over Lines lines, so once
+ * there are more errors than that, they are the same as errors that have already been reported.
+ */
+public class T11A extends AbstractValidator {
+	
+	public static final int Lines = 2500;
+	
+	private static volatile boolean _streamed;
+	
+	public static boolean wasStreamed(){
+		return _streamed;
+	}
+	
+	public static String id(){
+		return Activator.PLUGIN_ID +".T11A";
+	}
+	
+	@Override
+	public boolean shouldStreamMessages(ValidationEvent event) {
+		return true;
+	}
+	
+	@Override
+	public ValidationResult validate(ValidationEvent event, ValidationState state, IProgressMonitor monitor) {
+		ValidationResult vr = new ValidationResult();
+		IResource resource = event.getResource();
+		if (!(resource instanceof IFile))return vr;
+		IReporter reporter = vr.getReporter(monitor);
+		_streamed = reporter instanceof IStreamingReporter;
+		int errors = 0;
+		InputStream in = null;
+		try {
+			in = ((IFile)resource).getContents();
+			BufferedReader rdr = new BufferedReader(new InputStreamReader(in));
+			errors = Integer.parseInt(rdr.readLine().trim());
+		}
+		catch (Exception e){
+			Activator.getDefault().handleException(e);
+		}
+		finally {
+			Misc.close(in);
+		}
+		
+		for (int i=0; i<errors; i++){
+			if (reporter.isCancelled())break;
+			int line = i % Lines + 1;
+			for (int j=0; j<2; j++){
+				LocalizedMessage message = new LocalizedMessage(IMessage.HIGH_SEVERITY, "error on line " + line, resource);
+				message.setLineNo(line);
+				reporter.addMessage(null, message);
+			}
+		}
+		return vr;
+	}
+	
+}
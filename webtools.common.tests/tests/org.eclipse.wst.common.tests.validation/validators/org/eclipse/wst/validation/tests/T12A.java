@@ -0,0 +1,132 @@
+package org.eclipse.wst.validation.tests;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.wst.common.tests.validation.Activator;
+import org.eclipse.wst.validation.AbstractValidator;
+import org.eclipse.wst.validation.ValidationEvent;
+import org.eclipse.wst.validation.ValidationResult;
+import org.eclipse.wst.validation.ValidationState;
+import org.eclipse.wst.validation.internal.operations.LocalizedMessage;
+import org.eclipse.wst.validation.internal.provisional.core.IMessage;
+import org.eclipse.wst.validation.internal.provisional.core.IReporter;
+
+/**
+ * This validator is not thread safe, and it checks that it is only ever given one project at a time, from
+ * validationStarting to validationFinishing. The first line of the file is the number of errors to report.
+ */
+public class T12A extends AbstractValidator {
+
+	private static final Object _lock = new Object();
+
+	/** The project that is between validationStarting and validationFinishing. */
+	private static IProject _current;
+
+	private static int _overlaps;
+	private static int _started;
+	private static int _finished;
+	private static int _validated;
+
+	public static String id(){
+		return Activator.PLUGIN_ID +".T12A";
+	}
+
+	public static void reset(){
+		synchronized(_lock){
+			_current = null;
+			_overlaps = 0;
+			_started = 0;
+			_finished = 0;
+			_validated = 0;
+		}
+	}
+
+	/** Answer the number of times that the validator was used for a project outside of its session. */
+	public static int getOverlaps(){
+		synchronized(_lock){
+			return _overlaps;
+		}
+	}
+
+	/** Answer the number of projects that were started. */
+	public static int getStarted(){
+		synchronized(_lock){
+			return _started;
+		}
+	}
+
+	/** Answer the number of projects that were finished. */
+	public static int getFinished(){
+		synchronized(_lock){
+			return _finished;
+		}
+	}
+
+	/** Answer the number of resources that were validated. */
+	public static int getValidated(){
+		synchronized(_lock){
+			return _validated;
+		}
+	}
+
+	@Override
+	public void validationStarting(IProject project, ValidationState state, IProgressMonitor monitor) {
+		if (project == null)return;
+		synchronized(_lock){
+			if (_current != null)_overlaps++;
+			_current = project;
+			_started++;
+		}
+		state.put(id(), project);
+	}
+
+	@Override
+	public void validationFinishing(IProject project, ValidationState state, IProgressMonitor monitor) {
+		if (project == null)return;
+		synchronized(_lock){
+			if (_current != project)_overlaps++;
+			_current = null;
+			_finished++;
+		}
+	}
+
+	@Override
+	public ValidationResult validate(ValidationEvent event, ValidationState state, IProgressMonitor monitor) {
+		ValidationResult vr = new ValidationResult();
+		IResource resource = event.getResource();
+		if (!(resource instanceof IFile))return vr;
+		synchronized(_lock){
+			if (_current != resource.getProject() || state.get(id()) != resource.getProject())_overlaps++;
+			_validated++;
+		}
+
+		int errors = 0;
+		InputStream in = null;
+		try {
+			in = ((IFile)resource).getContents();
+			BufferedReader rdr = new BufferedReader(new InputStreamReader(in));
+			errors = Integer.parseInt(rdr.readLine().trim());
+		}
+		catch (Exception e){
+			Activator.getDefault().handleException(e);
+		}
+		finally {
+			Misc.close(in);
+		}
+
+		IReporter reporter = vr.getReporter(monitor);
+		for (int i=0; i<errors; i++){
+			LocalizedMessage message = new LocalizedMessage(IMessage.HIGH_SEVERITY, "error on line " + (i+1), resource);
+			message.setLineNo(i+1);
+			reporter.addMessage(null, message);
+		}
+		return vr;
+	}
+
+}
@@ -0,0 +1,29 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/ 
+package org.eclipse.wst.common.core.search.tests;
+
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class AllTests extends TestCase {
+
+	
+	public static TestSuite suite() {
+		
+		TestSuite suite = new TestSuite(); 
+		
+		suite.addTestSuite(SearchIndexTest.class);
+		suite.addTestSuite(ParallelSearchTest.class);
+		
+		
+		return suite;
+	}
+}
@@ -0,0 +1,278 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.core.search.tests;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringTokenizer;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.wst.common.core.search.ISearchOptions;
+import org.eclipse.wst.common.core.search.SearchEngine;
+import org.eclipse.wst.common.core.search.SearchMatch;
+import org.eclipse.wst.common.core.search.SearchParticipant;
+import org.eclipse.wst.common.core.search.SearchRequestor;
+import org.eclipse.wst.common.core.search.document.ComponentReferenceEntry;
+import org.eclipse.wst.common.core.search.document.Entry;
+import org.eclipse.wst.common.core.search.document.SearchDocument;
+import org.eclipse.wst.common.core.search.document.SearchDocumentSet;
+import org.eclipse.wst.common.core.search.pattern.ComponentReferencePattern;
+import org.eclipse.wst.common.core.search.pattern.QualifiedName;
+import org.eclipse.wst.common.core.search.pattern.SearchPattern;
+import org.eclipse.wst.common.core.search.scope.ProjectSearchScope;
+import org.eclipse.wst.common.core.search.scope.SearchScope;
+import org.eclipse.wst.common.core.search.util.CollectingSearchRequestor;
+
+/**
+ * Tests that a search with {@link ISearchOptions#PARALLEL_OPTION} finds the same matches as a sequential one,
+ * that the participant is given a monitor that is canceled with the search, and that a search run by a job
+ * that holds a scheduling rule still completes. Each file is a list of the names of the types it refers to.
+ */
+public class ParallelSearchTest extends TestCase {
+
+	private static final int Files = 200;
+	private static final String ProjectName = "ParallelSearchTest"; //$NON-NLS-1$
+	private static final String Namespace = "http://www.example.org/parallel"; //$NON-NLS-1$
+	private static final QualifiedName Target = new QualifiedName(Namespace, "Target"); //$NON-NLS-1$
+
+	private IProject project;
+	private TestParticipant participant;
+
+	public ParallelSearchTest(String name) {
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		project = ResourcesPlugin.getWorkspace().getRoot().getProject(ProjectName);
+		if (!project.exists())
+			project.create(null);
+		project.open(null);
+		for (int i = 0; i < Files; i++) {
+			// Every third file refers to the target, once or twice
+			StringBuffer contents = new StringBuffer("Other" + i); //$NON-NLS-1$
+			for (int j = 0; j < (i % 3 == 0 ? 1 + i % 2 : 0); j++)
+				contents.append(" Target"); //$NON-NLS-1$
+			project.getFile("file" + i + ".txt").create(new ByteArrayInputStream(contents.toString().getBytes()), true, null); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		participant = new TestParticipant();
+	}
+
+	protected void tearDown() throws Exception {
+		project.delete(true, null);
+		super.tearDown();
+	}
+
+	/**
+	 * The parallel search finds exactly the matches that the sequential one does.
+	 */
+	public void testSameMatchesAsSequential() throws Exception {
+		List sequential = search(null, null);
+		List parallel = search(parallelOptions(), null);
+		assertFalse(sequential.isEmpty());
+		assertEquals(sequential.size(), parallel.size());
+		assertEquals(describe(sequential), describe(parallel));
+	}
+
+	/**
+	 * The participant is given a monitor in every partition, and it is canceled when the search's monitor is.
+	 */
+	public void testMonitorIsForwarded() throws Exception {
+		final IProgressMonitor monitor = new NullProgressMonitor();
+		participant.onLocate = new Runnable() {
+			public void run() {
+				monitor.setCanceled(true);
+			}
+		};
+		try {
+			search(parallelOptions(), monitor);
+		} catch (RuntimeException e) {
+			// The search may give up once it is canceled
+		}
+		assertTrue("A partition was given no monitor", participant.monitors > 0 && participant.missingMonitors == 0); //$NON-NLS-1$
+		assertTrue("The cancellation was not seen by the participant", participant.sawCanceled); //$NON-NLS-1$
+	}
+
+	/**
+	 * A parallel search run by a job that holds a scheduling rule falls back to a sequential one instead of
+	 * waiting for jobs that may never run, and finds the same matches.
+	 */
+	public void testSearchInJobWithRule() throws Exception {
+		final List expected = search(null, null);
+		final List[] found = new List[1];
+		final Exception[] error = new Exception[1];
+		Job job = new Job("ParallelSearchTest") { //$NON-NLS-1$
+			protected IStatus run(IProgressMonitor monitor) {
+				try {
+					found[0] = search(parallelOptions(), null);
+				} catch (Exception e) {
+					error[0] = e;
+				}
+				return Status.OK_STATUS;
+			}
+		};
+		job.setRule(project);
+		job.schedule();
+		long end = System.currentTimeMillis() + 60000;
+		while (job.getState() != Job.NONE && System.currentTimeMillis() < end)
+			Thread.sleep(50);
+		assertEquals("The search did not finish", Job.NONE, job.getState()); //$NON-NLS-1$
+		if (error[0] != null)
+			throw error[0];
+		assertEquals(describe(expected), describe(found[0]));
+	}
+
+	private List search(Map options, IProgressMonitor monitor) throws CoreException {
+		SearchPattern pattern = new ComponentReferencePattern(null, Target, new QualifiedName(Namespace, "type")); //$NON-NLS-1$
+		CollectingSearchRequestor requestor = new CollectingSearchRequestor();
+		new SearchEngine().search(pattern, requestor, new SearchParticipant[]{participant}, new ProjectSearchScope(project.getFullPath()), options, monitor);
+		return requestor.getResults();
+	}
+
+	private static Map parallelOptions() {
+		Map options = new HashMap();
+		options.put(ISearchOptions.PARALLEL_OPTION, ISearchOptions.PARALLEL_VALUE_TRUE);
+		return options;
+	}
+
+	/*
+	 * The matches as a set of file and entry descriptions, so that the order they were reported in does not
+	 * matter. The number of matches is compared as well, since a set hides duplicates.
+	 */
+	private static Set describe(List matches) {
+		Set result = new HashSet();
+		for (int i = 0; i < matches.size(); i++) {
+			SearchMatch match = (SearchMatch) matches.get(i);
+			result.add(match.getFile().getFullPath() + "#" + ((TestEntry) match.getObject()).index); //$NON-NLS-1$
+		}
+		return result;
+	}
+
+	private static class TestEntry extends ComponentReferenceEntry {
+		final int index;
+
+		TestEntry(int index) {
+			this.index = index;
+		}
+	}
+
+	private static class TestDocument extends SearchDocument {
+		private final List entries = new ArrayList();
+
+		TestDocument(String path, SearchParticipant participant) {
+			super(path, participant);
+		}
+
+		public Entry[] getEntries(String category, String key, int matchRule) {
+			List result = new ArrayList();
+			for (int i = 0; i < entries.size(); i++) {
+				Entry entry = (Entry) entries.get(i);
+				if ((category == null || category.equals(entry.getCategory())) && (key == null || key.equals(entry.getKey())))
+					result.add(entry);
+			}
+			return (Entry[]) result.toArray(new Entry[result.size()]);
+		}
+
+		public Object getModel() {
+			return null;
+		}
+
+		public void putEntry(Entry entry) {
+			entries.add(entry);
+		}
+	}
+
+	private static class TestParticipant extends SearchParticipant {
+		private static final String REFERENCE = "reference"; //$NON-NLS-1$
+
+		Runnable onLocate;
+		int monitors;
+		int missingMonitors;
+		boolean sawCanceled;
+
+		TestParticipant() {
+			id = "org.eclipse.wst.common.core.search.tests.ParallelSearchTest"; //$NON-NLS-1$
+		}
+
+		public boolean isApplicable(SearchPattern pattern, Map searchOptions) {
+			return pattern instanceof ComponentReferencePattern;
+		}
+
+		public SearchDocument createSearchDocument(String documentPath) {
+			return new TestDocument(documentPath, this);
+		}
+
+		public void populateSearchDocument(SearchDocument document, SearchPattern pattern) {
+			try {
+				BufferedReader reader = new BufferedReader(new FileReader(document.getPath()));
+				try {
+					String line;
+					int index = 0;
+					while ((line = reader.readLine()) != null) {
+						StringTokenizer tokens = new StringTokenizer(line);
+						while (tokens.hasMoreTokens()) {
+							String name = tokens.nextToken();
+							TestEntry entry = new TestEntry(index++);
+							entry.setCategory(REFERENCE);
+							entry.setKey(name);
+							entry.setName(new QualifiedName(Namespace, name));
+							document.putEntry(entry);
+						}
+					}
+				} finally {
+					reader.close();
+				}
+			} catch (Exception e) {
+				fail(e.toString());
+			}
+		}
+
+		public void locateMatches(SearchDocumentSet documentSet, SearchPattern pattern, SearchScope scope, SearchRequestor requestor, Map searchOptions, IProgressMonitor monitor) throws CoreException {
+			synchronized (this) {
+				if (monitor == null)
+					missingMonitors++;
+				else
+					monitors++;
+				if (onLocate != null) {
+					onLocate.run();
+					sawCanceled |= monitor != null && monitor.isCanceled();
+				}
+			}
+			QualifiedName name = ((ComponentReferencePattern) pattern).getName();
+			SearchDocument[] documents = documentSet.getSearchDocuments(id);
+			for (int i = 0; i < documents.length; i++) {
+				Entry[] entries = documents[i].getEntries(REFERENCE, name.getLocalName(), SearchPattern.R_EXACT_MATCH);
+				for (int j = 0; j < entries.length; j++) {
+					IFile file = ResourcesPlugin.getWorkspace().getRoot().getFileForLocation(new Path(documents[i].getPath()));
+					requestor.acceptSearchMatch(new SearchMatch(entries[j], 0, 0, file));
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.core.search.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.wst.common.core.search.document.ComponentDeclarationEntry;
+import org.eclipse.wst.common.core.search.document.ComponentReferenceEntry;
+import org.eclipse.wst.common.core.search.document.Entry;
+import org.eclipse.wst.common.core.search.document.FileReferenceEntry;
+import org.eclipse.wst.common.core.search.internal.SearchIndex;
+import org.eclipse.wst.common.core.search.pattern.QualifiedName;
+
+/**
+ * Tests that the search index survives being saved and read again, and that it forgets the entries of files
+ * that have changed.
+ */
+public class SearchIndexTest extends TestCase {
+
+	private static final String ProjectName = "SearchIndexTest"; //$NON-NLS-1$
+	private static final String Participant = "org.eclipse.wst.common.core.search.tests.participant"; //$NON-NLS-1$
+	private static final String Namespace = "http://www.example.org/index"; //$NON-NLS-1$
+
+	private IProject project;
+	private IFile file;
+	private File indexFile;
+
+	public SearchIndexTest(String name) {
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		project = ResourcesPlugin.getWorkspace().getRoot().getProject(ProjectName);
+		if (!project.exists())
+			project.create(null);
+		project.open(null);
+		file = project.getFile("a.xsd"); //$NON-NLS-1$
+		file.create(new ByteArrayInputStream("<schema/>".getBytes()), true, null); //$NON-NLS-1$
+		indexFile = File.createTempFile("searchIndex", ".dat"); //$NON-NLS-1$ //$NON-NLS-2$
+		indexFile.delete();
+	}
+
+	protected void tearDown() throws Exception {
+		indexFile.delete();
+		project.delete(true, null);
+		super.tearDown();
+	}
+
+	/**
+	 * Every kind of entry that can be indexed is read back as it was saved, except for the resolved URI of a
+	 * file reference, which is not kept.
+	 */
+	public void testRoundTrip() {
+		SearchIndex index = new SearchIndex(indexFile);
+		index.putEntries(Participant, file, file.getModificationStamp(), createEntries());
+		index.save();
+		assertTrue("The index was not saved", indexFile.exists()); //$NON-NLS-1$
+
+		SearchIndex loaded = new SearchIndex(indexFile);
+		loaded.load();
+		Entry[] entries = loaded.getEntries(Participant, file);
+		assertNotNull("The entries were not read back", entries); //$NON-NLS-1$
+		assertEquals(4, entries.length);
+
+		assertEquals(Entry.class, entries[0].getClass());
+		assertEquals("plain", entries[0].getCategory()); //$NON-NLS-1$
+		assertEquals("key", entries[0].getKey()); //$NON-NLS-1$
+
+		ComponentDeclarationEntry declaration = (ComponentDeclarationEntry) entries[1];
+		assertEquals("declaration", declaration.getCategory()); //$NON-NLS-1$
+		assertEquals(new QualifiedName(Namespace, "complexType"), declaration.getMetaName()); //$NON-NLS-1$
+		assertEquals(new QualifiedName(Namespace, "Type"), declaration.getName()); //$NON-NLS-1$
+
+		ComponentReferenceEntry reference = (ComponentReferenceEntry) entries[2];
+		assertEquals("reference", reference.getCategory()); //$NON-NLS-1$
+		assertEquals(new QualifiedName(Namespace, "Type"), reference.getName()); //$NON-NLS-1$
+
+		FileReferenceEntry fileReference = (FileReferenceEntry) entries[3];
+		assertEquals("include", fileReference.getCategory()); //$NON-NLS-1$
+		assertNull("The key must survive being null", fileReference.getKey()); //$NON-NLS-1$
+		assertEquals("b.xsd", fileReference.getRelativeFilePath()); //$NON-NLS-1$
+		assertEquals("-//example//b", fileReference.getPublicIdentifier()); //$NON-NLS-1$
+		assertNull("The resolved URI was kept", fileReference.getResolvedURI()); //$NON-NLS-1$
+
+		assertNull(loaded.getEntries("another.participant", file)); //$NON-NLS-1$
+	}
+
+	/**
+	 * The entries of a file are forgotten once the file changes, whether the index was saved in between or not.
+	 */
+	public void testChangedFileIsForgotten() throws Exception {
+		SearchIndex index = new SearchIndex(indexFile);
+		index.putEntries(Participant, file, file.getModificationStamp(), createEntries());
+		index.save();
+
+		file.setContents(new ByteArrayInputStream("<schema></schema>".getBytes()), true, false, null); //$NON-NLS-1$
+		assertNull("The entries of a changed file were answered", index.getEntries(Participant, file)); //$NON-NLS-1$
+
+		SearchIndex loaded = new SearchIndex(indexFile);
+		loaded.load();
+		assertNull("The entries of a file that changed after the index was saved were answered", loaded.getEntries(Participant, file)); //$NON-NLS-1$
+	}
+
+	/**
+	 * The entries are not kept if the file changed while they were being found.
+	 */
+	public void testChangedWhileReadIsNotKept() throws Exception {
+		SearchIndex index = new SearchIndex(indexFile);
+		long stamp = file.getModificationStamp();
+		file.setContents(new ByteArrayInputStream("<schema></schema>".getBytes()), true, false, null); //$NON-NLS-1$
+		index.putEntries(Participant, file, stamp, createEntries());
+		assertNull(index.getEntries(Participant, file));
+	}
+
+	/**
+	 * A participant that resolves the file references it is given does not change the entries in the index.
+	 */
+	public void testResolvedCopiesAreAnswered() {
+		SearchIndex index = new SearchIndex(indexFile);
+		index.putEntries(Participant, file, file.getModificationStamp(), createEntries());
+		((FileReferenceEntry) index.getEntries(Participant, file)[3]).setResolvedURI("file:/b.xsd"); //$NON-NLS-1$
+		assertNull(((FileReferenceEntry) index.getEntries(Participant, file)[3]).getResolvedURI());
+	}
+
+	/**
+	 * A participant that changes the entries it is given, of any kind, does not change the entries in the index.
+	 */
+	public void testEntriesAreCopies() {
+		SearchIndex index = new SearchIndex(indexFile);
+		Entry[] entries = createEntries();
+		index.putEntries(Participant, file, file.getModificationStamp(), entries);
+		entries[0].setKey("changed before"); //$NON-NLS-1$
+
+		Entry[] answered = index.getEntries(Participant, file);
+		assertEquals("key", answered[0].getKey()); //$NON-NLS-1$
+		answered[0].setKey("changed after"); //$NON-NLS-1$
+		((ComponentDeclarationEntry) answered[1]).setName(new QualifiedName(Namespace, "Other")); //$NON-NLS-1$
+
+		answered = index.getEntries(Participant, file);
+		assertEquals("key", answered[0].getKey()); //$NON-NLS-1$
+		assertEquals(new QualifiedName(Namespace, "Type"), ((ComponentDeclarationEntry) answered[1]).getName()); //$NON-NLS-1$
+	}
+
+	/**
+	 * The entries that were found by another version of a participant are not answered, whether the index was
+	 * saved in between or not.
+	 */
+	public void testNewParticipantVersion() {
+		SearchIndex index = new VersionedIndex(indexFile, "1.0.0"); //$NON-NLS-1$
+		index.putEntries(Participant, file, file.getModificationStamp(), createEntries());
+		index.save();
+		assertNotNull(index.getEntries(Participant, file));
+
+		SearchIndex loaded = new VersionedIndex(indexFile, "1.0.0"); //$NON-NLS-1$
+		loaded.load();
+		assertNotNull("The entries of the same version were not answered", loaded.getEntries(Participant, file)); //$NON-NLS-1$
+
+		loaded = new VersionedIndex(indexFile, "2.0.0"); //$NON-NLS-1$
+		loaded.load();
+		assertNull("The entries of another version were answered", loaded.getEntries(Participant, file)); //$NON-NLS-1$
+	}
+
+	private static Entry[] createEntries() {
+		Entry entry = new Entry();
+		entry.setCategory("plain"); //$NON-NLS-1$
+		entry.setKey("key"); //$NON-NLS-1$
+
+		ComponentDeclarationEntry declaration = new ComponentDeclarationEntry();
+		declaration.setCategory("declaration"); //$NON-NLS-1$
+		declaration.setKey("Type"); //$NON-NLS-1$
+		declaration.setMetaName(new QualifiedName(Namespace, "complexType")); //$NON-NLS-1$
+		declaration.setName(new QualifiedName(Namespace, "Type")); //$NON-NLS-1$
+
+		ComponentReferenceEntry reference = new ComponentReferenceEntry();
+		reference.setCategory("reference"); //$NON-NLS-1$
+		reference.setKey("Type"); //$NON-NLS-1$
+		reference.setName(new QualifiedName(Namespace, "Type")); //$NON-NLS-1$
+
+		FileReferenceEntry fileReference = new FileReferenceEntry();
+		fileReference.setCategory("include"); //$NON-NLS-1$
+		fileReference.setRelativeFilePath("b.xsd"); //$NON-NLS-1$
+		fileReference.setPublicIdentifier("-//example//b"); //$NON-NLS-1$
+		fileReference.setResolvedURI("file:/somewhere/b.xsd"); //$NON-NLS-1$
+
+		return new Entry[]{entry, declaration, reference, fileReference};
+	}
+
+	/**
+	 * An index that answers a fixed version for every participant.
+	 */
+	private static class VersionedIndex extends SearchIndex {
+		private final String version;
+
+		VersionedIndex(File file, String version) {
+			super(file);
+			this.version = version;
+		}
+
+		protected String getParticipantVersion(String participantId) {
+			return version;
+		}
+	}
+}
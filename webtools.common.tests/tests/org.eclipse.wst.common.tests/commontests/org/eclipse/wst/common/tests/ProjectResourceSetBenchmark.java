@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.tests;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.jem.internal.util.emf.workbench.ProjectResourceSetImpl;
+
+/**
+ * Times the lookup of resources in a single ProjectResourceSetImpl that holds a large number of resources.
+ * Every lookup misses the URI map, since it is reset before each pass, so the resource has to be found by
+ * its normalized URI. This is not part of any suite, it is run by hand.
+ */
+public class ProjectResourceSetBenchmark extends TestCase {
+
+	private static final int Resources = 5000;
+	private static final String ProjectName = "ResourceSetBenchmark"; //$NON-NLS-1$
+
+	private ProjectResourceSetImpl resourceSet;
+	private URI[] uris = new URI[Resources];
+
+	public ProjectResourceSetBenchmark(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(ProjectResourceSetBenchmark.class);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject(ProjectName);
+		resourceSet = new ProjectResourceSetImpl(project);
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < Resources; i++) {
+			uris[i] = URI.createPlatformResourceURI("/" + ProjectName + "/folder" + (i % 50) + "/r" + i + ".xmi", false); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			resourceSet.getResources().add(new ResourceImpl(uris[i]));
+		}
+		System.out.println("ProjectResourceSet add " + Resources + " resources: " + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	protected void tearDown() throws Exception {
+		resourceSet.release();
+		super.tearDown();
+	}
+
+	public void testLookup() {
+		for (int pass = 0; pass < 3; pass++) {
+			resourceSet.resetNormalizedURICache();
+			long start = System.currentTimeMillis();
+			for (int i = 0; i < Resources; i++) {
+				Resource resource = resourceSet.getResource(uris[i], false);
+				assertNotNull(resource);
+				assertEquals(uris[i], resource.getURI());
+			}
+			System.out.println("ProjectResourceSet pass " + pass + " found " + Resources + " resources: " + //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				(System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$
+		}
+	}
+
+	public void testMissing() {
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < Resources; i++) {
+			URI uri = URI.createPlatformResourceURI("/" + ProjectName + "/missing/r" + i + ".xmi", false); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			assertNull(resourceSet.getResource(uri, false));
+		}
+		System.out.println("ProjectResourceSet missed " + Resources + " resources: " + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	/**
+	 * A resource whose URI changes is found by its new URI, and no longer by its old one.
+	 */
+	public void testRename() {
+		Resource resource = resourceSet.getResource(uris[0], false);
+		URI renamed = URI.createPlatformResourceURI("/" + ProjectName + "/renamed.xmi", false); //$NON-NLS-1$ //$NON-NLS-2$
+		resource.setURI(renamed);
+		resourceSet.getURIResourceMap().clear();
+		assertSame(resource, resourceSet.getResource(renamed, false));
+		assertNull(resourceSet.getResource(uris[0], false));
+
+		resourceSet.getResources().remove(resource);
+		resourceSet.getURIResourceMap().clear();
+		assertNull(resourceSet.getResource(renamed, false));
+	}
+}
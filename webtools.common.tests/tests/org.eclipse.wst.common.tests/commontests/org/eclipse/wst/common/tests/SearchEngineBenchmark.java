@@ -0,0 +1,249 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.wst.common.core.search.ISearchOptions;
+import org.eclipse.wst.common.core.search.SearchEngine;
+import org.eclipse.wst.common.core.search.SearchMatch;
+import org.eclipse.wst.common.core.search.SearchParticipant;
+import org.eclipse.wst.common.core.search.SearchRequestor;
+import org.eclipse.wst.common.core.search.document.ComponentDeclarationEntry;
+import org.eclipse.wst.common.core.search.document.ComponentReferenceEntry;
+import org.eclipse.wst.common.core.search.document.Entry;
+import org.eclipse.wst.common.core.search.document.SearchDocument;
+import org.eclipse.wst.common.core.search.document.SearchDocumentSet;
+import org.eclipse.wst.common.core.search.pattern.ComponentReferencePattern;
+import org.eclipse.wst.common.core.search.pattern.QualifiedName;
+import org.eclipse.wst.common.core.search.pattern.SearchPattern;
+import org.eclipse.wst.common.core.search.scope.SearchScope;
+import org.eclipse.wst.common.core.search.scope.WorkspaceSearchScope;
+import org.eclipse.wst.common.core.search.util.CollectingSearchRequestor;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Times a search for the references to a type in a synthetic corpus of schemas, sequentially, in parallel
+ * (see {@link ISearchOptions#PARALLEL_OPTION}), and with the entries in the search index. The participant is a
+ * simple SAX based one that is defined here. This is not part of any suite, it is run by hand.
+ */
+public class SearchEngineBenchmark extends TestCase {
+
+	private static final int Schemas = 2000;
+	private static final int TypesPerSchema = 20;
+	private static final String ProjectName = "SearchEngineBenchmark"; //$NON-NLS-1$
+	private static final String Namespace = "http://www.example.org/benchmark"; //$NON-NLS-1$
+	private static final String XSD = "http://www.w3.org/2001/XMLSchema"; //$NON-NLS-1$
+	private static final QualifiedName Target = new QualifiedName(Namespace, "Target"); //$NON-NLS-1$
+
+	private IProject project;
+	private BenchmarkParticipant participant;
+
+	public SearchEngineBenchmark(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(SearchEngineBenchmark.class);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		project = ResourcesPlugin.getWorkspace().getRoot().getProject(ProjectName);
+		if (!project.exists())
+			project.create(null);
+		project.open(null);
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < Schemas; i++) {
+			IFile file = project.getFile("schema" + i + ".xsd"); //$NON-NLS-1$ //$NON-NLS-2$
+			if (!file.exists())
+				file.create(new ByteArrayInputStream(createSchema(i).getBytes("UTF-8")), true, null); //$NON-NLS-1$
+		}
+		System.out.println("SearchEngine created " + Schemas + " schemas: " + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		participant = new BenchmarkParticipant();
+	}
+
+	protected void tearDown() throws Exception {
+		project.delete(true, null);
+		super.tearDown();
+	}
+
+	public void testSequential() throws CoreException {
+		search("sequential", null); //$NON-NLS-1$
+		search("sequential", null); //$NON-NLS-1$
+	}
+
+	public void testParallel() throws CoreException {
+		Map options = new HashMap();
+		options.put(ISearchOptions.PARALLEL_OPTION, ISearchOptions.PARALLEL_VALUE_TRUE);
+		search("parallel", options); //$NON-NLS-1$
+		search("parallel", options); //$NON-NLS-1$
+	}
+
+	public void testIndexed() throws CoreException {
+		participant.indexed = true;
+		search("indexing", null); //$NON-NLS-1$
+		search("indexed", null); //$NON-NLS-1$
+	}
+
+	private void search(String kind, Map options) throws CoreException {
+		SearchPattern pattern = new ComponentReferencePattern(null, Target, new QualifiedName(XSD, "complexType")); //$NON-NLS-1$
+		CollectingSearchRequestor requestor = new CollectingSearchRequestor();
+		long start = System.currentTimeMillis();
+		new SearchEngine().search(pattern, requestor, new SearchParticipant[]{participant}, new WorkspaceSearchScope(), options, null);
+		System.out.println("SearchEngine " + kind + " search of " + Schemas + " schemas: " + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		assertEquals(Schemas, requestor.getResults().size());
+	}
+
+	/*
+	 * A schema of TypesPerSchema types that each refer to a type of the next schema, and one that refers to Target.
+	 */
+	private static String createSchema(int schema) {
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"); //$NON-NLS-1$
+		buffer.append("<xsd:schema xmlns:xsd=\"").append(XSD).append("\" xmlns:tns=\"").append(Namespace).append("\" targetNamespace=\"").append(Namespace).append("\">\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		for (int i = 0; i < TypesPerSchema; i++) {
+			buffer.append("  <xsd:complexType name=\"T").append(schema).append('_').append(i).append("\">\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			buffer.append("    <xsd:sequence>\n"); //$NON-NLS-1$
+			buffer.append("      <xsd:element name=\"e").append(i).append("\" type=\"tns:T").append((schema + 1) % Schemas).append('_').append(i).append("\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			if (i == 0)
+				buffer.append("      <xsd:element name=\"target\" type=\"tns:Target\"/>\n"); //$NON-NLS-1$
+			buffer.append("    </xsd:sequence>\n"); //$NON-NLS-1$
+			buffer.append("  </xsd:complexType>\n"); //$NON-NLS-1$
+		}
+		buffer.append("</xsd:schema>\n"); //$NON-NLS-1$
+		return buffer.toString();
+	}
+
+	private static class BenchmarkDocument extends SearchDocument {
+		private final List entries = new ArrayList();
+
+		BenchmarkDocument(String path, SearchParticipant participant) {
+			super(path, participant);
+		}
+
+		public Entry[] getEntries(String category, String key, int matchRule) {
+			List result = new ArrayList();
+			for (int i = 0; i < entries.size(); i++) {
+				Entry entry = (Entry) entries.get(i);
+				if ((category == null || category.equals(entry.getCategory())) && (key == null || key.equals(entry.getKey())))
+					result.add(entry);
+			}
+			return (Entry[]) result.toArray(new Entry[result.size()]);
+		}
+
+		public Object getModel() {
+			return null;
+		}
+
+		public void putEntry(Entry entry) {
+			entries.add(entry);
+		}
+	}
+
+	/*
+	 * Finds complex type declarations and the references to them from type attributes, with a SAX parser.
+	 */
+	private static class BenchmarkParticipant extends SearchParticipant {
+		private static final String DECLARATION = "declaration"; //$NON-NLS-1$
+		private static final String REFERENCE = "reference"; //$NON-NLS-1$
+
+		boolean indexed;
+
+		BenchmarkParticipant() {
+			// a new id every time, so that each test starts with nothing in the search index
+			id = "org.eclipse.wst.common.tests.SearchEngineBenchmark." + System.currentTimeMillis(); //$NON-NLS-1$
+		}
+
+		public boolean isApplicable(SearchPattern pattern, Map searchOptions) {
+			return pattern instanceof ComponentReferencePattern;
+		}
+
+		public SearchDocument createSearchDocument(String documentPath) {
+			return new BenchmarkDocument(documentPath, this);
+		}
+
+		public void populateSearchDocument(final SearchDocument document, SearchPattern pattern) {
+			try {
+				SAXParserFactory factory = SAXParserFactory.newInstance();
+				factory.setNamespaceAware(true);
+				SAXParser parser = factory.newSAXParser();
+				parser.parse(new File(document.getPath()), new DefaultHandler() {
+					public void startElement(String uri, String localName, String qName, Attributes attributes) {
+						if (!XSD.equals(uri))
+							return;
+						String name = attributes.getValue("name"); //$NON-NLS-1$
+						if ("complexType".equals(localName) && name != null) { //$NON-NLS-1$
+							ComponentDeclarationEntry entry = new ComponentDeclarationEntry();
+							entry.setCategory(DECLARATION);
+							entry.setKey(name);
+							entry.setMetaName(new QualifiedName(XSD, localName));
+							entry.setName(new QualifiedName(Namespace, name));
+							document.putEntry(entry);
+						}
+						String type = attributes.getValue("type"); //$NON-NLS-1$
+						if (type != null) {
+							String local = type.substring(type.indexOf(':') + 1);
+							ComponentReferenceEntry entry = new ComponentReferenceEntry();
+							entry.setCategory(REFERENCE);
+							entry.setKey(local);
+							entry.setName(new QualifiedName(Namespace, local));
+							document.putEntry(entry);
+						}
+					}
+				});
+			} catch (Exception e) {
+				fail(e.toString());
+			}
+		}
+
+		protected boolean isIndexed() {
+			return indexed;
+		}
+
+		protected Entry[] getIndexEntries(SearchDocument document) {
+			return indexed ? document.getEntries(null, null, 0) : null;
+		}
+
+		public void locateMatches(SearchDocumentSet documentSet, SearchPattern pattern, SearchScope scope, SearchRequestor requestor, Map searchOptions, IProgressMonitor monitor) throws CoreException {
+			QualifiedName name = ((ComponentReferencePattern) pattern).getName();
+			SearchDocument[] documents = documentSet.getSearchDocuments(id);
+			for (int i = 0; i < documents.length; i++) {
+				Entry[] entries = documents[i].getEntries(REFERENCE, name.getLocalName(), SearchPattern.R_EXACT_MATCH);
+				for (int j = 0; j < entries.length; j++) {
+					if (name.equals(((ComponentReferenceEntry) entries[j]).getName())) {
+						IFile file = ResourcesPlugin.getWorkspace().getRoot().getFileForLocation(new Path(documents[i].getPath()));
+						requestor.acceptSearchMatch(new SearchMatch(entries[j], 0, 0, file));
+					}
+				}
+			}
+		}
+	}
+}
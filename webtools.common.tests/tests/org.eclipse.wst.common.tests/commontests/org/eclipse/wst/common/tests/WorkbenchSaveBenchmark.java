@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.tests;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Iterator;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.jem.util.emf.workbench.WorkbenchByteArrayOutputStream;
+import org.eclipse.jem.util.emf.workbench.WorkbenchFileOutputStream;
+import org.eclipse.wst.common.environment.NullStatusHandler;
+import org.eclipse.wst.common.internal.environment.eclipse.FileResourceOutputStream;
+
+/**
+ * Times the save of 1MB, 10MB and 100MB files through the buffered and the streaming workbench output streams,
+ * and reports the peak heap that each save used. This is not part of any suite, it is run by hand, with a heap
+ * large enough for the buffered 100MB save.
+ */
+public class WorkbenchSaveBenchmark extends TestCase {
+
+	private static final int MB = 1024 * 1024;
+	private static final int[] Sizes = new int[]{1, 10, 100};
+	private static final String ProjectName = "WorkbenchSaveBenchmark"; //$NON-NLS-1$
+
+	private IProject project;
+	private byte[] line;
+
+	public WorkbenchSaveBenchmark(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(WorkbenchSaveBenchmark.class);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		project = ResourcesPlugin.getWorkspace().getRoot().getProject(ProjectName);
+		if (!project.exists())
+			project.create(null);
+		project.open(null);
+		line = "<element name=\"benchmark\" value=\"0123456789abcdefghijklmnopqrstuvwxyz\"/>\r\n".getBytes(); //$NON-NLS-1$
+	}
+
+	protected void tearDown() throws Exception {
+		project.delete(true, null);
+		super.tearDown();
+	}
+
+	public void testBuffered() throws Exception {
+		for (int i = 0; i < Sizes.length; i++) {
+			IFile file = getFile("buffered", Sizes[i]); //$NON-NLS-1$
+			WorkbenchByteArrayOutputStream out = new WorkbenchByteArrayOutputStream(file);
+			out.setConvertEOLChars(true);
+			save("WorkbenchByteArrayOutputStream", out, file, Sizes[i]); //$NON-NLS-1$
+		}
+	}
+
+	public void testStreaming() throws Exception {
+		for (int i = 0; i < Sizes.length; i++) {
+			IFile file = getFile("streaming", Sizes[i]); //$NON-NLS-1$
+			WorkbenchFileOutputStream out = new WorkbenchFileOutputStream(file, null);
+			out.setConvertEOLChars(true);
+			save("WorkbenchFileOutputStream", out, file, Sizes[i]); //$NON-NLS-1$
+			assertTrue(out.isUsingTempFile());
+		}
+	}
+
+	public void testFileResource() throws Exception {
+		for (int i = 0; i < Sizes.length; i++) {
+			IFile file = getFile("fileresource", Sizes[i]); //$NON-NLS-1$
+			save("FileResourceOutputStream", new FileResourceOutputStream(file.getFullPath(), new NullStatusHandler()), file, Sizes[i]); //$NON-NLS-1$
+		}
+	}
+
+	private IFile getFile(String kind, int size) {
+		return project.getFile(kind + size + "MB.xml"); //$NON-NLS-1$
+	}
+
+	private void save(String kind, OutputStream out, IFile file, int size) throws IOException {
+		System.gc();
+		resetPeakHeap();
+		long start = System.currentTimeMillis();
+		long written = 0;
+		while (written < (long) size * MB) {
+			out.write(line);
+			written += line.length;
+		}
+		out.close();
+		long time = System.currentTimeMillis() - start;
+		long peak = getPeakHeap();
+		assertTrue(file.isSynchronized(IResource.DEPTH_ZERO));
+		assertTrue(file.getLocation().toFile().length() > 0);
+		System.out.println(kind + " save " + size + "MB: " + time + "ms, peak heap " + (peak / MB) + "MB"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+	}
+
+	private static void resetPeakHeap() {
+		List pools = ManagementFactory.getMemoryPoolMXBeans();
+		for (Iterator it = pools.iterator(); it.hasNext();) {
+			MemoryPoolMXBean pool = (MemoryPoolMXBean) it.next();
+			if (pool.getType() == MemoryType.HEAP)
+				pool.resetPeakUsage();
+		}
+	}
+
+	/*
+	 * The sum of the peaks of the heap pools, which is an upper bound of the peak of the whole heap.
+	 */
+	private static long getPeakHeap() {
+		long peak = 0;
+		List pools = ManagementFactory.getMemoryPoolMXBeans();
+		for (Iterator it = pools.iterator(); it.hasNext();) {
+			MemoryPoolMXBean pool = (MemoryPoolMXBean) it.next();
+			if (pool.getType() == MemoryType.HEAP)
+				peak += pool.getPeakUsage().getUsed();
+		}
+		return peak;
+	}
+}
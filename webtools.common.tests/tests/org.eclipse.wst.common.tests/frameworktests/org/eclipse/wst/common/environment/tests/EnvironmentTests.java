@@ -31,5 +31,6 @@ public class EnvironmentTests extends TestSuite
     addTest( FileURITests.suite() );
     addTest( StatusHandlerTests.suite() );
     addTest( LoggerTests.suite() );
+    addTest( FileResourceOutputStreamTests.suite() );
   }
 }
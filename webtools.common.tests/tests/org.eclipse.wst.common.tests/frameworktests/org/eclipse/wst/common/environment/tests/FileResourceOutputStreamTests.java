@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.environment.tests;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.wst.common.environment.NullStatusHandler;
+import org.eclipse.wst.common.internal.environment.eclipse.FileResourceOutputStream;
+
+/**
+ * Tests that FileResourceOutputStream writes the same contents whether they
+ * are kept in memory or in a temporary file, and that it deletes its
+ * temporary file when the file cannot be created.
+ */
+public class FileResourceOutputStreamTests extends TestCase
+{
+  private static final String projectName_ = "FileResourceOutputStreamTests"; //$NON-NLS-1$
+  private static final String tempPrefix_  = "fileresource"; //$NON-NLS-1$
+  
+  private IProject project_;
+  
+  public FileResourceOutputStreamTests(String name)
+  {
+    super(name);
+  }
+  
+  public static Test suite()
+  {
+    return new TestSuite(FileResourceOutputStreamTests.class);
+  }
+  
+  protected void setUp() throws Exception
+  {
+    super.setUp();
+    project_ = ResourcesPlugin.getWorkspace().getRoot().getProject(projectName_);
+    if (!project_.exists()) project_.create(null);
+    project_.open(null);
+  }
+  
+  protected void tearDown() throws Exception
+  {
+    project_.delete(true, null);
+    super.tearDown();
+  }
+  
+  /**
+   * Small contents stay in memory, and the missing folders are created.
+   */
+  public void testInMemory() throws Exception
+  {
+    IFile  file     = project_.getFile("a/b/small.txt"); //$NON-NLS-1$
+    byte[] contents = createContents(100);
+    FileResourceOutputStream out = new FileResourceOutputStream(file.getFullPath(), new NullStatusHandler());
+    out.write(contents);
+    assertFalse("The file was written before the stream was closed", file.exists()); //$NON-NLS-1$
+    out.close();
+    assertTrue(Arrays.equals(contents, read(file)));
+  }
+  
+  /**
+   * Contents past the threshold are moved to a temporary file, which is
+   * deleted when the stream is closed. The bytes are written exactly as
+   * they are given, line separators included.
+   */
+  public void testSpilled() throws Exception
+  {
+    Set    before   = listTempFiles();
+    IFile  file     = project_.getFile("large.txt"); //$NON-NLS-1$
+    byte[] contents = createContents(FileResourceOutputStream.MEMORY_THRESHOLD + 1000);
+    contents[10] = '\r';
+    contents[11] = '\n';
+    FileResourceOutputStream out = new FileResourceOutputStream(file.getFullPath(), new NullStatusHandler());
+    out.write(contents, 0, 1000);
+    assertEquals(before, listTempFiles());
+    for (int i = 1000; i < contents.length; i++)
+    {
+      out.write(contents[i]);
+    }
+    assertEquals("The contents were not moved to a temporary file", before.size() + 1, listTempFiles().size()); //$NON-NLS-1$
+    out.close();
+    assertTrue(Arrays.equals(contents, read(file)));
+    assertEquals("The temporary file was not deleted", before, listTempFiles()); //$NON-NLS-1$
+  }
+  
+  /**
+   * When the file cannot be created, close fails and the temporary file is
+   * still deleted. Writing after the stream is closed is ignored, as it
+   * always has been.
+   */
+  public void testTempFileDeletedOnFailure() throws Exception
+  {
+    Set before = listTempFiles();
+    FileResourceOutputStream out = new FileResourceOutputStream(new Path("relative/failed.txt"), new NullStatusHandler()); //$NON-NLS-1$
+    out.write(createContents(FileResourceOutputStream.MEMORY_THRESHOLD + 1));
+    try
+    {
+      out.close();
+      fail("A file was created for a relative path"); //$NON-NLS-1$
+    }
+    catch (IOException e)
+    {
+      // Expected
+    }
+    assertEquals("The temporary file was not deleted", before, listTempFiles()); //$NON-NLS-1$
+    out.write(createContents(FileResourceOutputStream.MEMORY_THRESHOLD + 1), 0, FileResourceOutputStream.MEMORY_THRESHOLD + 1);
+    out.close();
+    assertEquals("A write after close created a temporary file", before, listTempFiles()); //$NON-NLS-1$
+  }
+  
+  private static byte[] createContents(int size)
+  {
+    byte[] contents = new byte[size];
+    for (int i = 0; i < size; i++)
+    {
+      contents[i] = (byte)('a' + i % 26);
+    }
+    return contents;
+  }
+  
+  private static byte[] read(IFile file) throws Exception
+  {
+    ByteArrayOutputStream result = new ByteArrayOutputStream();
+    InputStream           in     = file.getContents();
+    try
+    {
+      byte[] buffer = new byte[8192];
+      int    count;
+      while ((count = in.read(buffer)) != -1)
+      {
+        result.write(buffer, 0, count);
+      }
+    }
+    finally
+    {
+      in.close();
+    }
+    return result.toByteArray();
+  }
+  
+  private static Set listTempFiles()
+  {
+    Set      result = new HashSet();
+    String[] names  = new File(System.getProperty("java.io.tmpdir")).list(); //$NON-NLS-1$
+    for (int i = 0; names != null && i < names.length; i++)
+    {
+      if (names[i].startsWith(tempPrefix_) && names[i].endsWith(".tmp")) result.add(names[i]); //$NON-NLS-1$
+    }
+    return result;
+  }
+}
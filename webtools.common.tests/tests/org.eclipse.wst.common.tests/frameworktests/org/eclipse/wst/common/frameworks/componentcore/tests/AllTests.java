@@ -25,6 +25,7 @@ public class AllTests extends TestCase {
 		suite.addTestSuite(ModuleCoreURIConverterUnitTest.class);
 		//suite.addTestSuite(StructureEditAPITest.class);
 		suite.addTestSuite(StructureEditStressTest.class);
+		suite.addTestSuite(ComponentPathIndexTest.class);
 		
 		
 		return suite;
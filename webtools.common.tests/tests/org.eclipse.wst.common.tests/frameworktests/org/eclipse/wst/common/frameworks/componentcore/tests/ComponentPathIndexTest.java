@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.frameworks.componentcore.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.wst.common.componentcore.internal.ComponentResource;
+import org.eclipse.wst.common.componentcore.internal.ComponentcoreFactory;
+import org.eclipse.wst.common.componentcore.internal.WorkbenchComponent;
+import org.eclipse.wst.common.componentcore.internal.impl.ComponentPathIndex;
+import org.eclipse.wst.common.componentcore.internal.impl.ProjectComponentsImpl;
+import org.eclipse.wst.common.componentcore.internal.impl.ResourceTreeNode;
+
+/**
+ * Tests that the source path index of a project's components gives the same answers as scanning every
+ * component, the way StructureEdit did before it had the index, and that it follows changes to the model.
+ * The model is built in memory, and besides a resource mapping per file, it has a folder that is mapped by two
+ * components and a component that maps the root of the project.
+ */
+public class ComponentPathIndexTest extends TestCase {
+
+	private static final int Components = 10;
+	private static final int ResourcesPerComponent = 20;
+
+	private ProjectComponentsImpl projectComponents;
+	private List paths = new ArrayList();
+
+	public ComponentPathIndexTest(String name) {
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		ComponentcoreFactory factory = ComponentcoreFactory.eINSTANCE;
+		projectComponents = (ProjectComponentsImpl) factory.createProjectComponents();
+		for (int c = 0; c < Components; c++) {
+			WorkbenchComponent component = factory.createWorkbenchComponent();
+			component.setName("component" + c); //$NON-NLS-1$
+			for (int r = 0; r < ResourcesPerComponent; r++) {
+				IPath path = new Path("/component" + c + "/src/package" + (r % 5) + "/Resource" + r + ".java"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+				paths.add(path);
+				paths.add(path.removeLastSegments(1));
+				addResource(component, path, path.removeFirstSegments(2));
+			}
+			if (c % 5 == 0)
+				addResource(component, new Path("/shared/folder"), new Path("/shared")); //$NON-NLS-1$ //$NON-NLS-2$
+			if (c == Components - 1)
+				addResource(component, new Path("/"), new Path("/")); //$NON-NLS-1$ //$NON-NLS-2$
+			projectComponents.getComponents().add(component);
+		}
+		paths.add(new Path("/shared/folder")); //$NON-NLS-1$
+		paths.add(new Path("/shared/folder/a/File.java")); //$NON-NLS-1$
+		paths.add(new Path("/shared")); //$NON-NLS-1$
+		paths.add(new Path("/nowhere/File.java")); //$NON-NLS-1$
+		paths.add(new Path("/component1")); //$NON-NLS-1$
+		paths.add(new Path("src/package0/Resource0.java")); //$NON-NLS-1$
+		paths.add(new Path("/")); //$NON-NLS-1$
+	}
+
+	/**
+	 * Searching only the components that the index answers finds the same resources, in the same order, as
+	 * searching all of them.
+	 */
+	public void testResourcesSameAsLinearScan() {
+		ComponentPathIndex index = projectComponents.getSourcePathIndex();
+		for (int i = 0; i < paths.size(); i++) {
+			IPath path = (IPath) paths.get(i);
+			List candidates = Arrays.asList(index.findResourceCandidates(path, withoutFirstSegment(path)));
+			assertEquals(path.toString(), findResources(projectComponents.getComponents(), path), findResources(candidates, path));
+		}
+	}
+
+	/**
+	 * Checking only the components that the index answers finds the same component as checking all of them.
+	 */
+	public void testExistsSameAsLinearScan() {
+		ComponentPathIndex index = projectComponents.getSourcePathIndex();
+		for (int i = 0; i < paths.size(); i++) {
+			IPath path = (IPath) paths.get(i);
+			List candidates = Arrays.asList(index.findExistsCandidates(path, withoutFirstSegment(path)));
+			assertSame(path.toString(), findComponent(projectComponents.getComponents(), path), findComponent(candidates, path));
+		}
+	}
+
+	/**
+	 * The index follows the changes to the source paths of the resources, and to the components.
+	 */
+	public void testChange() {
+		WorkbenchComponent component = (WorkbenchComponent) projectComponents.getComponents().get(0);
+		ComponentResource resource = (ComponentResource) component.getResources().get(0);
+		IPath moved = new Path("/moved/Resource.java"); //$NON-NLS-1$
+		assertEquals(Arrays.asList(new Object[]{last()}), Arrays.asList(projectComponents.getSourcePathIndex().findResourceCandidates(moved, null)));
+		resource.setSourcePath(moved);
+		WorkbenchComponent[] candidates = projectComponents.getSourcePathIndex().findResourceCandidates(moved, null);
+		assertEquals(2, candidates.length);
+		assertSame(component, candidates[0]);
+
+		projectComponents.getComponents().remove(component);
+		assertEquals(Arrays.asList(new Object[]{last()}), Arrays.asList(projectComponents.getSourcePathIndex().findResourceCandidates(moved, null)));
+	}
+
+	/*
+	 * The component that maps the root of the project, and so is a candidate for every path.
+	 */
+	private WorkbenchComponent last() {
+		return (WorkbenchComponent) projectComponents.getComponents().get(projectComponents.getComponents().size() - 1);
+	}
+
+	private static void addResource(WorkbenchComponent component, IPath sourcePath, IPath runtimePath) {
+		ComponentResource resource = ComponentcoreFactory.eINSTANCE.createComponentResource();
+		resource.setSourcePath(sourcePath);
+		resource.setRuntimePath(runtimePath);
+		component.getResources().add(resource);
+	}
+
+	private static IPath withoutFirstSegment(IPath path) {
+		return path.segmentCount() > 1 ? path.removeFirstSegments(1) : null;
+	}
+
+	/*
+	 * The loop of StructureEdit.findResourcesBySourcePath() over the given components.
+	 */
+	static List findResources(List components, IPath path) {
+		List found = new ArrayList();
+		for (int i = 0; i < components.size(); i++) {
+			WorkbenchComponent component = (WorkbenchComponent) components.get(i);
+			ComponentResource[] resources = component.findResourcesBySourcePath(path, ResourceTreeNode.CREATE_NONE);
+			if (resources.length == 0 && path.segmentCount() > 1)
+				resources = component.findResourcesBySourcePath(path.removeFirstSegments(1), ResourceTreeNode.CREATE_NONE);
+			found.addAll(Arrays.asList(resources));
+		}
+		return found;
+	}
+
+	/*
+	 * The loop of StructureEdit.findComponent() over the given components.
+	 */
+	private static WorkbenchComponent findComponent(List components, IPath path) {
+		for (int i = 0; i < components.size(); i++) {
+			WorkbenchComponent component = (WorkbenchComponent) components.get(i);
+			if (component.exists(path, ResourceTreeNode.CREATE_NONE))
+				return component;
+			if (path.segmentCount() > 1 && component.exists(path.removeFirstSegments(1), ResourceTreeNode.CREATE_NONE))
+				return component;
+		}
+		return null;
+	}
+}
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.frameworks.componentcore.tests;
+
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.wst.common.componentcore.internal.ComponentResource;
+import org.eclipse.wst.common.componentcore.internal.ComponentcoreFactory;
+import org.eclipse.wst.common.componentcore.internal.WorkbenchComponent;
+import org.eclipse.wst.common.componentcore.internal.impl.ComponentPathIndex;
+import org.eclipse.wst.common.componentcore.internal.impl.ProjectComponentsImpl;
+
+/**
+ * Times the lookup of the components and resources of source paths in a project of 50 components
+ * that map 10000 resources between them, by scanning every component as StructureEdit used to, and
+ * through the source path index. The model is built in memory. This is not part of any suite, it is
+ * run by hand; {@link ComponentPathIndexTest} checks that both lookups give the same answers.
+ */
+public class StructureEditBenchmark extends TestCase {
+
+	private static final int Components = 50;
+	private static final int ResourcesPerComponent = 200;
+
+	private ProjectComponentsImpl projectComponents;
+	private IPath[] paths = new IPath[Components * ResourcesPerComponent];
+
+	public StructureEditBenchmark(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(StructureEditBenchmark.class);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		ComponentcoreFactory factory = ComponentcoreFactory.eINSTANCE;
+		projectComponents = (ProjectComponentsImpl) factory.createProjectComponents();
+		for (int c = 0; c < Components; c++) {
+			WorkbenchComponent component = factory.createWorkbenchComponent();
+			component.setName("component" + c); //$NON-NLS-1$
+			for (int r = 0; r < ResourcesPerComponent; r++) {
+				IPath path = new Path("/component" + c + "/src/package" + (r % 10) + "/Resource" + r + ".java"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+				paths[c * ResourcesPerComponent + r] = path;
+				ComponentResource resource = factory.createComponentResource();
+				resource.setSourcePath(path);
+				resource.setRuntimePath(path.removeFirstSegments(2));
+				component.getResources().add(resource);
+			}
+			projectComponents.getComponents().add(component);
+		}
+	}
+
+	public void testScan() {
+		for (int pass = 0; pass < 3; pass++) {
+			long start = System.currentTimeMillis();
+			for (int i = 0; i < paths.length; i++)
+				assertEquals(1, ComponentPathIndexTest.findResources(projectComponents.getComponents(), paths[i]).size());
+			System.out.println("StructureEdit scan pass " + pass + " of " + paths.length + " paths: " + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+	}
+
+	public void testIndex() {
+		for (int pass = 0; pass < 3; pass++) {
+			long start = System.currentTimeMillis();
+			for (int i = 0; i < paths.length; i++) {
+				ComponentPathIndex index = projectComponents.getSourcePathIndex();
+				List candidates = Arrays.asList(index.findResourceCandidates(paths[i], paths[i].removeFirstSegments(1)));
+				assertEquals(1, ComponentPathIndexTest.findResources(candidates, paths[i]).size());
+			}
+			System.out.println("StructureEdit index pass " + pass + " of " + paths.length + " paths: " + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+	}
+}
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.frameworks.emfworkbench.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IAdaptable;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.wst.common.frameworks.datamodel.AbstractDataModelOperation;
+import org.eclipse.wst.common.frameworks.internal.datamodel.DataModelPausibleOperationImpl;
+import org.eclipse.wst.common.internal.emfworkbench.EMFWorkbenchContext;
+import org.eclipse.wst.common.internal.emfworkbench.EditModelLeastUsedCache;
+import org.eclipse.wst.common.internal.emfworkbench.integration.EMFWorkbenchEditPlugin;
+import org.eclipse.wst.common.internal.emfworkbench.integration.EditModel;
+
+/**
+ * Tests the working sets and the releasing of the least used cache of edit models. The edit models have ids
+ * that are not registered, so they do not load any resources.
+ */
+public class EditModelLeastUsedCacheTest extends TestCase {
+
+	private static final String ProjectName = "EditModelLeastUsedCacheTest"; //$NON-NLS-1$
+
+	private IProject project;
+	private EMFWorkbenchContext context;
+	private List editModels = new ArrayList();
+
+	public EditModelLeastUsedCacheTest(String name) {
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		// the plugin connects the shared cache to the data model operations when it starts
+		assertNotNull(EMFWorkbenchEditPlugin.getDefault());
+		project = ResourcesPlugin.getWorkspace().getRoot().getProject(ProjectName);
+		if (!project.exists())
+			project.create(null);
+		project.open(null);
+		context = new EMFWorkbenchContext(project);
+	}
+
+	protected void tearDown() throws Exception {
+		EditModelLeastUsedCache.getInstance().removeAllCached(editModels);
+		for (int i = 0; i < editModels.size(); i++)
+			((EditModel) editModels.get(i)).dispose();
+		project.delete(true, null);
+		super.tearDown();
+	}
+
+	/**
+	 * Edit models that are accessed in a working set are not released until the working set ends.
+	 */
+	public void testPinnedUntilWorkingSetEnds() {
+		EditModelLeastUsedCache cache = new EditModelLeastUsedCache();
+		Object workingSet = cache.beginWorkingSet(this);
+		EditModel[] models = new EditModel[20];
+		for (int i = 0; i < models.length; i++)
+			cache.access(models[i] = create("pinned." + i)); //$NON-NLS-1$
+		cache.optimizeLRUSizeIfNecessary();
+		assertEquals(models.length, cache.getStatistics().getSize());
+		assertEquals(models.length, cache.getStatistics().getPinnedSize());
+		for (int i = 0; i < models.length; i++)
+			assertFalse(models[i].isDisposed());
+
+		cache.endWorkingSet(workingSet);
+		EditModelLeastUsedCache.Statistics statistics = cache.getStatistics();
+		assertEquals(0, statistics.getPinnedSize());
+		assertTrue(statistics.toString(), statistics.getSize() <= statistics.getThreshhold());
+		assertTrue("The least recently used edit model was not released", models[0].isDisposed()); //$NON-NLS-1$
+		assertFalse("The most recently used edit model was released", models[models.length - 1].isDisposed()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Each working set is ended on its own, even when they have the same owner.
+	 */
+	public void testNestedWorkingSetsWithSameOwner() {
+		EditModelLeastUsedCache cache = new EditModelLeastUsedCache();
+		Object outer = cache.beginWorkingSet(this);
+		cache.access(create("outer")); //$NON-NLS-1$
+		Object inner = cache.beginWorkingSet(this);
+		cache.access(create("inner")); //$NON-NLS-1$
+		assertEquals(2, cache.getStatistics().getPinnedSize());
+
+		cache.endWorkingSet(inner);
+		assertEquals("The outer working set was ended with the inner one", 2, cache.getStatistics().getPinnedSize()); //$NON-NLS-1$
+		cache.endWorkingSet(outer);
+		assertEquals(0, cache.getStatistics().getPinnedSize());
+	}
+
+	/**
+	 * A working set can be ended on another thread than the one that began it.
+	 */
+	public void testEndOnAnotherThread() throws Exception {
+		final EditModelLeastUsedCache cache = new EditModelLeastUsedCache();
+		final EditModel model = create("thread"); //$NON-NLS-1$
+		final Object[] workingSet = new Object[1];
+		Thread thread = new Thread() {
+			public void run() {
+				workingSet[0] = cache.beginWorkingSet(this);
+				cache.access(model);
+			}
+		};
+		thread.start();
+		thread.join();
+		assertEquals(1, cache.getStatistics().getPinnedSize());
+		cache.endWorkingSet(workingSet[0]);
+		assertEquals(0, cache.getStatistics().getPinnedSize());
+	}
+
+	/**
+	 * Idle edit models are released, and disposed once nothing else holds them, unless they are pinned.
+	 */
+	public void testReleaseIdle() {
+		EditModelLeastUsedCache cache = new EditModelLeastUsedCache();
+		EditModel idle = create("idle"); //$NON-NLS-1$
+		cache.access(idle);
+		Object workingSet = cache.beginWorkingSet(this);
+		EditModel pinned = create("pinned"); //$NON-NLS-1$
+		cache.access(pinned);
+
+		assertEquals(1, cache.releaseIdle(System.currentTimeMillis() + 1));
+		assertTrue(idle.isDisposed());
+		assertFalse(pinned.isDisposed());
+		cache.endWorkingSet(workingSet);
+		assertEquals(1, cache.releaseIdle(System.currentTimeMillis() + 1));
+		assertTrue(pinned.isDisposed());
+	}
+
+	/**
+	 * The edit models that a data model operation accesses are pinned while the operation runs.
+	 */
+	public void testOperationPinsEditModels() throws Exception {
+		final EditModelLeastUsedCache cache = EditModelLeastUsedCache.getInstance();
+		final int before = cache.getStatistics().getPinnedSize();
+		final int[] during = new int[1];
+		AbstractDataModelOperation operation = new AbstractDataModelOperation() {
+			public IStatus execute(IProgressMonitor monitor, IAdaptable info) throws ExecutionException {
+				for (int i = 0; i < 3; i++)
+					cache.access(create("operation." + i)); //$NON-NLS-1$
+				during[0] = cache.getStatistics().getPinnedSize();
+				return Status.OK_STATUS;
+			}
+		};
+		new DataModelPausibleOperationImpl(operation).execute(null, null);
+		assertEquals(before + 3, during[0]);
+		assertEquals(before, cache.getStatistics().getPinnedSize());
+	}
+
+	private EditModel create(String id) {
+		EditModel editModel = new EditModel(getClass().getName() + '.' + id, context, true);
+		editModels.add(editModel);
+		return editModel;
+	}
+}
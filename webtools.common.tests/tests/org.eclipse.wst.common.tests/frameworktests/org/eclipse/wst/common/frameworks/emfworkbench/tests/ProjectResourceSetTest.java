@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.frameworks.emfworkbench.tests;
+
+import java.io.ByteArrayInputStream;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.jem.internal.util.emf.workbench.ProjectResourceSetImpl;
+import org.eclipse.jem.util.emf.workbench.WorkbenchURIConverterImpl;
+
+/**
+ * Tests the lookup of resources by their normalized URI in a ProjectResourceSetImpl. The resources have
+ * relative URIs, which are normalized to a file in the input container when there is one, and to the output
+ * container otherwise.
+ */
+public class ProjectResourceSetTest extends TestCase {
+
+	private static final String ProjectName = "ProjectResourceSetTest"; //$NON-NLS-1$
+
+	private IProject project;
+	private IFolder input;
+	private ProjectResourceSetImpl resourceSet;
+
+	public ProjectResourceSetTest(String name) {
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		project = ResourcesPlugin.getWorkspace().getRoot().getProject(ProjectName);
+		if (!project.exists())
+			project.create(null);
+		project.open(null);
+		input = project.getFolder("input"); //$NON-NLS-1$
+		input.create(true, true, null);
+		IFolder output = project.getFolder("output"); //$NON-NLS-1$
+		output.create(true, true, null);
+		resourceSet = new ProjectResourceSetImpl(project);
+		resourceSet.setURIConverter(new WorkbenchURIConverterImpl(input, output));
+	}
+
+	protected void tearDown() throws Exception {
+		resourceSet.release();
+		project.delete(true, null);
+		super.tearDown();
+	}
+
+	/**
+	 * A resource is found by its normalized URI, and not by another one.
+	 */
+	public void testHitAndMiss() {
+		Resource resource = add("a.xmi"); //$NON-NLS-1$
+		assertSame(resource, resourceSet.getResource(platformURI("output/a.xmi"), false)); //$NON-NLS-1$
+		assertNull(resourceSet.getResource(platformURI("input/a.xmi"), false)); //$NON-NLS-1$
+		assertNull(resourceSet.getResource(platformURI("output/b.xmi"), false)); //$NON-NLS-1$
+	}
+
+	/**
+	 * When a file is created in the input container, the resource is found by its new normalized URI, without
+	 * the cache being reset by hand, and is no longer found by the old one. The same happens when it is deleted.
+	 */
+	public void testFileCreatedAndDeleted() throws Exception {
+		Resource resource = add("a.xmi"); //$NON-NLS-1$
+		assertSame(resource, resourceSet.getResource(platformURI("output/a.xmi"), false)); //$NON-NLS-1$
+
+		IFile file = input.getFile("a.xmi"); //$NON-NLS-1$
+		file.create(new ByteArrayInputStream(new byte[0]), true, null);
+		resourceSet.getURIResourceMap().clear();
+		assertSame(resource, resourceSet.getResource(platformURI("input/a.xmi"), false)); //$NON-NLS-1$
+		assertNull(resourceSet.getResource(platformURI("output/a.xmi"), false)); //$NON-NLS-1$
+
+		file.delete(true, null);
+		resourceSet.getURIResourceMap().clear();
+		assertSame(resource, resourceSet.getResource(platformURI("output/a.xmi"), false)); //$NON-NLS-1$
+		assertEquals("A second copy of the resource was created", 1, resourceSet.getResources().size()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Changing the containers of the converter changes the normalized URIs.
+	 */
+	public void testContainerChanged() throws Exception {
+		Resource resource = add("a.xmi"); //$NON-NLS-1$
+		assertSame(resource, resourceSet.getResource(platformURI("output/a.xmi"), false)); //$NON-NLS-1$
+
+		IFolder other = project.getFolder("other"); //$NON-NLS-1$
+		other.create(true, true, null);
+		((WorkbenchURIConverterImpl) resourceSet.getURIConverter()).setOutputContainer(other);
+		resourceSet.getURIResourceMap().clear();
+		assertSame(resource, resourceSet.getResource(platformURI("other/a.xmi"), false)); //$NON-NLS-1$
+	}
+
+	/**
+	 * When several resources have the same normalized URI, the first one in the list of resources is found,
+	 * also after the index has been rebuilt.
+	 */
+	public void testFirstInListWins() {
+		Resource relative = add("b.xmi"); //$NON-NLS-1$
+		Resource absolute = new ResourceImpl(platformURI("output/b.xmi")); //$NON-NLS-1$
+		resourceSet.getResources().add(absolute);
+		assertSame(relative, resourceSet.getResource(platformURI("output/b.xmi"), false)); //$NON-NLS-1$
+
+		resourceSet.resetNormalizedURICache();
+		assertSame(relative, resourceSet.getResource(platformURI("output/b.xmi"), false)); //$NON-NLS-1$
+
+		Resource first = new ResourceImpl(URI.createURI("b.xmi")); //$NON-NLS-1$
+		resourceSet.getResources().add(0, first);
+		resourceSet.getURIResourceMap().clear();
+		assertSame(first, resourceSet.getResource(platformURI("output/b.xmi"), false)); //$NON-NLS-1$
+	}
+
+	/**
+	 * A resource is found by its new URI after it is renamed, and not after it is removed.
+	 */
+	public void testRenameAndRemove() {
+		Resource resource = add("a.xmi"); //$NON-NLS-1$
+		resource.setURI(URI.createURI("c.xmi")); //$NON-NLS-1$
+		resourceSet.getURIResourceMap().clear();
+		assertSame(resource, resourceSet.getResource(platformURI("output/c.xmi"), false)); //$NON-NLS-1$
+		assertNull(resourceSet.getResource(platformURI("output/a.xmi"), false)); //$NON-NLS-1$
+
+		resourceSet.getResources().remove(resource);
+		resourceSet.getURIResourceMap().clear();
+		assertNull(resourceSet.getResource(platformURI("output/c.xmi"), false)); //$NON-NLS-1$
+	}
+
+	/**
+	 * A resource from another resource set is attached and found by its normalized URI, unless there already
+	 * is a resource for that URI, in which case that one is answered and the other is left where it was.
+	 */
+	public void testAttachResource() {
+		ProjectResourceSetImpl other = new ProjectResourceSetImpl(project);
+		try {
+			Resource resource = new ResourceImpl(URI.createURI("a.xmi")); //$NON-NLS-1$
+			other.getResources().add(resource);
+			assertSame(resource, resourceSet.attachResource(resource));
+			assertSame(resourceSet, resource.getResourceSet());
+			assertFalse(other.getResources().contains(resource));
+			assertSame(resource, resourceSet.getResource(platformURI("output/a.xmi"), false)); //$NON-NLS-1$
+
+			Resource duplicate = new ResourceImpl(platformURI("output/a.xmi")); //$NON-NLS-1$
+			other.getResources().add(duplicate);
+			assertSame(resource, resourceSet.attachResource(duplicate));
+			assertSame(other, duplicate.getResourceSet());
+			assertEquals(1, resourceSet.getResources().size());
+		} finally {
+			other.release();
+		}
+	}
+
+	/**
+	 * When several threads attach a resource for the same URI, only one of them is added.
+	 */
+	public void testConcurrentAttachResource() throws Exception {
+		final Resource[] resources = new Resource[8];
+		final Resource[] answers = new Resource[resources.length];
+		Thread[] threads = new Thread[resources.length];
+		for (int i = 0; i < resources.length; i++) {
+			resources[i] = new ResourceImpl(URI.createURI("a.xmi")); //$NON-NLS-1$
+			final int index = i;
+			threads[i] = new Thread() {
+				public void run() {
+					answers[index] = resourceSet.attachResource(resources[index]);
+				}
+			};
+		}
+		for (int i = 0; i < threads.length; i++)
+			threads[i].start();
+		for (int i = 0; i < threads.length; i++)
+			threads[i].join();
+		assertEquals(1, resourceSet.getResources().size());
+		Resource winner = (Resource) resourceSet.getResources().get(0);
+		for (int i = 0; i < answers.length; i++)
+			assertSame(winner, answers[i]);
+	}
+
+	/**
+	 * Nothing is attached to a resource set that has been released.
+	 */
+	public void testAttachAfterRelease() {
+		ProjectResourceSetImpl released = new ProjectResourceSetImpl(project);
+		released.release();
+		assertNull(released.attachResource(new ResourceImpl(URI.createURI("a.xmi")))); //$NON-NLS-1$
+		assertTrue(released.getResources().isEmpty());
+	}
+
+	private Resource add(String relativeURI) {
+		Resource resource = new ResourceImpl(URI.createURI(relativeURI));
+		resourceSet.getResources().add(resource);
+		return resource;
+	}
+
+	private URI platformURI(String path) {
+		return URI.createPlatformResourceURI(ProjectName + "/" + path, false); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.frameworks.emfworkbench.tests;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.wst.common.internal.emfworkbench.WorkbenchResourceHelper;
+import org.eclipse.wst.common.internal.emfworkbench.integration.ResourceSetWorkbenchEditSynchronizer;
+
+/**
+ * Tests that the synchronizer's index of the resources by path finds the same resources as scanning every
+ * resource in the set, as resources are added, removed and renamed, and that a deleted file removes its
+ * resource from the set.
+ */
+public class ResourceSetWorkbenchEditSynchronizerTest extends TestCase {
+
+	private static final String ProjectName = "ResourceSetWorkbenchEditSynchronizerTest"; //$NON-NLS-1$
+	private static final int Resources = 200;
+
+	private IProject project;
+	private ResourceSet resourceSet;
+	private TestSynchronizer synchronizer;
+
+	public ResourceSetWorkbenchEditSynchronizerTest(String name) {
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		project = ResourcesPlugin.getWorkspace().getRoot().getProject(ProjectName);
+		if (!project.exists())
+			project.create(null);
+		project.open(null);
+		resourceSet = new ResourceSetImpl();
+		synchronizer = new TestSynchronizer(resourceSet, project);
+	}
+
+	protected void tearDown() throws Exception {
+		synchronizer.dispose();
+		project.delete(true, null);
+		super.tearDown();
+	}
+
+	/**
+	 * Add, remove and rename resources, one at a time and many at a time, and compare the index with a scan
+	 * of the resource set after each step.
+	 */
+	public void testIndexMatchesScan() {
+		for (int i = 0; i < Resources / 2; i++)
+			resourceSet.getResources().add(createResource(i));
+		// the index is built from the resources that are already there
+		check();
+
+		List many = new ArrayList();
+		for (int i = Resources / 2; i < Resources; i++)
+			many.add(createResource(i));
+		resourceSet.getResources().addAll(many);
+		// a second resource with the same path, and one that is not a platform resource
+		resourceSet.getResources().add(createResource(7));
+		resourceSet.getResources().add(new ResourceImpl(URI.createURI("file:/elsewhere/folder1/r1.xmi"))); //$NON-NLS-1$
+		check();
+
+		resourceSet.getResources().remove(3);
+		resourceSet.getResources().removeAll(many.subList(0, 20));
+		check();
+
+		Resource renamed = (Resource) resourceSet.getResources().get(10);
+		renamed.setURI(URI.createPlatformResourceURI("/" + ProjectName + "/renamed/r10.xmi", false)); //$NON-NLS-1$ //$NON-NLS-2$
+		check();
+		assertEquals(1, synchronizer.find(file("renamed/r10.xmi")).size()); //$NON-NLS-1$
+
+		resourceSet.getResources().set(0, createResource(1000));
+		check();
+	}
+
+	/**
+	 * Once the synchronizer is disposed, the index is no longer attached to the resource set or its resources.
+	 */
+	public void testDispose() {
+		for (int i = 0; i < 10; i++)
+			resourceSet.getResources().add(createResource(i));
+		synchronizer.find(file("folder0/r0.xmi")); //$NON-NLS-1$
+		Resource added = createResource(20);
+		resourceSet.getResources().add(added);
+		assertTrue(synchronizer.hasIndex(resourceSet));
+		assertTrue(synchronizer.hasIndex(added));
+
+		synchronizer.dispose();
+		assertFalse(synchronizer.hasIndex(resourceSet));
+		for (Iterator iterator = resourceSet.getResources().iterator(); iterator.hasNext();)
+			assertFalse(synchronizer.hasIndex((Notifier) iterator.next()));
+	}
+
+	/**
+	 * Deleting a file removes its resource from the set, and from the index, and leaves the other resources.
+	 */
+	public void testDelta() throws Exception {
+		IFile deleted = project.getFile("deleted.xmi"); //$NON-NLS-1$
+		IFile kept = project.getFile("kept.xmi"); //$NON-NLS-1$
+		deleted.create(new ByteArrayInputStream(new byte[0]), true, null);
+		kept.create(new ByteArrayInputStream(new byte[0]), true, null);
+		Resource deletedResource = new ResourceImpl(URI.createPlatformResourceURI(deleted.getFullPath().toString(), false));
+		Resource keptResource = new ResourceImpl(URI.createPlatformResourceURI(kept.getFullPath().toString(), false));
+		resourceSet.getResources().add(deletedResource);
+		resourceSet.getResources().add(keptResource);
+		assertEquals(1, synchronizer.find(deleted).size());
+
+		deleted.delete(true, null);
+		assertFalse("The resource of the deleted file is still in the set", resourceSet.getResources().contains(deletedResource)); //$NON-NLS-1$
+		assertTrue(resourceSet.getResources().contains(keptResource));
+		assertTrue(synchronizer.find(deleted).isEmpty());
+		assertEquals(1, synchronizer.find(kept).size());
+		check();
+	}
+
+	/**
+	 * Compare the index with a scan for every path that a resource has, and for a path that none has.
+	 */
+	private void check() {
+		HashSet paths = new HashSet();
+		for (Iterator iterator = resourceSet.getResources().iterator(); iterator.hasNext();) {
+			String path = synchronizer.path((Resource) iterator.next());
+			if (path != null)
+				paths.add(path);
+		}
+		paths.add("missing/r0.xmi"); //$NON-NLS-1$
+		for (Iterator iterator = paths.iterator(); iterator.hasNext();) {
+			IFile file = file((String) iterator.next());
+			assertEquals(file.toString(), new HashSet(synchronizer.scan(file)), new HashSet(synchronizer.find(file)));
+		}
+	}
+
+	private IFile file(String path) {
+		return project.getFile(new Path(path));
+	}
+
+	private static Resource createResource(int i) {
+		return new ResourceImpl(URI.createPlatformResourceURI("/" + ProjectName + "/folder" + (i % 5) + "/r" + i + ".xmi", false)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+	}
+
+	/**
+	 * Exposes the lookup of the synchronizer, and does the same lookup the way that it was done before there
+	 * was an index, by scanning every resource in the set.
+	 */
+	private static class TestSynchronizer extends ResourceSetWorkbenchEditSynchronizer {
+
+		TestSynchronizer(ResourceSet resourceSet, IProject project) {
+			super(resourceSet, project);
+		}
+
+		List find(IFile file) {
+			return getResources(file);
+		}
+
+		String path(Resource res) {
+			return getResourcePath(res);
+		}
+
+		List scan(IFile file) {
+			String fileString = URI.decode(file.getFullPath().toString());
+			IPath filePath = new Path(fileString).removeFirstSegments(1);
+			if (!filePath.isEmpty())
+				fileString = filePath.toString();
+			List list = new ArrayList();
+			for (Iterator iterator = resourceSet.getResources().iterator(); iterator.hasNext();) {
+				Resource res = (Resource) iterator.next();
+				URI resURI = res.getURI();
+				if (resURI.path() == null)
+					continue;
+				IPath resURIPath;
+				if (WorkbenchResourceHelper.isPlatformResourceURI(resURI))
+					resURIPath = new Path(URI.decode(resURI.path())).removeFirstSegments(2);
+				else
+					resURIPath = new Path(URI.decode(resURI.path())).removeFirstSegments(1);
+				String resURIString = resURIPath.toString();
+				if (resURIString.length() > 0 && fileString.equals(resURIString))
+					list.add(res);
+			}
+			return list;
+		}
+
+		boolean hasIndex(Notifier notifier) {
+			for (Iterator iterator = notifier.eAdapters().iterator(); iterator.hasNext();) {
+				Adapter adapter = (Adapter) iterator.next();
+				if (adapter instanceof ResourcePathIndex)
+					return true;
+			}
+			return false;
+		}
+	}
+}
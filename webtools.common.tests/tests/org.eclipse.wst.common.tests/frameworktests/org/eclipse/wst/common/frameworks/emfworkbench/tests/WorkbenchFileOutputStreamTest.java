@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.frameworks.emfworkbench.tests;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.jem.util.emf.workbench.WorkbenchFileOutputStream;
+
+/**
+ * Tests that WorkbenchFileOutputStream writes the same contents whether they are kept in memory or in a temporary
+ * file, that it converts the line separators, and that it deletes its temporary file when the save fails.
+ */
+public class WorkbenchFileOutputStreamTest extends TestCase {
+
+	private static final String ProjectName = "WorkbenchFileOutputStreamTest"; //$NON-NLS-1$
+	private static final String TempPrefix = "wbsave"; //$NON-NLS-1$
+
+	private IProject project;
+
+	public WorkbenchFileOutputStreamTest(String name) {
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		project = ResourcesPlugin.getWorkspace().getRoot().getProject(ProjectName);
+		if (!project.exists())
+			project.create(null);
+		project.open(null);
+	}
+
+	protected void tearDown() throws Exception {
+		project.delete(true, null);
+		super.tearDown();
+	}
+
+	/**
+	 * Small contents stay in memory, and the missing folders are created.
+	 */
+	public void testInMemory() throws Exception {
+		IFile file = project.getFile("a/b/small.txt"); //$NON-NLS-1$
+		byte[] contents = createContents(100);
+		WorkbenchFileOutputStream out = new WorkbenchFileOutputStream(file, null);
+		out.write(contents);
+		assertFalse(out.isUsingTempFile());
+		assertFalse("The file was written before the stream was closed", file.exists()); //$NON-NLS-1$
+		out.close();
+		assertTrue(Arrays.equals(contents, read(file)));
+	}
+
+	/**
+	 * Contents past the threshold are moved to a temporary file, which is deleted when the stream is closed.
+	 */
+	public void testSpilled() throws Exception {
+		Set before = listTempFiles();
+		IFile file = project.getFile("large.txt"); //$NON-NLS-1$
+		byte[] contents = createContents(WorkbenchFileOutputStream.MEMORY_THRESHOLD + 1000);
+		WorkbenchFileOutputStream out = new WorkbenchFileOutputStream(file, null);
+		out.write(contents, 0, 1000);
+		assertFalse(out.isUsingTempFile());
+		for (int i = 1000; i < contents.length; i++)
+			out.write(contents[i]);
+		assertTrue(out.isUsingTempFile());
+		out.close();
+		assertTrue(Arrays.equals(contents, read(file)));
+		assertEquals("The temporary file was not deleted", before, listTempFiles()); //$NON-NLS-1$
+	}
+
+	/**
+	 * With EOL conversion, carriage returns are dropped and line feeds become the line separator, whether the
+	 * bytes are written one at a time or together.
+	 */
+	public void testConvertEOL() throws Exception {
+		IFile file = project.getFile("eol.txt"); //$NON-NLS-1$
+		WorkbenchFileOutputStream out = new WorkbenchFileOutputStream(file, null);
+		out.setConvertEOLChars(true);
+		out.write("a\r\nb\nc".getBytes()); //$NON-NLS-1$
+		out.write('\r');
+		out.write('\n');
+		out.write('d');
+		out.close();
+		String eol = System.getProperty("line.separator"); //$NON-NLS-1$
+		assertEquals("a" + eol + "b" + eol + "c" + eol + "d", new String(read(file))); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+	}
+
+	/**
+	 * When the file cannot be written, close fails and the temporary file is still deleted.
+	 */
+	public void testTempFileDeletedOnFailure() throws Exception {
+		Set before = listTempFiles();
+		IFile file = project.getFile("failed.txt"); //$NON-NLS-1$
+		project.close(null);
+		WorkbenchFileOutputStream out = new WorkbenchFileOutputStream(file, null);
+		out.write(createContents(WorkbenchFileOutputStream.MEMORY_THRESHOLD + 1));
+		assertTrue(out.isUsingTempFile());
+		try {
+			out.close();
+			fail("The file of a closed project was written"); //$NON-NLS-1$
+		} catch (IOException e) {
+			// Expected
+		}
+		assertEquals("The temporary file was not deleted", before, listTempFiles()); //$NON-NLS-1$
+		try {
+			out.write(1);
+			fail("The stream could be written after it was closed"); //$NON-NLS-1$
+		} catch (IOException e) {
+			// Expected
+		}
+	}
+
+	private static byte[] createContents(int size) {
+		byte[] contents = new byte[size];
+		for (int i = 0; i < size; i++)
+			contents[i] = (byte) ('a' + i % 26);
+		return contents;
+	}
+
+	private static byte[] read(IFile file) throws Exception {
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		InputStream in = file.getContents();
+		try {
+			byte[] buffer = new byte[8192];
+			int count;
+			while ((count = in.read(buffer)) != -1)
+				result.write(buffer, 0, count);
+		} finally {
+			in.close();
+		}
+		return result.toByteArray();
+	}
+
+	private static Set listTempFiles() {
+		Set result = new HashSet();
+		String[] names = new File(System.getProperty("java.io.tmpdir")).list(); //$NON-NLS-1$
+		for (int i = 0; names != null && i < names.length; i++) {
+			if (names[i].startsWith(TempPrefix) && names[i].endsWith(".tmp")) //$NON-NLS-1$
+				result.add(names[i]);
+		}
+		return result;
+	}
+}
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.frameworks.emfworkbench.tests;
+
+import java.io.ByteArrayInputStream;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.jem.util.emf.workbench.WorkbenchURIConverterImpl;
+
+/**
+ * Tests the memo table of normalized URIs in WorkbenchURIConverterImpl. The input container is in one project
+ * and the output container in another, so that closing the first project changes what a relative URI is
+ * normalized to.
+ */
+public class WorkbenchURIConverterTest extends TestCase {
+
+	private static final String InputProjectName = "WorkbenchURIConverterTestInput"; //$NON-NLS-1$
+	private static final String OutputProjectName = "WorkbenchURIConverterTestOutput"; //$NON-NLS-1$
+
+	private IProject inputProject;
+	private IProject outputProject;
+	private IFolder input;
+	private WorkbenchURIConverterImpl converter;
+
+	public WorkbenchURIConverterTest(String name) {
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		inputProject = createProject(InputProjectName);
+		outputProject = createProject(OutputProjectName);
+		input = inputProject.getFolder("input"); //$NON-NLS-1$
+		input.create(true, true, null);
+		IFolder output = outputProject.getFolder("output"); //$NON-NLS-1$
+		output.create(true, true, null);
+		converter = new WorkbenchURIConverterImpl(input, output);
+	}
+
+	protected void tearDown() throws Exception {
+		inputProject.delete(true, null);
+		outputProject.delete(true, null);
+		super.tearDown();
+	}
+
+	/**
+	 * Normalizing the same URI again is answered from the memo table.
+	 */
+	public void testRepeatedNormalizeIsCached() {
+		URI expected = platformURI(OutputProjectName, "output/a.xmi"); //$NON-NLS-1$
+		assertEquals(expected, converter.normalize(URI.createURI("a.xmi"))); //$NON-NLS-1$
+		int misses = converter.getNormalizeMisses();
+		int hits = converter.getNormalizeHits();
+		assertEquals(expected, converter.normalize(URI.createURI("a.xmi"))); //$NON-NLS-1$
+		assertEquals(misses, converter.getNormalizeMisses());
+		assertEquals(hits + 1, converter.getNormalizeHits());
+	}
+
+	/**
+	 * Creating and deleting a file in the input container changes what a URI is normalized to.
+	 */
+	public void testFileCreatedAndDeleted() throws Exception {
+		assertEquals(platformURI(OutputProjectName, "output/a.xmi"), converter.normalize(URI.createURI("a.xmi"))); //$NON-NLS-1$ //$NON-NLS-2$
+		long stamp = converter.getNormalizedStamp();
+
+		IFile file = input.getFile("a.xmi"); //$NON-NLS-1$
+		file.create(new ByteArrayInputStream(new byte[0]), true, null);
+		assertEquals(platformURI(InputProjectName, "input/a.xmi"), converter.normalize(URI.createURI("a.xmi"))); //$NON-NLS-1$ //$NON-NLS-2$
+		assertTrue(converter.getNormalizedStamp() != stamp);
+
+		file.delete(true, null);
+		assertEquals(platformURI(OutputProjectName, "output/a.xmi"), converter.normalize(URI.createURI("a.xmi"))); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Closing and opening the project of the input container changes what a URI is normalized to, although
+	 * no resource is added or removed.
+	 */
+	public void testProjectClosedAndOpened() throws Exception {
+		input.getFile("a.xmi").create(new ByteArrayInputStream(new byte[0]), true, null); //$NON-NLS-1$
+		assertEquals(platformURI(InputProjectName, "input/a.xmi"), converter.normalize(URI.createURI("a.xmi"))); //$NON-NLS-1$ //$NON-NLS-2$
+
+		inputProject.close(null);
+		assertEquals(platformURI(OutputProjectName, "output/a.xmi"), converter.normalize(URI.createURI("a.xmi"))); //$NON-NLS-1$ //$NON-NLS-2$
+
+		inputProject.open(null);
+		assertEquals(platformURI(InputProjectName, "input/a.xmi"), converter.normalize(URI.createURI("a.xmi"))); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * A change outside of the containers does not clear the memo table.
+	 */
+	public void testUnrelatedChangeKeepsTable() throws Exception {
+		converter.normalize(URI.createURI("a.xmi")); //$NON-NLS-1$
+		int invalidations = converter.getNormalizeInvalidations();
+		inputProject.getFile("unrelated.xmi").create(new ByteArrayInputStream(new byte[0]), true, null); //$NON-NLS-1$
+		converter.normalize(URI.createURI("a.xmi")); //$NON-NLS-1$
+		assertEquals(invalidations, converter.getNormalizeInvalidations());
+	}
+
+	private static IProject createProject(String name) throws Exception {
+		IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject(name);
+		if (!project.exists())
+			project.create(null);
+		project.open(null);
+		return project;
+	}
+
+	private static URI platformURI(String projectName, String path) {
+		return URI.createPlatformResourceURI(projectName + "/" + path, false); //$NON-NLS-1$
+	}
+}
@@ -63,6 +63,8 @@ public class AutomatedBVT extends TestSuite {
 		suite.addTest(DataModelAPITests.suite());
 		suite.addTest(ArtifactEditAPITests.suite());
 		suite.addTest(EnvironmentTests.suite());
+		suite.addTest(org.eclipse.wst.common.frameworks.emfworkbench.tests.AllTests.suite());
+		suite.addTest(org.eclipse.wst.common.core.search.tests.AllTests.suite());
 		return suite;
 	}
 }
@@ -20,6 +20,7 @@ public class AllTests extends TestCase {
 		TestSuite testSuite = new TestSuite("All URI Resolver Tests");
 		testSuite.addTestSuite(ExtensibleURIResolverTest.class);
 		testSuite.addTestSuite(URIHelperTestCase.class);
+		testSuite.addTestSuite(URITest.class);
 		return testSuite;
 	}
 }
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.uriresolver.tests;
+
+import junit.framework.TestCase;
+
+import org.eclipse.wst.common.uriresolver.internal.URIResolutionCache;
+import org.eclipse.wst.common.uriresolver.internal.provisional.URIResolver;
+import org.eclipse.wst.common.uriresolver.internal.provisional.URIResolverPlugin;
+import org.eclipse.wst.common.uriresolver.tests.util.ResolverExtensionForText;
+
+/**
+ * Measures the latency of resolve() with and without the URI resolution cache.
+ * This is not part of AllTests, run it on its own and compare the printed times.
+ */
+public class ExtensibleURIResolverBenchmark extends TestCase {
+
+	private static final int WARMUP = 20000;
+	private static final int ITERATIONS = 200000;
+
+	private static final String BASE_LOCATION = "file:/workspace/project/folder/file.xml";
+
+	private static final String[] SYSTEM_IDS = {
+		ResolverExtensionForText.SYSTEM_ID_URL,
+		"http://www.w3.org/2001/XMLSchema.xsd",
+		"../schemas/local.xsd",
+		"relative.dtd"
+	};
+
+	public void testResolveLatency() {
+		URIResolver resolver = URIResolverPlugin.createResolver();
+		URIResolutionCache cache = URIResolutionCache.getInstance();
+		boolean enabled = cache.isEnabled();
+		try {
+			cache.setEnabled(false);
+			run(resolver, WARMUP);
+			long uncached = run(resolver, ITERATIONS);
+
+			cache.setEnabled(true);
+			run(resolver, WARMUP);
+			long hits = cache.getHits();
+			long misses = cache.getMisses();
+			long cached = run(resolver, ITERATIONS);
+
+			System.out.println("resolve() without cache: " + (uncached / ITERATIONS) + " ns/op");
+			System.out.println("resolve() with cache:    " + (cached / ITERATIONS) + " ns/op");
+			System.out.println("hits=" + (cache.getHits() - hits) + " misses=" + (cache.getMisses() - misses) + " " + cache);
+			assertEquals(0, cache.getMisses() - misses);
+		}
+		finally {
+			cache.setEnabled(enabled);
+		}
+	}
+
+	private long run(URIResolver resolver, int iterations) {
+		long start = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			resolver.resolve(BASE_LOCATION, null, SYSTEM_IDS[i % SYSTEM_IDS.length]);
+		}
+		return System.nanoTime() - start;
+	}
+}
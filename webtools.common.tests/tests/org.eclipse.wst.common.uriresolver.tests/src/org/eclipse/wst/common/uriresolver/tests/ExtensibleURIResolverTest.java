@@ -14,6 +14,7 @@ package org.eclipse.wst.common.uriresolver.tests;
 import junit.framework.TestCase;
 
 import org.eclipse.wst.common.uriresolver.internal.ExtensibleURIResolver;
+import org.eclipse.wst.common.uriresolver.internal.URIResolutionCache;
 import org.eclipse.wst.common.uriresolver.internal.provisional.URIResolver;
 import org.eclipse.wst.common.uriresolver.internal.provisional.URIResolverPlugin;
 import org.eclipse.wst.common.uriresolver.tests.util.AuxiliaryCounter;
@@ -28,8 +29,9 @@ public class ExtensibleURIResolverTest extends TestCase {
 		if (resolver instanceof ExtensibleURIResolver) {
 			ExtensibleURIResolver extensibleURIResolver = (ExtensibleURIResolver) resolver;
 
-			// Reset counter
+			// Reset counter and forget earlier resolutions
 			AuxiliaryCounter.getInstance().resetCounter();
+			URIResolutionCache.getInstance().clear();
 
 			// Resolve using public id
 			String publicResolve = extensibleURIResolver.resolve(null, ResolverExtensionForText.PUBLIC_ID_URL, null);
@@ -45,5 +47,68 @@ public class ExtensibleURIResolverTest extends TestCase {
 		}
 	}
 
+	public void testResolutionCache() {
+
+		URIResolver resolver = URIResolverPlugin.createResolver();
+		URIResolutionCache cache = URIResolutionCache.getInstance();
+		boolean enabled = cache.isEnabled();
+		cache.setEnabled(true);
+		try {
+			cache.clear();
+			AuxiliaryCounter.getInstance().resetCounter();
+
+			// The second resolution is answered from the cache
+			assertEquals(ResolverExtensionForText.SYSTEM_ID_LOCATION, resolver.resolve(null, null, ResolverExtensionForText.SYSTEM_ID_URL));
+			assertEquals(ResolverExtensionForText.SYSTEM_ID_LOCATION, resolver.resolve(null, null, ResolverExtensionForText.SYSTEM_ID_URL));
+			assertEquals(1, AuxiliaryCounter.getInstance().getCount());
+
+			// Unresolved ids are cached as well
+			assertNull(resolver.resolve(null, null, "http://www.unknown.org"));
+			assertNull(resolver.resolve(null, null, "http://www.unknown.org"));
+			assertEquals(2, AuxiliaryCounter.getInstance().getCount());
+
+			// Clearing the cache runs the resolvers again
+			cache.clear();
+			assertEquals(ResolverExtensionForText.SYSTEM_ID_LOCATION, resolver.resolve(null, null, ResolverExtensionForText.SYSTEM_ID_URL));
+			assertEquals(3, AuxiliaryCounter.getInstance().getCount());
+
+			// Nothing is cached while the cache is disabled
+			cache.setEnabled(false);
+			resolver.resolve(null, null, ResolverExtensionForText.SYSTEM_ID_URL);
+			resolver.resolve(null, null, ResolverExtensionForText.SYSTEM_ID_URL);
+			assertEquals(5, AuxiliaryCounter.getInstance().getCount());
+			assertEquals(0, cache.size());
+		}
+		finally {
+			cache.setEnabled(enabled);
+		}
+	}
+
+	public void testDoNotCache() {
+
+		URIResolver resolver = URIResolverPlugin.createResolver();
+		URIResolutionCache cache = URIResolutionCache.getInstance();
+		boolean enabled = cache.isEnabled();
+		cache.setEnabled(true);
+		try {
+			cache.clear();
+			AuxiliaryCounter.getInstance().resetCounter();
+
+			// A resolver that calls doNotCache() is run for every resolution
+			assertEquals(ResolverExtensionForText.VOLATILE_ID_LOCATION, resolver.resolve(null, null, ResolverExtensionForText.VOLATILE_ID_URL));
+			assertEquals(ResolverExtensionForText.VOLATILE_ID_LOCATION, resolver.resolve(null, null, ResolverExtensionForText.VOLATILE_ID_URL));
+			assertEquals(2, AuxiliaryCounter.getInstance().getCount());
+			assertEquals(0, cache.size());
+
+			// Other resolutions are still remembered
+			resolver.resolve(null, null, ResolverExtensionForText.SYSTEM_ID_URL);
+			resolver.resolve(null, null, ResolverExtensionForText.SYSTEM_ID_URL);
+			assertEquals(3, AuxiliaryCounter.getInstance().getCount());
+		}
+		finally {
+			cache.setEnabled(enabled);
+		}
+	}
+
 
 }
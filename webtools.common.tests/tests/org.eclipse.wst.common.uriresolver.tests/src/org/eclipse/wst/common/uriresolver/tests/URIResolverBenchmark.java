@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.uriresolver.tests;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+
+import junit.framework.TestCase;
+
+import org.eclipse.wst.common.uriresolver.internal.URI;
+import org.eclipse.wst.common.uriresolver.tests.util.URICorpus;
+
+/**
+ * Compares the time and the memory allocated to resolve the system ids of
+ * {@link URICorpus} against its base locations, with the string fast path of
+ * URI and with parsed URIs. This is not part of AllTests, run it on its own
+ * and compare the printed numbers. The allocated bytes are only printed on
+ * VMs that can count them per thread.
+ */
+public class URIResolverBenchmark extends TestCase {
+
+	private static final int WARMUP = 20000;
+	private static final int ITERATIONS = 200000;
+
+	private interface Resolution {
+		String resolve(String systemId, String base);
+	}
+
+	private static final Resolution FAST_PATH = new Resolution() {
+		public String resolve(String systemId, String base) {
+			if (URI.hasScheme(systemId)) {
+				return systemId;
+			}
+			String result = URI.resolveRelativePath(systemId, base);
+			return result != null ? result : PARSED.resolve(systemId, base);
+		}
+	};
+
+	private static final Resolution PARSED = new Resolution() {
+		public String resolve(String systemId, String base) {
+			URI systemURI = URI.createURI(systemId);
+			if (!systemURI.isRelative()) {
+				return systemId;
+			}
+			try {
+				return systemURI.resolve(URI.createURI(base)).toString();
+			}
+			catch (IllegalArgumentException e) {
+				return systemId;
+			}
+		}
+	};
+
+	public void testResolveAllocation() throws Exception {
+		run(PARSED, WARMUP);
+		run(FAST_PATH, WARMUP);
+		report("parsed URIs", PARSED);
+		report("fast path  ", FAST_PATH);
+	}
+
+	private void report(String name, Resolution resolution) throws Exception {
+		long bytes = allocatedBytes();
+		long start = System.nanoTime();
+		int count = run(resolution, ITERATIONS);
+		long time = System.nanoTime() - start;
+		bytes = allocatedBytes() - bytes;
+		System.out.println(name + ": " + (time / count) + " ns/op" + (bytes >= 0 ? ", " + (bytes / count) + " bytes/op" : ""));
+	}
+
+	private int run(Resolution resolution, int iterations) {
+		String[] bases = URICorpus.BASE_LOCATIONS;
+		String[] systemIds = URICorpus.SYSTEM_IDS;
+		int count = 0;
+		int length = 0;
+		while (count < iterations) {
+			for (int i = 0; i < bases.length; i++) {
+				for (int j = 0; j < systemIds.length; j++, count++) {
+					length += resolution.resolve(systemIds[j], bases[i]).length();
+				}
+			}
+		}
+		assertTrue(length > 0);
+		return count;
+	}
+
+	/**
+	 * Returns the bytes allocated by the current thread, or a negative number
+	 * if the VM cannot tell.
+	 */
+	private static long allocatedBytes() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		try {
+			Class type = Class.forName("com.sun.management.ThreadMXBean");
+			Method method = type.getMethod("getThreadAllocatedBytes", new Class[] {long.class});
+			Long bytes = (Long) method.invoke(bean, new Object[] {new Long(Thread.currentThread().getId())});
+			return bytes.longValue();
+		}
+		catch (Exception e) {
+			return -1;
+		}
+	}
+}
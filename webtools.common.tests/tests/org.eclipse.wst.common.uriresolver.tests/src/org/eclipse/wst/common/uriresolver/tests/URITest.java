@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.uriresolver.tests;
+
+import junit.framework.TestCase;
+
+import org.eclipse.wst.common.uriresolver.internal.URI;
+import org.eclipse.wst.common.uriresolver.internal.URIPool;
+import org.eclipse.wst.common.uriresolver.tests.util.URICorpus;
+
+public class URITest extends TestCase {
+
+	public void testHasScheme() {
+		assertTrue(URI.hasScheme("http://www.w3.org/2001/xml.xsd"));
+		assertTrue(URI.hasScheme("file:/C:/schemas/order.xsd"));
+		assertTrue(URI.hasScheme("C:/schemas/order.xsd"));
+		assertFalse(URI.hasScheme("schemas/order.xsd"));
+		assertFalse(URI.hasScheme("/schemas/order.xsd"));
+		assertFalse(URI.hasScheme("schemas/a:b.xsd"));
+		assertFalse(URI.hasScheme("order.xsd#a:b"));
+	}
+
+	public void testResolveRelativePath() {
+		assertEquals("file:/C:/ws/p/schemas/types.xsd", URI.resolveRelativePath("types.xsd", "file:/C:/ws/p/schemas/order.xsd"));
+		assertEquals("file:/C:/ws/common/types.xsd", URI.resolveRelativePath("../../common/types.xsd", "file:/C:/ws/p/schemas/order.xsd"));
+		assertEquals("http://h/a/", URI.resolveRelativePath("b/..", "http://h/a/c.xsd?x#y"));
+		assertEquals("file:/", URI.resolveRelativePath(".", "file:/a.xsd"));
+
+		// cases that need the full parser
+		assertNull(URI.resolveRelativePath("../../types.xsd", "file:/C:/a/order.xsd"));
+		assertNull(URI.resolveRelativePath("types.xsd#e", "file:/C:/a/order.xsd"));
+		assertNull(URI.resolveRelativePath("types.xsd", "jar:file:/a.jar!/order.xsd"));
+		assertNull(URI.resolveRelativePath("types.xsd", "file:/a/../order.xsd"));
+		assertNull(URI.resolveRelativePath("types.xsd", "urn:order"));
+		assertNull(URI.resolveRelativePath("types.xsd", "schemas/order.xsd"));
+	}
+
+	/**
+	 * The fast path must give the same result as parsing and resolving the URIs.
+	 */
+	public void testResolveRelativePathMatchesResolve() {
+		for (int i = 0; i < URICorpus.BASE_LOCATIONS.length; i++) {
+			for (int j = 0; j < URICorpus.SYSTEM_IDS.length; j++) {
+				String base = URICorpus.BASE_LOCATIONS[i];
+				String systemId = URICorpus.SYSTEM_IDS[j];
+				if (URI.hasScheme(systemId)) {
+					assertFalse(URI.createURI(systemId).isRelative());
+					continue;
+				}
+				String resolved = URI.resolveRelativePath(systemId, base);
+				if (resolved != null) {
+					assertEquals(base + " " + systemId, URI.createURI(systemId).resolve(URI.createURI(base)).toString(), resolved);
+				}
+			}
+		}
+	}
+
+	public void testPoolIsBounded() {
+		URIPool pool = new URIPool(10);
+		for (int i = 0; i < 100; i++) {
+			pool.put("file:/" + i, URI.createURI("file:/" + i));
+			pool.get("file:/0");
+		}
+		assertEquals(10, pool.size());
+		assertNotNull("The most recently used URI was dropped.", pool.get("file:/0"));
+		assertNull(pool.get("file:/1"));
+	}
+}
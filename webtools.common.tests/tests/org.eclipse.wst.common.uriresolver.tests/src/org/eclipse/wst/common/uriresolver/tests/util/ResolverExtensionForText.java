@@ -12,6 +12,7 @@
 package org.eclipse.wst.common.uriresolver.tests.util;
 
 import org.eclipse.core.resources.IFile;
+import org.eclipse.wst.common.uriresolver.internal.URIResolutionCache;
 import org.eclipse.wst.common.uriresolver.internal.provisional.URIResolverExtension;
 
 public class ResolverExtensionForText implements URIResolverExtension {
@@ -22,12 +23,19 @@ public class ResolverExtensionForText implements URIResolverExtension {
 	public static final String SYSTEM_ID_URL = "http://www.system.org";
 	public static final String SYSTEM_ID_LOCATION = "/folder/system.extension";
 	
+	/** The resolution of this system id must not be remembered. */
+	public static final String VOLATILE_ID_URL = "http://www.volatile.org";
+	public static final String VOLATILE_ID_LOCATION = "/folder/volatile.extension";
+	
 	public String resolve(IFile file, String baseLocation, String publicId, String systemId) {
 		AuxiliaryCounter.getInstance().incrementCounter();
 		if(PUBLIC_ID_URL.equals(publicId)) {
 			return PUBLIC_ID_LOCATION;
 		} else if(SYSTEM_ID_URL.equals(systemId)) {
 			return SYSTEM_ID_LOCATION;
+		} else if(VOLATILE_ID_URL.equals(systemId)) {
+			URIResolutionCache.doNotCache();
+			return VOLATILE_ID_LOCATION;
 		}
 		return null;
 	}
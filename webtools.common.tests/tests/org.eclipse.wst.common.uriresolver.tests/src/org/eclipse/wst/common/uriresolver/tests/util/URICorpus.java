@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.uriresolver.tests.util;
+
+/**
+ * Base locations and system ids of the kind found in XML catalogs,
+ * schemaLocation attributes, DOCTYPE declarations and imports.
+ */
+public class URICorpus {
+
+	public static final String[] BASE_LOCATIONS = {
+		"file:/C:/workspace/project/WebContent/WEB-INF/web.xml",
+		"file:///C:/workspace/project/src/META-INF/persistence.xml",
+		"file:/home/user/workspace/project/schemas/order.xsd",
+		"platform:/resource/project/WebContent/WEB-INF/faces-config.xml",
+		"platform:/plugin/org.eclipse.jst.standard.schemas/dtdsAndSchemas/web-app_2_5.xsd",
+		"http://www.w3.org/2001/XMLSchema.xsd",
+		"http://java.sun.com/xml/ns/javaee/web-app_2_5.xsd",
+		"http://www.springframework.org/schema/beans/spring-beans.xsd",
+		"jar:file:/C:/workspace/project/lib/schemas.jar!/META-INF/schema/config.xsd",
+		"file:/C:/workspace/project/schemas/../common/types.xsd"
+	};
+
+	public static final String[] SYSTEM_IDS = {
+		"types.xsd",
+		"common/types.xsd",
+		"../common/types.xsd",
+		"../../shared/xsd/datatypes.xsd",
+		"./local.dtd",
+		"xml.xsd",
+		"javaee_5.xsd",
+		"javaee_web_services_client_1_2.xsd",
+		"jsp_2_1.xsd",
+		"web-app_2_4.dtd",
+		"spring-tool.xsd",
+		"schemas/address.xsd#element",
+		"query.xsd?version=2",
+		"http://www.w3.org/2001/xml.xsd",
+		"http://java.sun.com/xml/ns/javaee/javaee_5.xsd",
+		"file:///C:/schemas/order.xsd",
+		"platform:/resource/project/schemas/order.xsd",
+		"urn:oasis:names:tc:entity:xmlns:xml:catalog"
+	};
+}
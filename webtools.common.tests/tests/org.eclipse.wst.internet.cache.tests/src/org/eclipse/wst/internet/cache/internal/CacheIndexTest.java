@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.internet.cache.internal;
+
+import java.io.File;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Platform;
+
+/**
+ * Tests for the index of the Cache class: concurrent requests, eviction,
+ * content addressed files and the journal. The resources are served by a
+ * local HTTP server, and the cache is kept in a temporary directory.
+ */
+public class CacheIndexTest extends TestCase
+{
+	private LocalHttpServer server;
+	private File cacheDir;
+	private Cache cache;
+	private int maxEntries;
+
+	/**
+	  * Create a tests suite from this test class.
+	  *
+	  * @return A test suite containing this test class.
+	  */
+	  public static Test suite()
+	  {
+	    return new TestSuite(CacheIndexTest.class);
+	  }
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		server = new LocalHttpServer();
+		cacheDir = File.createTempFile("cacheindextest", "");
+		cacheDir.delete();
+		cacheDir.mkdirs();
+		maxEntries = CachePlugin.getDefault().getCacheMaxEntries();
+		Cache.getInstance().close();
+		cache = reopen();
+	}
+
+	protected void tearDown() throws Exception {
+		CachePlugin.getDefault().setCacheMaxEntries(maxEntries);
+		Cache.getInstance().close();
+		Cache.open(Platform.getStateLocation(CachePlugin.getDefault().getBundle()));
+		server.stop();
+		File[] files = cacheDir.listFiles();
+		for(int i = 0; files != null && i < files.length; i++)
+		{
+			files[i].delete();
+		}
+		cacheDir.delete();
+		super.tearDown();
+	}
+
+	private Cache reopen()
+	{
+		if(Cache.getInstance() != null)
+		{
+			Cache.getInstance().close();
+		}
+		IPath location = new Path(cacheDir.getAbsolutePath());
+		Cache.open(location);
+		return Cache.getInstance();
+	}
+
+	private static File toFile(String result)
+	{
+		// Remove file:/// from the result.
+		return new File(result.substring(8));
+	}
+
+	/**
+	 * Test that threads asking for the same resource at the same time
+	 * only download it once, and all get the same file.
+	 */
+	public void testConcurrentRequestsDownloadOnce() throws Exception
+	{
+		server.setContent("/single.xsd", "<schema/>", 0);
+		server.setContent("/shared.xsd", "<schema>shared</schema>", 500);
+		assertNotNull(cache.getResource(server.getURI("/single.xsd")));
+		int requestsPerDownload = server.getRequestCount("/single.xsd");
+
+		final String uri = server.getURI("/shared.xsd");
+		final String[] results = new String[8];
+		Thread[] threads = new Thread[results.length];
+		for(int i = 0; i < threads.length; i++)
+		{
+			final int index = i;
+			threads[i] = new Thread()
+			{
+				public void run()
+				{
+					results[index] = cache.getResource(uri);
+				}
+			};
+			threads[i].start();
+		}
+		for(int i = 0; i < threads.length; i++)
+		{
+			threads[i].join();
+		}
+		for(int i = 0; i < results.length; i++)
+		{
+			assertNotNull("Thread " + i + " did not get the resource.", results[i]);
+			assertEquals("Thread " + i + " got a different file.", results[0], results[i]);
+		}
+		assertEquals("The resource was downloaded more than once.", requestsPerDownload, server.getRequestCount("/shared.xsd"));
+	}
+
+	/**
+	 * Test that resources with the same content share one file, which
+	 * is only deleted when the last entry that uses it is deleted.
+	 */
+	public void testSameContentSharesFile()
+	{
+		server.setContent("/a.xsd", "<schema>same</schema>", 0);
+		server.setContent("/b.xsd", "<schema>same</schema>", 0);
+		String resultA = cache.getResource(server.getURI("/a.xsd"));
+		String resultB = cache.getResource(server.getURI("/b.xsd"));
+		assertEquals("The resources do not share a file.", resultA, resultB);
+		assertTrue("The file name is not a content digest.", toFile(resultA).getName().matches("[0-9a-f]{40}\\.cache"));
+
+		cache.deleteEntry(server.getURI("/a.xsd"));
+		assertTrue("The shared file was deleted while still in use.", toFile(resultB).exists());
+		cache.deleteEntry(server.getURI("/b.xsd"));
+		assertFalse("The shared file was not deleted.", toFile(resultB).exists());
+	}
+
+	/**
+	 * Test that the least recently used entry is removed when the cache holds
+	 * more than the maximum number of entries. Its file has been handed out,
+	 * so it is only deleted when the cache is closed.
+	 */
+	public void testLeastRecentlyUsedEntryIsEvicted()
+	{
+		CachePlugin.getDefault().setCacheMaxEntries(2);
+		server.setContent("/1.xsd", "<schema>1</schema>", 0);
+		server.setContent("/2.xsd", "<schema>2</schema>", 0);
+		server.setContent("/3.xsd", "<schema>3</schema>", 0);
+		String result1 = cache.getResource(server.getURI("/1.xsd"));
+		String result2 = cache.getResource(server.getURI("/2.xsd"));
+		// Use the first resource again so that the second one is the least recently used.
+		assertEquals(result1, cache.getResource(server.getURI("/1.xsd")));
+		cache.getResource(server.getURI("/3.xsd"));
+
+		String[] uris = cache.getCachedURIs();
+		assertEquals("The cache holds more than the maximum number of entries.", 2, uris.length);
+		for(int i = 0; i < uris.length; i++)
+		{
+			assertFalse("The least recently used entry was not evicted.", uris[i].equals(server.getURI("/2.xsd")));
+		}
+		assertTrue("A handed out file was deleted while the cache is open.", toFile(result2).exists());
+		assertTrue("The file of a kept entry was deleted.", toFile(result1).exists());
+
+		cache = reopen();
+		assertFalse("The evicted file was not deleted when the cache was closed.", toFile(result2).exists());
+		assertTrue("The file of a kept entry was deleted.", toFile(result1).exists());
+	}
+
+	/**
+	 * Test that a handed out file that is no longer used by any entry is used
+	 * again, and not deleted on close, when the same content is cached again.
+	 */
+	public void testEvictedFileIsReused()
+	{
+		CachePlugin.getDefault().setCacheMaxEntries(1);
+		server.setContent("/1.xsd", "<schema>1</schema>", 0);
+		server.setContent("/2.xsd", "<schema>2</schema>", 0);
+		server.setContent("/copy.xsd", "<schema>1</schema>", 0);
+		String result1 = cache.getResource(server.getURI("/1.xsd"));
+		cache.getResource(server.getURI("/2.xsd"));
+		assertEquals("The same content was stored in another file.", result1, cache.getResource(server.getURI("/copy.xsd")));
+
+		cache = reopen();
+		assertTrue("The file of a cached entry was deleted when the cache was closed.", toFile(result1).exists());
+	}
+
+	/**
+	 * Test that the entries are restored from the journal when the cache is
+	 * opened again, without downloading them again.
+	 */
+	public void testJournalRestoresEntries()
+	{
+		server.setContent("/kept.xsd", "<schema>kept</schema>", 0);
+		server.setContent("/deleted.xsd", "<schema>deleted</schema>", 0);
+		String kept = cache.getResource(server.getURI("/kept.xsd"));
+		cache.getResource(server.getURI("/deleted.xsd"));
+		cache.deleteEntry(server.getURI("/deleted.xsd"));
+		int requests = server.getRequestCount("/kept.xsd");
+
+		cache = reopen();
+		assertTrue("The journal was not written.", new File(cacheDir, "cache.journal").exists());
+		assertFalse("The cache XML file was written.", new File(cacheDir, "cache.xml").exists());
+		String[] uris = cache.getCachedURIs();
+		assertEquals("The deleted entry was restored.", 1, uris.length);
+		assertEquals(server.getURI("/kept.xsd"), uris[0]);
+		assertEquals("The restored entry has a different file.", kept, cache.getResource(server.getURI("/kept.xsd")));
+		assertEquals("The restored entry was downloaded again.", requests, server.getRequestCount("/kept.xsd"));
+	}
+}
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.internet.cache.internal;
+
+import java.io.File;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Platform;
+
+/**
+ * Tests for the CachePrefetchJob class and the cache statistics. The resources
+ * are served by a local HTTP server, and the cache is kept in a temporary directory.
+ */
+public class CachePrefetchJobTest extends TestCase
+{
+	private LocalHttpServer server;
+	private File cacheDir;
+
+	/**
+	  * Create a tests suite from this test class.
+	  *
+	  * @return A test suite containing this test class.
+	  */
+	  public static Test suite()
+	  {
+	    return new TestSuite(CachePrefetchJobTest.class);
+	  }
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		server = new LocalHttpServer();
+		cacheDir = File.createTempFile("cacheprefetchtest", "");
+		cacheDir.delete();
+		cacheDir.mkdirs();
+		Cache.getInstance().close();
+		reopen();
+	}
+
+	protected void tearDown() throws Exception {
+		Cache.getInstance().close();
+		Cache.open(Platform.getStateLocation(CachePlugin.getDefault().getBundle()));
+		server.stop();
+		File[] files = cacheDir.listFiles();
+		for(int i = 0; files != null && i < files.length; i++)
+		{
+			files[i].delete();
+		}
+		cacheDir.delete();
+		super.tearDown();
+	}
+
+	private Cache reopen()
+	{
+		if(Cache.getInstance() != null)
+		{
+			Cache.getInstance().close();
+		}
+		Cache.open(new Path(cacheDir.getAbsolutePath()));
+		return Cache.getInstance();
+	}
+
+	/**
+	 * Test that the job caches all the URIs, and that the first request for a
+	 * prefetched resource is counted as a prefetch hit and does not contact the server.
+	 */
+	public void testPrefetch() throws Exception
+	{
+		String[] uris = new String[10];
+		for(int i = 0; i < uris.length; i++)
+		{
+			server.setContent("/" + i + ".xsd", "<schema>" + i + "</schema>", 50);
+			uris[i] = server.getURI("/" + i + ".xsd");
+		}
+		CachePrefetchJob job = new CachePrefetchJob(uris);
+		job.schedule();
+		job.join();
+
+		Cache cache = Cache.getInstance();
+		CacheStatistics statistics = cache.getStatistics();
+		assertEquals(uris.length, statistics.getPrefetchTotal());
+		assertEquals(uris.length, statistics.getPrefetchCompleted());
+		assertEquals(0, statistics.getPrefetchFailed());
+		assertEquals(uris.length, cache.getCachedURIs().length);
+
+		int requests = server.getRequestCount("/0.xsd");
+		assertNotNull(cache.getResource(uris[0]));
+		assertNotNull(cache.getResource(uris[0]));
+		assertEquals("The prefetched resource was downloaded again.", requests, server.getRequestCount("/0.xsd"));
+		assertEquals(2, statistics.getHits());
+		assertEquals(1.0, statistics.getHitRate(), 0);
+		assertEquals("Only the first request is a prefetch hit.", 1, statistics.getPrefetchHits());
+		assertTrue("No time was saved.", statistics.getSavedTime() > 0);
+	}
+
+	/**
+	 * Test that the recently resolved URIs are remembered across sessions,
+	 * the most recently resolved first, and come first in the URIs to prefetch.
+	 */
+	public void testRecentURIsArePrefetchedFirst()
+	{
+		server.setContent("/a.xsd", "<schema>a</schema>", 0);
+		server.setContent("/b.xsd", "<schema>b</schema>", 0);
+		Cache cache = Cache.getInstance();
+		cache.getResource(server.getURI("/a.xsd"));
+		cache.getResource(server.getURI("/b.xsd"));
+
+		cache = reopen();
+		String[] recent = cache.getRecentURIs();
+		assertEquals(2, recent.length);
+		assertEquals(server.getURI("/b.xsd"), recent[0]);
+		assertEquals(server.getURI("/a.xsd"), recent[1]);
+
+		String[] uris = CachePrefetchJob.getURIsToPrefetch(cache);
+		assertEquals(server.getURI("/b.xsd"), uris[0]);
+		assertEquals(server.getURI("/a.xsd"), uris[1]);
+	}
+
+	/**
+	 * Test that a resource that cannot be prefetched is not remembered as
+	 * uncached, so that it is asked for again when it is first requested.
+	 */
+	public void testFailedPrefetchIsNotUncached() throws Exception
+	{
+		String uri = server.getURI("/missing.xsd");
+		CachePrefetchJob job = new CachePrefetchJob(new String[]{uri});
+		job.schedule();
+		job.join();
+
+		Cache cache = Cache.getInstance();
+		assertEquals(1, cache.getStatistics().getPrefetchFailed());
+		assertEquals(0, cache.getUncachedURIs().length);
+
+		server.setContent("/missing.xsd", "<schema/>", 0);
+		assertNotNull("The resource was not asked for again.", cache.getResource(uri));
+	}
+
+	/**
+	 * Test that a canceled job waits for the resources that are being fetched,
+	 * and fetches no more.
+	 */
+	public void testCancelWaitsForWorkers() throws Exception
+	{
+		String[] uris = new String[8];
+		for(int i = 0; i < uris.length; i++)
+		{
+			server.setContent("/" + i + ".xsd", "<schema>" + i + "</schema>", 500);
+			uris[i] = server.getURI("/" + i + ".xsd");
+		}
+		CachePrefetchJob job = new CachePrefetchJob(uris);
+		job.schedule();
+		while(server.getRequestCount("/0.xsd") == 0)
+		{
+			Thread.sleep(10);
+		}
+		job.cancel();
+		assertTrue("The workers did not finish.", job.waitForWorkers(10000));
+		job.join();
+
+		int requests = 0;
+		for(int i = 0; i < uris.length; i++)
+		{
+			requests += server.getRequestCount("/" + i + ".xsd");
+		}
+		assertTrue("The canceled job kept fetching.", requests < uris.length);
+		assertEquals(requests, Cache.getInstance().getStatistics().getPrefetchCompleted());
+	}
+}
@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.internet.cache.internal;
+
+import java.io.File;
+import java.util.Arrays;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Platform;
+
+/**
+ * Tests for the revalidation of expired entries of the Cache class. The
+ * resources are served by a local HTTP server that says they have already
+ * expired, so every request for them revalidates the cache entry.
+ */
+public class CacheRevalidationTest extends TestCase
+{
+	private static final long LAST_MODIFIED = 1200000000000L;
+
+	private LocalHttpServer server;
+	private File cacheDir;
+	private Cache cache;
+
+	/**
+	  * Create a tests suite from this test class.
+	  *
+	  * @return A test suite containing this test class.
+	  */
+	  public static Test suite()
+	  {
+	    return new TestSuite(CacheRevalidationTest.class);
+	  }
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		server = new LocalHttpServer();
+		cacheDir = File.createTempFile("cacherevalidationtest", "");
+		cacheDir.delete();
+		cacheDir.mkdirs();
+		Cache.getInstance().close();
+		Cache.open(new Path(cacheDir.getAbsolutePath()));
+		cache = Cache.getInstance();
+	}
+
+	protected void tearDown() throws Exception {
+		Cache.getInstance().close();
+		Cache.open(Platform.getStateLocation(CachePlugin.getDefault().getBundle()));
+		server.stop();
+		File[] files = cacheDir.listFiles();
+		for(int i = 0; files != null && i < files.length; i++)
+		{
+			files[i].delete();
+		}
+		cacheDir.delete();
+		super.tearDown();
+	}
+
+	/**
+	 * Test that an expired entry with an entity tag is revalidated
+	 * with If-None-Match and kept when it has not changed.
+	 */
+	public void testETagNotModified()
+	{
+		server.setContent("/etag.xsd", "<schema>etag</schema>", 0);
+		server.setValidators("/etag.xsd", "\"v1\"", 0, true);
+		String uri = server.getURI("/etag.xsd");
+		String first = cache.getResource(uri);
+		assertNotNull(first);
+		String second = cache.getResource(uri);
+		assertEquals("The entry was replaced.", first, second);
+		assertEquals("The entry was not revalidated with its entity tag.", 1, server.getNotModifiedCount("/etag.xsd"));
+		assertEquals("\"v1\"", cache.getCacheEntry(uri).getETag());
+	}
+
+	/**
+	 * Test that an expired entry without an entity tag is revalidated
+	 * with If-Modified-Since and kept when it has not changed.
+	 */
+	public void testLastModifiedNotModified()
+	{
+		server.setContent("/lastmodified.xsd", "<schema>lastmodified</schema>", 0);
+		server.setValidators("/lastmodified.xsd", null, LAST_MODIFIED, true);
+		String uri = server.getURI("/lastmodified.xsd");
+		String first = cache.getResource(uri);
+		String second = cache.getResource(uri);
+		assertEquals("The entry was replaced.", first, second);
+		assertEquals("The entry was not revalidated with its last modified time.", 1, server.getNotModifiedCount("/lastmodified.xsd"));
+	}
+
+	/**
+	 * Test that an expired entry is downloaded again when it has changed.
+	 */
+	public void testModified()
+	{
+		server.setContent("/modified.xsd", "<schema>1</schema>", 0);
+		server.setValidators("/modified.xsd", "\"v1\"", LAST_MODIFIED, true);
+		String uri = server.getURI("/modified.xsd");
+		String first = cache.getResource(uri);
+
+		server.setContent("/modified.xsd", "<schema>2</schema>", 0);
+		server.setValidators("/modified.xsd", "\"v2\"", LAST_MODIFIED + 60000, true);
+		String second = cache.getResource(uri);
+		assertFalse("The changed resource was not downloaded.", first.equals(second));
+		assertFalse("The replaced file was not deleted.", new File(first.substring(8)).exists());
+		assertEquals("\"v2\"", cache.getCacheEntry(uri).getETag());
+		assertEquals(0, server.getNotModifiedCount("/modified.xsd"));
+	}
+
+	/**
+	 * Test that the target of a redirect is stored, and asked directly
+	 * when the entry is revalidated.
+	 */
+	public void testRedirectIsStored()
+	{
+		server.setRedirect("/old.xsd", "/new.xsd");
+		server.setContent("/new.xsd", "<schema>new</schema>", 0);
+		server.setValidators("/new.xsd", "\"new\"", 0, true);
+		String uri = server.getURI("/old.xsd");
+		String first = cache.getResource(uri);
+		assertNotNull(first);
+		assertEquals(server.getURI("/new.xsd"), cache.getCacheEntry(uri).getRedirectURI());
+		assertEquals(1, server.getRequestCount("/old.xsd"));
+		assertEquals(1, server.getRequestCount("/new.xsd"));
+
+		assertEquals(first, cache.getResource(uri));
+		assertEquals("The redirect was followed again.", 1, server.getRequestCount("/old.xsd"));
+		assertEquals(2, server.getRequestCount("/new.xsd"));
+		assertEquals(1, server.getNotModifiedCount("/new.xsd"));
+	}
+
+	/**
+	 * Test that a resource that is not found is added to the uncached
+	 * list, so that it is retried by the cache job.
+	 */
+	public void testNotFoundIsUncached()
+	{
+		String uri = server.getURI("/missing.xsd");
+		assertNull(cache.getResource(uri));
+		assertTrue("The missing resource is not in the uncached list.", Arrays.asList(cache.getUncachedURIs()).contains(uri));
+
+		server.setContent("/missing.xsd", "<schema>found</schema>", 0);
+		cache.clearUncachedURIs();
+		assertNotNull("The resource was not retried.", cache.getResource(uri));
+	}
+
+	/**
+	 * Test that a host that does not answer does not block the caller.
+	 */
+	public void testTimeout()
+	{
+		server.setContent("/slow.xsd", "<schema>slow</schema>", 20000);
+		long start = System.currentTimeMillis();
+		assertNull(cache.getResource(server.getURI("/slow.xsd")));
+		assertTrue("The request was not timed out.", System.currentTimeMillis() - start < 15000);
+	}
+}
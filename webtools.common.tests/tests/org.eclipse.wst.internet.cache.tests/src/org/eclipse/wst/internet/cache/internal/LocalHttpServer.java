@@ -0,0 +1,298 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.internet.cache.internal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * A minimal HTTP server on the loopback interface, so that the cache can be
+ * tested without a network connection. Each connection serves one GET request.
+ * Resources can have an entity tag and a last modified time, in which case
+ * conditional requests are answered with 304 Not Modified when they match.
+ */
+public class LocalHttpServer implements Runnable
+{
+	private final ServerSocket serverSocket;
+	private final Thread thread;
+
+	/**
+	 * The resources that are served. The key is the path and the value is a Resource.
+	 */
+	private final Map resources = new HashMap();
+
+	/**
+	 * The number of requests for each path. The key is the path and the value is an Integer.
+	 */
+	private final Map requests = new HashMap();
+
+	/**
+	 * The number of 304 Not Modified responses for each path. The key is the path and the value is an Integer.
+	 */
+	private final Map notModified = new HashMap();
+
+	private volatile boolean running = true;
+
+	/**
+	 * Start a server on a free port.
+	 *
+	 * @throws IOException If the server socket cannot be opened.
+	 */
+	public LocalHttpServer() throws IOException
+	{
+		serverSocket = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+		thread = new Thread(this, "LocalHttpServer");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Get the URI of a path on this server.
+	 *
+	 * @param path The path, starting with a slash.
+	 * @return The URI of the path.
+	 */
+	public String getURI(String path)
+	{
+		return "http://127.0.0.1:" + serverSocket.getLocalPort() + path;
+	}
+
+	/**
+	 * Serve the content at the path.
+	 *
+	 * @param path The path, starting with a slash.
+	 * @param content The content.
+	 * @param delay The number of milliseconds to wait before answering.
+	 */
+	public synchronized void setContent(String path, String content, long delay)
+	{
+		resources.put(path, new Resource(content, delay));
+	}
+
+	/**
+	 * Set the validators of the content at the path. The content must have been set first.
+	 *
+	 * @param path The path, starting with a slash.
+	 * @param etag The entity tag, or null.
+	 * @param lastModified The last modified time, or 0.
+	 * @param expired If true the response says that it has already expired.
+	 */
+	public synchronized void setValidators(String path, String etag, long lastModified, boolean expired)
+	{
+		Resource resource = (Resource)resources.get(path);
+		resource.etag = etag;
+		resource.lastModified = lastModified;
+		resource.expired = expired;
+	}
+
+	/**
+	 * Redirect requests for the path to another path.
+	 *
+	 * @param path The path, starting with a slash.
+	 * @param target The path to redirect to, starting with a slash.
+	 */
+	public synchronized void setRedirect(String path, String target)
+	{
+		Resource resource = new Resource(null, 0);
+		resource.redirect = target;
+		resources.put(path, resource);
+	}
+
+	/**
+	 * Get the number of 304 Not Modified responses that were sent for the path.
+	 *
+	 * @param path The path, starting with a slash.
+	 * @return The number of 304 Not Modified responses that were sent for the path.
+	 */
+	public synchronized int getNotModifiedCount(String path)
+	{
+		return count(notModified, path);
+	}
+
+	/**
+	 * Get the number of requests that were made for the path.
+	 *
+	 * @param path The path, starting with a slash.
+	 * @return The number of requests that were made for the path.
+	 */
+	public synchronized int getRequestCount(String path)
+	{
+		return count(requests, path);
+	}
+
+	private static int count(Map counts, String path)
+	{
+		Integer count = (Integer)counts.get(path);
+		return count == null ? 0 : count.intValue();
+	}
+
+	/**
+	 * Stop the server.
+	 */
+	public void stop()
+	{
+		running = false;
+		try
+		{
+			serverSocket.close();
+		}
+		catch(IOException e)
+		{
+			// Do nothing if the socket cannot be closed.
+		}
+	}
+
+	public void run()
+	{
+		while(running)
+		{
+			try
+			{
+				final Socket socket = serverSocket.accept();
+				Thread handler = new Thread("LocalHttpServer request")
+				{
+					public void run()
+					{
+						handle(socket);
+					}
+				};
+				handler.setDaemon(true);
+				handler.start();
+			}
+			catch(IOException e)
+			{
+				// The server has been stopped.
+			}
+		}
+	}
+
+	private void handle(Socket socket)
+	{
+		try
+		{
+			BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), "ISO-8859-1"));
+			String requestLine = reader.readLine();
+			if(requestLine == null)
+				return;
+			String ifNoneMatch = null;
+			long ifModifiedSince = 0;
+			String line;
+			while((line = reader.readLine()) != null && line.length() > 0)
+			{
+				int colon = line.indexOf(':');
+				if(colon == -1)
+					continue;
+				String name = line.substring(0, colon).trim();
+				String value = line.substring(colon + 1).trim();
+				if(name.equalsIgnoreCase("If-None-Match"))
+					ifNoneMatch = value;
+				else if(name.equalsIgnoreCase("If-Modified-Since"))
+					ifModifiedSince = createDateFormat().parse(value).getTime();
+			}
+			String[] parts = requestLine.split(" ");
+			String path = parts.length > 1 ? parts[1] : "/";
+
+			Resource resource;
+			boolean unchanged = false;
+			synchronized(this)
+			{
+				resource = (Resource)resources.get(path);
+				requests.put(path, new Integer(count(requests, path) + 1));
+				if(resource != null && resource.redirect == null)
+				{
+					if(ifNoneMatch != null)
+						unchanged = ifNoneMatch.equals(resource.etag);
+					else if(ifModifiedSince > 0)
+						unchanged = resource.lastModified > 0 && resource.lastModified / 1000 <= ifModifiedSince / 1000;
+					if(unchanged)
+						notModified.put(path, new Integer(count(notModified, path) + 1));
+				}
+			}
+			if(resource != null && resource.delay > 0)
+			{
+				Thread.sleep(resource.delay);
+			}
+
+			byte[] body = resource == null || resource.content == null || unchanged ? new byte[0] : resource.content.getBytes("UTF-8");
+			StringBuffer response = new StringBuffer();
+			if(resource == null)
+				response.append("HTTP/1.1 404 Not Found\r\n");
+			else if(resource.redirect != null)
+				response.append("HTTP/1.1 302 Found\r\nLocation: ").append(getURI(resource.redirect)).append("\r\n");
+			else
+			{
+				response.append(unchanged ? "HTTP/1.1 304 Not Modified\r\n" : "HTTP/1.1 200 OK\r\n");
+				if(resource.etag != null)
+					response.append("ETag: ").append(resource.etag).append("\r\n");
+				if(resource.lastModified > 0)
+					response.append("Last-Modified: ").append(createDateFormat().format(new Date(resource.lastModified))).append("\r\n");
+				if(resource.expired)
+					response.append("Expires: ").append(createDateFormat().format(new Date(1000))).append("\r\n");
+			}
+			response.append("Content-Type: text/xml\r\n");
+			response.append("Content-Length: ").append(body.length).append("\r\n");
+			response.append("Connection: close\r\n\r\n");
+			OutputStream os = socket.getOutputStream();
+			os.write(response.toString().getBytes("ISO-8859-1"));
+			os.write(body);
+			os.flush();
+		}
+		catch(Exception e)
+		{
+			// The client went away.
+		}
+		finally
+		{
+			try
+			{
+				socket.close();
+			}
+			catch(IOException e)
+			{
+				// Do nothing if the socket cannot be closed.
+			}
+		}
+	}
+
+	private static SimpleDateFormat createDateFormat()
+	{
+		SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US);
+		format.setTimeZone(TimeZone.getTimeZone("GMT"));
+		return format;
+	}
+
+	private static class Resource
+	{
+		final String content;
+		final long delay;
+		String etag;
+		long lastModified;
+		boolean expired;
+		String redirect;
+
+		Resource(String content, long delay)
+		{
+			this.content = content;
+			this.delay = delay;
+		}
+	}
+}
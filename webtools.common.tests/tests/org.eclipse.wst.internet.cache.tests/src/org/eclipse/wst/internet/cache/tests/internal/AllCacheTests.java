@@ -12,6 +12,9 @@ package org.eclipse.wst.internet.cache.tests.internal;
 import junit.framework.Test;
 
 import org.eclipse.wst.internet.cache.internal.CacheEntryTest;
+import org.eclipse.wst.internet.cache.internal.CacheIndexTest;
+import org.eclipse.wst.internet.cache.internal.CachePrefetchJobTest;
+import org.eclipse.wst.internet.cache.internal.CacheRevalidationTest;
 import org.eclipse.wst.internet.cache.internal.CacheTest;
 import org.eclipse.wst.internet.cache.internal.CacheURIResolverExtensionTest;
 import org.eclipse.wst.internet.cache.internal.LicenseRegistryTest;
@@ -38,6 +41,9 @@ public class AllCacheTests extends junit.framework.TestSuite
     super("AllCacheTests");
 	addTest(CacheTest.suite());
 	addTest(CacheEntryTest.suite());
+	addTest(CacheIndexTest.suite());
+	addTest(CacheRevalidationTest.suite());
+	addTest(CachePrefetchJobTest.suite());
 	addTest(CacheURIResolverExtensionTest.suite());
 	addTest(LicenseRegistryTest.suite());
   }
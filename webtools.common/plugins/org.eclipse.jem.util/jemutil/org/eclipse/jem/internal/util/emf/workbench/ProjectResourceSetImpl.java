@@ -570,6 +570,48 @@ public class ProjectResourceSetImpl extends ResourceSetImpl implements FlexibleP
 			}
 		}
 
+		// keep the normalized URI index in step with the list
+		protected void didAdd(int index, E newObject) {
+			super.didAdd(index, newObject);
+			uriIndex.added(newObject);
+		}
+
+		protected void didRemove(int index, E oldObject) {
+			super.didRemove(index, oldObject);
+			uriIndex.removed(oldObject);
+		}
+
+		protected void didSet(int index, E newObject, E oldObject) {
+			super.didSet(index, newObject, oldObject);
+			uriIndex.removed(oldObject);
+			uriIndex.added(newObject);
+		}
+
+		public void setData(int size, Object[] data) {
+
+			try {
+				lock.acquire();
+				super.setData(size, data);
+				uriIndex.rebuild(this);
+			} finally {
+				lock.release();
+			}
+		}
+
+		/*
+		 * Index the resources again in the order of the list. The list is locked before the index, as it is
+		 * for every other change.
+		 */
+		void reindex() {
+
+			try {
+				lock.acquire();
+				uriIndex.rebuild(this);
+			} finally {
+				lock.release();
+			}
+		}
+
 		// release lock during notifications
 		protected void dispatchNotification(Notification notification) {
 
@@ -660,10 +702,178 @@ public class ProjectResourceSetImpl extends ResourceSetImpl implements FlexibleP
 		}
 	}
 
+	/**
+	 * An index of the resources in the set by their normalized URI, so that a resource can be found without
+	 * normalizing the URI of every resource in the set.
+	 * <p>
+	 * The normalized URI of each resource is remembered until the URI of the resource changes or the resource is
+	 * removed from the set. Every URI is normalized again when {@link ProjectResourceSetImpl#resetNormalizedURICache()}
+	 * is called, when the URIConverter is replaced, or when a {@link WorkbenchURIConverterImpl} says that its
+	 * normalized URIs may have changed, because its containers changed or files were added or removed under
+	 * them. Resources that are added are only normalized when the index is next used, so adding a resource never
+	 * calls the URIConverter. The resources with the same normalized URI are answered in the order of the list
+	 * of resources. All access is synchronized on the index.
+	 * </p>
+	 */
+	protected class NormalizedURIIndex implements Adapter {
+
+		/** The normalized URI of each indexed resource, the URI is null for a resource without one. */
+		private final Map<Resource, URI> normalized = new HashMap<Resource, URI>();
+
+		/** The indexed resources with each normalized URI, in the order that they were indexed. */
+		private final Map<URI, List<Resource>> resources = new HashMap<URI, List<Resource>>();
+
+		/** The resources that have been added, but have not been indexed yet. */
+		private final Set<Resource> pending = new LinkedHashSet<Resource>();
+
+		/** True if every resource must be normalized again before the index is used. */
+		private boolean stale;
+
+		/** The {@link WorkbenchURIConverterImpl#getNormalizedStamp()} that the index is up to date with. */
+		private long stamp = -1;
+
+		public synchronized void added(Resource resource) {
+			if (resource == null || normalized.containsKey(resource))
+				return;
+			pending.add(resource);
+			if (!resource.eAdapters().contains(this))
+				resource.eAdapters().add(this);
+		}
+
+		public synchronized void removed(Resource resource) {
+			if (resource == null)
+				return;
+			pending.remove(resource);
+			unindex(resource);
+			resource.eAdapters().remove(this);
+		}
+
+		/**
+		 * Forget all the normalized URIs, they are worked out again when the index is next used.
+		 */
+		public synchronized void reset() {
+			stale = true;
+		}
+
+		/**
+		 * Replace the contents of the index with these resources, which are indexed in this order.
+		 */
+		public synchronized void rebuild(Collection<? extends Resource> all) {
+			Set<Resource> old = new HashSet<Resource>(normalized.keySet());
+			old.addAll(pending);
+			old.removeAll(all);
+			for (Resource resource : old)
+				removed(resource);
+			normalized.clear();
+			resources.clear();
+			pending.clear();
+			for (Resource resource : all)
+				added(resource);
+			stale = false;
+		}
+
+		/**
+		 * Answer the resources whose normalized URI is normalizedURI, in the order of the list of resources.
+		 *
+		 * @param normalizedURI
+		 * @param converter
+		 *            the converter that is used to normalize the URIs of the resources that are not indexed yet.
+		 * @return a copy of the matching resources, which may be empty.
+		 */
+		public List<Resource> get(URI normalizedURI, URIConverter converter) {
+			if (isStale(converter))
+				((SynchronizedResourcesEList<Resource>) primGetResources()).reindex();
+			List<Resource> result;
+			synchronized (this) {
+				for (Iterator<Resource> it = pending.iterator(); it.hasNext();) {
+					Resource resource = it.next();
+					URI uri = resource.getURI();
+					index(resource, uri == null ? null : converter.normalize(uri));
+					it.remove();
+				}
+				List<Resource> list = resources.get(normalizedURI);
+				if (list == null)
+					return Collections.emptyList();
+				result = new ArrayList<Resource>(list);
+			}
+			if (result.size() > 1) {
+				// the first one in the list of resources wins, whenever it was indexed
+				final List<Resource> order = Arrays.asList(primGetResources().toArray(new Resource[0]));
+				Collections.sort(result, new Comparator<Resource>() {
+					public int compare(Resource r1, Resource r2) {
+						return order.indexOf(r1) - order.indexOf(r2);
+					}
+				});
+			}
+			return result;
+		}
+
+		/*
+		 * Answer true if the resources must be normalized again. This is not done while holding the index lock,
+		 * since the list of resources has to be locked first.
+		 */
+		private boolean isStale(URIConverter converter) {
+			long current = converter instanceof WorkbenchURIConverterImpl ? ((WorkbenchURIConverterImpl) converter).getNormalizedStamp() : 0;
+			synchronized (this) {
+				if (current != stamp) {
+					stamp = current;
+					stale = true;
+				}
+				return stale;
+			}
+		}
+
+		private void index(Resource resource, URI normalizedURI) {
+			normalized.put(resource, normalizedURI);
+			List<Resource> list = resources.get(normalizedURI);
+			if (list == null) {
+				list = new ArrayList<Resource>(1);
+				resources.put(normalizedURI, list);
+			}
+			list.add(resource);
+		}
+
+		private void unindex(Resource resource) {
+			if (!normalized.containsKey(resource))
+				return;
+			URI normalizedURI = normalized.remove(resource);
+			List<Resource> list = resources.get(normalizedURI);
+			if (list != null) {
+				list.remove(resource);
+				if (list.isEmpty())
+					resources.remove(normalizedURI);
+			}
+		}
+
+		public void notifyChanged(Notification msg) {
+			if (msg.getFeatureID(Resource.class) == Resource.RESOURCE__URI && msg.getNotifier() instanceof Resource)
+				uriChanged((Resource) msg.getNotifier());
+		}
+
+		private synchronized void uriChanged(Resource resource) {
+			if (normalized.containsKey(resource)) {
+				unindex(resource);
+				pending.add(resource);
+			}
+		}
+
+		public Notifier getTarget() {
+			return null;
+		}
+
+		public void setTarget(Notifier newTarget) {
+		}
+
+		public boolean isAdapterForType(Object type) {
+			return type == NormalizedURIIndex.class;
+		}
+	}
+
 	private boolean isReleasing = false;
 	private IProject project;
 	protected List resourceHandlers = new ArrayList();
 	private Object resourcesLock = new Object();
+	private final NormalizedURIIndex uriIndex = new NormalizedURIIndex();
 	protected ResourceSetWorkbenchSynchronizer synchronizer;
 	protected ProjectResourceSetImpl() {
 		setURIResourceMap(new HashMap(10));	// Tell it to cache uri->resource access.
@@ -803,6 +1013,25 @@ public class ProjectResourceSetImpl extends ResourceSetImpl implements FlexibleP
 		}
 		return result;
 	}
+	/**
+	 * Add a resource that was created and loaded in another resource set, unless this set already has a
+	 * resource for its URI. The check and the add are done together, under the lock that the lookups use,
+	 * so two threads can never add a resource for the same URI.
+	 * 
+	 * @param resource
+	 * @return the resource for the URI in this set, which is either <code>resource</code> or the resource that
+	 *         was already there, or <code>null</code> if the set is being released.
+	 */
+	public Resource attachResource(Resource resource) {
+		if (isReleasing) return null;
+		synchronized (resourcesLock) {
+			Resource existing = getResource(resource.getURI(), false);
+			if (existing != null)
+				return existing;
+			getResources().add(resource);
+			return resource;
+		}
+	}
 	/**
 	 * @see org.eclipse.emf.ecore.resource.impl.ResourceSetImpl#demandLoad(Resource)
 	 */
@@ -1010,29 +1239,25 @@ public class ProjectResourceSetImpl extends ResourceSetImpl implements FlexibleP
 	    URI normalizedURI = theURIConverter.normalize(uri);
 	    List resourcesToRemove = new ArrayList();
 	    synchronized (resourcesLock) {
-	    	List<Resource> c = getImmutableResources();
+	    	// only the resources with the same normalized URI, a private copy so it can't change while loading
+	    	List<Resource> c = uriIndex.get(normalizedURI, theURIConverter);
 	        
-	        synchronized(c) {
-				for (Resource resource : c) {
-					if (theURIConverter.normalize(resource.getURI()).equals(normalizedURI)) {
-	
-						if (getContentTypeName(uri) == null) { // loading from legacy archive api or non-typed resource
-							if (loadOnDemand && !resource.isLoaded()) {
-								demandLoadHelper(resource);
-							}
-	
-							if (map != null) {
-								map.put(uri, resource);
-							}
-							return resource;
-						} else {
-							Resource loadedRes = loadWithContentType(resource, uri, map, loadOnDemand, resourcesToRemove);
-							if (loadedRes != null)
-								return loadedRes;
-						}
+			for (Resource resource : c) {
+				if (getContentTypeName(uri) == null) { // loading from legacy archive api or non-typed resource
+					if (loadOnDemand && !resource.isLoaded()) {
+						demandLoadHelper(resource);
 					}
+
+					if (map != null) {
+						map.put(uri, resource);
+					}
+					return resource;
+				} else {
+					Resource loadedRes = loadWithContentType(resource, uri, map, loadOnDemand, resourcesToRemove);
+					if (loadedRes != null)
+						return loadedRes;
 				}
-	        }
+			}
 		}
 	    synchronized (resourcesLock) {
 	    // Cleanup invalid resources
@@ -1181,23 +1406,19 @@ public class ProjectResourceSetImpl extends ResourceSetImpl implements FlexibleP
 	    URIConverter theURIConverter = getURIConverter();
 	    URI normalizedURI = theURIConverter.normalize(uri);
 	    synchronized (resourcesLock) {
-	    	List<Resource> c = getImmutableResources();
+	    	List<Resource> c = uriIndex.get(normalizedURI, theURIConverter);
 	        
-	        synchronized(c) {
-	        	
-				for (Resource resource : c) {
-					if (theURIConverter.normalize(resource.getURI()).equals(normalizedURI)) {
-						if (loadOnDemand && !resource.isLoaded()) {
-							demandLoadHelper(resource);
-						}
-	
-						if (map != null) {
-							map.put(uri, resource);
-						}
-						return resource;
-					}
+			if (!c.isEmpty()) {
+				Resource resource = c.get(0);
+				if (loadOnDemand && !resource.isLoaded()) {
+					demandLoadHelper(resource);
+				}
+
+				if (map != null) {
+					map.put(uri, resource);
 				}
-	        }
+				return resource;
+			}
 		}
 	    
 	    Resource delegatedResource = delegatedGetResource(uri, loadOnDemand);
@@ -1238,6 +1459,17 @@ public class ProjectResourceSetImpl extends ResourceSetImpl implements FlexibleP
 	public void resetNormalizedURICache() {
 		if (getURIResourceMap() != null)
 			getURIResourceMap().clear();
+		if (getURIConverter() instanceof WorkbenchURIConverterImpl)
+			((WorkbenchURIConverterImpl) getURIConverter()).resetNormalizedCache();
+		uriIndex.reset();
+	}
+
+	/*
+	 * The resources are indexed by URIs normalized with the old converter.
+	 */
+	public void setURIConverter(URIConverter converter) {
+		super.setURIConverter(converter);
+		uriIndex.reset();
 	}
 	
 	protected Resource demandCreateResource(URI uri, Factory resourceFactory) {
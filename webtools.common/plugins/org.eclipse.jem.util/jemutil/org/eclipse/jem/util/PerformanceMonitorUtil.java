@@ -46,6 +46,8 @@ public abstract class PerformanceMonitorUtil {
 			snapshowWithTypes = false;
 			this.step = step;
 			this.types = 0;	// Not set.
+			this.name = null;
+			this.time = -1;
 		}
 		
 		PerformanceEvent(Object source, int step, int types) {
@@ -53,6 +55,17 @@ public abstract class PerformanceMonitorUtil {
 			snapshowWithTypes = true;
 			this.step = step;
 			this.types = types;
+			this.name = null;
+			this.time = -1;
+		}
+
+		PerformanceEvent(Object source, int step, String name, long time) {
+			super(source);
+			snapshowWithTypes = false;
+			this.step = step;
+			this.types = 0;	// Not set.
+			this.name = name;
+			this.time = time;
 		}
 
 		
@@ -73,6 +86,18 @@ public abstract class PerformanceMonitorUtil {
 		 * @since 1.1.0
 		 */
 		public final int types;
+
+		/**
+		 * What was timed, if this is for {@link PerformanceMonitorUtil#recordTime(int, String, long)}, otherwise <code>null</code>.
+		 * @since 2.1.200
+		 */
+		public final String name;
+
+		/**
+		 * The elapsed time in milliseconds, if this is for {@link PerformanceMonitorUtil#recordTime(int, String, long)}, otherwise -1.
+		 * @since 2.1.200
+		 */
+		public final long time;
 	}
 	
 	/**
@@ -221,6 +246,24 @@ public abstract class PerformanceMonitorUtil {
 	 */
 	protected abstract void doSnapshot(int step, int types);	
 	
+	/**
+	 * Record how long a step, such as the load of one resource, took. Unlike a snapshot this does not take any
+	 * measurements itself, the listeners are notified with an event that has the name and the time.
+	 * 
+	 * @param step
+	 *            this identifies the step that the time is for
+	 * @param name
+	 *            what was timed, for example the URI of the resource
+	 * @param time
+	 *            the elapsed time in milliseconds
+	 * 
+	 * @since 2.1.200
+	 */
+	public void recordTime(int step, String name, long time) {
+		if (listeners != null)
+			notifySnapshot(new PerformanceEvent(this, step, name, time));
+	}
+
 	/**
 	 * Add listener to list.
 	 * @param listener
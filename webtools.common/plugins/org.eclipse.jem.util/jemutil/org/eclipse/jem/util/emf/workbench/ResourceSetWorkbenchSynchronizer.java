@@ -309,4 +309,22 @@ public class ResourceSetWorkbenchSynchronizer implements IResourceChangeListener
 		//Default is do nothing
 	}
 
+	/**
+	 * Answer whether files can be saved through a {@link WorkbenchFileOutputStream}, which only writes the file
+	 * when it is closed, instead of a {@link WorkbenchByteArrayOutputStream}, which writes it again each time it is
+	 * flushed.
+	 * <p>
+	 * Default is <code>true</code>. Subclasses that need to see the file written on each flush should answer
+	 * <code>false</code>, so that saves are buffered.
+	 * </p>
+	 * 
+	 * @return <code>true</code> if saves may be streamed.
+	 * 
+	 * @see WorkbenchURIConverterImpl#setStreamingSave(boolean)
+	 * @since 2.1.200
+	 */
+	public boolean isStreamingSaveSupported() {
+		return true;
+	}
+
 }
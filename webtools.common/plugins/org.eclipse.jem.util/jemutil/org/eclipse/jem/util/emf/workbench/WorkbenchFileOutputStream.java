@@ -0,0 +1,255 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jem.util.emf.workbench;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.emf.ecore.resource.Resource;
+
+/**
+ * Streaming OutputStream for the Workbench. It is used instead of {@link WorkbenchByteArrayOutputStream} when
+ * {@link WorkbenchURIConverterImpl#setStreamingSave(boolean) streaming save} is turned on. Small contents are kept
+ * in memory, but once they grow past {@link #MEMORY_THRESHOLD} they are written to a temporary file instead, so
+ * that a large save never holds the whole document in memory. The IFile is set from that file when the stream is
+ * closed, after the synchronizer has been told of the save.
+ * <p>
+ * Unlike {@link WorkbenchByteArrayOutputStream}, {@link #flush()} does not write the IFile, and the line
+ * separators are converted as the bytes are written, if the setting for the stream is to do eol conversion.
+ * </p>
+ *
+ * @since 2.1.200
+ */
+public class WorkbenchFileOutputStream extends OutputStream {
+
+	/**
+	 * The number of bytes that are kept in memory before the contents are moved to a temporary file.
+	 */
+	public static final int MEMORY_THRESHOLD = 64 * 1024;
+
+	private static final byte[] EOL_BYTES = System.getProperties().getProperty("line.separator").getBytes(); //$NON-NLS-1$
+
+	protected IFile file;
+
+	protected ResourceSetWorkbenchSynchronizer synchronizer;
+
+	private boolean fConvertEOL = false;
+
+	private boolean closed = false;
+
+	/* The contents while they are small, null once they have been moved to the temporary file. */
+	private ContentsBuffer memory = new ContentsBuffer();
+
+	private File tempFile;
+
+	private OutputStream tempOutput;
+
+	/**
+	 * Construct with a IFile and a synchronizer. This way synchronizer will know when file is about to be saved.
+	 *
+	 * @param aFile
+	 * @param aSynchronizer
+	 *            the synchronizer, or <code>null</code>.
+	 *
+	 * @since 2.1.200
+	 */
+	public WorkbenchFileOutputStream(IFile aFile, ResourceSetWorkbenchSynchronizer aSynchronizer) {
+		file = aFile;
+		synchronizer = aSynchronizer;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.io.OutputStream#write(int)
+	 */
+	public void write(int b) throws IOException {
+		ensureOpen();
+		if (fConvertEOL) {
+			if (b == '\r')
+				return;
+			if (b == '\n') {
+				writeContents(EOL_BYTES, 0, EOL_BYTES.length);
+				return;
+			}
+		}
+		reserve(1);
+		if (memory != null)
+			memory.write(b);
+		else
+			tempOutput.write(b);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.io.OutputStream#write(byte[], int, int)
+	 */
+	public void write(byte[] b, int off, int len) throws IOException {
+		ensureOpen();
+		if (!fConvertEOL) {
+			writeContents(b, off, len);
+			return;
+		}
+		// Algorithm, the same as WorkbenchByteArrayOutputStream but without a second copy:
+		// Remove all '\r' chars
+		// Replace all '\n' chars with line separator chars
+		int end = off + len;
+		int run = off;
+		for (int in = off; in < end; in++) {
+			if (b[in] == '\r' || b[in] == '\n') {
+				writeContents(b, run, in - run);
+				if (b[in] == '\n')
+					writeContents(EOL_BYTES, 0, EOL_BYTES.length);
+				run = in + 1;
+			}
+		}
+		writeContents(b, run, end - run);
+	}
+
+	/**
+	 * Flushes the temporary file, if there is one. The IFile is only written by {@link #close()}.
+	 *
+	 * @see java.io.OutputStream#flush()
+	 */
+	public void flush() throws IOException {
+		if (tempOutput != null)
+			tempOutput.flush();
+	}
+
+	/**
+	 * Tell the synchronizer of the save, and set the contents of the IFile from what has been written. The IFile,
+	 * and any folders above it, are created if they do not exist.
+	 *
+	 * @see java.io.OutputStream#close()
+	 */
+	public void close() throws IOException {
+		if (closed)
+			return;
+		closed = true;
+		try {
+			InputStream contents;
+			if (tempOutput != null) {
+				tempOutput.close();
+				contents = new BufferedInputStream(new FileInputStream(tempFile));
+			} else
+				contents = memory.toInputStream();
+			try {
+				if (synchronizer != null)
+					synchronizer.preSave(file);
+				if (file.exists())
+					file.setContents(contents, false, true, null);
+				else {
+					createContainer(file.getParent());
+					file.create(contents, false, null);
+				}
+			} catch (CoreException e) {
+				throw new Resource.IOWrappedException(e);
+			} finally {
+				contents.close();
+			}
+		} finally {
+			memory = null;
+			if (tempFile != null)
+				tempFile.delete();
+		}
+	}
+
+	/**
+	 * Is EOL conversion turned on.
+	 *
+	 * @return <code>true</code> if EOL conversion is turned on.
+	 *
+	 * @since 2.1.200
+	 */
+	public boolean isConvertEOLChars() {
+		return fConvertEOL;
+	}
+
+	/**
+	 * Set the EOL conversion flag. It only applies to the bytes written after it is set.
+	 *
+	 * @param set
+	 *            <code>true</code> if EOL should be converted to current line separator.
+	 *
+	 * @since 2.1.200
+	 */
+	public void setConvertEOLChars(boolean set) {
+		fConvertEOL = set;
+	}
+
+	/**
+	 * Answer whether the contents have grown large enough to have been moved to a temporary file.
+	 *
+	 * @return <code>true</code> if the contents are in a temporary file.
+	 *
+	 * @since 2.1.200
+	 */
+	public boolean isUsingTempFile() {
+		return tempFile != null;
+	}
+
+	private void writeContents(byte[] b, int off, int len) throws IOException {
+		if (len == 0)
+			return;
+		reserve(len);
+		if (memory != null)
+			memory.write(b, off, len);
+		else
+			tempOutput.write(b, off, len);
+	}
+
+	/*
+	 * Move the contents to the temporary file if len more bytes would take them past the threshold.
+	 */
+	private void reserve(int len) throws IOException {
+		if (memory == null || memory.size() + len <= MEMORY_THRESHOLD)
+			return;
+		tempFile = File.createTempFile("wbsave", ".tmp"); //$NON-NLS-1$ //$NON-NLS-2$
+		tempOutput = new BufferedOutputStream(new FileOutputStream(tempFile));
+		memory.writeTo(tempOutput);
+		memory = null;
+	}
+
+	private void ensureOpen() throws IOException {
+		if (closed)
+			throw new IOException("WorkbenchFileOutputStream: Stream is closed"); //$NON-NLS-1$
+	}
+
+	private void createContainer(IContainer container) throws CoreException {
+		if (container.exists() || container.getType() != IResource.FOLDER)
+			return;
+		createContainer(container.getParent());
+		((IFolder) container).create(false, true, null);
+	}
+
+	/*
+	 * Gives the buffered contents to an input stream without copying them.
+	 */
+	private static class ContentsBuffer extends ByteArrayOutputStream {
+		InputStream toInputStream() {
+			return new ByteArrayInputStream(buf, 0, count);
+		}
+	}
+}
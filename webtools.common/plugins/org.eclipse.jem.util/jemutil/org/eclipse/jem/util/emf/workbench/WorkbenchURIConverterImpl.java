@@ -16,7 +16,9 @@ package org.eclipse.jem.util.emf.workbench;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.*;
@@ -52,6 +54,39 @@ public class WorkbenchURIConverterImpl extends URIConverterImpl implements Workb
 	protected IContainer outputContainer;
 
 	protected ResourceSetWorkbenchSynchronizer resourceSetSynchronizer;
+
+	/**
+	 * The system property that turns on streaming saves for all converters, see {@link #setStreamingSave(boolean)}.
+	 * 
+	 * @since 2.1.200
+	 */
+	public static final String STREAMING_SAVE_PROPERTY = "org.eclipse.jem.util.emf.workbench.streamingSave"; //$NON-NLS-1$
+
+	private boolean streamingSave = Boolean.getBoolean(STREAMING_SAVE_PROPERTY);
+
+	/*
+	 * The memo table of normalize() for relative and file URIs, which need the workspace to be searched. The
+	 * key is the URI after the URI map has been applied, the value is the normalized URI, or NO_RESULT.
+	 * All access is synchronized on the table.
+	 */
+	private final Map normalizedCache = new HashMap();
+
+	private static final Object NO_RESULT = new Object();
+
+	/* The table is cleared when it gets this big. */
+	private static final int MAX_NORMALIZED_CACHE_SIZE = 10000;
+
+	/* The WorkspaceFileChanges generation that the table is up to date with. */
+	private long normalizedGeneration = -1;
+
+	/* Counts the changes that may have changed the result of normalize(), see getNormalizedStamp(). */
+	private long normalizedStamp;
+
+	private int normalizeHits;
+
+	private int normalizeMisses;
+
+	private int normalizeInvalidations;
 	
 	/*
 	 * KLUDGE: We need to know the meta data area. This is so that any uri that starts with the metadata directory
@@ -133,8 +168,10 @@ public class WorkbenchURIConverterImpl extends URIConverterImpl implements Workb
 	 * @see org.eclipse.jem.util.emf.workbench.WorkbenchURIConverter#addInputContainer(org.eclipse.core.resources.IContainer)
 	 */
 	public void addInputContainer(IContainer aContainer) {
-		if (aContainer != null && !getInputContainers().contains(aContainer))
+		if (aContainer != null && !getInputContainers().contains(aContainer)) {
 			getInputContainers().add(aContainer);
+			resetNormalizedCache();
+		}
 	}
 
 	/*
@@ -154,7 +191,10 @@ public class WorkbenchURIConverterImpl extends URIConverterImpl implements Workb
 	 * @see org.eclipse.jem.util.emf.workbench.WorkbenchURIConverter#removeInputContainer(org.eclipse.core.resources.IContainer)
 	 */
 	public boolean removeInputContainer(IContainer aContainer) {
-		return getInputContainers().remove(aContainer);
+		boolean removed = getInputContainers().remove(aContainer);
+		if (removed)
+			resetNormalizedCache();
+		return removed;
 	}
 
 	/*
@@ -198,6 +238,7 @@ public class WorkbenchURIConverterImpl extends URIConverterImpl implements Workb
 	 */
 	public void setOutputContainer(IContainer newOutputContainer) {
 		outputContainer = newOutputContainer;
+		resetNormalizedCache();
 	}
 
 	/*
@@ -354,6 +395,34 @@ public class WorkbenchURIConverterImpl extends URIConverterImpl implements Workb
 	 */
 	public void setForceSaveRelative(boolean forceSaveRelative) {
 		this.forceSaveRelative = forceSaveRelative;
+		resetNormalizedCache();
+	}
+
+	/**
+	 * Answer whether resources are saved through a {@link WorkbenchFileOutputStream}.
+	 * 
+	 * @return <code>true</code> if saves are streamed.
+	 * 
+	 * @see #setStreamingSave(boolean)
+	 * @since 2.1.200
+	 */
+	public boolean isStreamingSave() {
+		return streamingSave;
+	}
+
+	/**
+	 * Set whether resources are saved through a {@link WorkbenchFileOutputStream}, which moves large contents to a
+	 * temporary file instead of holding them in memory, rather than a {@link WorkbenchByteArrayOutputStream}. Saves
+	 * are still buffered if the synchronizer does not support streaming, see
+	 * {@link ResourceSetWorkbenchSynchronizer#isStreamingSaveSupported()}. The default comes from the
+	 * {@link #STREAMING_SAVE_PROPERTY} system property.
+	 * 
+	 * @param streamingSave
+	 * 
+	 * @since 2.1.200
+	 */
+	public void setStreamingSave(boolean streamingSave) {
+		this.streamingSave = streamingSave;
 	}
 
 	/*
@@ -376,12 +445,8 @@ public class WorkbenchURIConverterImpl extends URIConverterImpl implements Workb
 		}
 		String protocol = result.scheme();
 		URI fileSearchURI = null;
-		if (protocol == null) {
-			fileSearchURI = normalizeEmptyProtocol(result, fragment);
-			if (fileSearchURI != null)
-				return fileSearchURI;
-		} else if (FILE_PROTOCOL.equals(protocol)) {
-			fileSearchURI = normalizeFileProtocol(result, fragment);
+		if (protocol == null || FILE_PROTOCOL.equals(protocol)) {
+			fileSearchURI = normalizeWithCache(result, fragment);
 			if (fileSearchURI != null)
 				return fileSearchURI;
 		} else if (JEMUtilPlugin.WORKSPACE_PROTOCOL.equals(protocol))
@@ -389,6 +454,136 @@ public class WorkbenchURIConverterImpl extends URIConverterImpl implements Workb
 		return super.normalize(uri);
 	}
 
+	/*
+	 * Normalize a relative or file URI, which needs the workspace to be searched, using the memo table.
+	 */
+	private URI normalizeWithCache(URI mapped, String fragment) {
+		URI key = fragment == null ? mapped : mapped.appendFragment(fragment);
+		validateNormalizedCache();
+		long generation;
+		long stamp;
+		synchronized (normalizedCache) {
+			Object cached = normalizedCache.get(key);
+			if (cached != null) {
+				normalizeHits++;
+				return cached == NO_RESULT ? null : (URI) cached;
+			}
+			normalizeMisses++;
+			generation = normalizedGeneration;
+			stamp = normalizedStamp;
+		}
+		URI normalized;
+		if (mapped.scheme() == null)
+			normalized = normalizeEmptyProtocol(mapped, fragment);
+		else
+			normalized = normalizeFileProtocol(mapped, fragment);
+		synchronized (normalizedCache) {
+			// The result is not kept if the workspace or the containers changed while it was being found.
+			if (stamp == normalizedStamp && generation == normalizedGeneration
+					&& generation == WorkspaceFileChanges.getInstance().getGeneration()) {
+				if (normalizedCache.size() >= MAX_NORMALIZED_CACHE_SIZE)
+					normalizedCache.clear();
+				normalizedCache.put(key, normalized == null ? NO_RESULT : normalized);
+			}
+		}
+		return normalized;
+	}
+
+	/*
+	 * Clear the memo table if a resource has been added or removed under one of the containers since it was
+	 * last checked.
+	 */
+	private void validateNormalizedCache() {
+		WorkspaceFileChanges changes = WorkspaceFileChanges.getInstance();
+		long generation = changes.getGeneration();
+		synchronized (normalizedCache) {
+			if (generation == normalizedGeneration)
+				return;
+			if (normalizedGeneration < 0 || changes.changedSince(normalizedGeneration, getContainerPaths())) {
+				if (!normalizedCache.isEmpty()) {
+					normalizedCache.clear();
+					normalizeInvalidations++;
+				}
+				normalizedStamp++;
+			}
+			normalizedGeneration = generation;
+		}
+	}
+
+	private IPath[] getContainerPaths() {
+		List containers = new ArrayList(getInputContainers());
+		if (getOutputContainer() != null)
+			containers.add(getOutputContainer());
+		IPath[] paths = new IPath[containers.size()];
+		for (int i = 0; i < paths.length; i++)
+			paths[i] = ((IContainer) containers.get(i)).getFullPath();
+		return paths;
+	}
+
+	/**
+	 * Forget the URIs that have been normalized. This is done automatically when the containers are changed
+	 * through this converter, or when resources are added to or removed from the workspace under them. It
+	 * only needs to be called if the list answered by {@link #getInputContainers()} was changed directly.
+	 *
+	 * @since 2.1.200
+	 */
+	public void resetNormalizedCache() {
+		synchronized (normalizedCache) {
+			if (!normalizedCache.isEmpty()) {
+				normalizedCache.clear();
+				normalizeInvalidations++;
+			}
+			normalizedStamp++;
+		}
+	}
+
+	/**
+	 * Answer a number that changes whenever the result of normalizing a relative or file URI may have changed,
+	 * because the containers were changed or a resource was added or removed under them. Callers that keep
+	 * normalized URIs of their own can compare it with the number they saw when they normalized them.
+	 *
+	 * @since 2.1.200
+	 */
+	public long getNormalizedStamp() {
+		validateNormalizedCache();
+		synchronized (normalizedCache) {
+			return normalizedStamp;
+		}
+	}
+
+	/**
+	 * Answer the number of normalizations of relative and file URIs that were answered from the memo table.
+	 *
+	 * @since 2.1.200
+	 */
+	public int getNormalizeHits() {
+		synchronized (normalizedCache) {
+			return normalizeHits;
+		}
+	}
+
+	/**
+	 * Answer the number of normalizations of relative and file URIs that had to search the workspace.
+	 *
+	 * @since 2.1.200
+	 */
+	public int getNormalizeMisses() {
+		synchronized (normalizedCache) {
+			return normalizeMisses;
+		}
+	}
+
+	/**
+	 * Answer the number of times that the memo table was cleared because something it depends on changed.
+	 *
+	 * @since 2.1.200
+	 */
+	public int getNormalizeInvalidations() {
+		synchronized (normalizedCache) {
+			return normalizeInvalidations;
+		}
+	}
+
 	/*
 	 * Resolves a plugin format into the actual.
 	 */
@@ -476,6 +671,8 @@ public class WorkbenchURIConverterImpl extends URIConverterImpl implements Workb
 	public OutputStream createPlatformResourceOutputStream(String platformResourcePath) throws IOException {
 		IFile file = WORKSPACE_ROOT.getFile(new Path(platformResourcePath));
 		ProjectUtilities.ensureContainerNotReadOnly(file);
+		if (streamingSave && (resourceSetSynchronizer == null || resourceSetSynchronizer.isStreamingSaveSupported()))
+			return new WorkbenchFileOutputStream(file, resourceSetSynchronizer);
 		return new WorkbenchByteArrayOutputStream(file, resourceSetSynchronizer);
 	}
 
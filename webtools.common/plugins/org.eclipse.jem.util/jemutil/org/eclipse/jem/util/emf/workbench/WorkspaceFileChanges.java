@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jem.util.emf.workbench;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.SynchronousBundleListener;
+
+import org.eclipse.jem.util.logger.proxy.Logger;
+import org.eclipse.jem.util.plugin.JEMUtilPlugin;
+
+/**
+ * A short history of the resources that were added to or removed from the workspace. It lets each
+ * {@link WorkbenchURIConverterImpl} tell whether a change affects its memo table of normalized URIs, without
+ * each converter having to listen to the workspace itself.
+ * <p>
+ * Each resource change that adds or removes resources, or opens or closes projects, starts a new generation.
+ * A converter remembers the generation that its table was built in, and asks whether anything under its
+ * containers changed since. The workspace is listened to until this plugin stops.
+ * </p>
+ */
+final class WorkspaceFileChanges implements IResourceChangeListener, SynchronousBundleListener {
+
+	/** The number of generations that are remembered. */
+	private static final int MAX_GENERATIONS = 64;
+
+	/** The most paths that are remembered for one generation, past that it counts as changing everything. */
+	private static final int MAX_PATHS = 1000;
+
+	private static WorkspaceFileChanges instance;
+
+	/** The last generation of the instance that stopped listening, the next instance starts after it. */
+	private static long lastGeneration;
+
+	private long generation;
+
+	/** The changes of the most recent generations, the oldest first. */
+	private final LinkedList changes = new LinkedList();
+
+	/**
+	 * Answer the shared instance, which starts listening to the workspace the first time it is needed.
+	 */
+	static synchronized WorkspaceFileChanges getInstance() {
+		if (instance == null) {
+			instance = new WorkspaceFileChanges();
+			ResourcesPlugin.getWorkspace().addResourceChangeListener(instance, IResourceChangeEvent.POST_CHANGE);
+			BundleContext context = getBundleContext();
+			if (context != null)
+				context.addBundleListener(instance);
+		}
+		return instance;
+	}
+
+	/**
+	 * Stop listening to the workspace. The next converter that needs the shared instance starts a new one,
+	 * whose first generation counts as changing everything since any generation of this one.
+	 */
+	static synchronized void stopListening() {
+		if (instance == null)
+			return;
+		ResourcesPlugin.getWorkspace().removeResourceChangeListener(instance);
+		BundleContext context = getBundleContext();
+		if (context != null)
+			context.removeBundleListener(instance);
+		lastGeneration = instance.getGeneration();
+		instance = null;
+	}
+
+	private static BundleContext getBundleContext() {
+		JEMUtilPlugin plugin = JEMUtilPlugin.getDefault();
+		return plugin != null && plugin.getBundle() != null ? plugin.getBundle().getBundleContext() : null;
+	}
+
+	private WorkspaceFileChanges() {
+		// Nothing that happened before can be told apart from this
+		generation = lastGeneration + 1;
+	}
+
+	/*
+	 * Stop listening to the workspace when this plugin stops.
+	 */
+	public void bundleChanged(BundleEvent event) {
+		if (event.getType() == BundleEvent.STOPPING && JEMUtilPlugin.ID.equals(event.getBundle().getSymbolicName()))
+			stopListening();
+	}
+
+	synchronized long getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * Answer true if, after generation <code>since</code>, a resource was added or removed at or under one of
+	 * the paths, or one of the paths itself went away.
+	 */
+	synchronized boolean changedSince(long since, IPath[] paths) {
+		if (since >= generation)
+			return false;
+		if (changes.isEmpty() || ((Change) changes.getFirst()).generation > since + 1)
+			return true; // the history has been lost
+		for (Iterator it = changes.iterator(); it.hasNext();) {
+			Change change = (Change) it.next();
+			if (change.generation <= since)
+				continue;
+			if (change.paths == null)
+				return true;
+			for (int i = 0; i < change.paths.length; i++) {
+				for (int j = 0; j < paths.length; j++) {
+					if (paths[j].isPrefixOf(change.paths[i]) || change.paths[i].isPrefixOf(paths[j]))
+						return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	public void resourceChanged(IResourceChangeEvent event) {
+		IResourceDelta delta = event.getDelta();
+		if (delta == null)
+			return;
+		final List paths = new ArrayList();
+		try {
+			delta.accept(new IResourceDeltaVisitor() {
+				public boolean visit(IResourceDelta aDelta) {
+					switch (aDelta.getKind()) {
+						case IResourceDelta.ADDED :
+						case IResourceDelta.REMOVED :
+							// The path covers everything under it.
+							paths.add(aDelta.getFullPath());
+							return false;
+						case IResourceDelta.CHANGED :
+							// A project that was opened or closed, its members appeared or went away.
+							if ((aDelta.getFlags() & IResourceDelta.OPEN) != 0) {
+								paths.add(aDelta.getFullPath());
+								return false;
+							}
+							return true;
+						default :
+							return true;
+					}
+				}
+			});
+		} catch (CoreException e) {
+			Logger.getLogger().logError(e);
+			paths.add(null);
+		}
+		if (paths.isEmpty())
+			return;
+		synchronized (this) {
+			generation++;
+			IPath[] changed = null;
+			if (paths.size() <= MAX_PATHS && !paths.contains(null))
+				changed = (IPath[]) paths.toArray(new IPath[paths.size()]);
+			changes.add(new Change(generation, changed));
+			if (changes.size() > MAX_GENERATIONS)
+				changes.removeFirst();
+		}
+	}
+
+	private static class Change {
+		final long generation;
+
+		/** The paths that were added or removed, null if anything may have changed. */
+		final IPath[] paths;
+
+		Change(long generation, IPath[] paths) {
+			this.generation = generation;
+			this.paths = paths;
+		}
+	}
+}
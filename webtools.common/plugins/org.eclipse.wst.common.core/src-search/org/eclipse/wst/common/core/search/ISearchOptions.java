@@ -57,4 +57,19 @@ public interface ISearchOptions {
 	 */
 	public static final String PRIORITY_VALUE_DEFAULT = PRIORITY_VALUE_TIMELINESS;
 
+	/**
+	 * Search option asking the search engine to split the files of the search
+	 * scope between several threads, which each create the search documents of
+	 * their files and locate the matches in them. Only use this option with
+	 * search participants that can be called from several threads at once.
+	 * Matches are then reported to the requestor from those threads, in
+	 * batches, one batch at a time and in no particular order.
+	 */
+	public static final String PARALLEL_OPTION = "org.eclipse.wst.common.core.search.PARALLEL"; //$NON_NLS_1$
+	/**
+	 * Choice for the {@link #PARALLEL_OPTION} search option that turns on
+	 * parallel searching; <code>Boolean.TRUE</code> is also accepted.
+	 */
+	public static final String PARALLEL_VALUE_TRUE = "true"; //$NON_NLS_1$
+
 }
@@ -0,0 +1,384 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.wst.common.core.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobManager;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.wst.common.core.search.document.SearchDocument;
+import org.eclipse.wst.common.core.search.document.SearchDocumentSet;
+import org.eclipse.wst.common.core.search.internal.Messages;
+import org.eclipse.wst.common.core.search.pattern.SearchPattern;
+import org.eclipse.wst.common.core.search.scope.SearchScope;
+
+/**
+ * Runs the steps of a search participant on several threads, for
+ * {@link ISearchOptions#PARALLEL_OPTION}. The files of the search scope are
+ * split into partitions, and the participant creates the search documents of
+ * each partition, then locates the matches in them, in a job of its own.
+ * <p>
+ * While it locates matches, each job sees a view of the document set in which
+ * the participant's own documents are only those of its partition, and it is
+ * given a scope of only the files of its partition, so that each document is
+ * searched once whichever of the two the participant goes by. The matches are
+ * collected and reported to the requestor in batches, one batch at a time;
+ * cancellation is checked before each batch. The participant is given a
+ * monitor that is canceled when the search is.
+ * </p>
+ * <p>
+ * A search that is run by a job that holds a scheduling rule, or while the
+ * job manager is suspended, is not run in parallel, since waiting for the
+ * jobs of the partitions could then block forever.
+ * </p>
+ */
+class ParallelSearch
+{
+	/**
+	 * The number of matches that are reported to the requestor at a time.
+	 */
+	static final int BATCH_SIZE = 64;
+
+	/**
+	 * The fewest files that are worth a partition of their own.
+	 */
+	static final int MIN_PARTITION_SIZE = 16;
+
+	private ParallelSearch()
+	{
+		// Do not instantiate
+	}
+
+	/**
+	 * Returns whether the search options ask for a parallel search, and the
+	 * current thread can wait for the jobs of the partitions.
+	 */
+	static boolean isEnabled(Map searchOptions)
+	{
+		if (searchOptions == null)
+			return false;
+		Object value = searchOptions.get(ISearchOptions.PARALLEL_OPTION);
+		if (!Boolean.TRUE.equals(value) && !ISearchOptions.PARALLEL_VALUE_TRUE.equals(value))
+			return false;
+		return canJoinJobs();
+	}
+
+	/*
+	 * Joining the jobs of the partitions from a job that holds a scheduling
+	 * rule can deadlock if a partition needs a rule that conflicts with it, and
+	 * while the job manager is suspended the jobs never start.
+	 */
+	private static boolean canJoinJobs()
+	{
+		IJobManager manager = Job.getJobManager();
+		if (manager.isSuspended())
+			return false;
+		Job current = manager.currentJob();
+		return current == null || current.getRule() == null;
+	}
+
+	/**
+	 * Has the participant create the search documents of each partition of the
+	 * scope in parallel.
+	 */
+	static void createSearchDocuments(final SearchParticipant participant,
+			final SearchDocumentSet documentSet, final SearchPattern pattern,
+			SearchScope scope, final Map searchOptions, IProgressMonitor monitor)
+			throws CoreException
+	{
+		final SearchScope[] partitions = scope != null ? partition(scope.enclosingFiles()) : null;
+		if (partitions == null || partitions.length < 2)
+		{
+			participant.createSearchDocuments(documentSet, pattern, scope, searchOptions, monitor);
+			return;
+		}
+		run(partitions.length, new Task()
+		{
+			public void run(int partition, IProgressMonitor partitionMonitor) throws CoreException
+			{
+				participant.createSearchDocuments(documentSet, pattern, partitions[partition], searchOptions, partitionMonitor);
+			}
+		}, monitor);
+	}
+
+	/**
+	 * Has the participant locate the matches in each partition of the scope in
+	 * parallel.
+	 */
+	static void locateMatches(final SearchParticipant participant,
+			SearchDocumentSet documentSet, final SearchPattern pattern,
+			SearchScope scope, final SearchRequestor requestor, final Map searchOptions,
+			final IProgressMonitor monitor) throws CoreException
+	{
+		IFile[] files = scope.enclosingFiles();
+		final SearchScope[] partitions = partition(files);
+		if (partitions.length < 2)
+		{
+			participant.locateMatches(documentSet, pattern, scope, requestor, searchOptions, monitor);
+			return;
+		}
+
+		// Give each of the participant's documents to the partition of its file
+		Map partitionOfPath = new HashMap();
+		for (int i = 0; i < partitions.length; i++)
+		{
+			IFile[] partitionFiles = partitions[i].enclosingFiles();
+			for (int j = 0; j < partitionFiles.length; j++)
+			{
+				IPath location = partitionFiles[j].getLocation();
+				if (location != null)
+					partitionOfPath.put(location.toString(), new Integer(i));
+			}
+		}
+		List[] partitionDocuments = new List[partitions.length];
+		for (int i = 0; i < partitions.length; i++)
+			partitionDocuments[i] = new ArrayList();
+		SearchDocument[] documents = documentSet.getSearchDocuments(participant.id);
+		for (int i = 0; i < documents.length; i++)
+		{
+			Integer partition = (Integer) partitionOfPath.get(documents[i].getPath());
+			partitionDocuments[partition != null ? partition.intValue() : 0].add(documents[i]);
+		}
+		final SearchDocumentSet[] partitionSets = new SearchDocumentSet[partitions.length];
+		for (int i = 0; i < partitions.length; i++)
+			partitionSets[i] = new PartitionDocumentSet(documentSet, participant.id, partitionDocuments[i]);
+
+		run(partitions.length, new Task()
+		{
+			public void run(int partition, IProgressMonitor partitionMonitor) throws CoreException
+			{
+				BatchingRequestor batches = new BatchingRequestor(requestor, partitionMonitor);
+				participant.locateMatches(partitionSets[partition], pattern, partitions[partition], batches, searchOptions, partitionMonitor);
+				batches.flush();
+			}
+		}, monitor);
+	}
+
+	/*
+	 * Split the files into about one partition per processor, unless there are
+	 * too few of them.
+	 */
+	private static SearchScope[] partition(IFile[] files)
+	{
+		int count = Math.min(Runtime.getRuntime().availableProcessors(), files.length / MIN_PARTITION_SIZE);
+		if (count < 1)
+			count = 1;
+		SearchScope[] partitions = new SearchScope[count];
+		for (int i = 0; i < count; i++)
+		{
+			int start = (int) ((long) files.length * i / count);
+			int end = (int) ((long) files.length * (i + 1) / count);
+			IFile[] partitionFiles = new IFile[end - start];
+			System.arraycopy(files, start, partitionFiles, 0, partitionFiles.length);
+			partitions[i] = new PartitionScope(partitionFiles);
+		}
+		return partitions;
+	}
+
+	/*
+	 * Run the task for each partition in a job of its own, and wait for them all.
+	 */
+	private static void run(int count, final Task task, final IProgressMonitor monitor) throws CoreException
+	{
+		final Throwable[] errors = new Throwable[count];
+		Job[] jobs = new Job[count];
+		for (int i = 0; i < count; i++)
+		{
+			final int partition = i;
+			jobs[i] = new Job(Messages.engine_searching)
+			{
+				protected IStatus run(IProgressMonitor jobMonitor)
+				{
+					try
+					{
+						task.run(partition, new CancelMonitor(monitor, jobMonitor));
+					}
+					catch (OperationCanceledException e)
+					{
+						return Status.CANCEL_STATUS;
+					}
+					catch (CoreException e)
+					{
+						errors[partition] = e;
+					}
+					catch (RuntimeException e)
+					{
+						errors[partition] = e;
+					}
+					return Status.OK_STATUS;
+				}
+			};
+			jobs[i].setSystem(true);
+			jobs[i].schedule();
+		}
+		try
+		{
+			for (int i = 0; i < count; i++)
+				jobs[i].join();
+		}
+		catch (InterruptedException e)
+		{
+			for (int i = 0; i < count; i++)
+				jobs[i].cancel();
+			throw new OperationCanceledException();
+		}
+		if (monitor != null && monitor.isCanceled())
+			throw new OperationCanceledException();
+		for (int i = 0; i < count; i++)
+		{
+			if (errors[i] instanceof CoreException)
+				throw (CoreException) errors[i];
+			if (errors[i] instanceof RuntimeException)
+				throw (RuntimeException) errors[i];
+		}
+	}
+
+	private interface Task
+	{
+		void run(int partition, IProgressMonitor partitionMonitor) throws CoreException;
+	}
+
+	/*
+	 * The monitor that a participant is given in a job. It reports no
+	 * progress, since the search's monitor is not meant to be used from
+	 * several threads, but it is canceled when the search or the job is.
+	 */
+	private static class CancelMonitor extends NullProgressMonitor
+	{
+		private final IProgressMonitor searchMonitor;
+		private final IProgressMonitor jobMonitor;
+
+		CancelMonitor(IProgressMonitor searchMonitor, IProgressMonitor jobMonitor)
+		{
+			this.searchMonitor = searchMonitor;
+			this.jobMonitor = jobMonitor;
+		}
+
+		public boolean isCanceled()
+		{
+			return super.isCanceled() || (searchMonitor != null && searchMonitor.isCanceled()) || jobMonitor.isCanceled();
+		}
+	}
+
+	private static class PartitionScope extends SearchScope
+	{
+		private final IFile[] files;
+
+		PartitionScope(IFile[] files)
+		{
+			this.files = files;
+		}
+
+		public IFile[] enclosingFiles()
+		{
+			return files;
+		}
+	}
+
+	/*
+	 * The documents of the whole search, except that the participant's own
+	 * documents are only those of one partition.
+	 */
+	private static class PartitionDocumentSet extends SearchDocumentSet
+	{
+		private final SearchDocumentSet documentSet;
+		private final String participantId;
+		private final SearchDocument[] documents;
+
+		PartitionDocumentSet(SearchDocumentSet documentSet, String participantId, List documents)
+		{
+			this.documentSet = documentSet;
+			this.participantId = participantId;
+			this.documents = (SearchDocument[]) documents.toArray(new SearchDocument[documents.size()]);
+		}
+
+		public SearchDocument getSearchDocument(String resourcePath, String aParticipantId)
+		{
+			return documentSet.getSearchDocument(resourcePath, aParticipantId);
+		}
+
+		public SearchDocument[] getSearchDocuments(String aParticipantId)
+		{
+			if (participantId != null && participantId.equals(aParticipantId))
+			{
+				SearchDocument[] result = new SearchDocument[documents.length];
+				System.arraycopy(documents, 0, result, 0, documents.length);
+				return result;
+			}
+			return documentSet.getSearchDocuments(aParticipantId);
+		}
+
+		public void putSearchDocument(String aParticipantId, SearchDocument document)
+		{
+			documentSet.putSearchDocument(aParticipantId, document);
+		}
+
+		public SearchDocument _tempGetSearchDocumetn(String resourcePath)
+		{
+			return documentSet._tempGetSearchDocumetn(resourcePath);
+		}
+
+		public void dispose()
+		{
+			// The whole set is disposed by the engine
+		}
+	}
+
+	/*
+	 * Collects the matches of one job, and reports them to the requestor a batch
+	 * at a time.
+	 */
+	private static class BatchingRequestor extends SearchRequestor
+	{
+		private final SearchRequestor requestor;
+		private final IProgressMonitor monitor;
+		private final List batch = new ArrayList(BATCH_SIZE);
+
+		BatchingRequestor(SearchRequestor requestor, IProgressMonitor monitor)
+		{
+			this.requestor = requestor;
+			this.monitor = monitor;
+		}
+
+		public void acceptSearchMatch(SearchMatch match) throws CoreException
+		{
+			batch.add(match);
+			if (batch.size() >= BATCH_SIZE)
+				flush();
+		}
+
+		void flush() throws CoreException
+		{
+			if (monitor != null && monitor.isCanceled())
+				throw new OperationCanceledException();
+			if (batch.isEmpty())
+				return;
+			synchronized (requestor)
+			{
+				for (int i = 0; i < batch.size(); i++)
+					requestor.acceptSearchMatch((SearchMatch) batch.get(i));
+			}
+			batch.clear();
+		}
+	}
+}
@@ -82,6 +82,7 @@ public class SearchEngine implements ISearchOptions
 			monitor.beginTask(Messages.engine_searching, 100);
 
         SearchDocumentSet set = new SearchDocumentSetImpl();
+        boolean parallel = ParallelSearch.isEnabled(searchOptions);
 		try
 		{
 			// requestor.beginReporting();
@@ -110,7 +111,10 @@ public class SearchEngine implements ISearchOptions
 						participant.selectDocumentLocations(pattern, scope, searchOptions, monitor);
                     scopeArray[i] = newScope;
 					// participant creates search documents based on it's search scope
-					participant.createSearchDocuments(set, pattern, newScope, searchOptions, subMonitor);
+					if (parallel)
+						ParallelSearch.createSearchDocuments(participant, set, pattern, newScope, searchOptions, subMonitor);
+					else
+						participant.createSearchDocuments(set, pattern, newScope, searchOptions, subMonitor);
                 }
                 catch(Exception e)
                 {                  
@@ -141,7 +145,10 @@ public class SearchEngine implements ISearchOptions
                 // the scope could be null if the partcipant barfed and exeption in the first loop 
                 if (scopeArray[i] != null)
                 {  
-                  participant.locateMatches(set, pattern, scopeArray[i], requestor, searchOptions, subMonitor);
+                  if (parallel)
+                    ParallelSearch.locateMatches(participant, set, pattern, scopeArray[i], requestor, searchOptions, subMonitor);
+                  else
+                    participant.locateMatches(set, pattern, scopeArray[i], requestor, searchOptions, subMonitor);
                 }  
                 }
                 catch (Exception e)
@@ -18,8 +18,11 @@ import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.Platform;
+import org.eclipse.wst.common.core.search.document.Entry;
+import org.eclipse.wst.common.core.search.document.FileReferenceEntry;
 import org.eclipse.wst.common.core.search.document.SearchDocument;
 import org.eclipse.wst.common.core.search.document.SearchDocumentSet;
+import org.eclipse.wst.common.core.search.internal.SearchIndex;
 import org.eclipse.wst.common.core.search.pattern.SearchPattern;
 import org.eclipse.wst.common.core.search.scope.SearchScope;
 
@@ -236,12 +239,70 @@ public abstract class SearchParticipant implements ISearchOptions
 		return scope;
 	}
 
+	/**
+	 * Returns all of the entries of a document that
+	 * {@link #populateSearchDocument(SearchDocument, SearchPattern)} has
+	 * populated, so that they can be kept in the search index. As long as the
+	 * file does not change, later searches put the indexed entries into a new
+	 * document with {@link SearchDocument#putEntry(Entry)} instead of
+	 * populating it again.
+	 * <p>
+	 * Returns <code>null</code> by default, in which case the documents of this
+	 * participant are populated on every search. It is only called if
+	 * {@link #isIndexed()} returns <code>true</code>. A participant should only
+	 * return the entries if they do not depend on the search pattern, if they
+	 * are all of the {@link Entry}, ComponentDeclarationEntry,
+	 * ComponentReferenceEntry or FileReferenceEntry classes, and if its
+	 * documents need nothing but their entries to locate matches.
+	 * </p>
+	 * @param document
+	 *            A document that has just been populated
+	 * @return all of the entries of the document, or <code>null</code> if they
+	 *         are not to be indexed
+	 */
+	protected Entry[] getIndexEntries(SearchDocument document)
+	{
+		return null;
+	}
+
+	/**
+	 * Returns whether the documents of this participant may be kept in the
+	 * search index, see {@link #getIndexEntries(SearchDocument)}.
+	 * <p>
+	 * Returns <code>false</code> by default, in which case the search index
+	 * is not used, nor even loaded, for this participant.
+	 * </p>
+	 * @return <code>true</code> if the search index is used for this participant
+	 */
+	protected boolean isIndexed()
+	{
+		return false;
+	}
+
+	/**
+	 * Resolves a file reference that was taken from the search index. The
+	 * index does not keep the resolved URI of a {@link FileReferenceEntry},
+	 * since it depends on other files than the one that the entry was found
+	 * in, so a participant that indexes file references resolves them again
+	 * here. Does nothing by default.
+	 * @param document
+	 *            The document that the entry is put into
+	 * @param entry
+	 *            The file reference, with no resolved URI
+	 */
+	protected void resolveFileReference(SearchDocument document, FileReferenceEntry entry)
+	{
+		// nothing to do by default
+	}
+
 	/**
 	 * <p>
 	 * This method calls the following methods for each file in the search scope:
 	 * <ol>
 	 * <li>{@link #createSearchDocument(String)}
-	 * <li>{@link #populateSearchDocument(SearchDocument, SearchPattern)}
+	 * <li>{@link #populateSearchDocument(SearchDocument, SearchPattern)}, unless
+	 * the entries of the file are in the search index, see
+	 * {@link #getIndexEntries(SearchDocument)}
 	 * </ol>
 	 * @param documentSet
 	 *            The documents to locate matches in
@@ -265,16 +326,37 @@ public abstract class SearchParticipant implements ISearchOptions
 	{
 		Assert.isNotNull(id, "The SearchPartipants id has not been initalized");
 		IFile[] files = scope.enclosingFiles();
+		SearchIndex index = isIndexed() && SearchPlugin.getDefault() != null ? SearchPlugin.getDefault().getSearchIndex() : null;
 		
 		for (int i = 0; i < files.length; i++)
 		{
 			String location = files[i].getLocation().toString();
 			SearchDocument document = documentSet.getSearchDocument(location, id);
+			boolean created = false;
 			if(document == null && id != null){
 				documentSet.putSearchDocument(id, document = createSearchDocument(location));
+				created = true;
 			}
+			Entry[] entries = created && index != null ? index.getEntries(id, files[i]) : null;
+			if (entries != null)
+			{
+				for (int j = 0; j < entries.length; j++)
+				{
+					if (entries[j] instanceof FileReferenceEntry)
+						resolveFileReference(document, (FileReferenceEntry) entries[j]);
+					document.putEntry(entries[j]);
+				}
+				continue;
+			}
+			// the stamp is taken first, so that a change made while the file is read is not missed
+			long stamp = files[i].getModificationStamp();
 			populateSearchDocument(document, pattern); 
-			
+			if (created && index != null)
+			{
+				entries = getIndexEntries(document);
+				if (entries != null)
+					index.putEntries(id, files[i], stamp, entries);
+			}
 		}
 
 	}	
@@ -13,11 +13,14 @@ package org.eclipse.wst.common.core.search;
 
 import java.util.Map;
 
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Plugin;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.wst.common.core.search.internal.SearchIndex;
 import org.eclipse.wst.common.core.search.internal.SearchParticipantRegistry;
 import org.eclipse.wst.common.core.search.internal.SearchParticipantRegistryReader;
 import org.eclipse.wst.common.core.search.pattern.SearchPattern;
@@ -52,6 +55,8 @@ public class SearchPlugin extends Plugin implements ISearchOptions
 
 	private SearchParticipantRegistry searchParticipantRegistry;
 
+	private SearchIndex searchIndex;
+
 	// The shared instance.
 	private static SearchPlugin plugin;
 
@@ -76,6 +81,15 @@ public class SearchPlugin extends Plugin implements ISearchOptions
 	 */
 	public void stop(BundleContext context) throws Exception
 	{
+		synchronized (this)
+		{
+			if (searchIndex != null)
+			{
+				ResourcesPlugin.getWorkspace().removeResourceChangeListener(searchIndex);
+				searchIndex.save();
+				searchIndex = null;
+			}
+		}
 		super.stop(context);
 		plugin = null;
 	}
@@ -100,6 +114,24 @@ public class SearchPlugin extends Plugin implements ISearchOptions
 	}
 
 
+	/**
+	 * Returns the index of the entries that search participants found in
+	 * workspace files, reading it from the plug-in's state location the first
+	 * time it is needed, which is when a participant that uses the index
+	 * searches. It is saved when the plug-in stops.
+	 * @return the search index
+	 */
+	synchronized SearchIndex getSearchIndex()
+	{
+		if (searchIndex == null)
+		{
+			searchIndex = new SearchIndex(getStateLocation().append("searchIndex.dat").toFile()); //$NON-NLS-1$
+			searchIndex.load();
+			ResourcesPlugin.getWorkspace().addResourceChangeListener(searchIndex, IResourceChangeEvent.POST_CHANGE);
+		}
+		return searchIndex;
+	}
+
 	public SearchParticipant getSearchParticipant(String id)
 	{
 		return getSearchParticipantRegistry().getSearchParticipant(id);
@@ -20,38 +20,36 @@ import java.util.Map;
 import org.eclipse.wst.common.core.search.document.SearchDocument;
 import org.eclipse.wst.common.core.search.document.SearchDocumentSet;
 
+/**
+ * The documents of one search. All access is synchronized, since the documents
+ * are created on several threads in a parallel search.
+ */
 public class SearchDocumentSetImpl extends SearchDocumentSet
 {
     public Map documentPathMap = new HashMap(); //path --> documetn
 	Map documentMap = new HashMap();  // participantId - > list (document)
+	Map participantPathMap = new HashMap();  // participantId -> (path -> document)
 	
 	public SearchDocumentSetImpl()
 	{
 		super();
 	}
     
-    public SearchDocument _tempGetSearchDocumetn(String resourcePath)
+    public synchronized SearchDocument _tempGetSearchDocumetn(String resourcePath)
     {      
        return (SearchDocument)documentPathMap.get(resourcePath);      
     }
     
-    public SearchDocument getSearchDocument(String resourcePath, String participantId)
+    public synchronized SearchDocument getSearchDocument(String resourcePath, String participantId)
 	{
 		if(resourcePath == null){
 			return null;
 		}
-		SearchDocument[] documents = getSearchDocuments(participantId);
-		for (int i = 0; i < documents.length; i++)
-		{
-			SearchDocument document = documents[i];
-			if(resourcePath.equals(document.getPath())){
-				return document;
-			}
-		}
-		return null;
+		Map pathMap = (Map)participantPathMap.get(participantId);
+		return pathMap != null ? (SearchDocument)pathMap.get(resourcePath) : null;
 	}
 
-	public SearchDocument[] getSearchDocuments(String participantId)
+	public synchronized SearchDocument[] getSearchDocuments(String participantId)
 	{
 		
 		Object object = documentMap.get(participantId);
@@ -66,7 +64,7 @@ public class SearchDocumentSetImpl extends SearchDocumentSet
 		
 	}
 
-	public void putSearchDocument(String participantId, SearchDocument document)
+	public synchronized void putSearchDocument(String participantId, SearchDocument document)
 	{
 		Object object = documentMap.get(participantId);
 		List documentList = null;
@@ -78,10 +76,17 @@ public class SearchDocumentSetImpl extends SearchDocumentSet
 		}
 		documentList.add(document);
         documentPathMap.put(document.getPath(), document);
+		Map pathMap = (Map)participantPathMap.get(participantId);
+		if(pathMap == null){
+			participantPathMap.put(participantId, pathMap = new HashMap());
+		}
+		if(!pathMap.containsKey(document.getPath())){
+			pathMap.put(document.getPath(), document);
+		}
 	}
 
     
-    public void dispose()
+    public synchronized void dispose()
     {
       try
       {
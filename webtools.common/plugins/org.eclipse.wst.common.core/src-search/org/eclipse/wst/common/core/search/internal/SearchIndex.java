@@ -0,0 +1,531 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.wst.common.core.search.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.wst.common.core.search.SearchPlugin;
+import org.eclipse.wst.common.core.search.document.ComponentDeclarationEntry;
+import org.eclipse.wst.common.core.search.document.ComponentReferenceEntry;
+import org.eclipse.wst.common.core.search.document.Entry;
+import org.eclipse.wst.common.core.search.document.FileReferenceEntry;
+import org.eclipse.wst.common.core.search.pattern.QualifiedName;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.Constants;
+
+/**
+ * The entries that search participants found in workspace files, kept between
+ * searches and between sessions so that a file is only parsed again after it
+ * has changed.
+ * <p>
+ * The entries are kept per participant and per file, with the modification
+ * stamp that the file had when they were found. The entries of a participant
+ * are also kept with the version of the bundle that contributes it, and they
+ * are all dropped once that version changes, since a newer participant may
+ * find different entries in the same file. Only {@link Entry},
+ * {@link ComponentDeclarationEntry}, {@link ComponentReferenceEntry} and
+ * {@link FileReferenceEntry} are kept, other kinds of entries can not be
+ * indexed. The index listens to the workspace and forgets the entries of files
+ * that change or go away; the modification stamp covers the changes that were
+ * made while the index was not listening.
+ * </p>
+ * <p>
+ * The entries are mutable, so the index keeps its own copies of them, and
+ * answers new copies every time, which the participant is free to change. The
+ * resolved URI of a {@link FileReferenceEntry} is not kept, since it depends
+ * on other files than the one that the entry was found in. The participant
+ * resolves it again.
+ * </p>
+ */
+public class SearchIndex implements IResourceChangeListener
+{
+	private static final int VERSION = 3;
+
+	private static final byte ENTRY = 0;
+	private static final byte DECLARATION_ENTRY = 1;
+	private static final byte REFERENCE_ENTRY = 2;
+	private static final byte FILE_REFERENCE_ENTRY = 3;
+
+	private final File file;
+
+	// participantId -> Participant
+	private final Map participantMap = new HashMap();
+
+	// participantId -> version of the bundle that contributes it
+	private final Map versionMap = new HashMap();
+
+	private boolean dirty;
+
+	/**
+	 * Creates an index that is read from and saved to the given file.
+	 * @param file the file that holds the index, or <code>null</code> if it is not saved
+	 */
+	public SearchIndex(File file)
+	{
+		this.file = file;
+	}
+
+	/**
+	 * Returns the entries that were indexed for the file by the participant, or
+	 * <code>null</code> if the file has not been indexed since it last changed.
+	 * @param participantId
+	 * @param file
+	 * @return the entries of the file, or <code>null</code>
+	 */
+	public synchronized Entry[] getEntries(String participantId, IFile file)
+	{
+		Map fileMap = getFileMap(participantId, false);
+		if (fileMap == null)
+			return null;
+		Record record = (Record) fileMap.get(file.getFullPath().toString());
+		if (record == null)
+			return null;
+		if (record.stamp != file.getModificationStamp())
+		{
+			fileMap.remove(file.getFullPath().toString());
+			dirty = true;
+			return null;
+		}
+		return copyEntries(record.entries);
+	}
+
+	/**
+	 * Remembers the entries that the participant found in the file. Nothing is
+	 * remembered if one of the entries can not be indexed, or if the file has
+	 * changed since the participant started to read it.
+	 * @param participantId
+	 * @param file
+	 * @param stamp the modification stamp of the file before the participant
+	 *            started to read it
+	 * @param entries all of the entries of the file
+	 */
+	public synchronized void putEntries(String participantId, IFile file, long stamp, Entry[] entries)
+	{
+		if (stamp != file.getModificationStamp())
+			return;
+		for (int i = 0; i < entries.length; i++)
+		{
+			if (getKind(entries[i]) < 0)
+				return;
+		}
+		Map fileMap = getFileMap(participantId, true);
+		fileMap.put(file.getFullPath().toString(), new Record(stamp, copyEntries(entries)));
+		dirty = true;
+	}
+
+	/**
+	 * Answers the entries of the participant by file path. The entries that
+	 * were found by another version of the participant are dropped.
+	 * @param create whether to create the map if there isn't one
+	 */
+	private Map getFileMap(String participantId, boolean create)
+	{
+		Participant participant = (Participant) participantMap.get(participantId);
+		String version = getVersion(participantId);
+		if (participant != null && !participant.version.equals(version))
+		{
+			participantMap.remove(participantId);
+			participant = null;
+			dirty = true;
+		}
+		if (participant == null && create)
+			participantMap.put(participantId, participant = new Participant(version));
+		return participant != null ? participant.fileMap : null;
+	}
+
+	private String getVersion(String participantId)
+	{
+		String version = (String) versionMap.get(participantId);
+		if (version == null)
+		{
+			version = getParticipantVersion(participantId);
+			versionMap.put(participantId, version);
+		}
+		return version;
+	}
+
+	/**
+	 * Returns the version of the bundle that contributes the participant, or
+	 * the empty string if the participant is not contributed by a bundle.
+	 * @param participantId
+	 * @return the version, never <code>null</code>
+	 */
+	protected String getParticipantVersion(String participantId)
+	{
+		IConfigurationElement[] elements = Platform.getExtensionRegistry().getConfigurationElementsFor(
+				SearchPlugin.PLUGIN_ID, SearchParticipantRegistryReader.EXTENSION_POINT_ID);
+		for (int i = 0; i < elements.length; i++)
+		{
+			if (!participantId.equals(elements[i].getAttribute(SearchParticipantRegistryReader.ATT_ID)))
+				continue;
+			Bundle bundle = Platform.getBundle(elements[i].getContributor().getName());
+			String version = bundle != null ? (String) bundle.getHeaders().get(Constants.BUNDLE_VERSION) : null;
+			return version != null ? version : ""; //$NON-NLS-1$
+		}
+		return ""; //$NON-NLS-1$
+	}
+
+	/**
+	 * Forgets the entries of the file, for every participant.
+	 * @param path the full path of the file
+	 */
+	public synchronized void remove(String path)
+	{
+		for (Iterator i = participantMap.values().iterator(); i.hasNext();)
+		{
+			if (((Participant) i.next()).fileMap.remove(path) != null)
+				dirty = true;
+		}
+	}
+
+	/**
+	 * Forgets every entry.
+	 */
+	public synchronized void clear()
+	{
+		participantMap.clear();
+		dirty = true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.core.resources.IResourceChangeListener#resourceChanged(org.eclipse.core.resources.IResourceChangeEvent)
+	 */
+	public void resourceChanged(IResourceChangeEvent event)
+	{
+		IResourceDelta delta = event.getDelta();
+		if (delta == null)
+			return;
+		try
+		{
+			delta.accept(new IResourceDeltaVisitor()
+			{
+				public boolean visit(IResourceDelta aDelta)
+				{
+					if (aDelta.getResource().getType() != IResource.FILE)
+						return true;
+					int kind = aDelta.getKind();
+					if (kind == IResourceDelta.REMOVED
+							|| (kind == IResourceDelta.CHANGED && (aDelta.getFlags() & (IResourceDelta.CONTENT | IResourceDelta.REPLACED)) != 0))
+						remove(aDelta.getFullPath().toString());
+					return false;
+				}
+			});
+		}
+		catch (CoreException e)
+		{
+			SearchPlugin.logError(e);
+			clear();
+		}
+	}
+
+	/**
+	 * Reads the index from its file, if there is one.
+	 */
+	public synchronized void load()
+	{
+		if (file == null || !file.exists())
+			return;
+		DataInputStream in = null;
+		try
+		{
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			if (in.readInt() != VERSION)
+				return;
+			for (int participants = in.readInt(); participants > 0; participants--)
+			{
+				String participantId = in.readUTF();
+				Participant participant = new Participant(in.readUTF());
+				Map fileMap = participant.fileMap;
+				for (int files = in.readInt(); files > 0; files--)
+				{
+					String path = in.readUTF();
+					long stamp = in.readLong();
+					Entry[] entries = new Entry[in.readInt()];
+					for (int i = 0; i < entries.length; i++)
+						entries[i] = readEntry(in);
+					fileMap.put(path, new Record(stamp, entries));
+				}
+				participantMap.put(participantId, participant);
+			}
+			dirty = false;
+		}
+		catch (IOException e)
+		{
+			// A damaged index is simply rebuilt
+			SearchPlugin.logWarning(e);
+			participantMap.clear();
+			dirty = true;
+		}
+		finally
+		{
+			close(in);
+		}
+	}
+
+	/**
+	 * Writes the index to its file, if it changed since it was read or last
+	 * saved.
+	 */
+	public synchronized void save()
+	{
+		if (file == null || !dirty)
+			return;
+		DataOutputStream out = null;
+		try
+		{
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+			out.writeInt(VERSION);
+			out.writeInt(participantMap.size());
+			for (Iterator i = participantMap.entrySet().iterator(); i.hasNext();)
+			{
+				Map.Entry participant = (Map.Entry) i.next();
+				out.writeUTF((String) participant.getKey());
+				out.writeUTF(((Participant) participant.getValue()).version);
+				Map fileMap = ((Participant) participant.getValue()).fileMap;
+				out.writeInt(fileMap.size());
+				for (Iterator j = fileMap.entrySet().iterator(); j.hasNext();)
+				{
+					Map.Entry fileEntry = (Map.Entry) j.next();
+					Record record = (Record) fileEntry.getValue();
+					out.writeUTF((String) fileEntry.getKey());
+					out.writeLong(record.stamp);
+					out.writeInt(record.entries.length);
+					for (int k = 0; k < record.entries.length; k++)
+						writeEntry(out, record.entries[k]);
+				}
+			}
+			out.close();
+			out = null;
+			dirty = false;
+		}
+		catch (IOException e)
+		{
+			SearchPlugin.logError(e);
+		}
+		finally
+		{
+			close(out);
+		}
+		if (dirty)
+			file.delete();
+	}
+
+	private static int getKind(Entry entry)
+	{
+		Class entryClass = entry.getClass();
+		if (entryClass == Entry.class)
+			return ENTRY;
+		if (entryClass == ComponentDeclarationEntry.class)
+			return DECLARATION_ENTRY;
+		if (entryClass == ComponentReferenceEntry.class)
+			return REFERENCE_ENTRY;
+		if (entryClass == FileReferenceEntry.class)
+			return FILE_REFERENCE_ENTRY;
+		return -1;
+	}
+
+	private static void writeEntry(DataOutputStream out, Entry entry) throws IOException
+	{
+		int kind = getKind(entry);
+		out.writeByte(kind);
+		writeString(out, entry.getCategory());
+		writeString(out, entry.getKey());
+		switch (kind)
+		{
+			case DECLARATION_ENTRY :
+				writeName(out, ((ComponentDeclarationEntry) entry).getMetaName());
+				writeName(out, ((ComponentDeclarationEntry) entry).getName());
+				break;
+			case REFERENCE_ENTRY :
+				writeName(out, ((ComponentReferenceEntry) entry).getName());
+				break;
+			case FILE_REFERENCE_ENTRY :
+				writeString(out, ((FileReferenceEntry) entry).getRelativeFilePath());
+				writeString(out, ((FileReferenceEntry) entry).getPublicIdentifier());
+				break;
+		}
+	}
+
+	private static Entry readEntry(DataInputStream in) throws IOException
+	{
+		Entry entry;
+		byte kind = in.readByte();
+		String category = readString(in);
+		String key = readString(in);
+		switch (kind)
+		{
+			case ENTRY :
+				entry = new Entry();
+				break;
+			case DECLARATION_ENTRY :
+				ComponentDeclarationEntry declaration = new ComponentDeclarationEntry();
+				declaration.setMetaName(readName(in));
+				declaration.setName(readName(in));
+				entry = declaration;
+				break;
+			case REFERENCE_ENTRY :
+				ComponentReferenceEntry reference = new ComponentReferenceEntry();
+				reference.setName(readName(in));
+				entry = reference;
+				break;
+			case FILE_REFERENCE_ENTRY :
+				FileReferenceEntry fileReference = new FileReferenceEntry();
+				fileReference.setRelativeFilePath(readString(in));
+				fileReference.setPublicIdentifier(readString(in));
+				entry = fileReference;
+				break;
+			default :
+				throw new IOException("Unknown search index entry: " + kind); //$NON-NLS-1$
+		}
+		entry.setCategory(category);
+		entry.setKey(key);
+		return entry;
+	}
+
+	/**
+	 * Answers copies of the entries, with no resolved URIs, so that the entries
+	 * in the index are never changed by a participant.
+	 */
+	private static Entry[] copyEntries(Entry[] entries)
+	{
+		Entry[] copy = new Entry[entries.length];
+		for (int i = 0; i < entries.length; i++)
+			copy[i] = copyEntry(entries[i]);
+		return copy;
+	}
+
+	private static Entry copyEntry(Entry entry)
+	{
+		Entry copy;
+		switch (getKind(entry))
+		{
+			case DECLARATION_ENTRY :
+				ComponentDeclarationEntry declaration = new ComponentDeclarationEntry();
+				declaration.setMetaName(((ComponentDeclarationEntry) entry).getMetaName());
+				declaration.setName(((ComponentDeclarationEntry) entry).getName());
+				copy = declaration;
+				break;
+			case REFERENCE_ENTRY :
+				ComponentReferenceEntry reference = new ComponentReferenceEntry();
+				reference.setName(((ComponentReferenceEntry) entry).getName());
+				copy = reference;
+				break;
+			case FILE_REFERENCE_ENTRY :
+				FileReferenceEntry fileReference = new FileReferenceEntry();
+				fileReference.setRelativeFilePath(((FileReferenceEntry) entry).getRelativeFilePath());
+				fileReference.setPublicIdentifier(((FileReferenceEntry) entry).getPublicIdentifier());
+				copy = fileReference;
+				break;
+			default :
+				copy = new Entry();
+		}
+		copy.setCategory(entry.getCategory());
+		copy.setKey(entry.getKey());
+		return copy;
+	}
+
+	private static void writeString(DataOutputStream out, String string) throws IOException
+	{
+		out.writeBoolean(string != null);
+		if (string != null)
+			out.writeUTF(string);
+	}
+
+	private static String readString(DataInputStream in) throws IOException
+	{
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+
+	private static void writeName(DataOutputStream out, QualifiedName name) throws IOException
+	{
+		writeString(out, name != null ? name.toString() : null);
+	}
+
+	private static QualifiedName readName(DataInputStream in) throws IOException
+	{
+		String name = readString(in);
+		return name != null ? QualifiedName.valueOf(name) : null;
+	}
+
+	private static void close(InputStream stream)
+	{
+		try
+		{
+			if (stream != null)
+				stream.close();
+		}
+		catch (IOException e)
+		{
+			// ignore
+		}
+	}
+
+	private static void close(OutputStream stream)
+	{
+		try
+		{
+			if (stream != null)
+				stream.close();
+		}
+		catch (IOException e)
+		{
+			// ignore
+		}
+	}
+
+	private static class Participant
+	{
+		final String version;
+		// file path -> Record
+		final Map fileMap = new HashMap();
+
+		Participant(String version)
+		{
+			this.version = version;
+		}
+	}
+
+	private static class Record
+	{
+		final long stamp;
+		final Entry[] entries;
+
+		Record(long stamp, Entry[] entries)
+		{
+			this.stamp = stamp;
+			this.entries = entries;
+		}
+	}
+}
@@ -36,6 +36,7 @@ public class EMFWorkbenchEditResourceHandler extends NLS {
 	public static String DynamicAdapterFactory_ERROR_0;
 	public static String ClientAccessRegistry_ERROR_1;
 	public static String ClientAccessRegistry_ERROR_0;
+	public static String EditModelLeastUsedCache_IdleJob;
 
 	static {
 		NLS.initializeMessages(BUNDLE_NAME, EMFWorkbenchEditResourceHandler.class);
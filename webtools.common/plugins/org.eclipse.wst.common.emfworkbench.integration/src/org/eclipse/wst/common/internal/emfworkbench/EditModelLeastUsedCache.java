@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2006 IBM Corporation and others.
+ * Copyright (c) 2005, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,10 +10,25 @@
  *******************************************************************************/
 package org.eclipse.wst.common.internal.emfworkbench;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.wst.common.frameworks.internal.datamodel.IDataModelPausibleOperation;
+import org.eclipse.wst.common.frameworks.internal.datamodel.ITopLevelOperationListener;
 import org.eclipse.wst.common.internal.emfworkbench.integration.EditModel;
 
 /**
@@ -21,41 +36,98 @@ import org.eclipse.wst.common.internal.emfworkbench.integration.EditModel;
  * costly, especially if operations and/or post operations have a need to reload the same edit model repeatedly.
  * This will allow those repeatedly used edit models to be cached, thereby improving performance.  By design, the
  * edit models load resources and these resources are stored in memory, so we don't want to cache every edit
- * model accessed, so this is a least used cache mechanism, where the max size is 10.  If an edit model is used
- * it is put to the back of the stack, and new edit models accessed are put to the back of the stack, so that the
- * top of the stack is the first edit model disposed when the cache is higher than the threshhold.
- *
+ * model accessed, so this is a least used cache mechanism.  If an edit model is used it is put to the back of
+ * the stack, and new edit models accessed are put to the back of the stack, so that the top of the stack is the
+ * first edit model disposed when the cache is higher than the threshhold.
+ * <p>
+ * The threshhold is not fixed. It starts at 10, and grows by one each time an edit model that was released by
+ * the cache is accessed again, which happens when an operation cycles through more edit models than the cache
+ * holds. It is bounded by the memory that the cached edit models are estimated to retain, and it is cut in half,
+ * but not below half of its starting size, when the heap is nearly full. It is only cut once while memory stays
+ * low, and it is restored once memory has recovered. Edit models that have not been accessed for a while are
+ * released, whatever the threshhold, and the threshhold then shrinks back towards its starting size.
+ * </p>
+ * <p>
+ * An operation that uses the same edit models many times can pin them for its duration, see
+ * {@link #beginWorkingSet(Object)}. Every top level data model operation does this, see
+ * {@link #getOperationListener()}.
+ * </p>
  */
 public class EditModelLeastUsedCache {
-	
+
 	/**
 	 * Provide a singleton instance.
 	 */
-	private static EditModelLeastUsedCache INSTANCE = new EditModelLeastUsedCache();	
-	
+	private static EditModelLeastUsedCache INSTANCE = new EditModelLeastUsedCache();
+
 	/**
-	 * The threshold, or most edit models we will keep open at a time is 10.  This is low enough to not
-	 * overwhelm workbench memory and high enough to aid in operations which continually reload 3-4 
-	 * edit models.
+	 * The starting threshold is 10.  This is low enough to not overwhelm workbench memory and high enough
+	 * to aid in operations which continually reload 3-4 edit models.
 	 */
-	private final static int threshhold = 10;
-	
+	private final static int DEFAULT_THRESHHOLD = 10;
+
+	/** The threshold never goes below this, even when memory is low. */
+	private final static int MINIMUM_THRESHHOLD = DEFAULT_THRESHHOLD / 2;
+
+	/** The most edit models we will ever keep open at a time. */
+	private final static int MAXIMUM_THRESHHOLD = 64;
+
+	/** A rough estimate of the memory that is retained by each loaded resource of an edit model. */
+	private final static long ESTIMATED_RESOURCE_SIZE = 256 * 1024;
+
+	/** The percentage of the maximum heap that the cached edit models may retain, by estimate. */
+	private final static int HEAP_PERCENT = 25;
+
+	/** When more than this percentage of the maximum heap is used, the threshold is cut in half. */
+	private final static int LOW_MEMORY_PERCENT = 85;
+
+	/** When less than this percentage of the maximum heap is used again, the threshold that was cut is restored. */
+	private final static int RECOVERED_MEMORY_PERCENT = 70;
+
+	/** Edit models that have not been accessed for this many milliseconds are released. */
+	private final static long IDLE_TIME = 5 * 60 * 1000;
+
 	/**
-	 *  A LHS is required to ensure the order of the items is maintained. Other
-	 * Set implementations (HashSet, TreeSet) do not preserve the order. This 
-	 * is critical to the implementation. DO NOT CHANGE THIS. 
+	 * A LinkedHashMap is required to ensure the order of the items is maintained, from the least
+	 * to the most recently accessed. Other Map implementations (HashMap, TreeMap) do not preserve the
+	 * order. This is critical to the implementation. DO NOT CHANGE THIS.
 	 */
-	private LinkedHashSet lru = new LinkedHashSet(threshhold);
-	
+	private LinkedHashMap/* <EditModel, Entry> */ lru = new LinkedHashMap(DEFAULT_THRESHHOLD);
+
+	/** The keys of the edit models that the cache released most recently, see {@link #getKey(EditModel)}. */
+	private LinkedHashSet/* <String> */ released = new LinkedHashSet();
+
+	/** The hit and miss counts, for each edit model id. */
+	private Map/* <String, int[]> */ counts = new HashMap();
+
+	/** The edit models that are in an open working set, with the number of working sets that hold each one. */
+	private Map/* <EditModel, int[]> */ pinned = new HashMap();
+
+	/** The working sets that are open on each thread, the most recent last. */
+	private ThreadLocal/* <List<WorkingSet>> */ workingSets = new ThreadLocal();
+
+	private int threshhold = DEFAULT_THRESHHOLD;
+
+	/** The threshold before it was cut because memory was low, or -1 if memory is not low. */
+	private int threshholdBeforeLowMemory = -1;
+	private int hits;
+	private int misses;
+	private int evictions;
+	private int idleReleases;
+
+	private Job idleJob;
+
+	private ITopLevelOperationListener operationListener;
+
 	/**
 	 * Accessor for the EditModelLeastUsedCache INSTANCE
-	 * 
+	 *
 	 * @return the EditModelLeastUsedCache INSTANCE
 	 */
 	public static EditModelLeastUsedCache getInstance() {
 		return INSTANCE;
 	}
-	
+
 	/**
 	 * Remove the all elements from the lru that are contained
 	 * in <code>aCollection</code>.  This method assumes the
@@ -64,8 +136,11 @@ public class EditModelLeastUsedCache {
 	 * @param aCollection - A {@link Collection} of {@link EditModel}.
 	 */
 	public void removeAllCached(Collection aCollection) {
-		if (aCollection != null) { 
-			lru.removeAll(aCollection);
+		if (aCollection != null) {
+			synchronized (lru) {
+				lru.keySet().removeAll(aCollection);
+				pinned.keySet().removeAll(aCollection);
+			}
 		}
 	}
 
@@ -78,47 +153,469 @@ public class EditModelLeastUsedCache {
 	 */
 	public void access(EditModel editModel) {
 		boolean shouldAccess = true;
+		long now = System.currentTimeMillis();
 		synchronized (lru) {
-			if (lru.contains(editModel)) {
-				moveToEnd(editModel);
+			Entry entry = (Entry) lru.get(editModel);
+			int[] count = getCounts(editModel.getEditModelID());
+			if (entry != null) {
+				moveToEnd(editModel, entry);
+				entry.lastAccess = now;
+				// it may have loaded more resources since the size was estimated
+				entry.size = -1;
 				shouldAccess = false;
+				count[0]++;
+				hits++;
+			} else {
+				count[1]++;
+				misses++;
+				// it was released too soon, so the cache is too small for the current work
+				if (released.remove(getKey(editModel)) && threshhold < MAXIMUM_THRESHHOLD)
+					threshhold++;
 			}
+			addToWorkingSets(editModel);
 		}
 		if (shouldAccess) {
 			editModel.access(this);
+			boolean duplicate;
 			synchronized (lru) {
-				lru.add(editModel);
+				duplicate = lru.containsKey(editModel);
+				if (!duplicate)
+					lru.put(editModel, new Entry(now));
 			}
+			// another thread added it in the meantime, it only holds one reference
+			if (duplicate)
+				editModel.releaseAccess(this);
 		}
+		scheduleIdleRelease();
 	}
-	
+
 	/**
-	 * If we hit the capacity of the lru then remove the first one
-	 * and release access.
+	 * If we hit the capacity of the lru then remove the oldest edit models
+	 * that are not pinned, and release access.
 	 */
 	public void optimizeLRUSizeIfNecessary() {
-		EditModel model = null;
-		
+		List models = new ArrayList();
+
 		synchronized (lru) {
-			if (lru.size() > threshhold) {
+			adjustForMemory();
+			long budget = getMemoryBudget();
+			// the size is only estimated once the count is within the threshold
+			long retained = -1;
+			int size = lru.size();
+			for (Iterator iterator = lru.entrySet().iterator(); iterator.hasNext();) {
+				if (size <= MINIMUM_THRESHHOLD)
+					break;
+				if (size <= threshhold) {
+					if (budget == Long.MAX_VALUE)
+						break;
+					if (retained < 0)
+						retained = getEstimatedSize();
+					if (retained <= budget)
+						break;
+				}
+				Map.Entry mapEntry = (Map.Entry) iterator.next();
+				EditModel model = (EditModel) mapEntry.getKey();
+				if (pinned.containsKey(model))
+					continue;
 				// remove oldest element and release the edit model.
-				Iterator iterator = lru.iterator();
-				model = (EditModel) iterator.next();
-				if (model != null) {
-					lru.remove(model);	
+				iterator.remove();
+				models.add(model);
+				size--;
+				if (retained >= 0)
+					retained -= getEstimatedSize(model, (Entry) mapEntry.getValue());
+				remember(model);
+				evictions++;
+			}
+		}
+		release(models);
+	}
+
+	/**
+	 * Release the edit models that have not been accessed since <code>before</code>, unless they
+	 * are pinned.
+	 *
+	 * @return the number of edit models that were released.
+	 */
+	public int releaseIdle(long before) {
+		List models = new ArrayList();
+		synchronized (lru) {
+			for (Iterator iterator = lru.entrySet().iterator(); iterator.hasNext();) {
+				Map.Entry mapEntry = (Map.Entry) iterator.next();
+				EditModel model = (EditModel) mapEntry.getKey();
+				if (((Entry) mapEntry.getValue()).lastAccess >= before || pinned.containsKey(model))
+					continue;
+				iterator.remove();
+				models.add(model);
+			}
+			idleReleases += models.size();
+			if (threshhold > DEFAULT_THRESHHOLD)
+				threshhold = Math.max(DEFAULT_THRESHHOLD, threshhold - models.size());
+		}
+		release(models);
+		return models.size();
+	}
+
+	/**
+	 * Open a working set for <code>owner</code> on the current thread. Every edit model that is
+	 * accessed through the cache on this thread, until the working set is ended, is pinned; it is not
+	 * released by the cache, either to make room or for being idle. This is meant for operations, like a
+	 * module export, that use the same edit models many times:
+	 * <pre>
+	 * Object workingSet = EditModelLeastUsedCache.getInstance().beginWorkingSet(this);
+	 * try {
+	 *     ...
+	 * } finally {
+	 *     EditModelLeastUsedCache.getInstance().endWorkingSet(workingSet);
+	 * }
+	 * </pre>
+	 * Working sets can be nested, an edit model is pinned while any working set holds it.
+	 *
+	 * @param owner - The object, normally the operation, that owns the working set.
+	 * @return the working set, which is given to {@link #endWorkingSet(Object)} to end it.
+	 */
+	public Object beginWorkingSet(Object owner) {
+		WorkingSet set = new WorkingSet(owner);
+		synchronized (lru) {
+			List sets = (List) workingSets.get();
+			if (sets == null) {
+				sets = new LinkedList();
+				workingSets.set(sets);
+			}
+			set.sets = sets;
+			sets.add(set);
+		}
+		return set;
+	}
+
+	/**
+	 * End a working set, so that its edit models can be released by the cache again. The working set does
+	 * not need to be ended on the thread that began it.
+	 *
+	 * @param workingSet - The working set that {@link #beginWorkingSet(Object)} answered. For compatibility,
+	 * 	this can also be the owner, in which case the most recent working set of that owner that was begun on
+	 * 	the current thread is ended.
+	 */
+	public void endWorkingSet(Object workingSet) {
+		synchronized (lru) {
+			WorkingSet set = null;
+			if (workingSet instanceof WorkingSet)
+				set = (WorkingSet) workingSet;
+			else {
+				List sets = (List) workingSets.get();
+				for (ListIterator iterator = sets == null ? null : sets.listIterator(sets.size()); iterator != null && iterator.hasPrevious();) {
+					WorkingSet candidate = (WorkingSet) iterator.previous();
+					if (candidate.owner == workingSet) {
+						set = candidate;
+						break;
+					}
 				}
 			}
+			if (set == null || set.sets == null)
+				return;
+			set.sets.remove(set);
+			if (set.sets.isEmpty() && workingSets.get() == set.sets)
+				workingSets.set(null);
+			set.sets = null;
+			for (Iterator iterator = set.models.iterator(); iterator.hasNext();) {
+				Object model = iterator.next();
+				int[] count = (int[]) pinned.get(model);
+				if (count != null && --count[0] == 0)
+					pinned.remove(model);
+			}
 		}
-		if (model != null)
-			model.releaseAccess(this);
+		optimizeLRUSizeIfNecessary();
 	}
 
 	/**
-	 * Move the editModel to the end of the list 
+	 * Answer the listener that pins the edit models, that top level data model operations access, for as
+	 * long as the operation runs.
+	 */
+	public ITopLevelOperationListener getOperationListener() {
+		synchronized (lru) {
+			if (operationListener == null) {
+				operationListener = new ITopLevelOperationListener() {
+					public Object starting(IDataModelPausibleOperation operation) {
+						return beginWorkingSet(operation);
+					}
+
+					public void finished(Object token) {
+						if (token != null)
+							endWorkingSet(token);
+					}
+				};
+			}
+			return operationListener;
+		}
+	}
+
+	/**
+	 * Answer a snapshot of the statistics of the cache.
+	 */
+	public Statistics getStatistics() {
+		synchronized (lru) {
+			return new Statistics(this);
+		}
+	}
+
+	/**
+	 * Add the edit model to the working sets that are open on this thread.
+	 */
+	private void addToWorkingSets(EditModel editModel) {
+		List sets = (List) workingSets.get();
+		if (sets == null)
+			return;
+		for (Iterator iterator = sets.iterator(); iterator.hasNext();) {
+			WorkingSet set = (WorkingSet) iterator.next();
+			if (set.models.add(editModel)) {
+				int[] count = (int[]) pinned.get(editModel);
+				if (count == null)
+					pinned.put(editModel, new int[]{1});
+				else
+					count[0]++;
+			}
+		}
+	}
+
+	/**
+	 * Cut the threshold in half when the heap becomes nearly full, and restore it once the heap has
+	 * recovered.
+	 */
+	private void adjustForMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		long max = runtime.maxMemory();
+		if (max == Long.MAX_VALUE)
+			return;
+		long used = runtime.totalMemory() - runtime.freeMemory();
+		if (threshholdBeforeLowMemory < 0) {
+			if (used / 100 * 100 > max / 100 * LOW_MEMORY_PERCENT) {
+				threshholdBeforeLowMemory = threshhold;
+				threshhold = Math.max(MINIMUM_THRESHHOLD, threshhold / 2);
+			}
+		} else if (used / 100 * 100 < max / 100 * RECOVERED_MEMORY_PERCENT) {
+			threshhold = Math.max(threshhold, threshholdBeforeLowMemory);
+			threshholdBeforeLowMemory = -1;
+		}
+	}
+
+	/**
+	 * Answer the memory that the cached edit models may retain, by estimate.
+	 */
+	private long getMemoryBudget() {
+		long max = Runtime.getRuntime().maxMemory();
+		if (max == Long.MAX_VALUE)
+			return Long.MAX_VALUE;
+		return max / 100 * HEAP_PERCENT;
+	}
+
+	/**
+	 * Answer an estimate of the memory that the cached edit models retain.
+	 */
+	private long getEstimatedSize() {
+		long size = 0;
+		for (Iterator iterator = lru.entrySet().iterator(); iterator.hasNext();) {
+			Map.Entry mapEntry = (Map.Entry) iterator.next();
+			size += getEstimatedSize((EditModel) mapEntry.getKey(), (Entry) mapEntry.getValue());
+		}
+		return size;
+	}
+
+	/**
+	 * Answer an estimate of the memory that the edit model retains, from the number of loaded resources
+	 * that it holds. The estimate is kept until the edit model is accessed again.
+	 */
+	private long getEstimatedSize(EditModel editModel, Entry entry) {
+		if (entry.size < 0) {
+			long size = 0;
+			Object[] resources = editModel.getResources().toArray();
+			for (int i = 0; i < resources.length; i++) {
+				if (resources[i] != null && ((Resource) resources[i]).isLoaded())
+					size += ESTIMATED_RESOURCE_SIZE;
+			}
+			entry.size = size;
+		}
+		return entry.size;
+	}
+
+	/**
+	 * Release the access that the cache holds on the edit models. The caller must not hold the lock on
+	 * the cache. The edit model is locked, as it is when it is accessed, see
+	 * {@link EMFWorkbenchContext#getEditModelForRead(String, Object, Map)}.
+	 */
+	private void release(List editModels) {
+		for (int i = 0; i < editModels.size(); i++) {
+			EditModel editModel = (EditModel) editModels.get(i);
+			synchronized (editModel) {
+				editModel.releaseAccess(this);
+			}
+		}
+	}
+
+	/**
+	 * Remember that the edit model was released by the cache, so that accessing it again grows the
+	 * threshold.
+	 */
+	private void remember(EditModel editModel) {
+		String key = getKey(editModel);
+		released.remove(key);
+		released.add(key);
+		if (released.size() > MAXIMUM_THRESHHOLD) {
+			Iterator iterator = released.iterator();
+			iterator.next();
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * Answer a key that is the same for the edit models that are created again for the same id in the
+	 * same project.
+	 */
+	private String getKey(EditModel editModel) {
+		String project = editModel.getProject() == null ? "" : editModel.getProject().getName(); //$NON-NLS-1$
+		return project + '/' + editModel.getEditModelID() + '/' + editModel.isReadOnly();
+	}
+
+	private int[] getCounts(String editModelID) {
+		int[] count = (int[]) counts.get(editModelID);
+		if (count == null)
+			counts.put(editModelID, count = new int[2]);
+		return count;
+	}
+
+	private void scheduleIdleRelease() {
+		synchronized (lru) {
+			if (idleJob == null) {
+				idleJob = new Job(EMFWorkbenchEditResourceHandler.EditModelLeastUsedCache_IdleJob) {
+					@Override
+					protected IStatus run(IProgressMonitor monitor) {
+						releaseIdle(System.currentTimeMillis() - IDLE_TIME);
+						synchronized (lru) {
+							if (!lru.isEmpty())
+								schedule(IDLE_TIME / 2);
+						}
+						return Status.OK_STATUS;
+					}
+				};
+				idleJob.setSystem(true);
+			}
+			if (idleJob.getState() == Job.NONE)
+				idleJob.schedule(IDLE_TIME / 2);
+		}
+	}
+
+	/**
+	 * Move the editModel to the end of the list
 	 * @param editModel -- EditModel to be moved
 	 */
-	private void moveToEnd(EditModel editModel) {
+	private void moveToEnd(EditModel editModel, Entry entry) {
 		lru.remove(editModel);
-		lru.add(editModel);
-	}	
+		lru.put(editModel, entry);
+	}
+
+	private static class Entry {
+		long lastAccess;
+
+		/** The estimated size, or -1 if it needs to be estimated again. */
+		long size = -1;
+
+		Entry(long lastAccess) {
+			this.lastAccess = lastAccess;
+		}
+	}
+
+	private static class WorkingSet {
+		final Object owner;
+		final LinkedHashSet/* <EditModel> */ models = new LinkedHashSet();
+
+		/** The working sets of the thread that began this one, or null once it has ended. */
+		List/* <WorkingSet> */ sets;
+
+		WorkingSet(Object owner) {
+			this.owner = owner;
+		}
+	}
+
+	/**
+	 * A snapshot of the statistics of the cache.
+	 */
+	public static class Statistics {
+		private final int size;
+		private final int pinnedSize;
+		private final int threshhold;
+		private final int hits;
+		private final int misses;
+		private final int evictions;
+		private final int idleReleases;
+		private final Map/* <String, int[]> */ counts = new HashMap();
+
+		Statistics(EditModelLeastUsedCache cache) {
+			size = cache.lru.size();
+			pinnedSize = cache.pinned.size();
+			threshhold = cache.threshhold;
+			hits = cache.hits;
+			misses = cache.misses;
+			evictions = cache.evictions;
+			idleReleases = cache.idleReleases;
+			for (Iterator iterator = cache.counts.entrySet().iterator(); iterator.hasNext();) {
+				Map.Entry entry = (Map.Entry) iterator.next();
+				counts.put(entry.getKey(), ((int[]) entry.getValue()).clone());
+			}
+		}
+
+		/** Answer the number of edit models in the cache. */
+		public int getSize() {
+			return size;
+		}
+
+		/** Answer the number of edit models that are pinned by a working set. */
+		public int getPinnedSize() {
+			return pinnedSize;
+		}
+
+		/** Answer the current threshold. */
+		public int getThreshhold() {
+			return threshhold;
+		}
+
+		/** Answer the number of accesses that found the edit model in the cache. */
+		public int getHits() {
+			return hits;
+		}
+
+		/** Answer the number of accesses that did not find the edit model in the cache. */
+		public int getMisses() {
+			return misses;
+		}
+
+		/** Answer the number of edit models that were released to make room. */
+		public int getEvictions() {
+			return evictions;
+		}
+
+		/** Answer the number of edit models that were released for being idle. */
+		public int getIdleReleases() {
+			return idleReleases;
+		}
+
+		/** Answer the ids of the edit models that have been accessed. */
+		public Collection getEditModelIDs() {
+			return Collections.unmodifiableSet(counts.keySet());
+		}
+
+		/**
+		 * Answer the fraction of the accesses of edit models with this id that found the edit model in the
+		 * cache, or 0 if there have been none.
+		 */
+		public double getHitRate(String editModelID) {
+			int[] count = (int[]) counts.get(editModelID);
+			if (count == null || count[0] + count[1] == 0)
+				return 0;
+			return (double) count[0] / (count[0] + count[1]);
+		}
+
+		@Override
+		public String toString() {
+			return "EditModelLeastUsedCache size=" + size + " pinned=" + pinnedSize + " threshhold=" + threshhold + //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				" hits=" + hits + " misses=" + misses + " evictions=" + evictions + " idleReleases=" + idleReleases; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		}
+	}
 }
@@ -21,7 +21,9 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.emf.common.util.WrappedException;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.jem.util.emf.workbench.WorkbenchResourceHelperBase;
+import org.eclipse.wst.common.frameworks.internal.datamodel.DataModelPausibleOperationImpl;
 import org.eclipse.wst.common.internal.emf.utilities.ExtendedEcoreUtil;
+import org.eclipse.wst.common.internal.emfworkbench.EditModelLeastUsedCache;
 import org.eclipse.wst.common.internal.emfworkbench.PassthruResourceSet;
 import org.eclipse.wst.common.internal.emfworkbench.WorkbenchResourceHelper;
 import org.osgi.framework.BundleContext;
@@ -73,6 +75,13 @@ public class EMFWorkbenchEditPlugin extends Plugin {
 			}
 		});
 		WorkbenchResourceHelper.initializeFileAdapterFactory();
+		DataModelPausibleOperationImpl.addTopLevelOperationListener(EditModelLeastUsedCache.getInstance().getOperationListener());
+	}
+
+	@Override
+	public void stop(BundleContext context) throws Exception {
+		DataModelPausibleOperationImpl.removeTopLevelOperationListener(EditModelLeastUsedCache.getInstance().getOperationListener());
+		super.stop(context);
 	}
 
 	public static ResourceSet createIsolatedResourceSet(IProject project) {
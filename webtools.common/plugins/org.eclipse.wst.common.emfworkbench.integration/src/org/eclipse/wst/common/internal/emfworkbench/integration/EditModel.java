@@ -1371,6 +1371,15 @@ public class EditModel implements CommandStackListener, ResourceStateInputProvid
 		}
 	}
 
+	/**
+	 * Force all of the known resource URIs to be loaded, like {@link #forceLoadKnownResources()}, but
+	 * parse the resources in parallel. Use {@link EditModelPreloader#preload(EditModel[])} to preload
+	 * the resources of several edit models together.
+	 */
+	public void preloadKnownResources() {
+		EditModelPreloader.preload(new EditModel[]{this});
+	}
+
 	/**
 	 * This method should be called when you want to extend this edit model to handle a resource
 	 * with a URI equal to <code>aRelativeURI</code>.
@@ -0,0 +1,246 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.internal.emfworkbench.integration;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.common.util.WrappedException;
+import org.eclipse.emf.ecore.resource.ContentHandler;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.eclipse.jem.internal.util.emf.workbench.ProjectResourceSetImpl;
+import org.eclipse.jem.util.PerformanceMonitorUtil;
+
+/**
+ * Loads the known resources of one or more edit models in parallel, instead of one after another as
+ * {@link EditModel#forceLoadKnownResources()} does.
+ * <p>
+ * Each resource that is not in its project's resource set yet is created and parsed by a worker job,
+ * in an isolated resource set of its own that shares the URIConverter, factories and load options of the
+ * project's resource set. When all the workers have finished, the loaded resources are attached to the
+ * project's resource set one at a time, in the order that the edit models list them, and then the edit
+ * models take them as if they had loaded them themselves. The isolated resource sets are released. A
+ * resource that could not be loaded this way, whose loading resolved references into other resources,
+ * or that some other thread added to the resource set in the meantime, is simply left to the normal
+ * loading on first access. The references of an attached resource to other resources are still proxies,
+ * so they are resolved in the project's resource set.
+ * </p>
+ * <p>
+ * The time that each resource took to load is recorded with
+ * {@link PerformanceMonitorUtil#recordTime(int, String, long)}, using {@link #LOAD_STEP}.
+ * </p>
+ */
+public class EditModelPreloader {
+
+	/**
+	 * The step that the load time of each resource is recorded with.
+	 */
+	public static final int LOAD_STEP = 1;
+
+	private EditModelPreloader() {
+		// Do not instantiate
+	}
+
+	/**
+	 * Load the known resources of the edit models, parsing them in parallel.
+	 *
+	 * @param editModels
+	 */
+	public static void preload(EditModel[] editModels) {
+		List<Load> loads = new ArrayList<Load>();
+		Map<ResourceSet, Set<URI>> seen = new HashMap<ResourceSet, Set<URI>>();
+		for (int i = 0; i < editModels.length; i++) {
+			EditModel editModel = editModels[i];
+			if (editModel == null || editModel.isDisposed())
+				continue;
+			ResourceSet set = editModel.getResourceSet();
+			if (!(set instanceof ProjectResourceSetImpl))
+				continue;
+			Set<URI> setURIs = seen.get(set);
+			if (setURIs == null) {
+				setURIs = new HashSet<URI>();
+				seen.put(set, setURIs);
+			}
+			URIConverter converter = set.getURIConverter();
+			List uris = new ArrayList(editModel.getKnownResourceUris());
+			for (int j = 0; j < uris.size(); j++) {
+				URI uri = (URI) uris.get(j);
+				if (!setURIs.add(converter.normalize(uri)))
+					continue;
+				// Already created, the edit model takes it as it is
+				if (set.getResource(uri, false) != null)
+					continue;
+				loads.add(new Load((ProjectResourceSetImpl) set, uri));
+			}
+		}
+
+		if (!loads.isEmpty()) {
+			try {
+				load(loads);
+			} finally {
+				for (int i = 0; i < loads.size(); i++)
+					loads.get(i).attach();
+			}
+		}
+
+		for (int i = 0; i < editModels.length; i++) {
+			if (editModels[i] != null && !editModels[i].isDisposed())
+				editModels[i].forceLoadKnownResources();
+		}
+	}
+
+	/**
+	 * Run the loads on worker jobs, and wait for all of the workers to finish. If the current thread is
+	 * interrupted, the loads that have not started are skipped, but the ones that have are still waited for.
+	 */
+	private static void load(List<Load> loads) {
+		int threads = Math.min(loads.size(), Runtime.getRuntime().availableProcessors());
+		if (threads <= 1) {
+			for (int i = 0; i < loads.size(); i++)
+				loads.get(i).run();
+			return;
+		}
+		LoadQueue queue = new LoadQueue(loads);
+		Job[] workers = new Job[threads];
+		for (int i = 0; i < workers.length; i++) {
+			workers[i] = new LoadJob(queue);
+			workers[i].setSystem(true);
+			workers[i].schedule();
+		}
+		boolean interrupted = false;
+		for (int i = 0; i < workers.length; i++) {
+			while (true) {
+				try {
+					workers[i].join();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+					queue.stop();
+				}
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	/**
+	 * The loads that the workers take one at a time.
+	 */
+	private static class LoadQueue {
+		private final List<Load> loads;
+		private int next = 0;
+
+		LoadQueue(List<Load> loads) {
+			this.loads = loads;
+		}
+
+		synchronized Load next() {
+			return next < loads.size() ? loads.get(next++) : null;
+		}
+
+		synchronized void stop() {
+			next = loads.size();
+		}
+	}
+
+	/**
+	 * A worker that runs loads until there are none left.
+	 */
+	private static class LoadJob extends Job {
+		private final LoadQueue queue;
+
+		LoadJob(LoadQueue queue) {
+			super("EditModel Preload"); //$NON-NLS-1$
+			this.queue = queue;
+		}
+
+		protected IStatus run(IProgressMonitor monitor) {
+			Load load;
+			while (!monitor.isCanceled() && (load = queue.next()) != null)
+				load.run();
+			return Status.OK_STATUS;
+		}
+
+		public boolean belongsTo(Object family) {
+			return family == EditModelPreloader.class;
+		}
+	}
+
+	/**
+	 * The load of one resource in its own isolated resource set.
+	 */
+	private static class Load {
+		private final ProjectResourceSetImpl resourceSet;
+		private final ProjectResourceSetImpl context;
+		private final URI uri;
+		// Set by a worker and read by the thread that attaches it
+		private volatile Resource loaded;
+
+		Load(ProjectResourceSetImpl resourceSet, URI uri) {
+			this.resourceSet = resourceSet;
+			this.uri = uri;
+			context = (ProjectResourceSetImpl) EMFWorkbenchEditPlugin.createIsolatedResourceSet(resourceSet.getProject());
+			context.setURIConverter(resourceSet.getURIConverter());
+			context.setResourceFactoryRegistry(resourceSet.getResourceFactoryRegistry());
+			context.getLoadOptions().putAll(resourceSet.getLoadOptions());
+		}
+
+		void run() {
+			long start = System.currentTimeMillis();
+			try {
+				Resource res = context.createResource(uri, ContentHandler.UNSPECIFIED_CONTENT_TYPE);
+				if (res != null) {
+					res.load(context.getLoadOptions());
+					loaded = res;
+				}
+			} catch (IOException e) {
+				// Ignore, it is loaded on first access instead
+			} catch (WrappedException e) {
+				// Ignore, it is loaded on first access instead
+			} catch (RuntimeException e) {
+				EMFWorkbenchEditPlugin.logError(e);
+			} finally {
+				PerformanceMonitorUtil.getMonitor().recordTime(LOAD_STEP, uri.toString(), System.currentTimeMillis() - start);
+			}
+		}
+
+		/**
+		 * Attach the loaded resource to the project's resource set, unless another thread got there first or
+		 * its loading resolved references into other resources, which would be left in the isolated resource
+		 * set. Then release the isolated resource set, which unloads whatever is still in it.
+		 */
+		void attach() {
+			try {
+				Resource res = loaded;
+				if (res != null && context.getResources().size() == 1)
+					resourceSet.attachResource(res);
+			} finally {
+				try {
+					context.release();
+				} catch (RuntimeException e) {
+					EMFWorkbenchEditPlugin.logError(e);
+				}
+			}
+		}
+	}
+}
@@ -18,9 +18,11 @@ package org.eclipse.wst.common.internal.emfworkbench.integration;
 
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -38,6 +40,8 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.Path;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.common.util.WrappedException;
 import org.eclipse.emf.ecore.resource.Resource;
@@ -118,6 +122,177 @@ public class ResourceSetWorkbenchEditSynchronizer extends ResourceSetWorkbenchSy
 	protected List autoloadResourcesURIs = new ArrayList();
 	protected List autoloadResourcesExts = new ArrayList();
 
+	private ResourcePathIndex pathIndex;
+
+	/**
+	 * An index of the resources in the resource set by the path that {@link #getResources(IFile)}
+	 * matches them on, so that a changed file can be matched without parsing the URI of every
+	 * resource in the set. It listens to the resource set for resources being added and removed,
+	 * and to each resource for its URI changing. The path of a resource is only worked out when the
+	 * index is next used. All access to the maps is synchronized on the index, but the index is
+	 * attached to and detached from the resources without holding that lock.
+	 */
+	protected class ResourcePathIndex extends AdapterImpl {
+		/** The path of each resource, null if the resource can never match a file. */
+		private final Map paths = new HashMap();
+		/** The list of resources with each path. */
+		private final Map resources = new HashMap();
+		/** The resources whose path has not been worked out yet. */
+		private final Set pending = new LinkedHashSet();
+
+		@Override
+		public void notifyChanged(Notification notification) {
+			if (notification.getNotifier() == resourceSet) {
+				if (notification.getFeatureID(null) != ResourceSet.RESOURCE_SET__RESOURCES)
+					return;
+				switch (notification.getEventType()) {
+					case Notification.ADD :
+						added((Resource) notification.getNewValue());
+						break;
+					case Notification.ADD_MANY :
+						addedAll((Collection) notification.getNewValue());
+						break;
+					case Notification.REMOVE :
+						removed((Resource) notification.getOldValue());
+						break;
+					case Notification.REMOVE_MANY :
+						removedAll((Collection) notification.getOldValue());
+						break;
+					case Notification.SET :
+						removed((Resource) notification.getOldValue());
+						added((Resource) notification.getNewValue());
+						break;
+				}
+			} else if (notification.getNotifier() instanceof Resource && notification.getFeatureID(null) == Resource.RESOURCE__URI)
+				uriChanged((Resource) notification.getNotifier());
+		}
+
+		public void added(Resource res) {
+			if (track(res))
+				attach(res);
+		}
+
+		public void addedAll(Collection list) {
+			List attach = new ArrayList(list.size());
+			synchronized (this) {
+				for (Iterator iterator = list.iterator(); iterator.hasNext();) {
+					Resource res = (Resource) iterator.next();
+					if (track(res))
+						attach.add(res);
+				}
+			}
+			for (Iterator iterator = attach.iterator(); iterator.hasNext();)
+				attach((Resource) iterator.next());
+		}
+
+		public void removed(Resource res) {
+			if (untrack(res))
+				res.eAdapters().remove(this);
+		}
+
+		public void removedAll(Collection list) {
+			List detach = new ArrayList(list.size());
+			synchronized (this) {
+				for (Iterator iterator = list.iterator(); iterator.hasNext();) {
+					Resource res = (Resource) iterator.next();
+					if (untrack(res))
+						detach.add(res);
+				}
+			}
+			for (Iterator iterator = detach.iterator(); iterator.hasNext();)
+				((Resource) iterator.next()).eAdapters().remove(this);
+		}
+
+		/**
+		 * Start tracking the resource. The caller attaches the index to the resource, without holding
+		 * the lock, since the resource's adapters are foreign code.
+		 * 
+		 * @return true if the index needs to be attached to the resource.
+		 */
+		private synchronized boolean track(Resource res) {
+			if (res == null || paths.containsKey(res))
+				return false;
+			return pending.add(res);
+		}
+
+		/**
+		 * Stop tracking the resource. The caller detaches the index from the resource, without holding
+		 * the lock.
+		 * 
+		 * @return true if the index needs to be detached from the resource.
+		 */
+		private synchronized boolean untrack(Resource res) {
+			if (res == null)
+				return false;
+			boolean tracked = pending.remove(res) || paths.containsKey(res);
+			unindex(res);
+			return tracked;
+		}
+
+		private void attach(Resource res) {
+			if (!res.eAdapters().contains(this))
+				res.eAdapters().add(this);
+		}
+
+		private synchronized void uriChanged(Resource res) {
+			if (paths.containsKey(res)) {
+				unindex(res);
+				pending.add(res);
+			}
+		}
+
+		/**
+		 * Answer the resources whose path is aFileString.
+		 */
+		public synchronized List get(String aFileString) {
+			for (Iterator iterator = pending.iterator(); iterator.hasNext();) {
+				Resource res = (Resource) iterator.next();
+				index(res, getResourcePath(res));
+				iterator.remove();
+			}
+			List list = (List) resources.get(aFileString);
+			return list == null ? new ArrayList() : new ArrayList(list);
+		}
+
+		private void index(Resource res, String path) {
+			paths.put(res, path);
+			if (path == null)
+				return;
+			List list = (List) resources.get(path);
+			if (list == null) {
+				list = new ArrayList(1);
+				resources.put(path, list);
+			}
+			list.add(res);
+		}
+
+		private void unindex(Resource res) {
+			if (!paths.containsKey(res))
+				return;
+			String path = (String) paths.remove(res);
+			List list = path == null ? null : (List) resources.get(path);
+			if (list != null) {
+				list.remove(res);
+				if (list.isEmpty())
+					resources.remove(path);
+			}
+		}
+
+		public void dispose() {
+			resourceSet.eAdapters().remove(this);
+			Set all;
+			synchronized (this) {
+				all = new HashSet(paths.keySet());
+				all.addAll(pending);
+				paths.clear();
+				resources.clear();
+				pending.clear();
+			}
+			for (Iterator iterator = all.iterator(); iterator.hasNext();)
+				((Resource) iterator.next()).eAdapters().remove(this);
+		}
+	}
+
 
 	/**
 	 * @param aResourceSet
@@ -398,7 +573,6 @@ public class ResourceSetWorkbenchEditSynchronizer extends ResourceSetWorkbenchSy
 	
 	protected List getResources(IFile aFile) {
 
-		List resources = new ArrayList();
 		String aFileString = URI.decode(aFile.getFullPath().toString());
 		IPath aFilePath = new Path(aFileString).removeFirstSegments(1);
 		if (!aFilePath.isEmpty())
@@ -406,36 +580,46 @@ public class ResourceSetWorkbenchEditSynchronizer extends ResourceSetWorkbenchSy
 			aFileString = aFilePath.toString();
 		}
 		if (aFileString.length() > 0)
-		{
+			return getPathIndex().get(aFileString);
+		return new ArrayList();
+	}
+
+	/**
+	 * Answer the path that a file must have, without its project, to match the resource.
+	 * 
+	 * @return null if the resource can not match any file.
+	 */
+	protected String getResourcePath(Resource res) {
+		URI resURI = res.getURI();
+		if (resURI == null || resURI.path() == null)
+			return null;
+		IPath resURIPath;
+		if (WorkbenchResourceHelper.isPlatformResourceURI(resURI))
+			resURIPath = new Path(URI.decode(resURI.path())).removeFirstSegments(2);
+		else
+			resURIPath = new Path(URI.decode(resURI.path())).removeFirstSegments(1);
+		String resURIString = resURIPath.toString();
+		return resURIString.length() > 0 ? resURIString : null;
+	}
+
+	/**
+	 * Answer the index of the resources by path, creating it the first time that it is needed.
+	 */
+	protected synchronized ResourcePathIndex getPathIndex() {
+		if (pathIndex == null) {
+			pathIndex = new ResourcePathIndex();
+			// listen first, so that no resource can be missed, adding a resource twice is harmless
+			resourceSet.eAdapters().add(pathIndex);
 			List allResources = null;
 			if (resourceSet instanceof ProjectResourceSetImpl) {
 	            ProjectResourceSetImpl projResSet =(ProjectResourceSetImpl)resourceSet;
 	            allResources = projResSet.getImmutableResources();
 	        } else {
-	            allResources = resourceSet.getResources();
+	            allResources = new ArrayList(resourceSet.getResources());
 	        }
-			for (Iterator iterator = allResources.iterator(); iterator.hasNext();) {
-				Resource res = (Resource) iterator.next();
-				URI resURI = res.getURI();
-				String resURIString = ""; //$NON-NLS-1$
-				if (resURI.path() != null) {
-					IPath resURIPath;
-					if (WorkbenchResourceHelper.isPlatformResourceURI(resURI))
-						resURIPath = new Path(URI.decode(resURI.path())).removeFirstSegments(2);
-					else
-						resURIPath = new Path(URI.decode(resURI.path())).removeFirstSegments(1);
-					resURIString = resURIPath.toString();
-				}
-	
-				if (resURIString.length() > 0)
-				{
-					if (aFileString.equals(resURIString))
-					//if (!resURIString.equals("") && aFile.getFullPath().toString().indexOf(resURIString) != -1) //$NON-NLS-1$
-						resources.add(res);
-				}
-			}
+			pathIndex.addedAll(allResources);
 		}
-		return resources;
+		return pathIndex;
 	}
 
 
@@ -590,6 +774,12 @@ public class ResourceSetWorkbenchEditSynchronizer extends ResourceSetWorkbenchSy
 		super.dispose();
 		currentProjectDelta = null;
 		extenders = null;
+		synchronized (this) {
+			if (pathIndex != null) {
+				pathIndex.dispose();
+				pathIndex = null;
+			}
+		}
 	}
 
 }
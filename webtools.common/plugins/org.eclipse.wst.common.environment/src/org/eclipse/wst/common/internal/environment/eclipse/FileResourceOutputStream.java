@@ -10,9 +10,15 @@
  *******************************************************************************/
 package org.eclipse.wst.common.internal.environment.eclipse;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
@@ -23,13 +29,25 @@ import org.eclipse.wst.common.environment.IStatusHandler;
 /**
 * This class defines an output stream that writes to an
 * {@link org.eclipse.core.resources.IFile IFile}.
+* The bytes written are kept in memory until there are more than
+* {@link #MEMORY_THRESHOLD} of them, after which they are written
+* to a temporary file instead. An error while writing the temporary
+* file is reported when the stream is flushed or closed.
 */
 public class FileResourceOutputStream extends OutputStream
 {
+  /**
+  * The number of bytes that are kept in memory before they are
+  * moved to a temporary file.
+  */
+  public static final int MEMORY_THRESHOLD = 64 * 1024;
 
   IPath                 fFilePath;
   IStatusHandler         fStatusHandler;
   ByteArrayOutputStream fByteArrayOutputStream;
+  File                  fTempFile;
+  OutputStream          fTempOutputStream;
+  IOException           fError;
   boolean               fOpen;
 
   /**
@@ -73,16 +91,37 @@ public void close ()
   {
     if (!fOpen) return;
     fOpen = false;
-    fByteArrayOutputStream.close();
-    byte[] buffer = fByteArrayOutputStream.toByteArray();
-    ByteArrayInputStream tempInputStream = new ByteArrayInputStream(buffer);
     try
     {
-      FileResourceUtils.createFile(fFilePath, tempInputStream, fStatusHandler);
+      if (fTempOutputStream != null) fTempOutputStream.close();
+      if (fError != null) throw fError;
+      InputStream tempInputStream;
+      if (fTempOutputStream != null)
+      {
+        tempInputStream = new BufferedInputStream(new FileInputStream(fTempFile));
+      }
+      else
+      {
+        fByteArrayOutputStream.close();
+        tempInputStream = new ByteArrayInputStream(fByteArrayOutputStream.toByteArray());
+      }
+      try
+      {
+        FileResourceUtils.createFile(fFilePath, tempInputStream, fStatusHandler);
+      }
+      catch (CoreException e)
+      {
+        throw new IOException(e.getMessage());
+      }
+      finally
+      {
+        tempInputStream.close();
+      }
     }
-    catch (CoreException e)
+    finally
     {
-      throw new IOException(e.getMessage());
+      fByteArrayOutputStream = null;
+      if (fTempFile != null) fTempFile.delete();
     }
   }
 
@@ -98,7 +137,8 @@ public void close ()
 public void flush ()
   throws IOException
   {
-    fByteArrayOutputStream.flush();
+    if (fError != null) throw fError;
+    if (fTempOutputStream != null) fTempOutputStream.flush();
   }
 
   /**
@@ -113,7 +153,7 @@ public void flush ()
 public void write ( byte[] b )
   throws IOException
   {
-    fByteArrayOutputStream.write(b);
+    write(b, 0, b.length);
   }
 
   /**
@@ -130,7 +170,19 @@ public void write ( byte[] b )
   @Override
 public void write ( byte[] b, int off, int len )
   {
-    fByteArrayOutputStream.write(b,off,len);
+    if (!fOpen || fError != null) return;
+    try
+    {
+      reserve(len);
+      if (fTempOutputStream != null)
+        fTempOutputStream.write(b,off,len);
+      else
+        fByteArrayOutputStream.write(b,off,len);
+    }
+    catch (IOException e)
+    {
+      fError = e;
+    }
   }
 
   /**
@@ -144,7 +196,33 @@ public void write ( byte[] b, int off, int len )
   @Override
 public void write ( int b )
   {
-    fByteArrayOutputStream.write(b);
+    if (!fOpen || fError != null) return;
+    try
+    {
+      reserve(1);
+      if (fTempOutputStream != null)
+        fTempOutputStream.write(b);
+      else
+        fByteArrayOutputStream.write(b);
+    }
+    catch (IOException e)
+    {
+      fError = e;
+    }
+  }
+
+  /**
+  * Moves the bytes written so far to a temporary file if
+  * <code>len</code> more would take them past the threshold.
+  */
+  private void reserve ( int len )
+  throws IOException
+  {
+    if (fTempOutputStream != null || fByteArrayOutputStream.size() + len <= MEMORY_THRESHOLD) return;
+    fTempFile = File.createTempFile("fileresource", ".tmp"); //$NON-NLS-1$ //$NON-NLS-2$
+    fTempOutputStream = new BufferedOutputStream(new FileOutputStream(fTempFile));
+    fByteArrayOutputStream.writeTo(fTempOutputStream);
+    fByteArrayOutputStream = null;
   }
 }
 
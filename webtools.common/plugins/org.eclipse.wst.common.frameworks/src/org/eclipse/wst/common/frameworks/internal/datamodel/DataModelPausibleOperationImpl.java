@@ -77,12 +77,42 @@ public class DataModelPausibleOperationImpl extends WrappedOperation implements
 
 	private static Hashtable threadToExtendedOpControl = new Hashtable();
 
+	private static List topLevelListeners = new ArrayList();
+
+	/**
+	 * Add a listener that is told when any top level operation starts and stops running.
+	 */
+	public static void addTopLevelOperationListener(ITopLevelOperationListener listener) {
+		synchronized (topLevelListeners) {
+			topLevelListeners.add(listener);
+		}
+	}
+
+	public static void removeTopLevelOperationListener(ITopLevelOperationListener listener) {
+		synchronized (topLevelListeners) {
+			topLevelListeners.remove(listener);
+		}
+	}
+
 	protected IStatus cacheThreadAndContinue(IProgressMonitor monitor, IAdaptable info, int runType) throws ExecutionException {
 		final Thread currentThread = Thread.currentThread();
 		final boolean isTopLevelOperation = !threadToExtendedOpControl.containsKey(currentThread);
+		ITopLevelOperationListener[] listeners = null;
+		Object[] tokens = null;
 		try {
 			if (isTopLevelOperation) {
 				threadToExtendedOpControl.put(currentThread, this);
+				synchronized (topLevelListeners) {
+					listeners = (ITopLevelOperationListener[]) topLevelListeners.toArray(new ITopLevelOperationListener[topLevelListeners.size()]);
+				}
+				tokens = new Object[listeners.length];
+				for (int i = 0; i < listeners.length; i++) {
+					try {
+						tokens[i] = listeners[i].starting(this);
+					} catch (RuntimeException e) {
+						WTPCommonPlugin.logError(e);
+					}
+				}
 			}
 			switch (runType) {
 				case EXECUTE_IMPL :
@@ -98,6 +128,13 @@ public class DataModelPausibleOperationImpl extends WrappedOperation implements
 			}
 		} finally {
 			if (isTopLevelOperation) {
+				for (int i = listeners.length - 1; i >= 0; i--) {
+					try {
+						listeners[i].finished(tokens[i]);
+					} catch (RuntimeException e) {
+						WTPCommonPlugin.logError(e);
+					}
+				}
 				threadToExtendedOpControl.remove(currentThread);
 			}
 		}
@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.frameworks.internal.datamodel;
+
+/**
+ * <p>
+ * Told when a top level {@link IDataModelPausibleOperation} starts and stops running on the current thread.
+ * An operation is top level when no other operation is running on the thread, so the extended operations
+ * and the nested operations that it runs are part of the same notification. If the operation pauses, it
+ * stops running, and it starts running again when it is resumed.
+ * </p>
+ *
+ * @see DataModelPausibleOperationImpl#addTopLevelOperationListener(ITopLevelOperationListener)
+ */
+public interface ITopLevelOperationListener {
+
+	/**
+	 * The operation is about to run on the current thread.
+	 *
+	 * @param operation
+	 *            the operation
+	 * @return an object that is given to {@link #finished(Object)} when the operation stops running. It
+	 *         can be null.
+	 */
+	public Object starting(IDataModelPausibleOperation operation);
+
+	/**
+	 * The operation has stopped running on the current thread, because it completed, failed or paused.
+	 *
+	 * @param token
+	 *            the object that {@link #starting(IDataModelPausibleOperation)} answered.
+	 */
+	public void finished(Object token);
+
+}
@@ -37,7 +37,9 @@ import org.eclipse.jem.util.emf.workbench.ProjectUtilities;
 import org.eclipse.wst.common.componentcore.IEditModelHandler;
 import org.eclipse.wst.common.componentcore.ModuleCoreNature;
 import org.eclipse.wst.common.componentcore.UnresolveableURIException;
+import org.eclipse.wst.common.componentcore.internal.impl.ComponentPathIndex;
 import org.eclipse.wst.common.componentcore.internal.impl.ModuleURIUtil;
+import org.eclipse.wst.common.componentcore.internal.impl.ProjectComponentsImpl;
 import org.eclipse.wst.common.componentcore.internal.impl.ResourceTreeNode;
 import org.eclipse.wst.common.componentcore.internal.util.EclipseResourceAdapter;
 import org.eclipse.wst.common.componentcore.resolvers.IReferenceResolver;
@@ -704,7 +706,10 @@ public class StructureEdit implements IEditModelHandler {
 	public WorkbenchComponent findComponent(IPath aProjectRelativeResourcePath, int resourceFlag) throws UnresolveableURIException {
 		ProjectComponents projectModules = getComponentModelRoot();
 		if (projectModules == null) return null;
-		EList modules = projectModules.getComponents();
+		List modules = projectModules.getComponents();
+		ComponentPathIndex index = getSourcePathIndex(projectModules, resourceFlag);
+		if (index != null)
+			modules = Arrays.asList(index.findExistsCandidates(aProjectRelativeResourcePath, withoutFirstSegment(aProjectRelativeResourcePath)));
 
 		WorkbenchComponent module = null;
 		boolean resourceExists = false;
@@ -748,7 +753,10 @@ public class StructureEdit implements IEditModelHandler {
 		ProjectComponents projectModules = getComponentModelRoot();
 		if (projectModules==null)
 			return NO_RESOURCES;
-		EList modules = projectModules.getComponents();
+		List modules = projectModules.getComponents();
+		ComponentPathIndex index = getSourcePathIndex(projectModules, resourceFlag);
+		if (index != null)
+			modules = Arrays.asList(index.findResourceCandidates(aProjectRelativePath, withoutFirstSegment(aProjectRelativePath)));
 
 		WorkbenchComponent module = null;
 		ComponentResource[] resources = null;
@@ -769,6 +777,20 @@ public class StructureEdit implements IEditModelHandler {
 		return NO_RESOURCES;
 	}
 
+	/*
+	 * The source path index narrows the components to search, unless the search creates tree
+	 * nodes, which can make any component answer.
+	 */
+	private static ComponentPathIndex getSourcePathIndex(ProjectComponents projectModules, int resourceFlag) {
+		if ((resourceFlag & ResourceTreeNode.CREATE_TREENODE_IFNEC) != 0 || !(projectModules instanceof ProjectComponentsImpl))
+			return null;
+		return ((ProjectComponentsImpl) projectModules).getSourcePathIndex();
+	}
+
+	private static IPath withoutFirstSegment(IPath aPath) {
+		return aPath.segmentCount() > 1 ? aPath.removeFirstSegments(1) : null;
+	}
+
 	/**
 	 * <p>
 	 * Returns the {@see WorkbenchComponent}&nbsp;contained by the current ModuleCore with the
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.componentcore.internal.impl;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.wst.common.componentcore.internal.ComponentResource;
+import org.eclipse.wst.common.componentcore.internal.WorkbenchComponent;
+
+/**
+ * An immutable snapshot of the source paths that the components of a project map, as a prefix trie
+ * of path segments. It tells which components can have anything to say about a given path, so that
+ * only their resource trees need to be searched.
+ * <p>
+ * A component can have resources for a path if one of its source paths is a prefix of the path (the
+ * path may be a member of a mapped folder), or if the path is a prefix of one of its source paths (the
+ * path contains mapped resources); finding them walks the trie once, in the depth of the path. The
+ * candidates are always answered in the order of the components in the project.
+ * </p>
+ * <p>
+ * Snapshots are never changed once built; {@link ProjectComponentsImpl} replaces its snapshot when
+ * the components or their resources change, so lookups need no locking.
+ * </p>
+ */
+public final class ComponentPathIndex {
+
+	private final WorkbenchComponent[] components;
+	private final Node root;
+
+	private ComponentPathIndex(WorkbenchComponent[] components, Node root) {
+		this.components = components;
+		this.root = root;
+	}
+
+	/**
+	 * Build a snapshot of the source paths of the components.
+	 *
+	 * @param someComponents
+	 *            the components of a project, in order
+	 * @return the new snapshot
+	 */
+	public static ComponentPathIndex build(List someComponents) {
+		WorkbenchComponent[] components = (WorkbenchComponent[]) someComponents.toArray(new WorkbenchComponent[someComponents.size()]);
+		Builder root = new Builder();
+		for (int i = 0; i < components.length; i++) {
+			List resources = components[i].getResources();
+			for (int j = 0; j < resources.size(); j++) {
+				IPath sourcePath = ((ComponentResource) resources.get(j)).getSourcePath();
+				if (sourcePath != null)
+					root.add(sourcePath, 0, i);
+			}
+		}
+		return new ComponentPathIndex(components, root.freeze());
+	}
+
+	/**
+	 * Answer the components that can have resources for the path, or contain it, in project order.
+	 * These are the only components for which {@link WorkbenchComponent#findResourcesBySourcePath(IPath, int)}
+	 * can answer anything, unless the lookup creates tree nodes.
+	 *
+	 * @param aPath
+	 *            a source path
+	 * @param extraPath
+	 *            another source path whose candidates are added, or <code>null</code>
+	 * @return the candidate components
+	 */
+	public WorkbenchComponent[] findResourceCandidates(IPath aPath, IPath extraPath) {
+		BitSet candidates = new BitSet(components.length);
+		addResourceCandidates(aPath, candidates);
+		if (extraPath != null)
+			addResourceCandidates(extraPath, candidates);
+		return toComponents(candidates);
+	}
+
+	/**
+	 * Answer the components for which {@link WorkbenchComponent#exists(IPath, int)} can be true, in project
+	 * order, unless the lookup creates tree nodes. Besides the components that can have resources for the
+	 * path, these are the components that map anything under the first segment of the path.
+	 *
+	 * @param aPath
+	 *            a source path
+	 * @param extraPath
+	 *            another source path whose candidates are added, or <code>null</code>
+	 * @return the candidate components
+	 */
+	public WorkbenchComponent[] findExistsCandidates(IPath aPath, IPath extraPath) {
+		BitSet candidates = new BitSet(components.length);
+		addExistsCandidates(aPath, candidates);
+		if (extraPath != null)
+			addExistsCandidates(extraPath, candidates);
+		return toComponents(candidates);
+	}
+
+	private void addResourceCandidates(IPath aPath, BitSet candidates) {
+		// Every mapping along the path can hold the path as a member of a mapped folder
+		Node node = root;
+		candidates.or(node.terminal);
+		for (int i = 0; i < aPath.segmentCount(); i++) {
+			node = node.child(aPath.segment(i));
+			if (node == null)
+				return;
+			candidates.or(node.terminal);
+		}
+		// and every mapping under the path is contained by it
+		candidates.or(node.subtree);
+	}
+
+	private void addExistsCandidates(IPath aPath, BitSet candidates) {
+		if (aPath.segmentCount() == 0) {
+			candidates.or(root.subtree);
+			return;
+		}
+		candidates.or(root.terminal);
+		// Everything under the first segment covers the resource candidates too
+		Node first = root.child(aPath.segment(0));
+		if (first != null)
+			candidates.or(first.subtree);
+	}
+
+	private WorkbenchComponent[] toComponents(BitSet candidates) {
+		WorkbenchComponent[] result = new WorkbenchComponent[candidates.cardinality()];
+		for (int i = candidates.nextSetBit(0), j = 0; i >= 0; i = candidates.nextSetBit(i + 1))
+			result[j++] = components[i];
+		return result;
+	}
+
+	/*
+	 * A node of the frozen trie: the children are sorted by segment and found by binary search.
+	 */
+	private static final class Node {
+		private static final String[] NO_SEGMENTS = new String[0];
+		private static final Node[] NO_NODES = new Node[0];
+
+		final String[] segments;
+		final Node[] children;
+		/* The components that map this exact path. */
+		final BitSet terminal;
+		/* The components that map this path or a path under it. */
+		final BitSet subtree;
+
+		Node(String[] segments, Node[] children, BitSet terminal, BitSet subtree) {
+			this.segments = segments.length == 0 ? NO_SEGMENTS : segments;
+			this.children = children.length == 0 ? NO_NODES : children;
+			this.terminal = terminal;
+			this.subtree = subtree;
+		}
+
+		Node child(String segment) {
+			int index = Arrays.binarySearch(segments, segment);
+			return index >= 0 ? children[index] : null;
+		}
+	}
+
+	/*
+	 * A node of the trie while it is being built.
+	 */
+	private static final class Builder {
+		final Map<String, Builder> children = new TreeMap<String, Builder>();
+		final BitSet terminal = new BitSet();
+
+		void add(IPath aPath, int segment, int component) {
+			if (segment == aPath.segmentCount()) {
+				terminal.set(component);
+				return;
+			}
+			Builder child = children.get(aPath.segment(segment));
+			if (child == null)
+				children.put(aPath.segment(segment), child = new Builder());
+			child.add(aPath, segment + 1, component);
+		}
+
+		Node freeze() {
+			String[] segments = new String[children.size()];
+			Node[] nodes = new Node[children.size()];
+			BitSet subtree = (BitSet) terminal.clone();
+			int i = 0;
+			for (Map.Entry<String, Builder> entry : children.entrySet()) {
+				segments[i] = entry.getKey();
+				nodes[i] = entry.getValue().freeze();
+				subtree.or(nodes[i].subtree);
+				i++;
+			}
+			return new Node(segments, nodes, terminal, subtree);
+		}
+	}
+}
@@ -11,12 +11,18 @@
 package org.eclipse.wst.common.componentcore.internal.impl;
 
 import org.eclipse.emf.common.notify.Notification;
-import org.eclipse.emf.common.notify.impl.AdapterImpl;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.wst.common.componentcore.internal.ComponentcorePackage;
 import org.eclipse.wst.common.componentcore.internal.WorkbenchComponent;
 
-public class ModuleIndexingAdapter extends AdapterImpl {
+/**
+ * Keeps the indexes of {@link ProjectComponentsImpl} up to date. It is attached to the project
+ * components and, as a content adapter, to every component and component resource in them, so that
+ * it also hears of the changes to their source paths.
+ */
+public class ModuleIndexingAdapter extends EContentAdapter {
 
 	private static final Class MODULE_INDEXING_ADAPTER_CLASS = ModuleIndexingAdapter.class;
 
@@ -26,8 +32,14 @@ public class ModuleIndexingAdapter extends AdapterImpl {
 	 * @see org.eclipse.emf.common.notify.impl.AdapterImpl#notifyChanged(org.eclipse.emf.common.notify.Notification)
 	 */
 	public void notifyChanged(Notification aNotification) {
+		super.notifyChanged(aNotification);
 		if (aNotification.getNotifier() instanceof EObject) {
 			EObject notifier = (EObject) aNotification.getNotifier();
+			if (isSourcePathChange(notifier, aNotification)) {
+				EObject root = EcoreUtil.getRootContainer(notifier);
+				if (root instanceof ProjectComponentsImpl)
+					((ProjectComponentsImpl) root).sourcePathsChanged();
+			}
 			if (notifier.eClass().getClassifierID() == ComponentcorePackage.PROJECT_COMPONENTS) {
 				ProjectComponentsImpl projectModules = (ProjectComponentsImpl) notifier;
 				synchronized (projectModules.getModulesIndex()) {
@@ -41,6 +53,22 @@ public class ModuleIndexingAdapter extends AdapterImpl {
 		} 
 	}
 
+	private boolean isSourcePathChange(EObject notifier, Notification aNotification) {
+		if (aNotification.isTouch())
+			return false;
+		Object feature = aNotification.getFeature();
+		switch (notifier.eClass().getClassifierID()) {
+			case ComponentcorePackage.PROJECT_COMPONENTS :
+				return feature == ComponentcorePackage.eINSTANCE.getProjectComponents_Components();
+			case ComponentcorePackage.WORKBENCH_COMPONENT :
+				return feature == ComponentcorePackage.eINSTANCE.getWorkbenchComponent_Resources();
+			case ComponentcorePackage.COMPONENT_RESOURCE :
+				return feature == ComponentcorePackage.eINSTANCE.getComponentResource_SourcePath();
+			default :
+				return false;
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -95,6 +95,12 @@ public class ProjectComponentsImpl extends EObjectImpl implements ProjectCompone
 
 	private final Map modulesIndex = new HashMap();
 
+	/* The current snapshot of the source paths, null when it has to be built again. */
+	private volatile ComponentPathIndex sourcePathIndex;
+
+	/* Counts the changes to the source paths, so that a snapshot built during a change is not kept. */
+	private int sourcePathChanges;
+
 	/**
 	 * <!-- begin-user-doc --> <!-- end-user-doc -->
 	 * @generated
@@ -310,4 +316,35 @@ public class ProjectComponentsImpl extends EObjectImpl implements ProjectCompone
 		return modulesIndex;
 	}
 
+	/**
+	 * Answer the snapshot of the source paths of the components, building it if the components or
+	 * their resources changed since the last one. The ModuleIndexingAdapter tells of those changes.
+	 * 
+	 * @return the current source path index
+	 */
+	public ComponentPathIndex getSourcePathIndex() {
+		ComponentPathIndex index = sourcePathIndex;
+		if (index != null)
+			return index;
+		int changes;
+		synchronized (modulesIndex) {
+			if (EcoreUtil.getAdapter(eAdapters(), ModuleIndexingAdapter.class) == null)
+				eAdapters().add(new ModuleIndexingAdapter());
+			changes = sourcePathChanges;
+		}
+		index = ComponentPathIndex.build(getComponents());
+		synchronized (modulesIndex) {
+			if (changes == sourcePathChanges)
+				sourcePathIndex = index;
+		}
+		return index;
+	}
+
+	/* package */ void sourcePathsChanged() {
+		synchronized (modulesIndex) {
+			sourcePathChanges++;
+			sourcePathIndex = null;
+		}
+	}
+
 } // ProjectComponentsImpl
@@ -49,6 +49,19 @@ public class ExtensibleURIResolver implements URIResolver
 	}
 
 	public String resolve(String baseLocation, String publicId, String systemId)
+	{
+		URIResolutionCache resolutionCache = URIResolutionCache.getInstance();
+		Object key = resolutionCache.createKey(URIResolutionCache.LOGICAL, baseLocation, publicId, systemId);
+		String result = resolutionCache.get(key);
+		if (result == URIResolutionCache.MISS)
+		{
+			result = resolveLogicalLocation(baseLocation, publicId, systemId);
+			resolutionCache.put(key, result);
+		}
+		return result;
+	}
+
+	private String resolveLogicalLocation(String baseLocation, String publicId, String systemId)
 	{
 		String result = systemId;
 
@@ -94,6 +107,19 @@ public class ExtensibleURIResolver implements URIResolver
 	}
     
     public String resolvePhysicalLocation(String baseLocation, String publicId, String logicalLocation)
+    {
+      URIResolutionCache resolutionCache = URIResolutionCache.getInstance();
+      Object key = resolutionCache.createKey(URIResolutionCache.PHYSICAL, baseLocation, publicId, logicalLocation);
+      String result = resolutionCache.get(key);
+      if (result == URIResolutionCache.MISS)
+      {
+        result = resolvePhysicalLocationWithExtensions(baseLocation, publicId, logicalLocation);
+        resolutionCache.put(key, result);
+      }
+      return result;
+    }
+
+    private String resolvePhysicalLocationWithExtensions(String baseLocation, String publicId, String logicalLocation)
     {
       String result = logicalLocation;
       URIResolverExtensionRegistry resolverRegistry = URIResolverExtensionRegistry.getIntance();
@@ -139,11 +165,19 @@ public class ExtensibleURIResolver implements URIResolver
       // (i.e. the 'resolve' method) isn't interested in handling this exception.        
 	  try
 	  {
+	    // an absolute URI is left as it is, and the common case of a relative
+	    // path against a simple base is resolved without parsing either URI
+	    if (URI.hasScheme(systemId) || baseLocation == null)
+	      return result;
+	    baseLocation = baseLocation.replace('\\','/');
+	    String resolved = URI.resolveRelativePath(systemId, baseLocation);
+	    if (resolved != null)
+	      return resolved;
+
 	    // normalize the URI
 	    URI systemURI = URI.createURI(systemId);
-	    if (systemURI.isRelative() && baseLocation != null)
+	    if (systemURI.isRelative())
 	    {
-	      baseLocation = baseLocation.replace('\\','/');
 	      URI baseURI = URI.createURI(baseLocation);
           
           // TODO (cs) we should add more comments to explain this in a bit more detail
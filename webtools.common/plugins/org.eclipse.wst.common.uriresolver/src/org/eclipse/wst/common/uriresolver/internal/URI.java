@@ -15,10 +15,8 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 /**
@@ -145,8 +143,9 @@ public final class URI
   // A cache of URIs, keyed by the strings from which they were created.
   // The fragment of any URI is removed before caching it here, to minimize
   // the size of the cache in the usual case where most URIs only differ by
-  // the fragment.
-  private static final Map uriCache = Collections.synchronizedMap(new HashMap());
+  // the fragment.  The cache is bounded, least recently used URIs are
+  // dropped first.
+  private static final URIPool uriCache = URIPool.PARSED_URIS;
 
   // The lower-cased schemes that will be used to identify archive URIs.
   private static final Set archiveSchemes;
@@ -215,6 +214,8 @@ public final class URI
   private static final long MAJOR_SEPARATOR_LO = lowBitmask(":/?#");
   private static final long SEGMENT_END_HI = highBitmask("/?#");
   private static final long SEGMENT_END_LO = lowBitmask("/?#");
+  private static final long QUERY_FRAGMENT_HI = highBitmask("?#");
+  private static final long QUERY_FRAGMENT_LO = lowBitmask("?#");
 
   // Static initializer for archiveSchemes.
   static
@@ -1835,6 +1836,142 @@ public final class URI
     return sp;
   }
 
+  /**
+   * Returns <code>true</code> if the given URI string has a scheme, that is,
+   * if {@link #createURI(String) createURI} would return an absolute URI for
+   * it.  Unlike <code>createURI</code>, the string is not parsed and nothing
+   * is allocated.
+   */
+  public static boolean hasScheme(String uri)
+  {
+    int i = find(uri, 0, MAJOR_SEPARATOR_HI, MAJOR_SEPARATOR_LO);
+    return i < uri.length() && uri.charAt(i) == SCHEME_SEPARATOR;
+  }
+
+  /**
+   * Resolves a relative path reference against a base URI string, giving the
+   * same string as
+   * <code>createURI(reference).resolve(createURI(base)).toString()</code>,
+   * but without creating the URIs or their segment arrays.  This handles the
+   * common case of a relative path, possibly with self and parent references,
+   * against an absolute hierarchical base whose path has no empty, self or
+   * parent segments.  For anything else, including references with a query
+   * or fragment, archive bases, and parent references that would climb above
+   * the root, <code>null</code> is returned and the caller should resolve
+   * the URIs the usual way.
+   *
+   * @param reference The relative path reference.
+   * @param base The absolute base URI string.
+   * @return The resolved URI string, or <code>null</code> if it cannot be
+   * resolved without parsing.
+   */
+  public static String resolveRelativePath(String reference, String base)
+  {
+    int refLength = reference.length();
+    if (refLength == 0 || reference.charAt(0) == SEGMENT_SEPARATOR)
+    {
+      return null;
+    }
+    for (int i = 0; i < refLength; i++)
+    {
+      char c = reference.charAt(i);
+      if (c == QUERY_SEPARATOR || c == FRAGMENT_SEPARATOR) return null;
+      if (c == SCHEME_SEPARATOR && find(reference, 0, SEGMENT_END_HI, SEGMENT_END_LO) > i) return null;
+    }
+
+    // the base needs a scheme, and a path that starts with a separator
+    int baseLength = base.length();
+    int i = find(base, 0, MAJOR_SEPARATOR_HI, MAJOR_SEPARATOR_LO);
+    if (i == 0 || i == baseLength || base.charAt(i) != SCHEME_SEPARATOR ||
+        isSchemePrefix(base, i, SCHEME_JAR) || isSchemePrefix(base, i, SCHEME_ZIP) ||
+        isSchemePrefix(base, i, SCHEME_ARCHIVE))
+    {
+      return null;
+    }
+    i++;
+    if (base.startsWith(AUTHORITY_SEPARATOR, i))
+    {
+      i = find(base, i + AUTHORITY_SEPARATOR.length(), SEGMENT_END_HI, SEGMENT_END_LO);
+    }
+    if (i == baseLength || base.charAt(i) != SEGMENT_SEPARATOR)
+    {
+      return null;
+    }
+
+    // skip the device, which is not a segment
+    int j = find(base, i + 1, SEGMENT_END_HI, SEGMENT_END_LO);
+    if (j > i + 1 && base.charAt(j - 1) == DEVICE_IDENTIFIER)
+    {
+      if (j == baseLength || base.charAt(j) != SEGMENT_SEPARATOR) return null;
+      i = j;
+    }
+    int root = i + 1;
+
+    // keep the segments of the base path except for the last one
+    int pathEnd = find(base, root, QUERY_FRAGMENT_HI, QUERY_FRAGMENT_LO);
+    int lastSeparator = base.lastIndexOf(SEGMENT_SEPARATOR, pathEnd - 1);
+    for (int start = root; start < lastSeparator; )
+    {
+      int end = base.indexOf(SEGMENT_SEPARATOR, start);
+      if (isSpecialSegment(base, start, end)) return null;
+      start = end + 1;
+    }
+
+    // the result is built in place: the base path up to its last separator,
+    // followed by the segments of the reference, each with a separator
+    char[] result = new char[lastSeparator + 2 + refLength];
+    base.getChars(0, lastSeparator + 1, result, 0);
+    int length = lastSeparator + 1;
+    boolean trailingSeparator = false;
+    for (int start = 0; start <= refLength; )
+    {
+      int end = reference.indexOf(SEGMENT_SEPARATOR, start);
+      if (end == -1) end = refLength;
+      int segmentLength = end - start;
+      if (segmentLength == 2 && reference.charAt(start) == '.' && reference.charAt(start + 1) == '.')
+      {
+        if (length == root) return null;
+        length--;
+        while (result[length - 1] != SEGMENT_SEPARATOR) length--;
+        trailingSeparator = true;
+      }
+      else if (segmentLength == 0 || (segmentLength == 1 && reference.charAt(start) == '.'))
+      {
+        trailingSeparator = true;
+      }
+      else
+      {
+        reference.getChars(start, end, result, length);
+        length += segmentLength;
+        result[length++] = SEGMENT_SEPARATOR;
+        trailingSeparator = false;
+      }
+      start = end + 1;
+    }
+    if (!trailingSeparator && length > root)
+    {
+      length--;
+    }
+    return new String(result, 0, length);
+  }
+
+  // Returns true if the scheme of the given URI string, which ends at the given
+  // index, is the given scheme, ignoring case.
+  private static boolean isSchemePrefix(String uri, int length, String scheme)
+  {
+    return length == scheme.length() && uri.regionMatches(true, 0, scheme, 0, length);
+  }
+
+  // Returns true if the segment between the given indices is empty, a self
+  // reference or a parent reference.
+  private static boolean isSpecialSegment(String s, int start, int end)
+  {
+    int length = end - start;
+    return length == 0 ||
+      (length == 1 && s.charAt(start) == '.') ||
+      (length == 2 && s.charAt(start) == '.' && s.charAt(start + 1) == '.');
+  }
+
   /**
    * Finds the shortest relative or, if necessary, the absolute URI that,
    * when resolved against the given <code>base</code> absolute hierarchical
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.uriresolver.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded pool of values computed from URI strings, such as parsed URIs or
+ * normalized locations. Resolution asks for the same few locations over and
+ * over, so the pool keeps the most recently used values and drops the least
+ * recently used ones when it is full. Unlike an unbounded map, the pool does
+ * not grow with every location that was ever resolved.
+ *
+ * All methods are thread safe.
+ */
+public class URIPool
+{
+	/**
+	 * The parsed URIs created by {@link URI#createURI(String)}, keyed by the
+	 * URI string without its fragment.
+	 */
+	public static final URIPool PARSED_URIS = new URIPool(2000);
+
+	/**
+	 * The locations normalized by URIHelper, keyed by the location before it
+	 * was normalized.
+	 */
+	public static final URIPool NORMALIZED_URIS = new URIPool(2000);
+
+	private final int maxSize;
+
+	private final Map values;
+
+	private long hits = 0;
+
+	private long misses = 0;
+
+	/**
+	 * @param maxSize The maximum number of values the pool keeps.
+	 */
+	public URIPool(int maxSize)
+	{
+		this.maxSize = maxSize;
+		values = new LinkedHashMap(maxSize < 16 ? 16 : maxSize / 4, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			protected boolean removeEldestEntry(Map.Entry eldest)
+			{
+				return size() > URIPool.this.maxSize;
+			}
+		};
+	}
+
+	/**
+	 * @param key The URI string.
+	 * @return The value for the URI string, or null if the pool does not hold one.
+	 */
+	public synchronized Object get(String key)
+	{
+		Object value = values.get(key);
+		if (value == null)
+			misses++;
+		else
+			hits++;
+		return value;
+	}
+
+	/**
+	 * Remember the value for the URI string.
+	 *
+	 * @param key The URI string.
+	 * @param value The value, which must not be null.
+	 */
+	public synchronized void put(String key, Object value)
+	{
+		values.put(key, value);
+	}
+
+	public synchronized void clear()
+	{
+		values.clear();
+	}
+
+	public synchronized int size()
+	{
+		return values.size();
+	}
+
+	public synchronized long getHits()
+	{
+		return hits;
+	}
+
+	public synchronized long getMisses()
+	{
+		return misses;
+	}
+
+	public synchronized String toString()
+	{
+		return "URIPool size=" + values.size() + "/" + maxSize + " hits=" + hits + " misses=" + misses; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+	}
+}
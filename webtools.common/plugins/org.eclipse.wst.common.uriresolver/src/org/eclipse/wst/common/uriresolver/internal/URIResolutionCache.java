@@ -0,0 +1,419 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.uriresolver.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IExtensionDelta;
+import org.eclipse.core.runtime.IRegistryChangeEvent;
+import org.eclipse.core.runtime.IRegistryChangeListener;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.wst.common.uriresolver.internal.provisional.URIResolverPlugin;
+
+/**
+ * The URI resolution cache remembers the results of the ExtensibleURIResolver,
+ * so that resolving the same base location, public id and system id again does
+ * not run the extension resolvers again. The project of a resolution is computed
+ * from its base location, so the base location stands for the project in the key.
+ *
+ * The cache holds a bounded number of results and drops the least recently used
+ * ones first. It is cleared when the resolver extensions change, and when
+ * resources are added, removed, moved or changed in the workspace, or when a
+ * project description changes. Extension resolvers whose results depend on other
+ * state, such as XML catalogs, must call {@link #invalidate()} when that state
+ * changes. Extension resolvers whose results can go stale without any change
+ * being signalled, such as the internet cache whose entries expire, must call
+ * {@link #doNotCache()} so that their results are not remembered.
+ *
+ * The XML catalog does not call {@link #invalidate()} yet, so the cache is off
+ * unless the {@link #ENABLED_PROPERTY} system property is set to true.
+ */
+public class URIResolutionCache implements IResourceChangeListener, IRegistryChangeListener
+{
+	/**
+	 * The kinds of resolution.
+	 */
+	public static final int LOGICAL = 1;
+
+	public static final int PHYSICAL = 2;
+
+	/**
+	 * Returned by {@link #get(Object)} when the cache does not hold a result
+	 * for the key. It is compared by identity.
+	 */
+	public static final String MISS = new String("MISS"); //$NON-NLS-1$
+
+	/**
+	 * The system property that turns the cache on, see {@link #setEnabled(boolean)}.
+	 */
+	public static final String ENABLED_PROPERTY = "org.eclipse.wst.common.uriresolver.resolutionCache"; //$NON-NLS-1$
+
+	/**
+	 * The maximum number of results that are kept.
+	 */
+	protected static final int MAX_SIZE = 10000;
+
+	/**
+	 * The delta flags of changes that can change the result of a resolution.
+	 */
+	private static final int RELEVANT_FLAGS = IResourceDelta.CONTENT | IResourceDelta.DESCRIPTION |
+		IResourceDelta.OPEN | IResourceDelta.MOVED_FROM | IResourceDelta.MOVED_TO | IResourceDelta.REPLACED;
+
+	protected static URIResolutionCache instance;
+
+	/**
+	 * The number of times {@link #doNotCache()} has been called on each thread.
+	 * A result is only remembered if this did not change while it was resolved.
+	 */
+	private static final ThreadLocal uncacheable = new ThreadLocal()
+	{
+		protected Object initialValue()
+		{
+			return new int[1];
+		}
+	};
+
+	/**
+	 * The cached results in least recently used order. The key is a Key and the
+	 * value is the resolved location, or MISS when the resolution returned null.
+	 * All access to the map and the statistics is synchronized on this cache.
+	 */
+	private final Map results;
+
+	/**
+	 * Incremented every time the cache is cleared, so that results that were
+	 * computed before the cache was cleared are not added.
+	 */
+	private int generation = 0;
+
+	private boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+
+	private long hits = 0;
+
+	private long misses = 0;
+
+	private long evictions = 0;
+
+	private long invalidations = 0;
+
+	private URIResolutionCache()
+	{
+		results = new LinkedHashMap(256, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			protected boolean removeEldestEntry(Map.Entry eldest)
+			{
+				if (size() > MAX_SIZE)
+				{
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Get the one and only instance of the cache. The cache starts listening
+	 * for workspace and extension registry changes the first time it is asked for.
+	 *
+	 * @return The one and only instance of the cache.
+	 */
+	public synchronized static URIResolutionCache getInstance()
+	{
+		if (instance == null)
+		{
+			instance = new URIResolutionCache();
+			ResourcesPlugin.getWorkspace().addResourceChangeListener(instance, IResourceChangeEvent.POST_CHANGE);
+			Platform.getExtensionRegistry().addRegistryChangeListener(instance,
+				URIResolverPlugin.getInstance().getBundle().getSymbolicName());
+		}
+		return instance;
+	}
+
+	/**
+	 * Stop listening for changes and drop the one and only instance of the cache.
+	 */
+	public synchronized static void dispose()
+	{
+		if (instance != null)
+		{
+			ResourcesPlugin.getWorkspace().removeResourceChangeListener(instance);
+			Platform.getExtensionRegistry().removeRegistryChangeListener(instance);
+			instance = null;
+		}
+	}
+
+	/**
+	 * Forget all the cached results, if there are any. Unlike {@link #getInstance()}
+	 * this does not create the cache, so it can be called by extension resolvers
+	 * whether or not anything has been resolved yet.
+	 */
+	public synchronized static void invalidate()
+	{
+		if (instance != null)
+			instance.clear();
+	}
+
+	/**
+	 * Do not remember the result of the resolution that is running on this thread.
+	 * Extension resolvers call this when their result depends on state that can
+	 * change without the cache being invalidated.
+	 */
+	public static void doNotCache()
+	{
+		((int[]) uncacheable.get())[0]++;
+	}
+
+	private static int getUncacheable()
+	{
+		return ((int[]) uncacheable.get())[0];
+	}
+
+	/**
+	 * Create the key for a resolution.
+	 *
+	 * @param kind Either LOGICAL or PHYSICAL.
+	 * @param baseLocation The base location of the resolution.
+	 * @param publicId The public id, or null.
+	 * @param systemId The system id, or logical location, or null.
+	 * @return The key, or null if the cache is disabled.
+	 */
+	public synchronized Object createKey(int kind, String baseLocation, String publicId, String systemId)
+	{
+		if (!enabled)
+			return null;
+		return new Key(kind, baseLocation, publicId, systemId, generation, getUncacheable());
+	}
+
+	/**
+	 * Get the cached result for the key.
+	 *
+	 * @param key A key that was created by {@link #createKey(int, String, String, String)}.
+	 * @return The resolved location, which may be null, or MISS if the cache does not hold a result.
+	 */
+	public synchronized String get(Object key)
+	{
+		if (key == null)
+			return MISS;
+		Object result = results.get(key);
+		if (result == null)
+		{
+			misses++;
+			return MISS;
+		}
+		hits++;
+		return result == MISS ? null : (String) result;
+	}
+
+	/**
+	 * Remember the result for the key, unless the cache was cleared after the key was created,
+	 * or one of the extension resolvers called {@link #doNotCache()} after the key was created.
+	 *
+	 * @param key A key that was created by {@link #createKey(int, String, String, String)}.
+	 * @param result The resolved location, or null.
+	 */
+	public synchronized void put(Object key, String result)
+	{
+		if (key == null || ((Key) key).generation != generation || ((Key) key).uncacheable != getUncacheable())
+			return;
+		results.put(key, result == null ? MISS : result);
+	}
+
+	/**
+	 * Forget all the cached results.
+	 */
+	public synchronized void clear()
+	{
+		generation++;
+		if (!results.isEmpty())
+		{
+			invalidations++;
+			results.clear();
+		}
+	}
+
+	/**
+	 * Turn the cache on or off. Turning it off also forgets all the cached results.
+	 * The default comes from the {@link #ENABLED_PROPERTY} system property.
+	 *
+	 * @param enabled If true results are cached, if false they are not.
+	 */
+	public synchronized void setEnabled(boolean enabled)
+	{
+		this.enabled = enabled;
+		if (!enabled)
+			clear();
+	}
+
+	public synchronized boolean isEnabled()
+	{
+		return enabled;
+	}
+
+	/**
+	 * @return The number of cached results.
+	 */
+	public synchronized int size()
+	{
+		return results.size();
+	}
+
+	/**
+	 * @return The number of resolutions that were answered from the cache.
+	 */
+	public synchronized long getHits()
+	{
+		return hits;
+	}
+
+	/**
+	 * @return The number of resolutions that had to run the extension resolvers.
+	 */
+	public synchronized long getMisses()
+	{
+		return misses;
+	}
+
+	/**
+	 * @return The number of results that were dropped because the cache was full.
+	 */
+	public synchronized long getEvictions()
+	{
+		return evictions;
+	}
+
+	/**
+	 * @return The number of times the cached results were cleared because something changed.
+	 */
+	public synchronized long getInvalidations()
+	{
+		return invalidations;
+	}
+
+	public synchronized String toString()
+	{
+		return "URIResolutionCache size=" + results.size() + " hits=" + hits + " misses=" + misses +  //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			" evictions=" + evictions + " invalidations=" + invalidations; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * @see org.eclipse.core.resources.IResourceChangeListener#resourceChanged(org.eclipse.core.resources.IResourceChangeEvent)
+	 */
+	public void resourceChanged(IResourceChangeEvent event)
+	{
+		IResourceDelta delta = event.getDelta();
+		if (delta == null || size() == 0)
+			return;
+		final boolean[] relevant = new boolean[1];
+		try
+		{
+			delta.accept(new IResourceDeltaVisitor()
+			{
+				public boolean visit(IResourceDelta child)
+				{
+					if (relevant[0])
+						return false;
+					if (child.getResource().getType() != IResource.ROOT &&
+						(child.getKind() != IResourceDelta.CHANGED || (child.getFlags() & RELEVANT_FLAGS) != 0))
+					{
+						relevant[0] = true;
+						return false;
+					}
+					return true;
+				}
+			});
+		}
+		catch (CoreException e)
+		{
+			relevant[0] = true;
+		}
+		if (relevant[0])
+			clear();
+	}
+
+	/**
+	 * @see org.eclipse.core.runtime.IRegistryChangeListener#registryChanged(org.eclipse.core.runtime.IRegistryChangeEvent)
+	 */
+	public void registryChanged(IRegistryChangeEvent event)
+	{
+		IExtensionDelta[] deltas = event.getExtensionDeltas(URIResolverPlugin.getInstance().getBundle().getSymbolicName(),
+			URIResolverExtensionRegistryReader.EXTENSION_POINT_ID);
+		if (deltas.length > 0)
+			clear();
+	}
+
+	/**
+	 * The key of a cached result. The generation and the uncacheable count are not
+	 * part of the identity of the key.
+	 */
+	private static final class Key
+	{
+		private final int kind;
+
+		private final String baseLocation;
+
+		private final String publicId;
+
+		private final String systemId;
+
+		private final int generation;
+
+		private final int uncacheable;
+
+		private final int hash;
+
+		Key(int kind, String baseLocation, String publicId, String systemId, int generation, int uncacheable)
+		{
+			this.kind = kind;
+			this.baseLocation = baseLocation;
+			this.publicId = publicId;
+			this.systemId = systemId;
+			this.generation = generation;
+			this.uncacheable = uncacheable;
+			int h = kind;
+			h = 31 * h + (baseLocation == null ? 0 : baseLocation.hashCode());
+			h = 31 * h + (publicId == null ? 0 : publicId.hashCode());
+			h = 31 * h + (systemId == null ? 0 : systemId.hashCode());
+			hash = h;
+		}
+
+		public int hashCode()
+		{
+			return hash;
+		}
+
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return kind == other.kind && hash == other.hash && equal(baseLocation, other.baseLocation) &&
+				equal(publicId, other.publicId) && equal(systemId, other.systemId);
+		}
+
+		private static boolean equal(String a, String b)
+		{
+			return a == null ? b == null : a.equals(b);
+		}
+	}
+}
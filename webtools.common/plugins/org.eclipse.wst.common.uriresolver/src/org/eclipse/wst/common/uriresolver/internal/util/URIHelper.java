@@ -25,6 +25,7 @@ import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
+import org.eclipse.wst.common.uriresolver.internal.URIPool;
 
 
 public class URIHelper
@@ -69,29 +70,42 @@ public class URIHelper
   {                           
     if (uri != null)
     {                      
-      String protocol = getProtocol(uri);
-      String file = uri;
-           
-      if (protocol != null)
-      {               
-        try
-        {   
-          // 
-          URL url = new URL(uri); 
-          // we use a 'Path' on the 'file' part of the url in order to normalize the '.' and '..' segments
-          IPath path = new Path(url.getFile()); 
-          URL url2 = new URL(url.getProtocol(), url.getHost(), url.getPort(), path.toString());
-          uri = url2.toString();                               
-        }                        
-        catch (Exception e)
-        {  
-        }
-      }   
-      else
-      {      
-        IPath path = new Path(file);
-        uri = path.toString();
+      // the same locations are normalized over and over during resolution
+      String normalized = (String)URIPool.NORMALIZED_URIS.get(uri);
+      if (normalized == null)
+      {
+        normalized = normalizeURI(uri);
+        URIPool.NORMALIZED_URIS.put(uri, normalized);
+      }
+      uri = normalized;
+    }
+    return uri;
+  }
+
+  private static String normalizeURI(String uri)
+  {
+    String protocol = getProtocol(uri);
+    String file = uri;
+         
+    if (protocol != null)
+    {               
+      try
+      {   
+        // 
+        URL url = new URL(uri); 
+        // we use a 'Path' on the 'file' part of the url in order to normalize the '.' and '..' segments
+        IPath path = new Path(url.getFile()); 
+        URL url2 = new URL(url.getProtocol(), url.getHost(), url.getPort(), path.toString());
+        uri = url2.toString();                               
+      }                        
+      catch (Exception e)
+      {  
       }
+    }   
+    else
+    {      
+      IPath path = new Path(file);
+      uri = path.toString();
     }
     return uri;
   }
@@ -1,10 +1,10 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2017 IBM Corporation and others.
+ * Copyright (c) 2001, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
  * http://www.eclipse.org/legal/epl-v10.html
- * 
+ *
  * Contributors:
  *     IBM Corporation - initial API and implementation
  *******************************************************************************/
@@ -12,32 +12,38 @@
 package org.eclipse.wst.internet.cache.internal;
 
 import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
-import java.util.Enumeration;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Hashtable;
-import java.util.Random;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import org.eclipse.wst.common.uriresolver.internal.URIResolutionCache;
+
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.transform.Result;
-import javax.xml.transform.Source;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
 
 import org.eclipse.core.runtime.IPath;
-import org.eclipse.core.runtime.Platform;
-import org.eclipse.wst.common.uriresolver.URIHelper;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -47,8 +53,17 @@ import org.w3c.dom.NodeList;
  * The cache holds references to remote resources. The cache can store resources,
  * retrieve resources, and delete resources.
  *
+ * The cache may be used by many threads at once. Only one thread downloads a
+ * given URI at a time, the other threads asking for the same URI wait for its
+ * result. The index is never locked while a remote resource is being read.
+ *
+ * Cached files are named after a digest of their content, so resources with
+ * identical content share one file. The number of entries and the size of the
+ * cached files are limited, and the least recently used entries are removed
+ * first. Changes to the index are appended to a journal in the plugin state
+ * location, which is compacted when the cache is opened and closed.
  */
-public class Cache 
+public class Cache
 {
   /**
    * String instances.
@@ -56,98 +71,317 @@ public class Cache
   private static final String URI = "uri"; //$NON-NLS-1$
   private static final String LOCATION ="location"; //$NON-NLS-1$
   private static final String ENTRY = "entry"; //$NON-NLS-1$
-  private static final String CACHE = "cache"; //$NON-NLS-1$
   private static final String LAST_MODIFIED = "lastModified"; //$NON-NLS-1$
   private static final String EXPIRATION_TIME = "expirationTime"; //$NON-NLS-1$
   private static final String FILE_PROTOCOL = "file:///"; //$NON-NLS-1$
   private static final String CACHE_FILE = "cache.xml"; //$NON-NLS-1$
   private static final String CACHE_EXTENSION = ".cache"; //$NON-NLS-1$
   private static final String CACHE_PREFIX = "wtpcache"; //$NON-NLS-1$
-  private static final String CACHE_SUFFIX = null;
+  private static final String JOURNAL_FILE = "cache.journal"; //$NON-NLS-1$
+  private static final String RECENT_FILE = "recent.list"; //$NON-NLS-1$
+  private static final String JOURNAL_PUT = "+"; //$NON-NLS-1$
+  private static final String JOURNAL_REMOVE = "-"; //$NON-NLS-1$
+  private static final String JOURNAL_SEPARATOR = "\t"; //$NON-NLS-1$
+  private static final String JOURNAL_ENCODING = "UTF-8"; //$NON-NLS-1$
+  private static final String TEMP_EXTENSION = ".tmp"; //$NON-NLS-1$
+  private static final String ETAG = "ETag"; //$NON-NLS-1$
+  private static final String IF_NONE_MATCH = "If-None-Match"; //$NON-NLS-1$
+  private static final String LOCATION_HEADER = "Location"; //$NON-NLS-1$
+  private static final String DIGEST_ALGORITHM = "SHA-1"; //$NON-NLS-1$
+  private static final char[] HEX = "0123456789abcdef".toCharArray(); //$NON-NLS-1$
+
+  /**
+   * The journal is compacted when it holds this many more records than there
+   * are entries in the cache.
+   */
+  private static final int JOURNAL_SLACK = 1000;
+
+  /**
+   * The number of recently resolved URIs that are remembered.
+   */
+  private static final int MAX_RECENT = 200;
+
+  /**
+   * The number of redirects that are followed.
+   */
+  private static final int MAX_REDIRECTS = 5;
+
+  /**
+   * The time in milliseconds to wait for a remote host to connect, and for
+   * each read from it. This is the timeout that URIHelper uses by default, so
+   * that an unreachable host does not block the caller (bug 407211).
+   */
+  private static final int CONNECTION_TIMEOUT = 2500;
 
-	
   /**
    * The one and only instance of the cache.
    */
   private static Cache cacheInstance = null;
-  
+
   /**
-   * The cache is stored in a hashtable.
+   * The cache entries keyed by URI, in least recently used order. All access
+   * to the map, to the references map, and to the cached files, is synchronized
+   * on this map.
    */
-  private Hashtable cache;
-  
+  private final Map cache;
+
+  /**
+   * The cached files that are in use. The key is the file name and the value
+   * is a Reference counting the entries that use the file.
+   */
+  private final Map references;
+
+  /**
+   * The names of the cached files that getResource has returned. A caller may
+   * still be reading such a file, so it is not deleted when its last entry is
+   * evicted or replaced, only when the cache is closed.
+   */
+  private final Set handedOut;
+
+  /**
+   * The names of the handed out files that no entry uses any more. They are
+   * deleted when the cache is closed.
+   */
+  private final Set orphans;
+
+  /**
+   * The total size in bytes of the cached files.
+   */
+  private long totalSize = 0;
+
+  /**
+   * The URIs that are being downloaded. The key is the URI and the value is
+   * the Fetch that other threads asking for the same URI wait on.
+   */
+  private final Map fetches;
+
   /**
    * A set of uncached resources. The cache was not able to cache resources
    * in this list. This list allows quickly skipping over these resources in
-   * future requests. 
+   * future requests.
    */
-  private Set uncached;
-  
+  private final Set uncached;
+
+  /**
+   * The URIs that were resolved recently, in least recently resolved order.
+   * The keys and values are the URIs.
+   */
+  private final Map recent;
+
+  private final CacheStatistics statistics = new CacheStatistics();
+
   /**
    * The location of the cache
    */
   private File cacheLocation = null;
-  
+
+  /**
+   * The journal writer and the number of records in the journal. Both
+   * are guarded by the journal lock.
+   */
+  private final Object journalLock = new Object();
+  private Writer journal = null;
+  private int journalRecords = 0;
+
   /**
    * Private constructor.
    */
   protected Cache(IPath cacheLocation)
   {
-	  this.cacheLocation = cacheLocation.toFile();//Platform.getPluginStateLocation(CachePlugin.getDefault()).toFile();
-    cache = new Hashtable();
-    uncached = new HashSet();
+	this.cacheLocation = cacheLocation.toFile();
+    cache = new LinkedHashMap(16, 0.75f, true);
+    references = new HashMap();
+    handedOut = new HashSet();
+    orphans = new HashSet();
+    fetches = new HashMap();
+    uncached = Collections.synchronizedSet(new HashSet());
+    recent = new LinkedHashMap(16, 0.75f, true)
+    {
+      private static final long serialVersionUID = 1L;
+
+      protected boolean removeEldestEntry(Map.Entry eldest)
+      {
+    	return size() > MAX_RECENT;
+      }
+    };
   }
-  
+
   /**
    * Get the one and only instance of the cache.
-   * 
+   *
    * @return The one and only instance of the cache.
    */
   public static Cache getInstance()
   {
-//	  if(cacheInstance == null)
-//	  {
-//		  cacheInstance = new Cache(cacheLocation);
-//		  cacheInstance.open(cacheLocation);
-//	  }
 	  return cacheInstance;
   }
-  
+
   /**
    * Return the local resource for the specified uri. If there is no resource
    * the cache will attempt to download and cache the resource before returning.
    * If a remote resource cannot be cached this method will return null.
-   * 
+   *
    * @param uri The URI for which a resource is requested.
    * @return The local resource for the specified URI or null if a remote resource cannot be cached.
    */
   public String getResource(String uri)
   {
 	  if(uri == null) return null;
-	  CacheEntry result = (CacheEntry)cache.get(uri);
-	  
+	  CacheEntry result;
+	  synchronized(cache)
+	  {
+	    result = (CacheEntry)cache.get(uri);
+	  }
+
 	  // If no result is in the cache and the URI is of an allowed type
 	  // retrieve it and store it in the cache.
 	  if(result == null)
 	  {
-      
         if(!uncached.contains(uri))
 	    {
-          result = cacheResource(uri); 
+          result = fetch(uri, null, true);
         }
+        statistics.missed(result != null);
 	  }
 	  // Retreive a fresh copy of the result if it has timed out.
 	  else if(result.hasExpired())
 	  {
-		result = refreshCacheEntry(result);
+		result = fetch(uri, result, true);
+		statistics.revalidated(result != null);
+	  }
+	  else
+	  {
+		statistics.hit(uri);
 	  }
 	  if(result == null || result.getLocalFile() == null)
 	  {
 		return null;
 	  }
+	  synchronized(cache)
+	  {
+		handedOut.add(result.getLocalFile());
+	  }
+	  synchronized(recent)
+	  {
+		recent.put(uri, uri);
+	  }
 	  return FILE_PROTOCOL + cacheLocation.toString() + IPath.SEPARATOR + result.getLocalFile();
   }
 
+  /**
+   * Cache the specified URI, or refresh it if it has expired, without counting
+   * it as a request. A URI that cannot be cached is not added to the uncached
+   * resources, so it is still asked for when it is first requested.
+   *
+   * @param uri The remote URI to cache.
+   * @return True if the URI is cached, false otherwise.
+   */
+  protected boolean prefetch(String uri)
+  {
+	CacheEntry result = null;
+	long time = 0;
+	if(uri != null && !uncached.contains(uri))
+	{
+	  result = getCacheEntry(uri);
+	  if(result == null || result.hasExpired())
+	  {
+		long start = System.currentTimeMillis();
+		result = fetch(uri, result, false);
+		time = System.currentTimeMillis() - start;
+	  }
+	}
+	statistics.prefetchCompleted(uri, result != null, time);
+	return result != null;
+  }
+
+  /**
+   * Get the statistics about the requests made to the cache since it was opened.
+   *
+   * @return The cache statistics.
+   */
+  public CacheStatistics getStatistics()
+  {
+	return statistics;
+  }
+
+  /**
+   * Get the URIs that were resolved recently, in this and earlier sessions.
+   *
+   * @return The recently resolved URIs, the most recently resolved first.
+   */
+  protected String[] getRecentURIs()
+  {
+	String[] uris;
+	synchronized(recent)
+	{
+	  uris = (String[])recent.keySet().toArray(new String[recent.size()]);
+	}
+	for(int i = 0, j = uris.length - 1; i < j; i++, j--)
+	{
+	  String uri = uris[i];
+	  uris[i] = uris[j];
+	  uris[j] = uri;
+	}
+	return uris;
+  }
+
+  /**
+   * Get the cache entry for the specified URI.
+   *
+   * @param uri The remote URI.
+   * @return The cache entry for the URI, or null if it is not cached.
+   */
+  protected CacheEntry getCacheEntry(String uri)
+  {
+	synchronized(cache)
+	{
+	  return (CacheEntry)cache.get(uri);
+	}
+  }
+
+  /**
+   * Cache or refresh the specified URI. If another thread is already doing so
+   * wait for it to finish and share its result.
+   *
+   * @param uri The remote URI to cache.
+   * @param expired The expired entry for the URI, or null if it is not cached.
+   * @param remember Whether to add the URI to the uncached resources if it cannot be cached.
+   * @return The cache entry for the URI or null if it could not be cached.
+   */
+  private CacheEntry fetch(String uri, CacheEntry expired, boolean remember)
+  {
+	Fetch fetch;
+	boolean owner = false;
+	synchronized(fetches)
+	{
+	  fetch = (Fetch)fetches.get(uri);
+	  if(fetch == null)
+	  {
+		fetch = new Fetch();
+		fetches.put(uri, fetch);
+		owner = true;
+	  }
+	}
+	if(!owner)
+	{
+	  return fetch.await();
+	}
+	CacheEntry result = null;
+	try
+	{
+	  result = expired == null ? cacheResource(uri, remember) : refreshCacheEntry(expired);
+	}
+	finally
+	{
+	  synchronized(fetches)
+	  {
+		fetches.remove(uri);
+	  }
+	  fetch.complete(result);
+	}
+	return result;
+  }
+
   /**
    * Return the preferred timeout in milliseconds
    * @return
@@ -159,14 +393,17 @@ public class Cache
 
   /**
    * Get the list of uncached resources.
-   * 
+   *
    * @return The list of uncached resources.
    */
   protected String[] getUncachedURIs()
   {
-    return (String[])uncached.toArray(new String[uncached.size()]);
+	synchronized(uncached)
+	{
+      return (String[])uncached.toArray(new String[uncached.size()]);
+	}
   }
-  
+
   /**
    * Clear the list of uncached resources.
    */
@@ -174,9 +411,9 @@ public class Cache
   {
     uncached.clear();
   }
-  
+
   /**
-   * Add an uncached resource to the list and start the 
+   * Add an uncached resource to the list and start the
    * uncached job if not already started.
    */
   protected void addUncachedURI(String uri)
@@ -184,66 +421,51 @@ public class Cache
 	CacheJob.startJob();
     uncached.add(uri);
   }
-  
+
   /**
    * Cache the specified resource. This method creates a local version of the
    * remote resource and adds the resource reference to the cache. If the resource
    * cannot be accessed it is not added and null is returned.
-   * 
+   *
    * @param uri The remote URI to cache.
    * @return A new CacheEntry representing the cached resource or null if the remote
    *         resource could not be retrieved.
    */
   protected CacheEntry cacheResource(String uri)
+  {
+	  return cacheResource(uri, true);
+  }
+
+  /**
+   * Cache the specified resource.
+   *
+   * @param uri The remote URI to cache.
+   * @param remember Whether to add the URI to the uncached resources if it cannot be cached.
+   * @return A new CacheEntry representing the cached resource or null if the remote
+   *         resource could not be retrieved.
+   */
+  private CacheEntry cacheResource(String uri, boolean remember)
   {
 	  CacheEntry cacheEntry = null;
+	  URLConnection conn = null;
 	  InputStream is = null;
-	  OutputStream os = null;
 	  try
 	  {
-		  String actualUri = uri;
-		  URL url = new URL(actualUri);
-		  URLConnection conn = url.openConnection();
-		  /* XXX: This should really be implemented using HttpClient or similar */
-		  int allowedRedirects = 5;
-		  while(conn.getHeaderField("Location") != null && allowedRedirects > 0) //$NON-NLS-1$
+		  conn = openConnection(uri, null);
+		  if(getResponseCode(conn, null) != HttpURLConnection.HTTP_OK)
 		  {
-			  allowedRedirects--;
-			  url = new URL(actualUri = conn.getHeaderField("Location")); //$NON-NLS-1$
-			  conn = url.openConnection();
+			if(remember)
+			{
+			  addUncachedURI(uri);
+			}
+			return cacheEntry;
 		  }
 		  // Determine if this resource can be cached.
 		  if(CachePlugin.getDefault().isIgnoreNoCacheHeader() || conn.getUseCaches())
           {
-			is = URIHelper.getInputStream(actualUri, 0);
-	    	if (is == null) {
-	    	  uncached.add(uri);
-	    	  return cacheEntry;
-	    	}
-		    Random rand = new Random();
-			String fileName = Math.abs(rand.nextInt()) + CACHE_EXTENSION;
-		    File file = new File(cacheLocation, fileName);
-		    // If the file already exists we need to change the file name.
-		    while(!file.createNewFile())
-		    {
-			  fileName = Math.abs(rand.nextInt()) + CACHE_EXTENSION;
-			  file = new File(cacheLocation,fileName);
-		    }
-		    os = new BufferedOutputStream(new FileOutputStream(file));
-		    byte[] bytes = new byte[1024];
-		    int bytelength;
-		    while((bytelength = is.read(bytes)) != -1)
-		    {
-			  os.write(bytes, 0, bytelength);
-		    }
-			long lastModified = conn.getLastModified();
-		    long expiration = conn.getExpiration();
-			if(expiration == 0)
-			{
-			  expiration = System.currentTimeMillis() + getTimeout();
-			}
-		    cacheEntry = new CacheEntry(uri, fileName, lastModified, expiration);
-		    cache.put(uri,cacheEntry);
+			is = conn.getInputStream();
+	    	Download download = download(is);
+		    cacheEntry = put(uri, download, conn);
 		  }
 
 	  }
@@ -251,42 +473,24 @@ public class Cache
 	  {
 		  // Put the entry in the uncached list so the resolution work will not be performed again.
       // TODO: Add in a timeout for the non-located uris.
-      addUncachedURI(uri);
+      if(remember)
+      {
+        addUncachedURI(uri);
+      }
 	  }
 	  finally
 	  {
-		  if(is != null)
-		  {
-			  try
-			  {
-			    is.close();
-			  }
-			  catch(IOException e)
-			  {
-			    // Do nothing if the stream cannot be closed.
-			  }
-		  }
-		  if(os != null)
-		  {
-			  try
-			  {
-			    os.close();
-			  }
-			  catch(IOException e)
-			  {
-				// Do nothing if the stream cannot be closed. 
-			  }
-		  }
+		  close(conn, is);
 	  }
 	  return cacheEntry;
   }
-  
+
   /**
-   * Refresh the cache entry if necessary. The cache entry will be refreshed
-   * if the remote resource is accessible and the last modified time of the
-   * remote resource is greater than the last modified time of the cached
-   * resource.
-   * 
+   * Refresh the cache entry if necessary. The request is conditional on the
+   * entity tag and last modified time of the cached resource, so the resource
+   * is only downloaded again if it has changed. If the remote URI was redirected
+   * when the entry was cached, the URI it was redirected to is asked directly.
+   *
    * @param cacheEntry The cache entry to refresh.
    * @return The refreshed cache entry.
    */
@@ -294,53 +498,52 @@ public class Cache
   {
 	  URLConnection conn = null;
 	  InputStream is = null;
-	  OutputStream os = null;
 	  try
 	  {
-		  URL url = new URL(cacheEntry.getURI());
-		  conn = url.openConnection();
-		  conn.connect();
-		  
-		  long lastModified = conn.getLastModified();
-	      if(lastModified > cacheEntry.getLastModified())
+		  int status = -1;
+		  if(cacheEntry.getRedirectURI() != null)
 		  {
-			long expiration = conn.getExpiration();
-		    if(expiration == 0)
+			try
 			{
-			  expiration = System.currentTimeMillis() + getTimeout();
+			  conn = openConnection(cacheEntry.getRedirectURI(), cacheEntry);
+			  status = getResponseCode(conn, cacheEntry);
 			}
-			
+			catch(IOException e)
+			{
+			  // Start over from the remote URI.
+			}
+			if(status != HttpURLConnection.HTTP_OK && status != HttpURLConnection.HTTP_NOT_MODIFIED)
+			{
+			  close(conn, null);
+			  conn = null;
+			}
+		  }
+		  if(conn == null)
+		  {
+			conn = openConnection(cacheEntry.getURI(), cacheEntry);
+			status = getResponseCode(conn, cacheEntry);
+		  }
+
+	      if(status == HttpURLConnection.HTTP_OK)
+		  {
 		    is = conn.getInputStream();
-			
-			String localFile = cacheEntry.getLocalFile();
-  
-		    File tempFile = File.createTempFile(CACHE_PREFIX, CACHE_SUFFIX);
-			tempFile.deleteOnExit();
-
-		    os = new FileOutputStream(tempFile);
-		    byte[] bytes = new byte[1024];
-		    int bytelength;
-		    while((bytelength = is.read(bytes)) != -1)
-		    {
-			  os.write(bytes, 0, bytelength);
-		    }
-			is.close();
-			os.close();
-			deleteFile(cacheEntry.getURI());
-			File f = new File(cacheLocation, localFile);
-			tempFile.renameTo(f);
-			cacheEntry.setExpiration(expiration);
-			cacheEntry.setLastModified(lastModified);
+		    Download download = download(is);
+		    cacheEntry = put(cacheEntry.getURI(), download, conn);
 		  }
 		  // The cache entry hasn't changed. Just update the expiration time.
-	      else
+	      else if(status == HttpURLConnection.HTTP_NOT_MODIFIED)
 		  {
-			long expiration = conn.getExpiration();
-			if(expiration == 0)
-			{
-			  expiration = System.currentTimeMillis() + getTimeout();
-			}
-			cacheEntry.setExpiration(expiration);
+	    	String etag = conn.getHeaderField(ETAG);
+	    	long expiration = getExpiration(conn);
+	    	synchronized(cache)
+	    	{
+	    	  if(etag != null)
+	    	  {
+	    		cacheEntry.setETag(etag);
+	    	  }
+	    	  cacheEntry.setExpiration(expiration);
+	    	}
+			journalPut(cacheEntry);
 		  }
 
 	  }
@@ -350,193 +553,924 @@ public class Cache
 	  }
 	  finally
 	  {
-		  if(is != null)
-		  {
-			  try
-			  {
-			    is.close();
-			  }
-			  catch(IOException e)
-			  {
-			    // Do nothing if the stream cannot be closed.
-			  }
-		  }
-		  if(os != null)
-		  {
-			  try
-			  {
-			    os.close();
-			  }
-			  catch(IOException e)
-			  {
-				// Do nothing if the stream cannot be closed. 
-			  }
-		  }
+		  close(conn, is);
 	  }
 	  return cacheEntry;
   }
-  
+
   /**
-   * Get an array of the cached URIs.
-   * 
-   * @return An array of the cached URIs.
+   * Open a connection to the URI and follow its redirects. If a cache entry is
+   * given the request is conditional on the resource having changed since it
+   * was cached.
+   *
+   * @param uri The URI to open.
+   * @param cacheEntry The cache entry to revalidate, or null.
+   * @return The connection to the URI the request ended at.
+   * @throws IOException If the URI cannot be opened.
    */
-  public String[] getCachedURIs()
+  private static URLConnection openConnection(String uri, CacheEntry cacheEntry) throws IOException
   {
-	Set keyset = cache.keySet();
-	return (String[])keyset.toArray(new String[keyset.size()]);
+	URL url = new URL(uri);
+	int allowedRedirects = MAX_REDIRECTS;
+	while(true)
+	{
+	  URLConnection conn = url.openConnection();
+	  setTimeouts(conn);
+	  if(conn instanceof HttpURLConnection)
+	  {
+		((HttpURLConnection)conn).setInstanceFollowRedirects(false);
+	  }
+	  if(cacheEntry != null)
+	  {
+		if(cacheEntry.getETag() != null)
+		{
+		  conn.setRequestProperty(IF_NONE_MATCH, cacheEntry.getETag());
+		}
+		if(cacheEntry.getLastModified() > 0)
+		{
+		  conn.setIfModifiedSince(cacheEntry.getLastModified());
+		}
+	  }
+	  conn.connect();
+	  String location = conn.getHeaderField(LOCATION_HEADER);
+	  if(location == null || allowedRedirects == 0 || !isRedirect(conn))
+	  {
+		return conn;
+	  }
+	  allowedRedirects--;
+	  close(conn, null);
+	  url = new URL(url, location);
+	}
   }
-  
+
   /**
-   * Close the cache. Closing the cache involves serializing the data to an XML file
-   * in the plugin state location.
+   * Set the connect and read timeouts of the connection. The methods are
+   * called reflectively since they are not available on J2SE 1.4.
    */
-  protected void close()
+  private static void setTimeouts(URLConnection conn)
   {
-	  DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-      try {
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        Document cachedoc = builder.newDocument();
-		Element rootelem = cachedoc.createElement(CACHE);
-		cachedoc.appendChild(rootelem);
-		
-	  Enumeration uris = cache.keys();
-	  while(uris.hasMoreElements())
-	  {
-		  String key = (String)uris.nextElement();
-		  CacheEntry cacheEntry = (CacheEntry)cache.get(key);
-		  if(cacheEntry != null)
-		  {
-			  Element entry = cachedoc.createElement(ENTRY);
-			  entry.setAttribute(URI, key);
-			  entry.setAttribute(LOCATION, cacheEntry.getLocalFile());
-			  entry.setAttribute(EXPIRATION_TIME, String.valueOf(cacheEntry.getExpirationTime()));
-			  entry.setAttribute(LAST_MODIFIED, String.valueOf(cacheEntry.getLastModified()));
-			  rootelem.appendChild(entry);
-		  }
-	  }
-	  
-	  // Write the cache entry.
-	  TransformerFactory tFactory  = TransformerFactory.newInstance();
-      Transformer transformer = tFactory.newTransformer();
-      Source input = new DOMSource(cachedoc);
-	  IPath stateLocation = Platform.getStateLocation(CachePlugin.getDefault().getBundle());
-      Result output = new StreamResult(stateLocation.toString() + "/" + CACHE_FILE);
-      transformer.transform(input, output);
+	Object[] timeout = new Object[]{new Integer(CONNECTION_TIMEOUT)};
+	try
+	{
+	  URLConnection.class.getMethod("setConnectTimeout", new Class[]{int.class}).invoke(conn, timeout); //$NON-NLS-1$
+	  URLConnection.class.getMethod("setReadTimeout", new Class[]{int.class}).invoke(conn, timeout); //$NON-NLS-1$
+	}
+	catch(Exception e)
+	{
+	  // The timeouts are not supported by this runtime.
+	}
+  }
 
-      }
-      catch(Exception e)
-	  {
-		  System.err.println("Unable to store internet cache."); //$NON-NLS-1$
-	  }
-	  cacheInstance = null;
+  private static boolean isRedirect(URLConnection conn) throws IOException
+  {
+	if(!(conn instanceof HttpURLConnection))return true;
+	int status = ((HttpURLConnection)conn).getResponseCode();
+	return status >= 300 && status < 400 && status != HttpURLConnection.HTTP_NOT_MODIFIED;
   }
-  
+
   /**
-   * Open the cache. Opening the cache involves parsing the cache XML file in
-   * the plugin state location if it can be read.
+   * Get the status of the response. Connections that are not HTTP connections,
+   * and HTTP servers that ignore conditional requests, answer with the last
+   * modified time only. When it is not later than the one of the cache entry
+   * the resource is treated as not modified.
+   *
+   * @param conn The connection.
+   * @param cacheEntry The cache entry that is being revalidated, or null.
+   * @return The HTTP status of the response.
+   * @throws IOException If the response cannot be read.
    */
-  protected static void open(IPath cacheLocation)
+  private static int getResponseCode(URLConnection conn, CacheEntry cacheEntry) throws IOException
   {
-    cacheInstance = new Cache(cacheLocation);
-	  DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-      try {
-		  
-		IPath stateLocation = cacheLocation;
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        Document cachedoc = builder.parse(stateLocation.toString() + "/" + CACHE_FILE);
-		Element rootelem = cachedoc.getDocumentElement();
-		NodeList entries = rootelem.getChildNodes();
-		int numEntries = entries.getLength();
-		for(int i = 0; i < numEntries; i++)
-		{
-			Node entry = entries.item(i);
-			if(entry instanceof Element)
-			{
-				Element e = (Element)entry;
-				if(e.getNodeName().equals(ENTRY))
-				{
-					String uri = e.getAttribute(URI);
-					String location = e.getAttribute(LOCATION);
-					String lm = e.getAttribute(LAST_MODIFIED);
-					String et = e.getAttribute(EXPIRATION_TIME);
-					long lastModified = -1;
-					long expirationTime = -1;
-					try
-					{
-						lastModified = Long.parseLong(lm);
-					}
-					catch(NumberFormatException nfe)
-					{
-					}
-					try
-					{
-						expirationTime = Long.parseLong(et);
-					}
-					catch(NumberFormatException nfe)
-					{
-					}
-					if(uri != null && location != null)
-					{
-					  cacheInstance.cache.put(uri, new CacheEntry(uri, location, lastModified, expirationTime));
-					}
-				}
-			}
-		}
-      }
-	  catch(FileNotFoundException e)
-	  {
-		// If the file doesn't exist in the correct location there is nothing to load. Do nothing.
-	  }
-	  catch(Exception e)
+	int status = HttpURLConnection.HTTP_OK;
+	if(conn instanceof HttpURLConnection)
+	{
+	  status = ((HttpURLConnection)conn).getResponseCode();
+	}
+	if(status == HttpURLConnection.HTTP_OK && cacheEntry != null && cacheEntry.getLastModified() > 0)
+	{
+	  long lastModified = conn.getLastModified();
+	  if(lastModified > 0 && lastModified <= cacheEntry.getLastModified())
 	  {
-		  System.out.println("Unable to load cache.");
+		status = HttpURLConnection.HTTP_NOT_MODIFIED;
 	  }
+	}
+	return status;
   }
-  
+
   /**
-   * Clear all of the entries from the cache. This method also deletes the cache files.
+   * Return the time the response expires, or the preferred timeout from now
+   * if the server did not say.
    */
-  public void clear()
+  private static long getExpiration(URLConnection conn)
   {
-	Enumeration keys = cache.keys();
-	while(keys.hasMoreElements())
+	long expiration = conn.getExpiration();
+	if(expiration == 0)
 	{
-	  String key = (String)keys.nextElement();
-	  
-	  deleteFile(key);
+	  expiration = System.currentTimeMillis() + getTimeout();
 	}
-	cache.clear();
+	return expiration;
   }
-  
+
   /**
-   * Delete the cache entry specified by the given URI.
-   * @param uri The URI entry to remove from the catalog.
+   * Close the stream, or if it was not opened the response body, so that the
+   * connection can be reused.
    */
-  public void deleteEntry(String uri)
+  private static void close(URLConnection conn, InputStream is)
   {
-	  if(uri == null) return;
-	  
-	  deleteFile(uri);
-	  cache.remove(uri);
+	try
+	{
+	  if(is != null)
+	  {
+		is.close();
+	  }
+	  else if(conn instanceof HttpURLConnection)
+	  {
+		HttpURLConnection http = (HttpURLConnection)conn;
+		InputStream body = http.getResponseCode() >= 400 ? http.getErrorStream() : http.getInputStream();
+		if(body != null)
+		{
+		  body.close();
+		}
+	  }
+	}
+	catch(IOException e)
+	{
+	  // Do nothing if the stream cannot be closed.
+	}
   }
-  
+
   /**
-   * Delete the file specified by the URI.
-   * 
-   * @param uri The URI of the file to delete.
+   * Copy the stream to a new temporary file in the cache location, and compute
+   * the name of the cached file from its content while doing so.
+   *
+   * @param is The stream to copy.
+   * @return The downloaded file.
+   * @throws IOException If the stream cannot be copied.
    */
-  protected void deleteFile(String uri)
+  private Download download(InputStream is) throws IOException
   {
-	  CacheEntry cacheEntry = (CacheEntry)cache.get(uri);
-	  if(cacheEntry != null)
+	MessageDigest digest;
+	try
+	{
+	  digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+	}
+	catch(NoSuchAlgorithmException e)
+	{
+	  throw new IOException(e.getMessage());
+	}
+	File tempFile = File.createTempFile(CACHE_PREFIX, TEMP_EXTENSION, cacheLocation);
+	OutputStream os = null;
+	long size = 0;
+	boolean done = false;
+	try
+	{
+	  os = new BufferedOutputStream(new FileOutputStream(tempFile));
+	  byte[] bytes = new byte[8192];
+	  int bytelength;
+	  while((bytelength = is.read(bytes)) != -1)
 	  {
-		String location = cacheLocation.toString() + "/" + cacheEntry.getLocalFile();
-	    File file = new File(location);
-	    if(!file.delete())
-	    {
-	      System.out.println("Unable to delete file " + location + " from cache.");
-	    } 
+		os.write(bytes, 0, bytelength);
+		digest.update(bytes, 0, bytelength);
+		size += bytelength;
+	  }
+	  os.close();
+	  os = null;
+	  done = true;
+	}
+	finally
+	{
+	  if(os != null)
+	  {
+		try
+		{
+		  os.close();
+		}
+		catch(IOException e)
+		{
+		  // Do nothing if the stream cannot be closed.
+		}
+	  }
+	  if(!done)
+	  {
+		tempFile.delete();
 	  }
+	}
+	return new Download(tempFile, toHex(digest.digest()) + CACHE_EXTENSION, size);
+  }
+
+  /**
+   * Add an entry for a downloaded file to the cache, replacing the current entry
+   * for the URI if there is one, and remove the least recently used entries if
+   * the cache has grown too large.
+   *
+   * @param uri The remote URI of the entry.
+   * @param download The downloaded content.
+   * @param conn The connection the content was downloaded from.
+   * @return The new cache entry.
+   */
+  private CacheEntry put(String uri, Download download, URLConnection conn)
+  {
+	long lastModified = conn.getLastModified();
+	long expiration = getExpiration(conn);
+	String etag = conn.getHeaderField(ETAG);
+	String redirectURI = conn.getURL().toExternalForm();
+	if(redirectURI.equals(uri))
+	{
+	  redirectURI = null;
+	}
+	CacheEntry cacheEntry;
+	synchronized(cache)
+	{
+	  File file = new File(cacheLocation, download.name);
+	  String localFile = download.name;
+	  if(file.exists())
+	  {
+		// The content is already cached for another URI.
+		download.file.delete();
+	  }
+	  else if(!download.file.renameTo(file))
+	  {
+		localFile = download.file.getName();
+	  }
+	  cacheEntry = new CacheEntry(uri, localFile, lastModified, expiration);
+	  cacheEntry.setSize(download.size);
+	  cacheEntry.setETag(etag);
+	  cacheEntry.setRedirectURI(redirectURI);
+	  addReference(cacheEntry);
+	  CacheEntry old = (CacheEntry)cache.put(uri, cacheEntry);
+	  if(old != null)
+	  {
+		removeReference(old, false);
+	  }
+	}
+	journalPut(cacheEntry);
+	evict(cacheEntry);
+	URIResolutionCache.invalidate();
+	return cacheEntry;
+  }
+
+  /**
+   * Remove the least recently used entries until the cache is within its limits.
+   * The given entry is never removed.
+   *
+   * @param keep The entry that was just added.
+   */
+  private void evict(CacheEntry keep)
+  {
+	int maxEntries = getMaxEntries();
+	long maxSize = getMaxSize();
+	List evicted = null;
+	synchronized(cache)
+	{
+	  Iterator iter = cache.values().iterator();
+	  while(iter.hasNext() && ((maxEntries > 0 && cache.size() > maxEntries) || (maxSize > 0 && totalSize > maxSize)))
+	  {
+		CacheEntry cacheEntry = (CacheEntry)iter.next();
+		if(cacheEntry == keep)continue;
+		iter.remove();
+		removeReference(cacheEntry, false);
+		if(evicted == null)evicted = new ArrayList();
+		evicted.add(cacheEntry.getURI());
+	  }
+	}
+	if(evicted != null)
+	{
+	  for(int i = 0; i < evicted.size(); i++)
+	  {
+		journalRemove((String)evicted.get(i));
+	  }
+	  URIResolutionCache.invalidate();
+	}
+  }
+
+  /**
+   * The caller must hold the lock on the cache.
+   */
+  private void addReference(CacheEntry cacheEntry)
+  {
+	Reference ref = (Reference)references.get(cacheEntry.getLocalFile());
+	if(ref == null)
+	{
+	  ref = new Reference(cacheEntry.getSize());
+	  references.put(cacheEntry.getLocalFile(), ref);
+	  totalSize += ref.size;
+	  orphans.remove(cacheEntry.getLocalFile());
+	}
+	ref.count++;
+  }
+
+  /**
+   * Delete the file of the entry if no other entry uses it. The caller must hold the lock on the cache.
+   *
+   * @param cacheEntry The entry that no longer uses its file.
+   * @param delete True to delete the file even if it has been handed out, false to
+   * keep a handed out file until the cache is closed.
+   */
+  private void removeReference(CacheEntry cacheEntry, boolean delete)
+  {
+	String localFile = cacheEntry.getLocalFile();
+	Reference ref = (Reference)references.get(localFile);
+	if(ref != null && --ref.count > 0)return;
+	if(ref != null)
+	{
+	  references.remove(localFile);
+	  totalSize -= ref.size;
+	}
+	if(!delete && handedOut.contains(localFile))
+	{
+	  orphans.add(localFile);
+	  return;
+	}
+	handedOut.remove(localFile);
+	orphans.remove(localFile);
+	deleteFile(localFile);
+  }
+
+  /**
+   * The caller must hold the lock on the cache.
+   */
+  private void deleteFile(String localFile)
+  {
+	File file = new File(cacheLocation, localFile);
+	if(file.exists() && !file.delete())
+	{
+	  System.out.println("Unable to delete file " + file + " from cache."); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+  }
+
+  private static int getMaxEntries()
+  {
+	CachePlugin plugin = CachePlugin.getDefault();
+	return plugin == null ? 0 : plugin.getCacheMaxEntries();
+  }
+
+  private static long getMaxSize()
+  {
+	CachePlugin plugin = CachePlugin.getDefault();
+	return plugin == null ? 0 : plugin.getCacheMaxSize() * 1024 * 1024;
+  }
+
+  /**
+   * Get an array of the cached URIs.
+   *
+   * @return An array of the cached URIs.
+   */
+  public String[] getCachedURIs()
+  {
+	synchronized(cache)
+	{
+	  Set keyset = cache.keySet();
+	  return (String[])keyset.toArray(new String[keyset.size()]);
+	}
+  }
+
+  /**
+   * Close the cache. Closing the cache compacts the journal, saves the
+   * recently resolved URIs in the plugin state location and deletes the
+   * handed out files that no entry uses any more.
+   */
+  protected void close()
+  {
+	synchronized(cache)
+	{
+	  Iterator iter = orphans.iterator();
+	  while(iter.hasNext())
+	  {
+		deleteFile((String)iter.next());
+	  }
+	  orphans.clear();
+	  handedOut.clear();
+	}
+	compact();
+	synchronized(journalLock)
+	{
+	  closeJournal();
+	}
+	saveRecentURIs();
+	cacheInstance = null;
+  }
+
+  /**
+   * Open the cache. Opening the cache involves reading the cache XML file of
+   * earlier releases and the journal in the plugin state location if they can be read.
+   */
+  protected static void open(IPath cacheLocation)
+  {
+    Cache cache = new Cache(cacheLocation);
+    cache.load();
+    cacheInstance = cache;
+  }
+
+  /**
+   * Load the entries that were saved by earlier sessions, drop the entries whose files
+   * are missing, delete the files that no entry uses, and compact the journal.
+   */
+  private void load()
+  {
+	File cacheFile = new File(cacheLocation, CACHE_FILE);
+	if(cacheFile.exists())
+	{
+	  loadCacheFile(cacheFile);
+	}
+	replayJournal(new File(cacheLocation, JOURNAL_FILE));
+	loadRecentURIs();
+
+	synchronized(cache)
+	{
+	  Iterator iter = cache.values().iterator();
+	  while(iter.hasNext())
+	  {
+		CacheEntry cacheEntry = (CacheEntry)iter.next();
+		File file = new File(cacheLocation, cacheEntry.getLocalFile());
+		if(!file.isFile())
+		{
+		  iter.remove();
+		  continue;
+		}
+		cacheEntry.setSize(file.length());
+		addReference(cacheEntry);
+	  }
+
+	  File[] files = cacheLocation.listFiles();
+	  for(int i = 0; files != null && i < files.length; i++)
+	  {
+		String name = files[i].getName();
+		if((name.endsWith(CACHE_EXTENSION) || (name.startsWith(CACHE_PREFIX) && name.endsWith(TEMP_EXTENSION))) &&
+		  !references.containsKey(name))
+		{
+		  files[i].delete();
+		}
+	  }
+	}
+	compact();
+	if(cacheFile.exists())
+	{
+	  cacheFile.delete();
+	}
+	evict(null);
+  }
+
+  /**
+   * Read the cache XML file that was written by earlier releases.
+   */
+  private void loadCacheFile(File cacheFile)
+  {
+	  DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+      try {
+        DocumentBuilder builder = factory.newDocumentBuilder();
+        Document cachedoc = builder.parse(cacheFile);
+		Element rootelem = cachedoc.getDocumentElement();
+		NodeList entries = rootelem.getChildNodes();
+		int numEntries = entries.getLength();
+		for(int i = 0; i < numEntries; i++)
+		{
+			Node entry = entries.item(i);
+			if(entry instanceof Element)
+			{
+				Element e = (Element)entry;
+				if(e.getNodeName().equals(ENTRY))
+				{
+					String uri = e.getAttribute(URI);
+					String location = e.getAttribute(LOCATION);
+					long lastModified = parseLong(e.getAttribute(LAST_MODIFIED));
+					long expirationTime = parseLong(e.getAttribute(EXPIRATION_TIME));
+					if(uri != null && location != null)
+					{
+					  cache.put(uri, new CacheEntry(uri, location, lastModified, expirationTime));
+					}
+				}
+			}
+		}
+      }
+	  catch(FileNotFoundException e)
+	  {
+		// If the file doesn't exist in the correct location there is nothing to load. Do nothing.
+	  }
+	  catch(Exception e)
+	  {
+		  System.out.println("Unable to load cache."); //$NON-NLS-1$
+	  }
+  }
+
+  /**
+   * Apply the records of the journal to the cache. A put record is
+   * <code>+ uri location lastModified expirationTime etag redirectURI</code>,
+   * where the last two may be empty, and a remove record
+   * is <code>- uri</code>, with the fields separated by tabs. A record that
+   * cannot be read, such as the last record after a crash, is skipped.
+   */
+  private void replayJournal(File journalFile)
+  {
+	if(!journalFile.exists())return;
+	BufferedReader reader = null;
+	try
+	{
+	  reader = new BufferedReader(new InputStreamReader(new FileInputStream(journalFile), JOURNAL_ENCODING));
+	  String line;
+	  while((line = reader.readLine()) != null)
+	  {
+		String[] fields = line.split(JOURNAL_SEPARATOR, -1);
+		if(fields.length >= 5 && fields[0].equals(JOURNAL_PUT))
+		{
+		  String uri = fields[1];
+		  cache.remove(uri);
+		  CacheEntry cacheEntry = new CacheEntry(uri, fields[2], parseLong(fields[3]), parseLong(fields[4]));
+		  if(fields.length >= 7)
+		  {
+			cacheEntry.setETag(fields[5].length() == 0 ? null : fields[5]);
+			cacheEntry.setRedirectURI(fields[6].length() == 0 ? null : fields[6]);
+		  }
+		  cache.put(uri, cacheEntry);
+		}
+		else if(fields.length >= 2 && fields[0].equals(JOURNAL_REMOVE))
+		{
+		  cache.remove(fields[1]);
+		}
+	  }
+	}
+	catch(IOException e)
+	{
+	  System.out.println("Unable to load cache."); //$NON-NLS-1$
+	}
+	finally
+	{
+	  if(reader != null)
+	  {
+		try
+		{
+		  reader.close();
+		}
+		catch(IOException e)
+		{
+		  // Do nothing if the stream cannot be closed.
+		}
+	  }
+	}
+  }
+
+  /**
+   * Read the recently resolved URIs, one per line with the least recently resolved first.
+   */
+  private void loadRecentURIs()
+  {
+	File recentFile = new File(cacheLocation, RECENT_FILE);
+	if(!recentFile.exists())return;
+	BufferedReader reader = null;
+	try
+	{
+	  reader = new BufferedReader(new InputStreamReader(new FileInputStream(recentFile), JOURNAL_ENCODING));
+	  String line;
+	  synchronized(recent)
+	  {
+		while((line = reader.readLine()) != null)
+		{
+		  if(line.length() > 0)
+		  {
+			recent.put(line, line);
+		  }
+		}
+	  }
+	}
+	catch(IOException e)
+	{
+	  // The recently resolved URIs are only a hint.
+	}
+	finally
+	{
+	  if(reader != null)
+	  {
+		try
+		{
+		  reader.close();
+		}
+		catch(IOException e)
+		{
+		  // Do nothing if the stream cannot be closed.
+		}
+	  }
+	}
+  }
+
+  private void saveRecentURIs()
+  {
+	String[] uris;
+	synchronized(recent)
+	{
+	  uris = (String[])recent.keySet().toArray(new String[recent.size()]);
+	}
+	Writer writer = null;
+	try
+	{
+	  writer = new OutputStreamWriter(new BufferedOutputStream(new FileOutputStream(new File(cacheLocation, RECENT_FILE))), JOURNAL_ENCODING);
+	  for(int i = 0; i < uris.length; i++)
+	  {
+		if(!canRecord(uris[i]))continue;
+		writer.write(uris[i]);
+		writer.write('\n');
+	  }
+	}
+	catch(IOException e)
+	{
+	  System.err.println("Unable to store internet cache."); //$NON-NLS-1$
+	}
+	finally
+	{
+	  if(writer != null)
+	  {
+		try
+		{
+		  writer.close();
+		}
+		catch(IOException e)
+		{
+		  // Do nothing if the stream cannot be closed.
+		}
+	  }
+	}
+  }
+
+  private static long parseLong(String value)
+  {
+	try
+	{
+	  return Long.parseLong(value);
+	}
+	catch(NumberFormatException nfe)
+	{
+	  return -1;
+	}
+  }
+
+  private void journalPut(CacheEntry cacheEntry)
+  {
+	// Entries that cannot be written as a single record are only kept for this session.
+	if(!canRecord(cacheEntry))return;
+	record(toRecord(cacheEntry));
+  }
+
+  private void journalRemove(String uri)
+  {
+	record(JOURNAL_REMOVE + JOURNAL_SEPARATOR + uri);
+  }
+
+  private static boolean canRecord(CacheEntry cacheEntry)
+  {
+	return canRecord(cacheEntry.getURI()) && canRecord(cacheEntry.getLocalFile()) &&
+	  canRecord(cacheEntry.getETag()) && canRecord(cacheEntry.getRedirectURI());
+  }
+
+  private static boolean canRecord(String field)
+  {
+	return field == null || (field.indexOf('\t') == -1 && field.indexOf('\n') == -1 && field.indexOf('\r') == -1);
+  }
+
+  private static String toRecord(CacheEntry cacheEntry)
+  {
+	StringBuffer record = new StringBuffer(128);
+	record.append(JOURNAL_PUT).append(JOURNAL_SEPARATOR);
+	record.append(cacheEntry.getURI()).append(JOURNAL_SEPARATOR);
+	record.append(cacheEntry.getLocalFile()).append(JOURNAL_SEPARATOR);
+	record.append(cacheEntry.getLastModified()).append(JOURNAL_SEPARATOR);
+	record.append(cacheEntry.getExpirationTime()).append(JOURNAL_SEPARATOR);
+	if(cacheEntry.getETag() != null)
+	{
+	  record.append(cacheEntry.getETag());
+	}
+	record.append(JOURNAL_SEPARATOR);
+	if(cacheEntry.getRedirectURI() != null)
+	{
+	  record.append(cacheEntry.getRedirectURI());
+	}
+	return record.toString();
+  }
+
+  /**
+   * Append a record to the journal, and compact the journal if it has grown
+   * much larger than the cache.
+   */
+  private void record(String record)
+  {
+	boolean compact;
+	synchronized(journalLock)
+	{
+	  if(journal == null)return;
+	  try
+	  {
+		journal.write(record);
+		journal.write('\n');
+		journal.flush();
+		journalRecords++;
+	  }
+	  catch(IOException e)
+	  {
+		System.err.println("Unable to store internet cache."); //$NON-NLS-1$
+		closeJournal();
+		return;
+	  }
+	  synchronized(cache)
+	  {
+		compact = journalRecords > JOURNAL_SLACK + 2 * cache.size();
+	  }
+	}
+	if(compact)
+	{
+	  compact();
+	}
+  }
+
+  /**
+   * Rewrite the journal so that it only holds one record for each entry,
+   * in least recently used order, and keep it open for appending.
+   */
+  private void compact()
+  {
+	synchronized(journalLock)
+	{
+	  closeJournal();
+	  CacheEntry[] entries;
+	  synchronized(cache)
+	  {
+		entries = (CacheEntry[])cache.values().toArray(new CacheEntry[cache.size()]);
+	  }
+	  File journalFile = new File(cacheLocation, JOURNAL_FILE);
+	  File newFile = new File(cacheLocation, JOURNAL_FILE + TEMP_EXTENSION);
+	  Writer writer = null;
+	  try
+	  {
+		int records = 0;
+		writer = new OutputStreamWriter(new BufferedOutputStream(new FileOutputStream(newFile)), JOURNAL_ENCODING);
+		for(int i = 0; i < entries.length; i++)
+		{
+		  if(!canRecord(entries[i]))continue;
+		  writer.write(toRecord(entries[i]));
+		  writer.write('\n');
+		  records++;
+		}
+		writer.close();
+		writer = null;
+		if(journalFile.exists() && !journalFile.delete())
+		{
+		  throw new IOException(journalFile.toString());
+		}
+		if(!newFile.renameTo(journalFile))
+		{
+		  throw new IOException(newFile.toString());
+		}
+		journal = new OutputStreamWriter(new FileOutputStream(journalFile, true), JOURNAL_ENCODING);
+		journalRecords = records;
+	  }
+	  catch(IOException e)
+	  {
+		System.err.println("Unable to store internet cache."); //$NON-NLS-1$
+		if(writer != null)
+		{
+		  try
+		  {
+			writer.close();
+		  }
+		  catch(IOException ex)
+		  {
+			// Do nothing if the stream cannot be closed.
+		  }
+		}
+	  }
+	}
+  }
+
+  /**
+   * The caller must hold the journal lock.
+   */
+  private void closeJournal()
+  {
+	if(journal == null)return;
+	try
+	{
+	  journal.close();
+	}
+	catch(IOException e)
+	{
+	  // Do nothing if the stream cannot be closed.
+	}
+	journal = null;
+  }
+
+  /**
+   * Clear all of the entries from the cache. This method also deletes the cache files.
+   */
+  public void clear()
+  {
+	synchronized(cache)
+	{
+	  Iterator iter = cache.values().iterator();
+	  while(iter.hasNext())
+	  {
+		CacheEntry cacheEntry = (CacheEntry)iter.next();
+		iter.remove();
+		removeReference(cacheEntry, true);
+	  }
+	}
+	compact();
+	URIResolutionCache.invalidate();
+  }
+
+  /**
+   * Delete the cache entry specified by the given URI. The cached file is
+   * deleted unless another entry has the same content.
+   *
+   * @param uri The URI entry to remove from the catalog.
+   */
+  public void deleteEntry(String uri)
+  {
+	  if(uri == null) return;
+
+	  CacheEntry cacheEntry;
+	  synchronized(cache)
+	  {
+		cacheEntry = (CacheEntry)cache.remove(uri);
+		if(cacheEntry != null)
+		{
+		  removeReference(cacheEntry, true);
+		}
+	  }
+	  if(cacheEntry != null)
+	  {
+		journalRemove(uri);
+		URIResolutionCache.invalidate();
+	  }
+  }
+
+  private static String toHex(byte[] bytes)
+  {
+	char[] chars = new char[bytes.length * 2];
+	for(int i = 0; i < bytes.length; i++)
+	{
+	  chars[2 * i] = HEX[(bytes[i] >> 4) & 0xf];
+	  chars[2 * i + 1] = HEX[bytes[i] & 0xf];
+	}
+	return new String(chars);
+  }
+
+  /**
+   * A file that has been downloaded to a temporary file in the cache location.
+   */
+  private static class Download
+  {
+	final File file;
+	final String name;
+	final long size;
+
+	Download(File file, String name, long size)
+	{
+	  this.file = file;
+	  this.name = name;
+	  this.size = size;
+	}
+  }
+
+  /**
+   * The number of entries that use a cached file, and the size of the file.
+   */
+  private static class Reference
+  {
+	final long size;
+	int count;
+
+	Reference(long size)
+	{
+	  this.size = size;
+	}
+  }
+
+  /**
+   * A download in progress that other threads can wait for.
+   */
+  private static class Fetch
+  {
+	private boolean done = false;
+	private CacheEntry result = null;
+
+	synchronized void complete(CacheEntry result)
+	{
+	  this.result = result;
+	  done = true;
+	  notifyAll();
+	}
+
+	synchronized CacheEntry await()
+	{
+	  while(!done)
+	  {
+		try
+		{
+		  wait();
+		}
+		catch(InterruptedException e)
+		{
+		  Thread.currentThread().interrupt();
+		  return null;
+		}
+	  }
+	  return result;
+	}
   }
-}
\ No newline at end of file
+}
@@ -20,6 +20,9 @@ public class CacheEntry
   private String localFile;
   private long lastModified;
   private long expirationTime;
+  private long size;
+  private String etag;
+  private String redirectURI;
   
   /**
    * Create a new cache entry.
@@ -111,4 +114,59 @@ public class CacheEntry
   {
 	this.lastModified = lastModified;
   }
+  
+  /**
+   * Get the size in bytes of the local file for this cache entry.
+   * 
+   * @return The size in bytes of the local file for this cache entry.
+   */
+  public long getSize()
+  {
+	return size;
+  }
+  
+  /**
+   * Set the size in bytes of the local file for this cache entry.
+   */
+  public void setSize(long size)
+  {
+	this.size = size;
+  }
+  
+  /**
+   * Get the entity tag the server sent for the cached resource.
+   * 
+   * @return The entity tag of the cached resource, or null if the server did not send one.
+   */
+  public String getETag()
+  {
+	return etag;
+  }
+  
+  /**
+   * Set the entity tag the server sent for the cached resource.
+   */
+  public void setETag(String etag)
+  {
+	this.etag = etag;
+  }
+  
+  /**
+   * Get the URI the remote URI redirected to when the resource was cached.
+   * The cache asks this URI directly when it refreshes the entry.
+   * 
+   * @return The URI the remote URI redirected to, or null if it was not redirected.
+   */
+  public String getRedirectURI()
+  {
+	return redirectURI;
+  }
+  
+  /**
+   * Set the URI the remote URI redirected to when the resource was cached.
+   */
+  public void setRedirectURI(String redirectURI)
+  {
+	this.redirectURI = redirectURI;
+  }
 }
@@ -32,6 +32,7 @@ public class CacheMessages extends NLS {
 	public static String _UI_PREF_PROMPT_FOR_DISAGREED_LICENSES;
 	public static String _UI_CACHE_MONITOR_NAME;
 	public static String _UI_CACHE_MONITOR_CACHING;
+	public static String _UI_CACHE_PREFETCH_NAME;
 
 	public static String _NOT_A_VALID_NUMBER;
 	public static String _NUMBER_MUST_BE_GREATER_THAN_ZERO;
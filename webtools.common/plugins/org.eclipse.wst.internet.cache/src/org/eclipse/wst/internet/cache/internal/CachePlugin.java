@@ -14,6 +14,7 @@ package org.eclipse.wst.internet.cache.internal;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Preferences;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
+import org.eclipse.wst.common.uriresolver.internal.URIResolutionCache;
 import org.eclipse.wst.internet.cache.internal.preferences.PreferenceConstants;
 import org.osgi.framework.BundleContext;
 
@@ -76,6 +77,11 @@ public class CachePlugin extends AbstractUIPlugin
 		registry.disagreeLicense(licenses[i]);
 	  }
 	}
+
+	if (isCacheEnabled() && isPrefetchEnabled())
+	{
+	  CachePrefetchJob.startJob();
+	}
   }
 
   /**
@@ -100,6 +106,7 @@ public class CachePlugin extends AbstractUIPlugin
 	  prefs.setValue(licenses[i], state.intValue());
 	}
 	
+	CachePrefetchJob.stopJob();
 	Cache.getInstance().close();
 	CacheJob.stopJob();
 	super.stop(context);
@@ -125,6 +132,8 @@ public class CachePlugin extends AbstractUIPlugin
   {
 	getPluginPreferences().setValue(PreferenceConstants.CACHE_ENABLED, enabled);
 	CacheJob.stopJob();
+	// Resolutions made with the cache on or off are no longer valid.
+	URIResolutionCache.invalidate();
   }
 
   /**
@@ -190,6 +199,78 @@ public class CachePlugin extends AbstractUIPlugin
 	return 1440;
   }
 
+
+  /**
+   * Set the maximum number of resources to keep in the cache.
+   * 
+   * @param entries The maximum number of cached resources, or a negative number for no limit.
+   */
+  public void setCacheMaxEntries(int entries) 
+  {
+	getPluginPreferences().setValue(PreferenceConstants.CACHE_MAX_ENTRIES, entries);
+  }
+
+  /**
+   * Returns the maximum number of resources to keep in the cache, or 2000 as default.
+   * When the cache holds more resources the least recently used ones are removed.
+   * 
+   * @return The maximum number of cached resources, or a negative number for no limit.
+   */
+  public int getCacheMaxEntries() 
+  {
+	if (getPluginPreferences().contains(PreferenceConstants.CACHE_MAX_ENTRIES)) {
+		return getPluginPreferences().getInt(PreferenceConstants.CACHE_MAX_ENTRIES);
+	}
+	return 2000;
+  }
+
+  /**
+   * Set the maximum size of the cache.
+   * 
+   * @param size The maximum size of the cached files in megabytes, or a negative number for no limit.
+   */
+  public void setCacheMaxSize(long size) 
+  {
+	getPluginPreferences().setValue(PreferenceConstants.CACHE_MAX_SIZE, size);
+  }
+
+  /**
+   * Returns the maximum size of the cache in megabytes, or 100 as default.
+   * When the cached files take up more space the least recently used ones are removed.
+   * 
+   * @return The maximum size of the cached files in megabytes, or a negative number for no limit.
+   */
+  public long getCacheMaxSize() 
+  {
+	if (getPluginPreferences().contains(PreferenceConstants.CACHE_MAX_SIZE)) {
+		return getPluginPreferences().getLong(PreferenceConstants.CACHE_MAX_SIZE);
+	}
+	return 100;
+  }
+
+  /**
+   * Set whether or not the cache should fetch the recently resolved and
+   * prespecified resources when the plugin starts.
+   * 
+   * @param prefetch If true the resources are prefetched, if false they are not.
+   */
+  public void setPrefetchEnabled(boolean prefetch) 
+  {
+	getPluginPreferences().setValue(PreferenceConstants.CACHE_PREFETCH, prefetch);
+  }
+
+  /**
+   * Returns true if the cache fetches the recently resolved and prespecified
+   * resources when the plugin starts, false otherwise.
+   * 
+   * @return True if the resources are prefetched, false otherwise. The default is true.
+   */
+  public boolean isPrefetchEnabled() 
+  {
+	if (getPluginPreferences().contains(PreferenceConstants.CACHE_PREFETCH))
+	  return getPluginPreferences().getBoolean(PreferenceConstants.CACHE_PREFETCH);
+	return true;
+  }
   
   static boolean isRunning() {
 	  return plugin != null;
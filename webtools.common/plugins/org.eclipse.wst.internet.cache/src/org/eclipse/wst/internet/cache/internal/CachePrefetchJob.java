@@ -0,0 +1,327 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.wst.internet.cache.internal;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+
+/**
+ * A prefetch job runs when the plugin starts, and caches the recently resolved
+ * resources and the prespecified resources before they are first asked for.
+ * The recently resolved resources are fetched first. A few resources are fetched
+ * at the same time. A resource that is asked for while it is being prefetched is
+ * not downloaded twice, the request waits for the prefetch to finish.
+ */
+public class CachePrefetchJob extends Job
+{
+  /**
+   * The number of resources that are fetched at the same time.
+   */
+  private static final int CONNECTIONS = 4;
+
+  /**
+   * The longest time in milliseconds to wait for the resources that are being
+   * fetched when the job is stopped.
+   */
+  private static final long STOP_TIMEOUT = 5000;
+
+  private static CachePrefetchJob job = null;
+
+  private final String[] uris;
+
+  /**
+   * The index of the next URI to fetch, the number of URIs that have been
+   * fetched, the number of workers that have not finished, and whether the
+   * job has been canceled. All are guarded by this job.
+   */
+  private int next = 0;
+  private int completed = 0;
+  private int workers = 0;
+  private boolean canceled = false;
+
+  /**
+   * Constructor.
+   *
+   * @param uris The URIs to prefetch, in the order they should be fetched.
+   */
+  public CachePrefetchJob(String[] uris)
+  {
+    super(CacheMessages._UI_CACHE_PREFETCH_NAME);
+    this.uris = uris;
+  }
+
+  /**
+   * @see org.eclipse.core.runtime.jobs.Job#run(org.eclipse.core.runtime.IProgressMonitor)
+   */
+  protected IStatus run(IProgressMonitor monitor)
+  {
+	final Cache cache = Cache.getInstance();
+	if(cache == null || uris.length == 0)
+	{
+	  return Status.OK_STATUS;
+	}
+	cache.getStatistics().prefetchStarted(uris.length);
+	monitor.beginTask(getName(), uris.length);
+
+	int count = Math.min(CONNECTIONS, uris.length);
+	for(int i = 0; i < count; i++)
+	{
+	  if(!startWorker(cache))
+	  {
+		break;
+	  }
+	}
+
+	int reported = 0;
+	try
+	{
+	  // The workers stop early if the cache is closed.
+	  while(reported < uris.length && hasWorkers())
+	  {
+		if(monitor.isCanceled())
+		{
+		  return Status.CANCEL_STATUS;
+		}
+		int done = waitForProgress(reported);
+		monitor.worked(done - reported);
+		reported = done;
+	  }
+	  monitor.done();
+	  return Status.OK_STATUS;
+	}
+	finally
+	{
+	  synchronized(this)
+	  {
+		// The workers finish the resources they are fetching and stop.
+		canceled = true;
+	  }
+	}
+  }
+
+  /**
+   * @see org.eclipse.core.runtime.jobs.Job#canceling()
+   */
+  protected void canceling()
+  {
+	synchronized(this)
+	{
+	  canceled = true;
+	}
+  }
+
+  /**
+   * Start a worker that fetches the URIs until there are none left or the job
+   * is canceled. The workers are jobs of their own so that the job manager
+   * knows about them, and they belong to the family of this job.
+   *
+   * @param cache The cache to fetch the URIs into.
+   * @return True if the worker was started, false if the job has been canceled.
+   */
+  private boolean startWorker(final Cache cache)
+  {
+	Job worker = new Job(getName())
+	{
+	  protected IStatus run(IProgressMonitor monitor)
+	  {
+		String uri;
+		// Stop if the cache has been closed in the meantime.
+		while(Cache.getInstance() == cache && (uri = nextURI()) != null)
+		{
+		  try
+		  {
+			cache.prefetch(uri);
+		  }
+		  finally
+		  {
+			completed();
+		  }
+		}
+		return Status.OK_STATUS;
+	  }
+
+	  public boolean belongsTo(Object family)
+	  {
+		return family == CachePrefetchJob.this;
+	  }
+	};
+	worker.setSystem(true);
+	worker.setPriority(Job.LONG);
+	worker.addJobChangeListener(new JobChangeAdapter()
+	{
+	  public void done(IJobChangeEvent event)
+	  {
+		workerDone();
+	  }
+	});
+	synchronized(this)
+	{
+	  if(canceled)
+	  {
+		return false;
+	  }
+	  workers++;
+	}
+	worker.schedule();
+	return true;
+  }
+
+  private synchronized boolean hasWorkers()
+  {
+	return workers > 0;
+  }
+
+  private synchronized void workerDone()
+  {
+	workers--;
+	notifyAll();
+  }
+
+  /**
+   * Wait for the workers to finish the resources they are fetching, but no
+   * longer than the specified time. The job must have been canceled.
+   *
+   * @param timeout The longest time to wait in milliseconds.
+   * @return True if all the workers have finished, false otherwise.
+   */
+  protected synchronized boolean waitForWorkers(long timeout)
+  {
+	long end = System.currentTimeMillis() + timeout;
+	while(workers > 0)
+	{
+	  long remaining = end - System.currentTimeMillis();
+	  if(remaining <= 0)
+	  {
+		return false;
+	  }
+	  try
+	  {
+		wait(remaining);
+	  }
+	  catch(InterruptedException e)
+	  {
+		Thread.currentThread().interrupt();
+		return false;
+	  }
+	}
+	return true;
+  }
+
+  private synchronized String nextURI()
+  {
+	if(canceled || next == uris.length)
+	{
+	  return null;
+	}
+	return uris[next++];
+  }
+
+  private synchronized void completed()
+  {
+	completed++;
+	notifyAll();
+  }
+
+  /**
+   * Wait until more URIs have been fetched, or for a short while so that
+   * cancellation is noticed.
+   */
+  private synchronized int waitForProgress(int reported)
+  {
+	if(completed == reported)
+	{
+	  try
+	  {
+		wait(250);
+	  }
+	  catch(InterruptedException e)
+	  {
+		Thread.currentThread().interrupt();
+	  }
+	}
+	return completed;
+  }
+
+  /**
+   * Get the URIs to prefetch. These are the recently resolved URIs, the most
+   * recently resolved first, followed by the prespecified URIs. URIs whose
+   * license has not been agreed to are left out, since the user cannot be
+   * asked while the workbench starts.
+   *
+   * @param cache The cache.
+   * @return The URIs to prefetch.
+   */
+  protected static String[] getURIsToPrefetch(Cache cache)
+  {
+	Set candidates = new LinkedHashSet();
+	String[] recent = cache.getRecentURIs();
+	for(int i = 0; i < recent.length; i++)
+	{
+	  candidates.add(recent[i]);
+	}
+	String[] declared = ToCacheRegistryReader.getInstance().getURIsToCache();
+	for(int i = 0; i < declared.length; i++)
+	{
+	  candidates.add(declared[i]);
+	}
+
+	Set result = new LinkedHashSet();
+	Iterator iter = candidates.iterator();
+	while(iter.hasNext())
+	{
+	  String uri = (String)iter.next();
+	  ToCacheResource toCacheResource = ToCacheRegistryReader.getInstance().getResourceToCache(uri);
+	  if(toCacheResource == null || toCacheResource.getLicense() == null ||
+		LicenseRegistry.LICENSE_AGREE.equals(LicenseRegistry.getInstance().getLicenseState(toCacheResource.getLicense())))
+	  {
+		result.add(uri);
+	  }
+	}
+	return (String[])result.toArray(new String[result.size()]);
+  }
+
+  /**
+   * Start the prefetch job for the recently resolved and prespecified URIs.
+   */
+  protected static void startJob()
+  {
+	Cache cache = Cache.getInstance();
+	if(job == null && cache != null)
+	{
+	  job = new CachePrefetchJob(getURIsToPrefetch(cache));
+	  job.setPriority(Job.LONG);
+	  job.schedule();
+	}
+  }
+
+  /**
+   * Stop the prefetch job, and wait a short while for the resources that are
+   * being fetched so that they are not written to the cache after it is closed.
+   */
+  protected static void stopJob()
+  {
+	if(job != null)
+	{
+	  job.cancel();
+	  job.waitForWorkers(STOP_TIMEOUT);
+	}
+	job = null;
+  }
+}
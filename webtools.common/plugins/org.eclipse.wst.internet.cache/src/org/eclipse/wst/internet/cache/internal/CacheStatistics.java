@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.wst.internet.cache.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Statistics about the requests made to the cache since it was opened, and
+ * about the progress of the prefetch job. A request is a hit when it is
+ * answered from a cache entry that has not expired. When that entry was
+ * downloaded by the prefetch job, the time the download took is counted as
+ * time saved.
+ */
+public class CacheStatistics
+{
+  private int requests = 0;
+  private int hits = 0;
+  private int revalidations = 0;
+  private int misses = 0;
+  private int failures = 0;
+
+  private int prefetchTotal = 0;
+  private int prefetchCompleted = 0;
+  private int prefetchFailed = 0;
+  private int prefetchHits = 0;
+  private long savedTime = 0;
+
+  /**
+   * The URIs downloaded by the prefetch job that have not been requested yet.
+   * The key is the URI and the value is a Long with the time the download took.
+   */
+  private final Map prefetched = new HashMap();
+
+  synchronized void hit(String uri)
+  {
+	requests++;
+	hits++;
+	Long time = (Long)prefetched.remove(uri);
+	if(time != null)
+	{
+	  prefetchHits++;
+	  savedTime += time.longValue();
+	}
+  }
+
+  synchronized void revalidated(boolean success)
+  {
+	requests++;
+	revalidations++;
+	if(!success)failures++;
+  }
+
+  synchronized void missed(boolean success)
+  {
+	requests++;
+	misses++;
+	if(!success)failures++;
+  }
+
+  synchronized void prefetchStarted(int uris)
+  {
+	prefetchTotal += uris;
+  }
+
+  synchronized void prefetchCompleted(String uri, boolean success, long time)
+  {
+	prefetchCompleted++;
+	if(!success)
+	{
+	  prefetchFailed++;
+	}
+	else if(time > 0)
+	{
+	  prefetched.put(uri, new Long(time));
+	}
+  }
+
+  /**
+   * Get the number of requests for remote resources.
+   *
+   * @return The number of requests for remote resources.
+   */
+  public synchronized int getRequests()
+  {
+	return requests;
+  }
+
+  /**
+   * Get the number of requests that were answered from the cache without
+   * contacting the server.
+   *
+   * @return The number of requests that were answered from the cache.
+   */
+  public synchronized int getHits()
+  {
+	return hits;
+  }
+
+  /**
+   * Get the number of requests for expired entries, which had to be revalidated.
+   *
+   * @return The number of requests for expired entries.
+   */
+  public synchronized int getRevalidations()
+  {
+	return revalidations;
+  }
+
+  /**
+   * Get the number of requests for resources that were not cached.
+   *
+   * @return The number of requests for resources that were not cached.
+   */
+  public synchronized int getMisses()
+  {
+	return misses;
+  }
+
+  /**
+   * Get the number of requests for resources that could not be cached or revalidated.
+   *
+   * @return The number of failed requests.
+   */
+  public synchronized int getFailures()
+  {
+	return failures;
+  }
+
+  /**
+   * Get the fraction of the requests that were answered from the cache.
+   *
+   * @return The hit rate, between 0 and 1.
+   */
+  public synchronized double getHitRate()
+  {
+	return requests == 0 ? 0 : (double)hits / requests;
+  }
+
+  /**
+   * Get the number of URIs the prefetch job was asked to fetch.
+   *
+   * @return The number of URIs to prefetch.
+   */
+  public synchronized int getPrefetchTotal()
+  {
+	return prefetchTotal;
+  }
+
+  /**
+   * Get the number of URIs the prefetch job has finished with.
+   *
+   * @return The number of prefetched URIs, including the ones that failed.
+   */
+  public synchronized int getPrefetchCompleted()
+  {
+	return prefetchCompleted;
+  }
+
+  /**
+   * Get the number of URIs the prefetch job could not fetch.
+   *
+   * @return The number of URIs that could not be prefetched.
+   */
+  public synchronized int getPrefetchFailed()
+  {
+	return prefetchFailed;
+  }
+
+  /**
+   * Get the number of requests that were answered from an entry the prefetch job
+   * downloaded. Only the first request for each entry is counted.
+   *
+   * @return The number of requests answered from prefetched entries.
+   */
+  public synchronized int getPrefetchHits()
+  {
+	return prefetchHits;
+  }
+
+  /**
+   * Get the time the requests answered from prefetched entries would have waited
+   * for their downloads.
+   *
+   * @return The time saved by the prefetch job, in milliseconds.
+   */
+  public synchronized long getSavedTime()
+  {
+	return savedTime;
+  }
+
+  public synchronized String toString()
+  {
+	StringBuffer buffer = new StringBuffer(160);
+	buffer.append("requests=").append(requests); //$NON-NLS-1$
+	buffer.append(" hits=").append(hits); //$NON-NLS-1$
+	buffer.append(" revalidations=").append(revalidations); //$NON-NLS-1$
+	buffer.append(" misses=").append(misses); //$NON-NLS-1$
+	buffer.append(" failures=").append(failures); //$NON-NLS-1$
+	buffer.append(" prefetch=").append(prefetchCompleted).append('/').append(prefetchTotal); //$NON-NLS-1$
+	buffer.append(" prefetchFailed=").append(prefetchFailed); //$NON-NLS-1$
+	buffer.append(" prefetchHits=").append(prefetchHits); //$NON-NLS-1$
+	buffer.append(" savedTime=").append(savedTime).append("ms"); //$NON-NLS-1$ //$NON-NLS-2$
+	return buffer.toString();
+  }
+}
@@ -12,6 +12,7 @@
 package org.eclipse.wst.internet.cache.internal;
 
 import org.eclipse.core.resources.IFile;
+import org.eclipse.wst.common.uriresolver.internal.URIResolutionCache;
 import org.eclipse.wst.common.uriresolver.internal.provisional.URIResolverExtension;
 import org.eclipse.wst.common.uriresolver.internal.util.URIHelper;
 
@@ -37,6 +38,8 @@ public class CacheURIResolverExtension implements URIResolverExtension
 		  
 		  if(resource != null && (resource.startsWith("http:") || resource.startsWith("ftp:"))) //$NON-NLS-1$ //$NON-NLS-2$
 		  {
+		    // Cached entries expire and licenses get accepted, so the result must not be remembered.
+		    URIResolutionCache.doNotCache();
 		    // Handle resources prespecified to cache.
 		    ToCacheResource toCacheResource = ToCacheRegistryReader.getInstance().getResourceToCache(resource);
 		    if(toCacheResource == null || LicenseRegistry.getInstance().hasLicenseBeenAccepted(resource, toCacheResource.getLicense()))
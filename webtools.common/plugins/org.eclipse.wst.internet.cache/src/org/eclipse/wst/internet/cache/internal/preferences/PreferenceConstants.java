@@ -21,5 +21,11 @@ public class PreferenceConstants  {
 
 	  public static final String CACHE_DURATION = "cacheDuration"; //$NON-NLS-1$
 
+	  public static final String CACHE_MAX_ENTRIES = "cacheMaxEntries"; //$NON-NLS-1$
+
+	  public static final String CACHE_MAX_SIZE = "cacheMaxSize"; //$NON-NLS-1$
+
+	  public static final String CACHE_PREFETCH = "cachePrefetch"; //$NON-NLS-1$
+
 	  public static final String PROMPT_DISAGREED_LICENSES = "promptDisagreedLicenses"; //$NON-NLS-1$
 }
@@ -276,6 +276,13 @@ public class ValidatorMetaData {
 		return _validatorUniqueName;
 	}
 
+	/**
+	 * Answer the symbolic name of the plug-in that contributed the validator.
+	 */
+	public String getPluginId() {
+		return _pluginId;
+	}
+
 	/**
 	 * If the resource is applicable to the Validator which this ValidatorMetaData is associated
 	 * with, return true; else return false.
@@ -721,9 +721,13 @@ public abstract class ValidationOperation implements IWorkspaceRunnable, IHeadle
 
 	private void postValidateProject(WorkbenchReporter reporter, ReferencialFileValidator refFileValidator) {
 		Set<ValidatorMetaData> set = ValidationRegistryReader.getReader().getValidatorMetaData(_project);
+		// the project is only walked once, rather than once for every validator
+		List<IFile> allProjectFiles = null;
 		for (ValidatorMetaData data : set) {
 			List<String> filters = data.getNameFilters();
-			List<IFile> files = getAllFilesForFilter(filters);
+			if (filters.isEmpty())continue;
+			if (allProjectFiles == null)allProjectFiles = ReferencialFileValidatorHelper.getAllProjectFiles(_project);
+			List<IFile> files = getAllFilesForFilter(filters, allProjectFiles);
 			if (!files.isEmpty()) {
 				List<IFile> fileForValidation = refFileValidator.getReferencedFile(files);
 				try {
@@ -735,9 +739,8 @@ public abstract class ValidationOperation implements IWorkspaceRunnable, IHeadle
 		}
 	}
 
-	private List<IFile> getAllFilesForFilter(List<String> filters) {
+	private List<IFile> getAllFilesForFilter(List<String> filters, List<IFile> allProjectFiles) {
 		if (!filters.isEmpty()) {
-			List<IFile> allProjectFiles = ReferencialFileValidatorHelper.getAllProjectFiles(_project);
 			List<IFile> filterFiles = new ArrayList<IFile>();
 			for (String fileName : filters) {
 				if (fileName == null)continue;
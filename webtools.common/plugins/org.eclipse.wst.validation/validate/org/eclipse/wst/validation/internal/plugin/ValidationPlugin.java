@@ -12,21 +12,29 @@ package org.eclipse.wst.validation.internal.plugin;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.ISaveContext;
+import org.eclipse.core.resources.ISaveParticipant;
 import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.resources.ProjectScope;
 import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Plugin;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 import org.eclipse.core.runtime.preferences.IScopeContext;
+import org.eclipse.wst.validation.IPerformanceMonitor;
 import org.eclipse.wst.validation.ValidationFramework;
+import org.eclipse.wst.validation.internal.ContentTypeCache;
 import org.eclipse.wst.validation.internal.DependencyIndex;
 import org.eclipse.wst.validation.internal.EventManager;
+import org.eclipse.wst.validation.internal.PerformanceMonitor;
 import org.eclipse.wst.validation.internal.ProjectUnavailableError;
 import org.eclipse.wst.validation.internal.ResourceUnavailableError;
 import org.eclipse.wst.validation.internal.Tracing;
+import org.eclipse.wst.validation.internal.ValWorkerPool;
+import org.eclipse.wst.validation.internal.ValidationLedger;
 import org.eclipse.wst.validation.internal.core.Message;
 import org.eclipse.wst.validation.internal.provisional.core.IMessage;
 import org.osgi.framework.Bundle;
@@ -102,7 +110,10 @@ public class ValidationPlugin extends Plugin {
 
 		DependencyIndex di = (DependencyIndex)ValidationFramework.getDefault().getDependencyIndex();
 		IWorkspace ws = ResourcesPlugin.getWorkspace();
-		ws.addSaveParticipant(this, di);
+		ws.addResourceChangeListener(ContentTypeCache.getDefault(), 
+			IResourceChangeEvent.PRE_BUILD | IResourceChangeEvent.POST_CHANGE);
+		Platform.getContentTypeManager().addContentTypeChangeListener(ContentTypeCache.getDefault());
+		ws.addSaveParticipant(this, new SaveParticipant(di, ValidationLedger.getDefault()));
 //		ws.addResourceChangeListener(ValOperationManager.getDefault(), 
 //			IResourceChangeEvent.POST_BUILD | IResourceChangeEvent.PRE_BUILD);
 
@@ -111,9 +122,15 @@ public class ValidationPlugin extends Plugin {
 	public void stop(BundleContext context) throws Exception {
 		super.stop(context);
 		ResourcesPlugin.getWorkspace().removeResourceChangeListener( EventManager.getManager() );		
+		ResourcesPlugin.getWorkspace().removeResourceChangeListener(ContentTypeCache.getDefault());
+		Platform.getContentTypeManager().removeContentTypeChangeListener(ContentTypeCache.getDefault());
+		ContentTypeCache.getDefault().clear();
 		ValidationFramework.getDefault().cancel();
 //		ResourcesPlugin.getWorkspace().removeResourceChangeListener( ValOperationManager.getDefault() );		
 		EventManager.getManager().shutdown();
+		ValWorkerPool.getDefault().dispose();
+		IPerformanceMonitor pm = ValidationFramework.getDefault().getPerformanceMonitor();
+		if (pm instanceof PerformanceMonitor)((PerformanceMonitor)pm).shutdown();
 	}
 
 	/*
@@ -179,4 +196,42 @@ public class ValidationPlugin extends Plugin {
 		getLog().log(status);
 		
 	}	
+	
+	/**
+	 * A plug-in can only register one save participant, so this one passes the save events on to each of
+	 * the things that we persist.
+	 */
+	private static final class SaveParticipant implements ISaveParticipant {
+		
+		private final ISaveParticipant[] _participants;
+		
+		public SaveParticipant(ISaveParticipant... participants){
+			_participants = participants;
+		}
+
+		public void doneSaving(ISaveContext context) {
+			for (ISaveParticipant sp : _participants)sp.doneSaving(context);
+		}
+
+		public void prepareToSave(ISaveContext context) throws CoreException {
+			for (ISaveParticipant sp : _participants)sp.prepareToSave(context);
+		}
+
+		public void rollback(ISaveContext context) {
+			for (ISaveParticipant sp : _participants)sp.rollback(context);
+		}
+
+		public void saving(ISaveContext context) throws CoreException {
+			CoreException error = null;
+			for (ISaveParticipant sp : _participants){
+				try {
+					sp.saving(context);
+				}
+				catch (CoreException e){
+					error = e;
+				}
+			}
+			if (error != null)throw error;
+		}
+	}
 }
@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation.internal.provisional.core;
+
+/**
+ * An IReporter that does not keep its messages. The messages are passed on, in batches, to be turned into
+ * markers while the validator is still running, so a validator that reports a very large number of
+ * messages does not need to have them all in memory at the same time.
+ * <p>
+ * Messages that are the same as a message that has already been reported for the same resource are
+ * ignored, and only a limited number of messages are reported for each resource. Only a limited number of
+ * messages are held waiting to be written, once that limit is reached the
+ * {@link #addMessage(IValidator, IMessage)} method does not return until they have been written.
+ * </p>
+ * <p>
+ * Since the messages are not kept, the {@link #getMessages()} method always answers an empty list.
+ * </p>
+ */
+public interface IStreamingReporter extends IReporter {
+
+	/**
+	 * Answer true if no more messages will be reported for the object. Once the limit on the number of
+	 * messages for a resource has been reached, any further messages are only counted, so a validator
+	 * can use this to stop looking for problems that would not be reported.
+	 *
+	 * @param object
+	 * 		The object, normally an IResource, that the messages are being reported against.
+	 */
+	boolean isFull(Object object);
+
+	/**
+	 * Write all the messages that have been added so far. This does not need to be called, the
+	 * remaining messages are written when the validator finishes.
+	 */
+	void flush();
+}
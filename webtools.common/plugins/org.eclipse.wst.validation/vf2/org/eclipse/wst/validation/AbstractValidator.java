@@ -171,6 +171,28 @@ public abstract class AbstractValidator {
 	public boolean shouldClearMarkers(ValidationEvent event){
 		return true;
 	}
+	
+	/**
+	 * Should the messages that this validator reports through the IReporter of its ValidationResult be
+	 * streamed? Validators that can report a very large number of messages, for example for generated
+	 * files, can override this method to return true.
+	 * <p>
+	 * When the messages are streamed, the reporter is an
+	 * {@link org.eclipse.wst.validation.internal.provisional.core.IStreamingReporter}. The messages are
+	 * turned into markers, in batches, while the validator is running, instead of being held until it
+	 * finishes. Duplicate messages are ignored, only a limited number of messages are reported for each
+	 * resource, and adding a message may wait while the earlier messages are written. The default is
+	 * to not stream the messages.
+	 * </p>
+	 * 
+	 * @param event
+	 *            The validation event that triggered the validation.
+	 * @return true if the messages should be streamed.
+	 * @since 1.2.800
+	 */
+	public boolean shouldStreamMessages(ValidationEvent event){
+		return false;
+	}
 		
 	/**
 	 * Answer the validator that you belong to. The validator controls the
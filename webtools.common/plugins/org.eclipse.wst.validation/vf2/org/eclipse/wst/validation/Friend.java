@@ -53,5 +53,20 @@ public class Friend {
 	public static void setMigrated(Validator validator, boolean migrated){
 		validator.setMigrated(migrated);
 	}
+	
+	/**
+	 * Were the messages of the result streamed? If so they have already been turned into markers, and the
+	 * result only has their counts.
+	 */
+	public static boolean isStreamed(ValidationResult vr){
+		return vr.isStreamed();
+	}
+	
+	/**
+	 * Answer the symbolic name of the bundle that contributed the validator, or null if it is not known.
+	 */
+	public static String getContributor(Validator validator){
+		return validator.getContributor();
+	}
 
 }
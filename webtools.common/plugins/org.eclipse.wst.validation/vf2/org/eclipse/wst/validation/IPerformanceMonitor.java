@@ -22,9 +22,17 @@ import java.util.List;
 public interface IPerformanceMonitor {
 	
 	/**
-	 * The level of information to collect.
+	 * The level of information to collect. At the Default level every performance counter is handled as it
+	 * is added. At the Histogram level the counters are only added to per validator totals and latency
+	 * histograms, which is cheap enough to leave on, and the results are read with {@link #getSnapshot(boolean)}.
 	 */
-	public enum CollectionLevel {None, Default}
+	public enum CollectionLevel {None, Default,
+		/**
+		 * Only keep per validator totals and latency histograms.
+		 * 
+		 * @since 1.2.800
+		 */
+		Histogram}
 	
 	/** 
 	 * Add this performance counter to the monitor. The monitor will decide what to 
@@ -69,5 +77,33 @@ public interface IPerformanceMonitor {
 	 * Delete the collected performance counters.
 	 */
 	public void resetPerformanceCounters();
+	
+	/**
+	 * Answer the number of build validations that were skipped, because the validation ledger showed that
+	 * the validator had already validated the same content with the same configuration.
+	 * 
+	 * @since 1.2.800
+	 */
+	public long getLedgerHits();
+	
+	/**
+	 * Answer the number of times that the validation ledger was consulted, but the resource still needed
+	 * to be validated.
+	 * 
+	 * @since 1.2.800
+	 */
+	public long getLedgerMisses();
+	
+	/**
+	 * Answer the totals and the distribution of the times of every validator that has run. This is only
+	 * collected at the {@link CollectionLevel#Histogram} level, at the other levels an empty list is answered.
+	 * 
+	 * @param reset
+	 * 		If this is true, the totals are reset, so that the next snapshot only covers the validations
+	 * 		that run after this one. This is how the monitor is sampled periodically.
+	 * 
+	 * @since 1.2.800
+	 */
+	public List<PerformanceSnapshot> getSnapshot(boolean reset);
 
 }
@@ -29,6 +29,8 @@ public class PerformanceCounters {
 	private int		_numberInvocations;
 	private	long	_elapsedTime;
 	private long	_cpuTime;
+	private int		_markerChanges = -1;
+	private long	_elapsedNanos = -1;
 	
 	/**
 	 * @param validatorId
@@ -50,6 +52,39 @@ public class PerformanceCounters {
 		_cpuTime = cpuTime;
 	}
 	
+	/**
+	 * @param validatorId
+	 * @param validatorName
+	 * @param resourceName 
+	 * @param numberInvocations number of times the validator was invoked
+	 * @param elapsedTime elapsed time in milliseconds
+	 * @param cpuTime CPU time in nanoseconds
+	 * @param markerChanges number of markers that were created or deleted
+	 * @since 1.2.800
+	 */
+	public PerformanceCounters(String validatorId, String validatorName, String resourceName, 
+		int numberInvocations, long elapsedTime, long cpuTime, int markerChanges){
+		this(validatorId, validatorName, resourceName, numberInvocations, elapsedTime, cpuTime);
+		_markerChanges = markerChanges;
+	}
+	
+	/**
+	 * @param validatorId
+	 * @param validatorName
+	 * @param resourceName 
+	 * @param numberInvocations number of times the validator was invoked
+	 * @param elapsedTime elapsed time in milliseconds
+	 * @param cpuTime CPU time in nanoseconds
+	 * @param markerChanges number of markers that were created or deleted, or -1
+	 * @param elapsedNanos elapsed time in nanoseconds
+	 * @since 1.2.800
+	 */
+	public PerformanceCounters(String validatorId, String validatorName, String resourceName, 
+		int numberInvocations, long elapsedTime, long cpuTime, int markerChanges, long elapsedNanos){
+		this(validatorId, validatorName, resourceName, numberInvocations, elapsedTime, cpuTime, markerChanges);
+		_elapsedNanos = elapsedNanos;
+	}
+	
 	public String getValidatorId() {
 		return _validatorId;
 	}
@@ -64,6 +99,17 @@ public class PerformanceCounters {
 		return _elapsedTime;
 	}
 	
+	/**
+	 * Answer the elapsed time in nanoseconds. If it was only measured in milliseconds, the
+	 * milliseconds are converted.
+	 * 
+	 * @since 1.2.800
+	 */
+	public long getElapsedNanos() {
+		if (_elapsedNanos != -1)return _elapsedNanos;
+		return _elapsedTime * 1000000;
+	}
+	
 	/**
 	 * Answer the amount of CPU time in nanoseconds. If this can not be determined,
 	 * answer -1.
@@ -72,6 +118,16 @@ public class PerformanceCounters {
 		return _cpuTime;
 	}
 	
+	/**
+	 * Answer the number of markers that were created or deleted when the markers were written to the
+	 * workspace. If these counters are not for writing markers, answer -1.
+	 * 
+	 * @since 1.2.800
+	 */
+	public int getMarkerChanges() {
+		return _markerChanges;
+	}
+	
 	@Override
 	public String toString() {
 		return NLS.bind(ValMessages.LogValEndTime,	
@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation;
+
+import org.eclipse.wst.validation.internal.PerformanceHistograms;
+
+/**
+ * The performance of one validator over an interval, with the distribution of its times. This object is
+ * immutable.
+ * <p>
+ * Snapshots are only produced when the performance monitor is collecting at the
+ * {@link IPerformanceMonitor.CollectionLevel#Histogram} level.
+ * </p>
+ * @noextend
+ * @since 1.2.800
+ */
+public class PerformanceSnapshot {
+
+	private String	_validatorId;
+	private String	_validatorName;
+	private long	_start;
+	private long	_when;
+	private long	_invocations;
+	private long	_numberValidated;
+	private long	_elapsedNanos;
+	private long	_cpuTime;
+	private long[]	_elapsedHistogram;
+	private long[]	_cpuHistogram;
+
+	/**
+	 * @param validatorId
+	 * @param validatorName
+	 * @param start when the interval started, see {@link System#currentTimeMillis()}
+	 * @param when when the interval ended, see {@link System#currentTimeMillis()}
+	 * @param invocations number of times the validator was invoked
+	 * @param numberValidated number of resources that were validated
+	 * @param elapsedNanos total elapsed time in nanoseconds
+	 * @param cpuTime total CPU time in nanoseconds, or -1 if it is not known
+	 * @param elapsedHistogram the histogram of the elapsed times, it is not copied
+	 * @param cpuHistogram the histogram of the CPU times, it is not copied
+	 */
+	public PerformanceSnapshot(String validatorId, String validatorName, long start, long when,
+		long invocations, long numberValidated, long elapsedNanos, long cpuTime,
+		long[] elapsedHistogram, long[] cpuHistogram){
+		_validatorId = validatorId;
+		_validatorName = validatorName;
+		_start = start;
+		_when = when;
+		_invocations = invocations;
+		_numberValidated = numberValidated;
+		_elapsedNanos = elapsedNanos;
+		_cpuTime = cpuTime;
+		_elapsedHistogram = elapsedHistogram;
+		_cpuHistogram = cpuHistogram;
+	}
+
+	public String getValidatorId() {
+		return _validatorId;
+	}
+
+	public String getValidatorName() {
+		return _validatorName;
+	}
+
+	/**
+	 * Answer when the interval started.
+	 *
+	 * @see System#currentTimeMillis()
+	 */
+	public long getStart() {
+		return _start;
+	}
+
+	/**
+	 * Answer when the snapshot was taken.
+	 *
+	 * @see System#currentTimeMillis()
+	 */
+	public long getWhen() {
+		return _when;
+	}
+
+	/**
+	 * Answer the number of times that the validator was invoked.
+	 */
+	public long getInvocations() {
+		return _invocations;
+	}
+
+	/**
+	 * Answer the number of resources that the validator validated.
+	 */
+	public long getNumberValidated() {
+		return _numberValidated;
+	}
+
+	/**
+	 * Answer the total elapsed time in milliseconds.
+	 */
+	public long getElapsedTime() {
+		return _elapsedNanos / 1000000;
+	}
+
+	/**
+	 * Answer the total elapsed time in nanoseconds.
+	 */
+	public long getElapsedNanos() {
+		return _elapsedNanos;
+	}
+
+	/**
+	 * Answer the total CPU time in nanoseconds. If this can not be determined, answer -1.
+	 */
+	public long getCpuTime() {
+		return _cpuTime;
+	}
+
+	/**
+	 * Answer the elapsed time of a single invocation, in nanoseconds, at the given percentile. The answer
+	 * is accurate to within about 6%.
+	 *
+	 * @param percentile a number between 0 and 100, for example 99 for the 99th percentile.
+	 * @return -1 if the validator was not invoked.
+	 */
+	public long getElapsedPercentile(double percentile) {
+		return PerformanceHistograms.percentile(_elapsedHistogram, percentile);
+	}
+
+	/**
+	 * Answer the CPU time of a single invocation, in nanoseconds, at the given percentile. The answer
+	 * is accurate to within about 6%.
+	 *
+	 * @param percentile a number between 0 and 100, for example 99 for the 99th percentile.
+	 * @return -1 if the CPU time is not known.
+	 */
+	public long getCpuPercentile(double percentile) {
+		return PerformanceHistograms.percentile(_cpuHistogram, percentile);
+	}
+
+	@Override
+	public String toString() {
+		return _validatorName + " (" + _validatorId + ") invocations=" + _invocations +  //$NON-NLS-1$ //$NON-NLS-2$
+			" elapsed=" + getElapsedTime() + "ms p50=" + getElapsedPercentile(50) +  //$NON-NLS-1$ //$NON-NLS-2$
+			"ns p95=" + getElapsedPercentile(95) + "ns p99=" + getElapsedPercentile(99) + "ns"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+}
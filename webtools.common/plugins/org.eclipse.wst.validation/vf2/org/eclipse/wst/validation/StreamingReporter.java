@@ -0,0 +1,334 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.wst.validation.internal.ConfigurationConstants;
+import org.eclipse.wst.validation.internal.MarkerManager;
+import org.eclipse.wst.validation.internal.Tracing;
+import org.eclipse.wst.validation.internal.ValMessages;
+import org.eclipse.wst.validation.internal.provisional.core.IMessage;
+import org.eclipse.wst.validation.internal.provisional.core.IStreamingReporter;
+import org.eclipse.wst.validation.internal.provisional.core.IValidator;
+
+/**
+ * The IReporter that is given to the validators that stream their messages, see
+ * {@link AbstractValidator#shouldStreamMessages(ValidationEvent)}.
+ * <p>
+ * The messages are converted as they are added, and then wait in a bounded queue. When the queue is full,
+ * the thread that is adding a message writes the oldest batch of messages as markers before it continues,
+ * so a validator can never get more than a batch ahead of the markers. Only a short key of each message is
+ * kept, to find the duplicates, and only MaxMessages messages are reported for each resource.
+ * </p>
+ * <p>
+ * A reporter is opened for the current thread while the validator is being called, and picked up by
+ * {@link ValidationResult#getReporter(IProgressMonitor)}.
+ * </p>
+ * <p>
+ * This is not API.
+ * </p>
+ */
+final class StreamingReporter implements IStreamingReporter {
+
+	/** The largest number of messages that are reported for a single resource. */
+	static final int MaxMessages = 1000;
+
+	/** The number of markers that are written at once, which is also the most that can be waiting. */
+	static final int BatchSize = 500;
+
+	private static final ThreadLocal<StreamingReporter> _current = new ThreadLocal<StreamingReporter>();
+
+	private final Validator.V2			_validator;
+	private final IProgressMonitor		_monitor;
+	private final ClassLoader			_classloader;
+	private final long					_started = System.currentTimeMillis();
+
+	private final BlockingQueue<ValidatorMessage> _queue = new ArrayBlockingQueue<ValidatorMessage>(BatchSize);
+
+	/** Only one thread writes at a time, the others wait for it, which is the backpressure. */
+	private final ReentrantLock			_writer = new ReentrantLock();
+
+	/** What has been reported for each resource. All access is synchronized on the map. */
+	private final Map<IResource, Target> _targets = new HashMap<IResource, Target>(10);
+
+	private boolean	_used;
+	private int		_duplicates;
+	private int		_batches;
+
+	/**
+	 * Open a reporter for the validator on the current thread.
+	 */
+	static StreamingReporter open(Validator.V2 validator, IProgressMonitor monitor){
+		StreamingReporter reporter = new StreamingReporter(validator, monitor);
+		_current.set(reporter);
+		return reporter;
+	}
+
+	/**
+	 * Answer the reporter that is open on the current thread, marking it as being used.
+	 *
+	 * @return null if there isn't one.
+	 */
+	static StreamingReporter use(){
+		StreamingReporter reporter = _current.get();
+		if (reporter != null)reporter._used = true;
+		return reporter;
+	}
+
+	private StreamingReporter(Validator.V2 validator, IProgressMonitor monitor){
+		_validator = validator;
+		_monitor = monitor;
+		_classloader = validator.getDelegatedValidator().getClass().getClassLoader();
+	}
+
+	public void addMessage(IValidator origin, IMessage message) {
+		if (_monitor.isCanceled())return;
+		IResource resource = Validator.V2.getTargetResource(message);
+		if (resource == null)return;
+		Target target = getTarget(resource);
+		synchronized(_targets){
+			if (target.isFull()){
+				target.notReported++;
+				return;
+			}
+		}
+
+		ValidatorMessage vm = _validator.toValidatorMessage(message, _classloader);
+		String key = key(vm);
+		synchronized(_targets){
+			if (target.reported.containsKey(key)){
+				_duplicates++;
+				return;
+			}
+			if (target.isFull()){
+				target.notReported++;
+				return;
+			}
+			target.reported.put(key, new Reported(vm));
+		}
+		while (!_queue.offer(vm))write();
+	}
+
+	public boolean isFull(Object object) {
+		if (!(object instanceof IResource))return false;
+		synchronized(_targets){
+			Target target = _targets.get(object);
+			return target != null && target.isFull();
+		}
+	}
+
+	public void flush() {
+		while (!_queue.isEmpty())write();
+	}
+
+	/**
+	 * Write the oldest batch of messages. If another thread is writing, wait for it to finish.
+	 */
+	private void write(){
+		_writer.lock();
+		try {
+			List<ValidatorMessage> batch = new ArrayList<ValidatorMessage>(BatchSize);
+			_queue.drainTo(batch, BatchSize);
+			if (batch.isEmpty())return;
+			MarkerManager.getDefault().createMarkers(batch, _validator.getId());
+			_batches++;
+		}
+		finally {
+			_writer.unlock();
+		}
+	}
+
+	/**
+	 * The validator has finished. Write the remaining messages, along with a message for each resource that
+	 * had messages that were not reported, and add the counts to the result.
+	 *
+	 * @param vr the result of the validation, it can be null.
+	 */
+	void close(ValidationResult vr){
+		_current.remove();
+		flush();
+		int errors = 0;
+		int warnings = 0;
+		int infos = 0;
+		List<ValidatorMessage> limits = new LinkedList<ValidatorMessage>();
+		synchronized(_targets){
+			for (Target target : _targets.values()){
+				for (Reported r : target.reported.values()){
+					switch (r.severity){
+					case IMarker.SEVERITY_ERROR:
+						errors++;
+						break;
+					case IMarker.SEVERITY_WARNING:
+						warnings++;
+						break;
+					case IMarker.SEVERITY_INFO:
+						infos++;
+						break;
+					}
+				}
+				if (target.notReported > 0){
+					String text = NLS.bind(ValMessages.StreamLimit, _validator.getName(), target.notReported);
+					ValidatorMessage vm = ValidatorMessage.create(text, target.resource);
+					if (_validator.getMarkerId() != null)vm.setType(_validator.getMarkerId());
+					vm.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_INFO);
+					limits.add(vm);
+					infos++;
+				}
+			}
+			_targets.clear();
+		}
+		MarkerManager.getDefault().createMarkers(limits, _validator.getId());
+		if (Tracing.isLogging()){
+			Tracing.log("StreamingReporter-01: " + _validator.getName() + " wrote " + _batches +  //$NON-NLS-1$//$NON-NLS-2$
+				" batches and ignored " + _duplicates + " duplicate messages"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		if (vr != null && _used){
+			vr.incrementError(errors);
+			vr.incrementWarning(warnings);
+			vr.incrementInfo(infos);
+		}
+	}
+
+	public void displaySubtask(IValidator validator, IMessage message) {
+		_monitor.subTask(message.getText(validator.getClass().getClassLoader()));
+	}
+
+	/**
+	 * The messages are not kept, so this is always empty.
+	 */
+	public List getMessages() {
+		return Collections.EMPTY_LIST;
+	}
+
+	public boolean isCancelled() {
+		return _monitor.isCanceled();
+	}
+
+	public void removeAllMessages(IValidator origin) {
+		List<IResource> resources;
+		synchronized(_targets){
+			resources = new ArrayList<IResource>(_targets.keySet());
+		}
+		for (IResource resource : resources)remove(resource, null);
+	}
+
+	public void removeAllMessages(IValidator origin, Object object) {
+		if (object instanceof IResource)remove((IResource)object, null);
+		else if (object == null)removeAllMessages(origin);
+	}
+
+	public void removeMessageSubset(IValidator validator, Object obj, String groupName) {
+		if (obj instanceof IResource)remove((IResource)obj, groupName);
+		else if (obj == null)removeAllMessages(validator);
+	}
+
+	/**
+	 * Remove the messages for the resource, both the ones that are waiting and the ones that have already
+	 * been written.
+	 *
+	 * @param group if this is not null, only the messages in this group are removed.
+	 */
+	private void remove(IResource resource, String group){
+		_writer.lock();
+		try {
+			for (Iterator<ValidatorMessage> it = _queue.iterator(); it.hasNext();){
+				ValidatorMessage vm = it.next();
+				if (resource.equals(vm.getResource()) && (group == null ||
+					group.equals(vm.getAttribute(ConfigurationConstants.VALIDATION_MARKER_GROUP))))it.remove();
+			}
+			MarkerManager.getDefault().deleteMarkers(resource, _validator, _started, group);
+			synchronized(_targets){
+				Target target = _targets.get(resource);
+				if (target == null)return;
+				if (group == null){
+					_targets.remove(resource);
+					return;
+				}
+				for (Iterator<Reported> it = target.reported.values().iterator(); it.hasNext();){
+					if (group.equals(it.next().group))it.remove();
+				}
+			}
+		}
+		finally {
+			_writer.unlock();
+		}
+	}
+
+	private Target getTarget(IResource resource){
+		synchronized(_targets){
+			Target target = _targets.get(resource);
+			if (target == null){
+				target = new Target(resource);
+				_targets.put(resource, target);
+			}
+			return target;
+		}
+	}
+
+	/**
+	 * Answer a key that is the same for messages that would create the same marker.
+	 */
+	private static String key(ValidatorMessage vm){
+		StringBuffer sb = new StringBuffer(100);
+		sb.append(vm.getType());
+		sb.append(':').append(vm.getAttribute(IMarker.SEVERITY, 0));
+		sb.append(':').append(vm.getAttribute(IMarker.LINE_NUMBER, 0));
+		sb.append(':').append(vm.getAttribute(IMarker.CHAR_START, -1));
+		sb.append(':').append(vm.getAttribute(IMarker.CHAR_END, -1));
+		sb.append(':').append(vm.getAttribute(ConfigurationConstants.VALIDATION_MARKER_GROUP, "")); //$NON-NLS-1$
+		sb.append(':').append(vm.getAttribute(IMarker.MESSAGE, "")); //$NON-NLS-1$
+		return sb.toString();
+	}
+
+	private static final class Target {
+		final IResource				resource;
+
+		/** The messages that have been reported. The key is from {@link StreamingReporter#key(ValidatorMessage)}. */
+		final Map<String, Reported>	reported = new HashMap<String, Reported>(50);
+
+		int							notReported;
+
+		Target(IResource resource){
+			this.resource = resource;
+		}
+
+		boolean isFull(){
+			return reported.size() >= MaxMessages;
+		}
+	}
+
+	/**
+	 * What needs to be remembered about a message after it has been written.
+	 */
+	private static final class Reported {
+		final int		severity;
+		final String	group;
+
+		Reported(ValidatorMessage vm){
+			severity = vm.getAttribute(IMarker.SEVERITY, 0);
+			group = vm.getAttribute(ConfigurationConstants.VALIDATION_MARKER_GROUP, null);
+		}
+	}
+}
@@ -165,8 +165,9 @@ public final class ValidationFramework {
 			boolean traceTimes = Misc.debugOptionAsBoolean(DebugConstants.TraceTimes);
 			String traceFile = Platform.getDebugOption(DebugConstants.TraceTimesFile);
 			boolean useDoubles = Misc.debugOptionAsBoolean(DebugConstants.TraceTimesUseDoubles);
+			String histogramFile = Platform.getDebugOption(DebugConstants.TraceTimesHistogramFile);
 
-			_performanceMonitor = PerformanceMonitor.create(traceTimes, traceFile, useDoubles);
+			_performanceMonitor = PerformanceMonitor.create(traceTimes, traceFile, useDoubles, histogramFile);
 		}
 		return _performanceMonitor;
 	}
@@ -57,6 +57,7 @@ public final class ValidationResult {
 	private int			_numberOfValidatedResources = 1;
 	
 	private ReporterHelper	_reporter;
+	private StreamingReporter _stream;
 	private ValidationException	_validationException;
 	
 	/**
@@ -96,12 +97,23 @@ public final class ValidationResult {
 	 * This is a transition method, to help old validators port to the new validation framework. If this method
 	 * is called it is assumed by the framework, that this IReporter will be used as the only way of passing messages
 	 * back to the framework.
+	 * <p>
+	 * If the validator streams its messages, and the framework is calling it, the answer is an
+	 * {@link org.eclipse.wst.validation.internal.provisional.core.IStreamingReporter}, and the messages are
+	 * turned into markers while the validator is running, rather than being added to this result.
+	 * </p>
 	 * 
 	 * @see #add(ValidatorMessage)
+	 * @see AbstractValidator#shouldStreamMessages(ValidationEvent)
 	 * @param monitor
 	 */
 	public IReporter getReporter(IProgressMonitor monitor){
-		if (_reporter == null)_reporter = new ReporterHelper(monitor);
+		if (_stream != null)return _stream;
+		if (_reporter == null){
+			_stream = StreamingReporter.use();
+			if (_stream != null)return _stream;
+			_reporter = new ReporterHelper(monitor);
+		}
 		return _reporter;
 	}
 	
@@ -109,6 +121,14 @@ public final class ValidationResult {
 		return _reporter;
 	}
 	
+	/**
+	 * Answer true if the messages were streamed, in which case they have already been turned into markers,
+	 * and only their counts are in this result.
+	 */
+	boolean isStreamed(){
+		return _stream != null;
+	}
+	
 	/**
 	 * Merge the message counts and messages from an individual validator into this result.
 	 * @param result it can be null, in which case it is ignored.
@@ -570,6 +570,11 @@ public abstract class Validator implements Comparable<Validator> {
 	 */
 	abstract boolean isLoaded();
 	
+	/**
+	 * Answer the symbolic name of the bundle that contributed this validator, or null if it is not known.
+	 */
+	abstract String getContributor();
+	
 
 	/**
 	 * Set whether this validator should be triggered by the build process.
@@ -715,6 +720,11 @@ public static class V1 extends Validator {
 		return _vmd.isActive();
 	}
 	
+	@Override
+	String getContributor() {
+		return _vmd.getPluginId();
+	}
+	
 	@Override
 	public boolean setBuildValidation(boolean buildValidation) {
 		boolean changed = super.setBuildValidation(buildValidation);
@@ -863,6 +873,12 @@ public final static class V2 extends Validator implements IAdaptable {
 	 * An array containing the validator group IDs for which this validator is a member.
 	 */
 	private String[] _validatorGroupIds;
+	
+	/** Has the validator declared that it can be run by several threads at the same time? */
+	private boolean _threadSafe;
+	
+	/** The symbolic name of the bundle that contributed the validator extension. */
+	private String _contributor;
 		
 	/** 
 	 * If this validator is a delegating validator, then this is the "real" validator (i.e. the one that
@@ -891,6 +907,7 @@ public final static class V2 extends Validator implements IAdaptable {
 		assert configElement != null;
 		_validatorConfigElement = configElement;
 		_validatorClassName = configElement.getAttribute(ExtensionConstants.AttribClass);
+		_contributor = configElement.getContributor().getName();
 
 		IConfigurationElement[] groupReferenceElements = configElement.getChildren(ExtensionConstants.Group.elementGroup);
 		List<String> validatorGroupIDs = new ArrayList<String>();
@@ -974,6 +991,8 @@ public final static class V2 extends Validator implements IAdaptable {
 		v._id = _id;
 		v._name = _name;
 		v._validatorGroupIds = _validatorGroupIds;
+		v._threadSafe = _threadSafe;
+		v._contributor = _contributor;
 		v._pendingValidationStarted = _pendingValidationStarted;
 				
 		return v;
@@ -1072,6 +1091,26 @@ public final static class V2 extends Validator implements IAdaptable {
 		return _validatorGroupIds;
 	}
 	
+	/**
+	 * Answer true if this validator has declared (through the threadSafe attribute of the validator
+	 * extension) that it can validate several resources at the same time. Validators that have not
+	 * made this declaration are always run serially.
+	 * 
+	 * @since 1.2.800
+	 */
+	public boolean isThreadSafe() {
+		return _threadSafe;
+	}
+	
+	/**
+	 * Set whether this validator can validate several resources at the same time.
+	 * 
+	 * @since 1.2.800
+	 */
+	public void setThreadSafe(boolean threadSafe) {
+		_threadSafe = threadSafe;
+	}
+	
 	@Override
 	public int hashCodeForConfig() {
 		int h =  super.hashCodeForConfig();
@@ -1093,6 +1132,11 @@ public final static class V2 extends Validator implements IAdaptable {
 		return _validator != null;
 	}
 	
+	@Override
+	String getContributor() {
+		return _contributor;
+	}
+	
 	@Override
 	public boolean shouldClearMarkers(ValidationEvent event) {
 		return getValidator().shouldClearMarkers(event);
@@ -1153,8 +1197,10 @@ public final static class V2 extends Validator implements IAdaptable {
 		ValidationResult vr = null;
 		if (operation == null)operation = new ValOperation();
 		if (monitor == null)monitor = new NullProgressMonitor();
+		StreamingReporter stream = null;
 		try {
 			if (event == null)event = new ValidationEvent(resource, kind, null);
+			if (getDelegatedValidator().shouldStreamMessages(event))stream = StreamingReporter.open(this, monitor);
 			vr = getDelegatedValidator().validate(event, operation.getState(), monitor);
 			if (vr == null)vr = getDelegatedValidator().validate(resource, kind, operation.getState(), monitor);
 		}
@@ -1168,6 +1214,9 @@ public final static class V2 extends Validator implements IAdaptable {
 			}
 			ValidationPlugin.getPlugin().handleException(e);
 		}
+		finally {
+			if (stream != null)stream.close(vr);
+		}
 		
 		if (vr != null){
 			if (vr.getValidationException() != null){
@@ -1188,7 +1237,7 @@ public final static class V2 extends Validator implements IAdaptable {
 //			if (sanityTest(msgs.length, resource)){
 				MarkerManager mm = MarkerManager.getDefault();
 				for (ValidatorMessage m : msgs){
-					mm.createMarker(m, getId());
+					mm.createMarker(m, getId(), operation);
 				}
 //			}
 //			else {
@@ -1226,44 +1275,59 @@ public final static class V2 extends Validator implements IAdaptable {
 		if (rh == null)return;
 		ClassLoader classloader = getDelegatedValidator().getClass().getClassLoader();
 		for (IMessage message : rh.getMessages()){
-			Object target = message.getTargetObject();
-			if (target != null){
-				IResource res = null;
-				if (target instanceof IResource)res = (IResource)target;
-				if (res == null){
-					target = message.getAttribute(IMessage.TargetResource);
-					if (target != null && target instanceof IResource)res = (IResource)target;
-				}
-				if (res != null){
-					
-					ValidatorMessage vm = ValidatorMessage.create(message.getText(classloader), res);
-					if (getMarkerId() != null)vm.setType(getMarkerId());
-					vr.add(vm);
-					int markerSeverity = IMarker.SEVERITY_INFO;
-					int sev = message.getSeverity();
-					if ((sev & IMessage.HIGH_SEVERITY) != 0)markerSeverity = IMarker.SEVERITY_ERROR;
-					else if ((sev & IMessage.NORMAL_SEVERITY) != 0)markerSeverity = IMarker.SEVERITY_WARNING;
-					vm.setAttribute(IMarker.SEVERITY, markerSeverity);
-					vm.setAttribute(IMarker.LINE_NUMBER, message.getLineNumber());
-					int offset = message.getOffset();
-					if (offset != IMessage.OFFSET_UNSET){
-						vm.setAttribute(IMarker.CHAR_START, offset);
-						int len = message.getLength();
-						if (len != IMessage.OFFSET_UNSET){
-							vm.setAttribute(IMarker.CHAR_START, offset);
-							vm.setAttribute(IMarker.CHAR_END, offset+len);
-						}
-					}
-					String groupName = message.getGroupName();
-					if (groupName != null){
-						vm.setAttribute(ConfigurationConstants.VALIDATION_MARKER_GROUP, groupName);
-					}
-					
-					copyAttributes(message, vm);
-				}
-			}
+			ValidatorMessage vm = toValidatorMessage(message, classloader);
+			if (vm != null)vr.add(vm);
 		}		
 	}
+	
+	/**
+	 * Convert a message that was reported through an IReporter.
+	 * 
+	 * @param message the message that was reported.
+	 * @param classloader the class loader that is used to find the text of the message.
+	 * @return the converted message, or null if the message is not for a resource.
+	 */
+	ValidatorMessage toValidatorMessage(IMessage message, ClassLoader classloader){
+		IResource res = getTargetResource(message);
+		if (res == null)return null;
+		
+		ValidatorMessage vm = ValidatorMessage.create(message.getText(classloader), res);
+		if (getMarkerId() != null)vm.setType(getMarkerId());
+		int markerSeverity = IMarker.SEVERITY_INFO;
+		int sev = message.getSeverity();
+		if ((sev & IMessage.HIGH_SEVERITY) != 0)markerSeverity = IMarker.SEVERITY_ERROR;
+		else if ((sev & IMessage.NORMAL_SEVERITY) != 0)markerSeverity = IMarker.SEVERITY_WARNING;
+		vm.setAttribute(IMarker.SEVERITY, markerSeverity);
+		vm.setAttribute(IMarker.LINE_NUMBER, message.getLineNumber());
+		int offset = message.getOffset();
+		if (offset != IMessage.OFFSET_UNSET){
+			vm.setAttribute(IMarker.CHAR_START, offset);
+			int len = message.getLength();
+			if (len != IMessage.OFFSET_UNSET){
+				vm.setAttribute(IMarker.CHAR_START, offset);
+				vm.setAttribute(IMarker.CHAR_END, offset+len);
+			}
+		}
+		String groupName = message.getGroupName();
+		if (groupName != null){
+			vm.setAttribute(ConfigurationConstants.VALIDATION_MARKER_GROUP, groupName);
+		}
+		
+		copyAttributes(message, vm);
+		return vm;
+	}
+	
+	/**
+	 * Answer the resource that the message is for, or null if it is not for a resource.
+	 */
+	static IResource getTargetResource(IMessage message){
+		Object target = message.getTargetObject();
+		if (target == null)return null;
+		if (target instanceof IResource)return (IResource)target;
+		target = message.getAttribute(IMessage.TargetResource);
+		if (target != null && target instanceof IResource)return (IResource)target;
+		return null;
+	}
 
 	@SuppressWarnings("unchecked")
 	private void copyAttributes(IMessage message, ValidatorMessage vm) {
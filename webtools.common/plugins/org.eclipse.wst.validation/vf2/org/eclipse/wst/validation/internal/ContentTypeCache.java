@@ -0,0 +1,225 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation.internal;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.content.IContentDescription;
+import org.eclipse.core.runtime.content.IContentType;
+import org.eclipse.core.runtime.content.IContentTypeManager.ContentTypeChangeEvent;
+import org.eclipse.core.runtime.content.IContentTypeManager.IContentTypeChangeListener;
+import org.eclipse.wst.validation.internal.plugin.ValidationPlugin;
+
+/**
+ * A workspace wide cache of the content types of files. Determining a content type can mean reading the
+ * start of the file, and without the cache every validation operation, and every validator that is asked
+ * if it should validate a file, would do this again.
+ * <p>
+ * The content type is remembered with the modification stamp of the file, and is only used while the
+ * stamp has not changed. Entries are also removed when the resource deltas show that a file has changed,
+ * moved or been deleted, and every entry of a project is removed when the project is closed, when its
+ * description changes, or when its content type settings change. Everything is removed when the content
+ * types themselves change. At most MaxEntries files are remembered, the least recently used are dropped
+ * first.
+ * </p>
+ */
+public final class ContentTypeCache implements IResourceChangeListener, IContentTypeChangeListener {
+
+	private static final int MaxEntries = 20000;
+
+	/** The project preferences that hold the project specific content type settings. */
+	private static final String ContentTypePrefs = "org.eclipse.core.runtime.prefs"; //$NON-NLS-1$
+
+	/**
+	 * The key is the full path of the file. All access is synchronized on the map.
+	 */
+	private final Map<IPath, Entry> _entries = new LinkedHashMap<IPath, Entry>(1000, 0.75f, true){
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<IPath, Entry> eldest) {
+			return size() > MaxEntries;
+		}
+	};
+
+	private final AtomicLong _hits = new AtomicLong();
+	private final AtomicLong _misses = new AtomicLong();
+
+	public static ContentTypeCache getDefault(){
+		return Singleton.cache;
+	}
+
+	private ContentTypeCache(){}
+
+	/**
+	 * Answer the content type of the file, or null if it doesn't have one.
+	 */
+	public IContentType getContentType(IFile file){
+		IPath path = file.getFullPath();
+		long stamp = file.getModificationStamp();
+		if (stamp != IResource.NULL_STAMP){
+			synchronized(_entries){
+				Entry entry = _entries.get(path);
+				if (entry != null && entry.stamp == stamp){
+					_hits.incrementAndGet();
+					return entry.type;
+				}
+			}
+		}
+		_misses.incrementAndGet();
+
+		IContentDescription cd = null;
+		try {
+			cd = file.getContentDescription();
+		}
+		catch (CoreException e){
+			try {
+				file.refreshLocal(IResource.DEPTH_ZERO, null);
+				cd = file.getContentDescription();
+				stamp = file.getModificationStamp();
+			}
+			catch (CoreException e2){
+				if (Tracing.isLogging())ValidationPlugin.getPlugin().handleException(e2);
+				return null;
+			}
+		}
+		IContentType type = cd == null ? null : cd.getContentType();
+		if (stamp != IResource.NULL_STAMP){
+			synchronized(_entries){
+				_entries.put(path, new Entry(stamp, type));
+			}
+		}
+		return type;
+	}
+
+	/**
+	 * Forget all the content types.
+	 */
+	public void clear(){
+		synchronized(_entries){
+			_entries.clear();
+		}
+	}
+
+	/**
+	 * Answer the number of files whose content type is remembered.
+	 */
+	public int size(){
+		synchronized(_entries){
+			return _entries.size();
+		}
+	}
+
+	/**
+	 * Answer the number of times that a content type was answered from the cache.
+	 */
+	public long getHits(){
+		return _hits.get();
+	}
+
+	/**
+	 * Answer the number of times that a content type had to be determined.
+	 */
+	public long getMisses(){
+		return _misses.get();
+	}
+
+	private void remove(IPath path){
+		synchronized(_entries){
+			_entries.remove(path);
+		}
+	}
+
+	/**
+	 * Remove every entry of the project.
+	 */
+	private void remove(IProject project){
+		IPath prefix = project.getFullPath();
+		synchronized(_entries){
+			for (Iterator<IPath> it = _entries.keySet().iterator(); it.hasNext();){
+				if (prefix.isPrefixOf(it.next()))it.remove();
+			}
+		}
+	}
+
+	public void resourceChanged(IResourceChangeEvent event) {
+		IResourceDelta delta = event.getDelta();
+		if (delta == null || size() == 0)return;
+		try {
+			delta.accept(new IResourceDeltaVisitor(){
+				public boolean visit(IResourceDelta child) throws CoreException {
+					IResource resource = child.getResource();
+					switch (resource.getType()){
+					case IResource.ROOT:
+					case IResource.FOLDER:
+						return true;
+					case IResource.PROJECT:
+						if (child.getKind() != IResourceDelta.CHANGED ||
+							(child.getFlags() & (IResourceDelta.OPEN | IResourceDelta.DESCRIPTION)) != 0){
+							remove((IProject)resource);
+							return false;
+						}
+						return true;
+					case IResource.FILE:
+						if (ContentTypePrefs.equals(resource.getName()) &&
+							resource.getParent().getType() == IResource.FOLDER &&
+							".settings".equals(resource.getParent().getName())){ //$NON-NLS-1$
+							remove(resource.getProject());
+						}
+						else if (child.getKind() != IResourceDelta.CHANGED || (child.getFlags() &
+							(IResourceDelta.CONTENT | IResourceDelta.REPLACED | IResourceDelta.ENCODING)) != 0){
+							remove(resource.getFullPath());
+						}
+						return false;
+					}
+					return false;
+				}
+			});
+		}
+		catch (CoreException e){
+			clear();
+		}
+	}
+
+	public void contentTypeChanged(ContentTypeChangeEvent event) {
+		clear();
+	}
+
+	private static final class Entry {
+		final long			stamp;
+		final IContentType	type;
+
+		Entry(long stamp, IContentType type){
+			this.stamp = stamp;
+			this.type = type;
+		}
+	}
+
+	/**
+	 * Store the singleton for the ContentTypeCache. This approach is used to avoid having to synchronize the
+	 * ContentTypeCache.getDefault() method.
+	 */
+	private static class Singleton {
+		static ContentTypeCache cache = new ContentTypeCache();
+	}
+}
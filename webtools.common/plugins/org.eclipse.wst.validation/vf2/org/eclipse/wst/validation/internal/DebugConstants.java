@@ -34,6 +34,13 @@ public interface DebugConstants {
 	 */
 	String TraceTimesUseDoubles = ValidationPlugin.PLUGIN_ID+"/timings/useDoubles"; //$NON-NLS-1$
 	
+	/** 
+	 * timings/histogramFile - if this is set, the times of the validators are collected into histograms, rather
+	 * than being traced one at a time, and the histograms are appended to this file in a binary form when the
+	 * validation plug-in stops. Use PerformanceReport to read the file.
+	 */
+	String TraceTimesHistogramFile = ValidationPlugin.PLUGIN_ID+"/timings/histogramFile"; //$NON-NLS-1$
+	
 	/** 
 	 * extraValDetail - If extra detail is needed for a particular validator it's id can be specified here. 
 	 * For example, if you wanted more detail on the XML validator you would use org.eclipse.wst.xml.core.xml 
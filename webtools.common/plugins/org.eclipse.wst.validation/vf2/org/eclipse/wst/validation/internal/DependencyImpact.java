@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation.internal;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.wst.validation.DependentResource;
+import org.eclipse.wst.validation.IDependencyIndex;
+import org.eclipse.wst.validation.Validator;
+
+/**
+ * Works out which resources need to be validated again because resources that they depend on have changed.
+ * <p>
+ * The dependencies are followed transitively, so if a.xml depends on b.xsd, and b.xsd imports c.xsd, a
+ * change to c.xsd revalidates both b.xsd and a.xml. Each resource is validated at most once by each
+ * validator, no matter how many of the changed resources lead to it, and the resources are ordered so
+ * that a resource comes after the resources that it depends on. The changed resources themselves are not
+ * included, since they are validated because they changed.
+ * </p>
+ * <p>
+ * If the impact is larger than a limit, the validations are no longer collected, but the dependencies are
+ * still followed to find every project that is reached. The caller is expected to do a full build of those
+ * projects instead.
+ * </p>
+ */
+public final class DependencyImpact {
+
+	/** The default limit on the number of validations, after which a full build is cheaper. */
+	public static final int DefaultLimit = 1000;
+
+	private final List<Target> 	_targets = new LinkedList<Target>();
+	private final Set<IProject>	_projects = new LinkedHashSet<IProject>();
+	private boolean				_overLimit;
+	private int					_reached;
+
+	private DependencyImpact(){}
+
+	/**
+	 * Analyze the impact of the changes.
+	 *
+	 * @param index the dependencies.
+	 * @param changed the resources that have changed.
+	 * @param limit the largest number of validations that are answered. If more are needed only the projects
+	 * are collected, and {@link #isOverLimit()} answers true.
+	 */
+	public static DependencyImpact analyze(IDependencyIndex index, Collection<IResource> changed, int limit){
+		DependencyImpact impact = new DependencyImpact();
+		Set<IResource> roots = new HashSet<IResource>(changed);
+
+		// the nodes are in the order that they were reached
+		Map<IResource, Node> nodes = new LinkedHashMap<IResource, Node>(100);
+		LinkedList<IResource> queue = new LinkedList<IResource>(changed);
+		int validations = 0;
+		while (!queue.isEmpty()){
+			IResource resource = queue.removeFirst();
+			Node from = nodes.get(resource);
+			for (DependentResource dr : index.get(resource)){
+				IResource dependent = dr.getResource();
+				if (roots.contains(dependent))continue;
+				Node node = nodes.get(dependent);
+				if (node == null){
+					node = new Node(dependent, from == null ? resource : from.trigger);
+					nodes.put(dependent, node);
+					impact._projects.add(dependent.getProject());
+					queue.add(dependent);
+				}
+				// once over the limit, we only need to know which projects are reached
+				if (impact._overLimit)continue;
+				if (node.add(dr.getValidator()))validations++;
+				if (from != null && from != node && node.dependsOn.add(from))from.dependents.add(node);
+				if (validations > limit){
+					impact._overLimit = true;
+					impact._reached = validations;
+				}
+			}
+		}
+		if (impact._overLimit)return impact;
+		impact._reached = validations;
+
+		// order the nodes so that a node comes after the nodes that it depends on
+		Map<Node, Integer> waitingFor = new LinkedHashMap<Node, Integer>(nodes.size());
+		LinkedList<Node> ready = new LinkedList<Node>();
+		for (Node node : nodes.values()){
+			if (node.dependsOn.isEmpty())ready.add(node);
+			else waitingFor.put(node, node.dependsOn.size());
+		}
+		while (true){
+			while (!ready.isEmpty()){
+				Node node = ready.removeFirst();
+				impact.addTargets(node);
+				for (Node dependent : node.dependents){
+					Integer count = waitingFor.get(dependent);
+					if (count == null)continue;
+					if (count == 1){
+						waitingFor.remove(dependent);
+						ready.add(dependent);
+					}
+					else waitingFor.put(dependent, count - 1);
+				}
+			}
+			if (waitingFor.isEmpty())break;
+
+			// there is a cycle, break it at the node that was reached first
+			Node node = waitingFor.keySet().iterator().next();
+			waitingFor.remove(node);
+			ready.add(node);
+		}
+		return impact;
+	}
+
+	private void addTargets(Node node){
+		for (Validator v : node.validators)_targets.add(new Target(node.resource, v, node.trigger));
+	}
+
+	/**
+	 * Answer the resources and validators to validate, in the order that they should be validated.
+	 */
+	public List<Target> getTargets() {
+		return _targets;
+	}
+
+	/**
+	 * Answer true if the impact was larger than the limit. In that case there are no targets, and the
+	 * projects should be fully built instead.
+	 */
+	public boolean isOverLimit() {
+		return _overLimit;
+	}
+
+	/**
+	 * Answer the projects of the resources that were reached. This is complete, even if the impact is over
+	 * the limit.
+	 */
+	public Set<IProject> getProjects() {
+		return _projects;
+	}
+
+	/**
+	 * Answer the number of validations that were found. If the impact is over the limit, this is the count
+	 * at the point where the limit was passed.
+	 */
+	public int getValidationCount() {
+		return _reached;
+	}
+
+	/**
+	 * A resource that needs to be validated by a validator.
+	 */
+	public static final class Target {
+		private final IResource	_resource;
+		private final Validator	_validator;
+		private final IResource	_trigger;
+
+		Target(IResource resource, Validator validator, IResource trigger){
+			_resource = resource;
+			_validator = validator;
+			_trigger = trigger;
+		}
+
+		public IResource getResource() {
+			return _resource;
+		}
+
+		public Validator getValidator() {
+			return _validator;
+		}
+
+		/**
+		 * Answer the changed resource that this resource was reached from.
+		 */
+		public IResource getTrigger() {
+			return _trigger;
+		}
+	}
+
+	private static final class Node {
+		final IResource 		resource;
+		final IResource			trigger;
+		final List<Validator>	validators = new LinkedList<Validator>();
+
+		/** The nodes, that need to be validated again, that this node depends on. */
+		final Set<Node>			dependsOn = new HashSet<Node>();
+		final List<Node>		dependents = new LinkedList<Node>();
+
+		Node(IResource resource, IResource trigger){
+			this.resource = resource;
+			this.trigger = trigger;
+		}
+
+		/**
+		 * Add the validator, unless it has already been added.
+		 *
+		 * @return true if it was added.
+		 */
+		boolean add(Validator validator){
+			for (Validator v : validators){
+				if (v.getId().equals(validator.getId()))return false;
+			}
+			validators.add(validator);
+			return true;
+		}
+	}
+}
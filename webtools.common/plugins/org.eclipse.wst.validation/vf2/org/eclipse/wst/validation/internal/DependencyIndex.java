@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2012 IBM Corporation and others.
+ * Copyright (c) 2007, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.eclipse.wst.validation.internal;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
@@ -17,12 +19,17 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
@@ -39,213 +46,373 @@ import org.eclipse.wst.validation.Validator;
 import org.eclipse.wst.validation.internal.plugin.ValidationPlugin;
 
 /**
- * A simple implementation of the IDependencyIndex. This will probably be
- * replaced with a higher performance, more robust index, at some point in the
- * future.
+ * The implementation of the IDependencyIndex.
+ * <p>
+ * Each dependency is held as a single edge, and the validators that asserted it are held as a bit mask,
+ * using the index numbers from the {@link ValidatorIdManager}. The edges are kept in lists whose published
+ * entries are never changed, so the queries do not need to lock, only the updates are serialized. The lists
+ * grow by doubling, so a resource that many resources depend on is not copied for every new edge.
+ * </p>
  * <p>
  * The format of the index is:
- * 
+ *
  * <pre>
  * Version number
- * Number of depends on entries
- *   depends on file name
- *   number of dependent entries
- *     dependent file name
- *     number of validators
- *       validator id
+ * Number of validators
+ *   validator id
+ * Number of file names
+ *   file name
+ * Number of edges
+ *   dependent file number
+ *   depends on file number
+ *   number of validators
+ *     validator number
  * </pre>
- * 
+ *
+ * Every number is a four byte int and every string is a four byte length followed by its UTF-8 bytes, so that
+ * the index can be read directly from a memory mapped file. Version 1 indexes, which were written with
+ * DataOutput, are still read.
+ * </p>
+ *
  * @author karasiuk
  */
 public class DependencyIndex implements IDependencyIndex, ISaveParticipant {
-	
+
 	/**
 	 * An index so that we can determine which things depend on this resource.
 	 */
-	private Map<IResource,Set<Depends>>		_dependsOn;
-	
+	private final ConcurrentMap<IResource,Edges>	_dependsOn = new ConcurrentHashMap<IResource,Edges>(100);
+
 	/**
 	 * An index so that we can determine who the resource depends on.
 	 */
-	private Map<IResource,Set<Depends>>		_dependents;
-	private boolean _dirty;
-	
+	private final ConcurrentMap<IResource,Edges>	_dependents = new ConcurrentHashMap<IResource,Edges>(100);
+
+	private volatile boolean _loaded;
+	private volatile boolean _dirty;
+
 	private static IResource[] EmptyResources = new IResource[0];
-	
+
 	/** Version of the persistent index. */
-	private static final int CurrentVersion = 1;
+	private static final int CurrentVersion = 2;
 
-	public synchronized void add(String id, IResource dependent, IResource dependsOn) {
+	/** The version that was written with DataOutput. */
+	private static final int Version1 = 1;
+
+	private static final String IndexName = "dep.index"; //$NON-NLS-1$
+
+	/**
+	 * The index is first written to this file and then renamed. If the rename fails, the file is picked
+	 * up the next time that the index is restored.
+	 */
+	private static final String NewIndexName = "dep.index.new"; //$NON-NLS-1$
+
+	private static final String UTF8 = "UTF-8"; //$NON-NLS-1$
+
+	public void add(String id, IResource dependent, IResource dependsOn) {
 		init();
 		if (dependsOn == null || dependent == null)return;
-		Depends d = getOrCreateDepends(dependent, dependsOn);
-		if (d.getValidators().add(id))_dirty = true;
+		int bit = ValidatorIdManager.getDefault().getIndex(id);
+		synchronized(this){
+			if (getOrCreateEdge(dependent, dependsOn).set(bit))_dirty = true;
+		}
 	}
-	
-	private Depends getOrCreateDepends(IResource dependent, IResource dependsOn) {
-		Set<Depends> set = getSet(_dependents, dependent);
-		for (Depends d : set){
-			if (d.getDependsOn() != null && d.getDependsOn().equals(dependsOn)) return d;
-		}
-		Depends d = new Depends(dependent, dependsOn);
-		_dirty = true;
-		set.add(d);
-		
-		getSet(_dependsOn, dependsOn).add(d);
-		return d;
+
+	/**
+	 * Answer the edge between the two resources, creating it if you need to. The caller must hold the
+	 * lock.
+	 */
+	private Edge getOrCreateEdge(IResource dependent, IResource dependsOn) {
+		Edges edges = get(_dependents, dependent);
+		for (int i=0; i<edges.size; i++){
+			if (edges.edges[i].dependsOn.equals(dependsOn))return edges.edges[i];
+		}
+		Edge e = new Edge(dependent, dependsOn);
+		_dependents.put(dependent, edges.append(e));
+		_dependsOn.put(dependsOn, get(_dependsOn, dependsOn).append(e));
+		return e;
+	}
+
+	private static Edges get(Map<IResource,Edges> map, IResource resource){
+		Edges edges = map.get(resource);
+		return edges == null ? Edges.Empty : edges;
 	}
 
 	/**
-	 * Answer the set for the resource, creating it if you need to.
+	 * Remove the edges that no longer have any validators. The caller must hold the lock.
 	 */
-	private Set<Depends> getSet(Map<IResource, Set<Depends>> map, IResource resource) {
-		Set<Depends> set = map.get(resource);
-		if (set == null){
-			set = new HashSet<Depends>(5);
-			map.put(resource, set);
+	private void prune(IResource dependent){
+		Edges edges = get(_dependents, dependent);
+		List<Edge> keep = new ArrayList<Edge>(edges.size);
+		for (int i=0; i<edges.size; i++){
+			Edge e = edges.edges[i];
+			if (e.isEmpty())remove(_dependsOn, e.dependsOn, e);
+			else keep.add(e);
+		}
+		if (keep.size() == edges.size)return;
+		if (keep.size() == 0)_dependents.remove(dependent);
+		else _dependents.put(dependent, new Edges(keep.toArray(new Edge[keep.size()]), keep.size()));
+	}
+
+	private static void remove(Map<IResource,Edges> map, IResource resource, Edge edge){
+		Edges edges = get(map, resource);
+		int count = 0;
+		for (int i=0; i<edges.size; i++){
+			if (edges.edges[i] != edge)count++;
+		}
+		if (count == edges.size)return;
+		if (count == 0){
+			map.remove(resource);
+			return;
+		}
+		Edge[] result = new Edge[count];
+		int n = 0;
+		for (int i=0; i<edges.size; i++){
+			if (edges.edges[i] != edge)result[n++] = edges.edges[i];
 		}
-		return set;
+		map.put(resource, new Edges(result, count));
 	}
 
 	/**
 	 * Restore the dependency index. See the class comment for the structure.
-	 */	
+	 */
 	private void init() {
-		if (_dependsOn != null)return;
-		
+		if (_loaded)return;
+		synchronized(this){
+			if (_loaded)return;
+			load();
+			_loaded = true;
+		}
+	}
+
+	private void load(){
+		File f = getIndexLocation(IndexName);
+		File newer = getIndexLocation(NewIndexName);
+		if (newer.exists()){
+			if (!f.exists() || f.delete())newer.renameTo(f);
+		}
+		if (!f.exists() || f.length() == 0)return;
+
 		boolean error = false;
-		File f = getIndexLocation();
-		if (!f.exists() || f.length() == 0){
-			_dependsOn = new HashMap<IResource,Set<Depends>>(100);
-			_dependents = new HashMap<IResource,Set<Depends>>(100);
-		}
-		else {
-			String errorMessage = ValMessages.Error21; 
-			DataInputStream in = null;
-			try {
-				IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
-				in = new DataInputStream(new FileInputStream(f));
-				
-				int version = in.readInt();
-				if (version != CurrentVersion){
-					error = true;
-					String msg = NLS.bind(ValMessages.ErrDependencyVersion, CurrentVersion);
-					throw new IllegalStateException(msg);
-				}
-				int numDependsOn = in.readInt();
-				_dependsOn = new HashMap<IResource,Set<Depends>>(numDependsOn+100);
-				_dependents = new HashMap<IResource,Set<Depends>>(numDependsOn+100);
-				for (int i=0; i<numDependsOn; i++){
-					String v = in.readUTF();
-					IResource dependsOn = root.findMember(v);
-					if (dependsOn == null){
-						Tracing.log(NLS.bind(errorMessage, v));
-					}
-					int numDependents = in.readInt();
-					for (int j=0; j<numDependents; j++){
-						v = in.readUTF();
-						IResource dependent = root.findMember(v);
-						if (dependent == null){
-							Tracing.log(NLS.bind(errorMessage, v));
-						}
-						int numVal = in.readInt();
-						for (int k=0; k<numVal; k++){
-							String id = in.readUTF();
-							if (dependent != null && dependsOn != null)add(id, dependent, dependsOn);
-						}
-					}					
-				}				
+		RandomAccessFile raf = null;
+		try {
+			raf = new RandomAccessFile(f, "r"); //$NON-NLS-1$
+			int version = raf.readInt();
+			if (version == Version1){
+				Misc.close(raf);
+				raf = null;
+				loadVersion1(f);
 			}
-			catch (EOFException e){
-				error = true;
-				Tracing.log("Unable to read the dependency index file because of EOF exception");  //$NON-NLS-1$
+			else if (version == CurrentVersion){
+				FileChannel channel = raf.getChannel();
+				ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+				buffer.getInt();
+				load(buffer);
 			}
-			catch (IOException e){
+			else {
 				error = true;
-				ValidationPlugin.getPlugin().handleException(e);
+				String msg = NLS.bind(ValMessages.ErrDependencyVersion, CurrentVersion);
+				throw new IllegalStateException(msg);
+			}
+		}
+		catch (EOFException e){
+			error = true;
+			Tracing.log("Unable to read the dependency index file because of EOF exception");  //$NON-NLS-1$
+		}
+		catch (BufferUnderflowException e){
+			error = true;
+			Tracing.log("Unable to read the dependency index file because it is truncated");  //$NON-NLS-1$
+		}
+		catch (IndexOutOfBoundsException e){
+			error = true;
+			Tracing.log("Unable to read the dependency index file because it is damaged");  //$NON-NLS-1$
+		}
+		catch (IOException e){
+			error = true;
+			ValidationPlugin.getPlugin().handleException(e);
+		}
+		finally {
+			Misc.close(raf);
+			if (error){
+				_dependsOn.clear();
+				_dependents.clear();
+				f.delete();
 			}
-			finally {
-				Misc.close(in);
-				if (error){
-					_dependsOn = new HashMap<IResource,Set<Depends>>(100);
-					_dependents = new HashMap<IResource,Set<Depends>>(100);
-					f.delete();
+		}
+	}
+
+	/**
+	 * Restore a version 2 index, the version number has already been read.
+	 */
+	private void load(ByteBuffer buffer) throws IOException {
+		ValidatorIdManager idManager = ValidatorIdManager.getDefault();
+		int[] bits = new int[buffer.getInt()];
+		for (int i=0; i<bits.length; i++)bits[i] = idManager.getIndex(readString(buffer));
+
+		String errorMessage = ValMessages.Error21;
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		IResource[] resources = new IResource[buffer.getInt()];
+		for (int i=0; i<resources.length; i++){
+			String v = readString(buffer);
+			resources[i] = root.findMember(v);
+			if (resources[i] == null)Tracing.log(NLS.bind(errorMessage, v));
+		}
+
+		int numEdges = buffer.getInt();
+		for (int i=0; i<numEdges; i++){
+			IResource dependent = resources[buffer.getInt()];
+			IResource dependsOn = resources[buffer.getInt()];
+			int numVal = buffer.getInt();
+			Edge e = dependent != null && dependsOn != null ? getOrCreateEdge(dependent, dependsOn) : null;
+			for (int j=0; j<numVal; j++){
+				int bit = bits[buffer.getInt()];
+				if (e != null)e.set(bit);
+			}
+		}
+	}
+
+	private static String readString(ByteBuffer buffer) throws IOException {
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, UTF8);
+	}
+
+	/**
+	 * Restore an index that was written by an older version of this class.
+	 */
+	private void loadVersion1(File f) throws IOException {
+		String errorMessage = ValMessages.Error21;
+		DataInputStream in = null;
+		try {
+			IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+			ValidatorIdManager idManager = ValidatorIdManager.getDefault();
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(f)));
+			in.readInt();
+			int numDependsOn = in.readInt();
+			for (int i=0; i<numDependsOn; i++){
+				String v = in.readUTF();
+				IResource dependsOn = root.findMember(v);
+				if (dependsOn == null){
+					Tracing.log(NLS.bind(errorMessage, v));
+				}
+				int numDependents = in.readInt();
+				for (int j=0; j<numDependents; j++){
+					v = in.readUTF();
+					IResource dependent = root.findMember(v);
+					if (dependent == null){
+						Tracing.log(NLS.bind(errorMessage, v));
+					}
+					int numVal = in.readInt();
+					for (int k=0; k<numVal; k++){
+						String id = in.readUTF();
+						if (dependent != null && dependsOn != null)
+							getOrCreateEdge(dependent, dependsOn).set(idManager.getIndex(id));
+					}
 				}
-			}			
+			}
+			_dirty = true;
+		}
+		finally {
+			Misc.close(in);
 		}
 	}
 
-	public synchronized void clear(IProject project) {
+	public void clear(IProject project) {
 		init();
-		for (Map.Entry<IResource,Set<Depends>> me : _dependents.entrySet()){
-			IResource key = me.getKey();
-			if (key != null && key.getProject() == project){
-				for (Depends d : me.getValue()){
-					if (d.delete())_dirty = true;
+		synchronized(this){
+			for (Map.Entry<IResource,Edges> me : _dependents.entrySet()){
+				IResource key = me.getKey();
+				if (key != null && key.getProject() == project){
+					Edges edges = me.getValue();
+					for (int i=0; i<edges.size; i++){
+						if (edges.edges[i].clear())_dirty = true;
+					}
+					prune(key);
 				}
 			}
 		}
 	}
 
-	public synchronized IResource[] get(String validatorId, IResource dependsOn) {
+	public IResource[] get(String validatorId, IResource dependsOn) {
 		init();
+		Edges edges = get(_dependsOn, dependsOn);
+		if (edges.size == 0)return EmptyResources;
+
+		int bit = ValidatorIdManager.getDefault().getIndex(validatorId);
 		List<IResource> list = new LinkedList<IResource>();
-		Set<Depends> set = getSet(_dependsOn, dependsOn);
-		for (Depends d : set){
-			for (String id : d.getValidators()){
-				if (validatorId.equals(id))list.add(d.getDependent());
-			}
+		for (int i=0; i<edges.size; i++){
+			Edge e = edges.edges[i];
+			if (e.isSet(bit))list.add(e.dependent);
 		}
-		
+
 		if (list.size() == 0)return EmptyResources;
 		IResource[] resources = new IResource[list.size()];
 		list.toArray(resources);
 		return resources;
 	}
 
-	
-	public synchronized List<DependentResource> get(IResource dependsOn) {
+
+	public List<DependentResource> get(IResource dependsOn) {
 		init();
 		List<DependentResource> list = new LinkedList<DependentResource>();
-		Set<Depends> set = getSet(_dependsOn, dependsOn);
+		Edges edges = get(_dependsOn, dependsOn);
+		if (edges.size == 0)return list;
+
 		ValManager vm = ValManager.getDefault();
-		for (Depends d : set){
-			for (String id : d.getValidators()){
-				Validator v = vm.getValidator(id, d.getDependent().getProject());
-				if (v != null)list.add(new DependentResource(d.getDependent(), v));
+		ValidatorIdManager idManager = ValidatorIdManager.getDefault();
+		for (int i=0; i<edges.size; i++){
+			Edge e = edges.edges[i];
+			for (int bit : e.bits()){
+				String id = idManager.getId(bit);
+				Validator v = id == null ? null : vm.getValidator(id, e.dependent.getProject());
+				if (v != null)list.add(new DependentResource(e.dependent, v));
 			}
 		}
 		return list;
 	}
 
 
-	public synchronized void set(String id, IResource dependent, IResource[] dependsOn) {
+	public void set(String id, IResource dependent, IResource[] dependsOn) {
 		init();
-		Set<Depends> set = getSet(_dependents, dependent);
-		for (Depends d : set){
-			if (d.delete(id))_dirty = true;
-		}
-		if (dependsOn != null){
-			for (IResource d : dependsOn)add(id, dependent, d);
+		int bit = ValidatorIdManager.getDefault().getIndex(id);
+		synchronized(this){
+			Edges edges = get(_dependents, dependent);
+			for (int i=0; i<edges.size; i++){
+				if (edges.edges[i].clear(bit))_dirty = true;
+			}
+			if (dependsOn != null){
+				for (IResource d : dependsOn){
+					if (d != null && getOrCreateEdge(dependent, d).set(bit))_dirty = true;
+				}
+			}
+			prune(dependent);
 		}
 	}
-		
-	public synchronized boolean isDependedOn(IResource resource) {
+
+	public boolean isDependedOn(IResource resource) {
 		init();
-		Set<Depends> set = _dependsOn.get(resource);
-		if (set == null || set.size() == 0)return false;
-		return true;
+		return get(_dependsOn, resource).size > 0;
 	}
 
-	public void doneSaving(ISaveContext context) {	
+	/**
+	 * Answer the number of dependencies in the index.
+	 */
+	public int size(){
+		init();
+		int count = 0;
+		for (Edges edges : _dependents.values())count += edges.size;
+		return count;
 	}
-	
-	public void prepareToSave(ISaveContext context) throws CoreException {	
+
+	public void doneSaving(ISaveContext context) {
 	}
-	
+
+	public void prepareToSave(ISaveContext context) throws CoreException {
+	}
+
 	public void rollback(ISaveContext context) {
 	}
-	
+
 	/**
 	 * Persist the dependency index. See the class comment for the structure.
 	 */
@@ -254,129 +421,221 @@ public class DependencyIndex implements IDependencyIndex, ISaveParticipant {
 		_dirty = false;
 		boolean error = false;
 		DataOutputStream out = null;
-		File f = null;
+		File f = getIndexLocation(NewIndexName);
 		try {
-			f = getIndexLocation();
-			out = new DataOutputStream(new FileOutputStream(f));
-			out.writeInt(CurrentVersion);
-			Map<String, Set<DependsResolved>> map = compress(_dependsOn);
-			out.writeInt(map.size());
-			for (Map.Entry<String, Set<DependsResolved>> me : map.entrySet()){
-				out.writeUTF(me.getKey());
-				Set<DependsResolved> set = me.getValue();
-				out.writeInt(set.size());
-				for (DependsResolved d : set){
-					out.writeUTF(d.resource);
-					out.writeInt(d.validators.size());
-					for (String id : d.validators){
-						out.writeUTF(id);
+			Map<String, Integer> ids = new HashMap<String, Integer>(50);
+			List<String> idTable = new ArrayList<String>(50);
+			Map<IResource, Integer> resources = new HashMap<IResource, Integer>(_dependents.size()+_dependsOn.size());
+			List<String> resourceTable = new ArrayList<String>(_dependents.size()+_dependsOn.size());
+			List<Edge> edges = new ArrayList<Edge>(_dependents.size());
+			ValidatorIdManager idManager = ValidatorIdManager.getDefault();
+			for (Edges list : _dependents.values()){
+				for (int i=0; i<list.size; i++){
+					Edge e = list.edges[i];
+					if (e.isEmpty() || number(e.dependent, resources, resourceTable) < 0 ||
+						number(e.dependsOn, resources, resourceTable) < 0)continue;
+					edges.add(e);
+					for (int bit : e.bits()){
+						String id = idManager.getId(bit);
+						if (id != null && !ids.containsKey(id)){
+							ids.put(id, idTable.size());
+							idTable.add(id);
+						}
 					}
 				}
 			}
+
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(f)));
+			out.writeInt(CurrentVersion);
+			out.writeInt(idTable.size());
+			for (String id : idTable)writeString(out, id);
+			out.writeInt(resourceTable.size());
+			for (String name : resourceTable)writeString(out, name);
+			out.writeInt(edges.size());
+			for (Edge e : edges){
+				out.writeInt(resources.get(e.dependent));
+				out.writeInt(resources.get(e.dependsOn));
+				List<Integer> numbers = new ArrayList<Integer>(4);
+				for (int bit : e.bits()){
+					Integer n = ids.get(idManager.getId(bit));
+					if (n != null)numbers.add(n);
+				}
+				out.writeInt(numbers.size());
+				for (Integer n : numbers)out.writeInt(n);
+			}
+			out.close();
+			out = null;
+
+			File index = getIndexLocation(IndexName);
+			if (!f.renameTo(index)){
+				index.delete();
+				if (!f.renameTo(index))Tracing.log("Unable to replace the dependency index, it will be replaced on the next restart"); //$NON-NLS-1$
+			}
 		}
 		catch (IOException e){
 			error = true;
 			ValidationPlugin.getPlugin().handleException(e);
 		}
-		finally {		
+		finally {
 			Misc.close(out);
 			if (error)f.delete();
 		}
 	}
 
-	private Map<String, Set<DependsResolved>> compress(Map<IResource, Set<Depends>> dependsOn) {
-		Map<String, Set<DependsResolved>> map = new HashMap<String, Set<DependsResolved>>(dependsOn.size());
-		for (Map.Entry<IResource, Set<Depends>> me : dependsOn.entrySet()){
-			Set<DependsResolved> set = new HashSet<DependsResolved>(me.getValue().size());
-			for (Depends d : me.getValue()){
-				IPath path = d.getDependent().getFullPath();
-				if (path != null){
-					DependsResolved dr = new DependsResolved(path.toPortableString(), d.getValidators());
-					if (dr.validators.size() > 0){
-						set.add(dr);
-					}
-				}				
-			}
-			if (set.size() > 0){
-				IResource res = me.getKey();
-				if (res != null){
-					IPath path = res.getFullPath();
-					if (path != null)map.put(path.toPortableString(), set);
-				}
-			}
-		}
-		return map;
+	/**
+	 * Answer the file number of the resource, adding it to the table if you need to.
+	 * @return -1 if the resource does not have a path.
+	 */
+	private static int number(IResource resource, Map<IResource, Integer> resources, List<String> table){
+		Integer n = resources.get(resource);
+		if (n != null)return n;
+		IPath path = resource.getFullPath();
+		if (path == null)return -1;
+		n = table.size();
+		table.add(path.toPortableString());
+		resources.put(resource, n);
+		return n;
 	}
 
-	private File getIndexLocation() {
-		IPath path = ValidationPlugin.getPlugin().getStateLocation().append("dep.index"); //$NON-NLS-1$
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		byte[] bytes = s.getBytes(UTF8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private File getIndexLocation(String name) {
+		IPath path = ValidationPlugin.getPlugin().getStateLocation().append(name);
 		return path.toFile();
 	}
 
+	/**
+	 * The edges of one resource. Only the first size entries belong to the list, and once the list has been
+	 * published they are never changed. Appending writes the next free entry and answers a new list that
+	 * shares the array, so the array only has to be copied when it is full. The caller must hold the index's
+	 * lock, and must only append to the list that is in the map.
+	 */
+	private final static class Edges {
+
+		static final Edges Empty = new Edges(new Edge[0], 0);
+
+		final Edge[] edges;
+		final int size;
+
+		Edges(Edge[] edges, int size){
+			this.edges = edges;
+			this.size = size;
+		}
+
+		Edges append(Edge e){
+			Edge[] result = edges;
+			if (size == result.length){
+				result = new Edge[Math.max(4, size*2)];
+				System.arraycopy(edges, 0, result, 0, size);
+			}
+			result[size] = e;
+			return new Edges(result, size+1);
+		}
+	}
+
 	/**
 	 * Keep track of a relationship between a dependent and the thing that it
-	 * depends on.
-	 * 
+	 * depends on. The validators are only ever changed while holding the index's lock, but they are
+	 * read without it, so the mask is replaced rather than updated.
+	 *
 	 * @author karasiuk
-	 * 
+	 *
 	 */
-	private final static class Depends {
+	private final static class Edge {
 
 		/** The resource that is being depended on, for example a.xsd */
-		private final IResource _dependsOn;
+		final IResource dependsOn;
 
 		/** The resource that is dependent, for example a.xml */
-		private final IResource _dependent;
+		final IResource dependent;
 
-		/** The id's of the validators that have asserted the dependency. */
-		private final Set<String> _validators;
+		/**
+		 * The validators that have asserted the dependency, as a bit mask of ValidatorIdManager index
+		 * numbers.
+		 */
+		volatile long[] validators = NoValidators;
+
+		private static final long[] NoValidators = new long[0];
 
-		public Depends(IResource dependent, IResource dependsOn) {
-			_dependent = dependent;
-			_dependsOn = dependsOn;
-			_validators = new HashSet<String>(5);
+		public Edge(IResource dependent, IResource dependsOn) {
+			this.dependent = dependent;
+			this.dependsOn = dependsOn;
+		}
+
+		public boolean isSet(int bit){
+			long[] bits = validators;
+			int i = bit >>> 6;
+			return i < bits.length && (bits[i] & (1L << bit)) != 0;
 		}
 
 		/**
-		 * Answer true if the id was deleted.
+		 * Answer true if the bit was added.
 		 */
-		public boolean delete(String id) {
-			return _validators.remove(id);
+		public boolean set(int bit) {
+			if (isSet(bit))return false;
+			long[] bits = validators;
+			int i = bit >>> 6;
+			long[] result = new long[Math.max(bits.length, i+1)];
+			System.arraycopy(bits, 0, result, 0, bits.length);
+			result[i] |= 1L << bit;
+			validators = result;
+			return true;
+		}
+
+		/**
+		 * Answer true if the bit was deleted.
+		 */
+		public boolean clear(int bit) {
+			if (!isSet(bit))return false;
+			long[] result = validators.clone();
+			result[bit >>> 6] &= ~(1L << bit);
+			validators = isEmpty(result) ? NoValidators : result;
+			return true;
 		}
 
 		/**
 		 * Delete all the dependency assertions for all of your validators.
 		 * @return false if there was nothing to delete
 		 */
-		public boolean delete() {
-			boolean deleted = _validators.size() > 0;
-			if (deleted)_validators.clear();
+		public boolean clear() {
+			boolean deleted = !isEmpty();
+			validators = NoValidators;
 			return deleted;
 		}
 
-		public IResource getDependsOn() {
-			return _dependsOn;
+		public boolean isEmpty(){
+			return isEmpty(validators);
 		}
 
-		public IResource getDependent() {
-			return _dependent;
-		}
-
-		public Set<String> getValidators() {
-			return _validators;
+		private static boolean isEmpty(long[] bits){
+			for (long word : bits){
+				if (word != 0)return false;
+			}
+			return true;
 		}
-}
 
-	private final static class DependsResolved {
-		final String 		resource;
-		final Set<String> validators;
-		
-		DependsResolved(String resource, Set<String> validators){
-			this.resource = resource;
-			this.validators = validators;
-			
+		/**
+		 * Answer the index numbers of the validators.
+		 */
+		public int[] bits(){
+			long[] bits = validators;
+			int count = 0;
+			for (long word : bits)count += Long.bitCount(word);
+			int[] result = new int[count];
+			int n = 0;
+			for (int i=0; i<bits.length; i++){
+				long word = bits[i];
+				while (word != 0){
+					result[n++] = i*64 + Long.numberOfTrailingZeros(word);
+					word &= word - 1;
+				}
+			}
+			return result;
 		}
 	}
 
-
 }
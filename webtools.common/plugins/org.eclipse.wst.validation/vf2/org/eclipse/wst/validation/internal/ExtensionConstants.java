@@ -46,6 +46,12 @@ public interface ExtensionConstants {
 	 */
 	String sourceId = "sourceid"; //$NON-NLS-1$
 	
+	/** 
+	 * threadSafe - can this validator be run on several resources, or several projects, at the same time?
+	 * true or false. The default is false, which means that the validator is only ever run serially.
+	 */
+	String threadSafe = "threadSafe"; //$NON-NLS-1$
+	
 	/** 
 	 * version - the version of this definition. The attribute is a simple integer, and if not specified it
 	 * is assumed to be 1. This allows the filter settings to be changed in the future.
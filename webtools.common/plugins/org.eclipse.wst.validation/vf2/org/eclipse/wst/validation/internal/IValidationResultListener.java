@@ -0,0 +1,39 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation.internal;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.wst.validation.PerformanceCounters;
+import org.eclipse.wst.validation.ValidationResult;
+import org.eclipse.wst.validation.Validator;
+
+/**
+ * A class that wants to be given the results of a validation operation as they are produced, rather
+ * than all at once at the end.
+ * <p>
+ * When an operation has a listener, it does not keep the messages itself, it only keeps the counts.
+ * This keeps the memory that is used by a large validation operation flat.
+ * </p>
+ */
+public interface IValidationResultListener {
+
+	/**
+	 * A validator has finished validating a resource. When validation is running in parallel this is
+	 * called by several threads at the same time.
+	 *
+	 * @param validator the validator that did the validation.
+	 * @param resource the resource that was validated.
+	 * @param result the result of the validation.
+	 * @param counters how long the validation took. It is null if the result was not produced by running
+	 * the validator, for example if it was replayed from the validation ledger.
+	 */
+	public void validated(Validator validator, IResource resource, ValidationResult result, PerformanceCounters counters);
+}
@@ -10,7 +10,10 @@
  *******************************************************************************/
 package org.eclipse.wst.validation.internal;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -18,7 +21,14 @@ import java.util.Set;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.wst.validation.IPerformanceMonitor;
+import org.eclipse.wst.validation.PerformanceCounters;
+import org.eclipse.wst.validation.ValidationFramework;
 import org.eclipse.wst.validation.Validator;
 import org.eclipse.wst.validation.ValidatorMessage;
 import org.eclipse.wst.validation.internal.plugin.ValidationPlugin;
@@ -26,11 +36,20 @@ import org.eclipse.wst.validation.internal.provisional.core.IMessage;
 
 /**
  * A central place to manage all of the V2 validation markers.
+ * <p>
+ * While a resource is being validated, the marker changes for it are collected in a {@link Batch}
+ * instead of being made one at a time. When the resource is finished, the new markers are compared with
+ * the markers that the resource already has, the markers that are unchanged are left alone, and the rest
+ * of the changes are made in a single workspace operation.
+ * </p>
  * @author karasiuk
  *
  */
 public class MarkerManager {
 	
+	/** The id that is used for the performance counters of the marker updates. */
+	public static final String PerformanceId = ValidationPlugin.PLUGIN_ID + ".markers"; //$NON-NLS-1$
+	
 	private Set<String> _markers = new HashSet<String>(50);
 	
 	public static MarkerManager getDefault(){
@@ -74,15 +93,31 @@ public class MarkerManager {
 		}
 	}
 	
-	@SuppressWarnings("unchecked")
 	public void createMarker(ValidatorMessage m, String id){
+		createMarker(m, id, null);
+	}
+	
+	/**
+	 * Create a marker for the message. If the resource is being validated in this operation, the marker
+	 * is added to the operation's {@link Batch} for the resource instead.
+	 * 
+	 * @param operation the operation that the message was produced in. It can be null, in which case the
+	 * marker is created right away.
+	 */
+	@SuppressWarnings("unchecked")
+	public void createMarker(ValidatorMessage m, String id, ValOperation operation){
 		try {
 			IResource resource = m.getResource();
 			hook(resource);
-			IMarker marker = resource.createMarker(m.getType());
 			Map map = m.getAttributes();
 			if (map.get(ValidatorMessage.ValidationId) == null)
 				map.put(ValidatorMessage.ValidationId, id);
+			Batch batch = operation == null ? null : operation.getBatch(resource);
+			if (batch != null){
+				batch.add(m.getType(), map);
+				return;
+			}
+			IMarker marker = resource.createMarker(m.getType());
 			marker.setAttributes(map);
 		}
 		catch (CoreException e){
@@ -92,6 +127,69 @@ public class MarkerManager {
 		
 	}
 	
+	/**
+	 * Create the markers for the messages in a single workspace operation.
+	 * <p>
+	 * The markers are created right away, even if the resource is being collected in a {@link Batch}, since
+	 * they come from a stream of messages that is too large to collect. They are created after the operation
+	 * started, so the batch does not treat them as stale.
+	 * </p>
+	 *
+	 * @param messages the messages to turn into markers.
+	 * @param id the id of the validator that created the messages.
+	 */
+	@SuppressWarnings("unchecked")
+	public void createMarkers(final List<ValidatorMessage> messages, final String id){
+		if (messages.isEmpty())return;
+		IWorkspaceRunnable runnable = new IWorkspaceRunnable(){
+			public void run(IProgressMonitor monitor) throws CoreException {
+				for (ValidatorMessage m : messages){
+					IResource resource = m.getResource();
+					hook(resource);
+					if (!resource.exists())continue;
+					Map map = m.getAttributes();
+					if (map.get(ValidatorMessage.ValidationId) == null)
+						map.put(ValidatorMessage.ValidationId, id);
+					IMarker marker = resource.createMarker(m.getType());
+					marker.setAttributes(map);
+				}
+			}
+		};
+		try {
+			ResourcesPlugin.getWorkspace().run(runnable, null, IWorkspace.AVOID_UPDATE, null);
+		}
+		catch (CoreException e){
+			ValidationPlugin.getPlugin().handleException(e);
+		}
+	}
+
+	/**
+	 * Delete the markers that the validator has created on the resource since the given time.
+	 *
+	 * @param resource the resource that is having its markers deleted.
+	 * @param validator the validator that created the markers.
+	 * @param since the time, as returned by System.currentTimeMillis(), of the oldest marker to delete.
+	 * @param group if this is not null, only the markers in this group are deleted.
+	 */
+	public void deleteMarkers(IResource resource, Validator validator, long since, String group){
+		hook(resource);
+		String type = validator.getMarkerId();
+		if (type == null)type = ValConstants.ProblemMarker;
+		try {
+			for (IMarker marker : resource.findMarkers(type, true, IResource.DEPTH_ZERO)){
+				if (marker.getCreationTime() < since)continue;
+				if (validator.getMarkerId() == null &&
+					!validator.getId().equals(marker.getAttribute(ValidatorMessage.ValidationId, null)))continue;
+				if (group != null &&
+					!group.equals(marker.getAttribute(ConfigurationConstants.VALIDATION_MARKER_GROUP, null)))continue;
+				marker.delete();
+			}
+		}
+		catch (CoreException e){
+			// Nothing that we can do. This is not worth logging.
+		}
+	}
+
 	/**
 	 * Delete all the markers on this resource that were created before the
 	 * operation start time.
@@ -144,6 +242,18 @@ public class MarkerManager {
 	}
 	
 	public void makeMarkers(List<IMessage> list){
+		makeMarkers(list, null);
+	}
+	
+	/**
+	 * Create markers for the messages. The markers for a resource that is being validated in this operation
+	 * are added to the operation's {@link Batch} for the resource instead.
+	 * 
+	 * @param operation the operation that the messages were produced in. It can be null, in which case the
+	 * markers are created right away.
+	 */
+	@SuppressWarnings("unchecked")
+	public void makeMarkers(List<IMessage> list, ValOperation operation){
 		for (IMessage message : list){
 			IResource res = null;
 			Object target = message.getTargetObject();
@@ -157,15 +267,18 @@ public class MarkerManager {
 					hook(res);
 					String id = message.getMarkerId();
 					if (id == null)id = ConfigurationConstants.VALIDATION_MARKER;
-					IMarker marker = res.createMarker(id);
-					marker.setAttributes(message.getAttributes());
-					marker.setAttribute(IMarker.MESSAGE, message.getText());
 					int markerSeverity = IMarker.SEVERITY_INFO;
 					int sev = message.getSeverity();
 					if ((sev & IMessage.HIGH_SEVERITY) != 0)markerSeverity = IMarker.SEVERITY_ERROR;
 					else if ((sev & IMessage.NORMAL_SEVERITY) != 0)markerSeverity = IMarker.SEVERITY_WARNING;
-					marker.setAttribute(IMarker.SEVERITY, markerSeverity);
-					marker.setAttribute(IMarker.LINE_NUMBER, message.getLineNumber());
+					Map<String, Object> attributes = new HashMap<String, Object>();
+					if (message.getAttributes() != null)attributes.putAll(message.getAttributes());
+					attributes.put(IMarker.MESSAGE, message.getText());
+					attributes.put(IMarker.SEVERITY, markerSeverity);
+					attributes.put(IMarker.LINE_NUMBER, message.getLineNumber());
+					Batch batch = operation == null ? null : operation.getBatch(res);
+					if (batch != null)batch.add(id, attributes);
+					else res.createMarker(id).setAttributes(attributes);
 				}
 				catch (CoreException e){
 					ValidationPlugin.getPlugin().handleException(e);
@@ -174,6 +287,72 @@ public class MarkerManager {
 		}
 	}
 	
+	/**
+	 * Start collecting the marker changes for a resource that is about to be validated. Until the batch
+	 * is flushed, the stale markers are not deleted, and the markers that are created for the resource in
+	 * this operation are only remembered.
+	 * <p>
+	 * The batches are kept by the operation, so operations that validate the same resource at the same time
+	 * each have their own batch. If the operation already has a batch for the resource, it is answered,
+	 * and the changes are only written when every caller that began it has flushed it.
+	 * </p>
+	 * 
+	 * @param resource the resource that is being validated.
+	 * @param operation the operation that the validation is running in.
+	 * @return the batch, each call must be paired with a call to {@link #flush(Batch)}.
+	 */
+	public Batch beginBatch(IResource resource, ValOperation operation){
+		while (true){
+			Batch batch = operation.getBatch(resource);
+			if (batch != null && batch.enter())return batch;
+			if (batch == null){
+				batch = new Batch(resource, operation);
+				batch.enter();
+				if (operation.addBatch(batch))return batch;
+			}
+			// the batch was flushed or replaced while we were looking at it, try again
+			Thread.yield();
+		}
+	}
+	
+	/**
+	 * Write the markers that have been collected to the workspace. Markers that are the same as markers that
+	 * the resource already has are not touched, the other stale markers are deleted, and the remaining new
+	 * markers are created. All of this is done in a single workspace operation.
+	 * 
+	 * @param batch the batch to flush, it can be null in which case this is a no-op. If the batch was
+	 * begun more than once, only the last flush writes the markers.
+	 */
+	public void flush(final Batch batch){
+		if (batch == null || !batch.exit())return;
+		batch._operation.removeBatch(batch);
+		final IResource resource = batch._resource;
+		IPerformanceMonitor pm = ValidationFramework.getDefault().getPerformanceMonitor();
+		long time = pm.isCollecting() ? System.currentTimeMillis() : 0;
+		final int[] changes = new int[1];
+		try {
+			hook(resource);
+			if (!resource.exists())return;
+			if (!batch.prepare())return;
+			IWorkspaceRunnable runnable = new IWorkspaceRunnable(){
+				public void run(IProgressMonitor monitor) throws CoreException {
+					changes[0] = batch.apply();
+				}
+			};
+			ResourcesPlugin.getWorkspace().run(runnable, null, IWorkspace.AVOID_UPDATE, null);
+		}
+		catch (CoreException e){
+			IProject project = resource.getProject();
+			if (!project.exists() || !project.isOpen())throw new ProjectUnavailableError(project);
+			if (!resource.exists())throw new ResourceUnavailableError(resource);
+			ValidationPlugin.getPlugin().handleException(e);
+		}
+		if (pm.isCollecting()){
+			pm.add(new PerformanceCounters(PerformanceId, ValMessages.LogMarkerFlush, resource.getName(), 
+				1, System.currentTimeMillis()-time, -1, changes[0]));
+		}
+	}
+	
 	/**
 	 * A debugging method. A place to put break points, so that you can figure out what sort of marker
 	 * changes are happening.
@@ -194,6 +373,177 @@ public class MarkerManager {
 		return _markers;
 	}
 	
+	/**
+	 * The marker changes for one resource, that have been collected while the resource was being validated.
+	 * The markers can be added from several threads at once.
+	 */
+	public final class Batch {
+		private final IResource 	_resource;
+		private final ValOperation	_operation;
+		private final List<NewMarker>	_markers = new LinkedList<NewMarker>();
+		
+		/** The markers that were created before the operation started. */
+		private final List<IMarker>		_stale = new LinkedList<IMarker>();
+		
+		/** The number of callers that have begun the batch and not flushed it yet. */
+		private int	_users;
+		
+		/** Has the last caller flushed the batch? A closed batch can not be begun again. */
+		private boolean	_closed;
+		
+		private Batch(IResource resource, ValOperation operation){
+			_resource = resource;
+			_operation = operation;
+		}
+		
+		public IResource getResource(){
+			return _resource;
+		}
+		
+		/**
+		 * Add a caller to the batch.
+		 * 
+		 * @return false if the batch has already been closed.
+		 */
+		private synchronized boolean enter(){
+			if (_closed)return false;
+			_users++;
+			return true;
+		}
+		
+		/**
+		 * Remove a caller from the batch.
+		 * 
+		 * @return true if this was the last caller, in which case the batch is now closed.
+		 */
+		private synchronized boolean exit(){
+			if (_closed || --_users > 0)return false;
+			_closed = true;
+			return true;
+		}
+		
+		private synchronized void add(String type, Map<String, Object> attributes){
+			_markers.add(new NewMarker(type, new HashMap<String, Object>(attributes)));
+		}
+		
+		/**
+		 * Find the stale markers.
+		 * 
+		 * @return true if there is anything to change.
+		 */
+		private synchronized boolean prepare() throws CoreException {
+			_stale.clear();
+			for (IMarker marker : _resource.findMarkers(null, true, IResource.DEPTH_ZERO)){
+				String type;
+				try {
+					type = marker.getType();
+				}
+				catch (CoreException e){
+					continue;
+				}
+				if (!getMarkers().contains(type))continue;
+				if (marker.getCreationTime() >= _operation.getStarted())continue;
+				if (_operation.isKeptMarker(_resource, marker.getId()))continue;
+				_stale.add(marker);
+			}
+			return _stale.size() > 0 || _markers.size() > 0;
+		}
+		
+		/**
+		 * Make the changes. This needs to be run inside of a workspace operation, after the batch has been
+		 * prepared.
+		 * 
+		 * @return the number of markers that were created or deleted.
+		 */
+		@SuppressWarnings("unchecked")
+		private synchronized int apply() throws CoreException {
+			int changes = 0;
+			
+			// the type and attributes of each stale marker are only read once
+			Map<NewMarker, LinkedList<IMarker>> stale = new HashMap<NewMarker, LinkedList<IMarker>>(_stale.size()*2+1);
+			List<IMarker> unmatched = new LinkedList<IMarker>();
+			for (IMarker marker : _stale){
+				Map<String, Object> attributes;
+				String type;
+				try {
+					type = marker.getType();
+					attributes = marker.getAttributes();
+				}
+				catch (CoreException e){
+					unmatched.add(marker);
+					continue;
+				}
+				if (attributes == null){
+					unmatched.add(marker);
+					continue;
+				}
+				NewMarker key = new NewMarker(type, attributes);
+				LinkedList<IMarker> same = stale.get(key);
+				if (same == null){
+					same = new LinkedList<IMarker>();
+					stale.put(key, same);
+				}
+				same.add(marker);
+			}
+			
+			Set<Long> kept = new HashSet<Long>(_stale.size());
+			for (Iterator<NewMarker> it = _markers.iterator(); it.hasNext();){
+				LinkedList<IMarker> same = stale.get(it.next());
+				if (same == null || same.isEmpty())continue;
+				kept.add(same.removeFirst().getId());
+				it.remove();
+			}
+			_operation.addKeptMarkers(_resource, kept);
+			
+			for (LinkedList<IMarker> same : stale.values())unmatched.addAll(same);
+			for (IMarker marker : unmatched){
+				try {
+					marker.delete();
+					changes++;
+				}
+				catch (CoreException e){
+					// eat it - there is nothing we can do about this.
+				}
+			}
+			for (NewMarker nm : _markers){
+				IMarker marker = _resource.createMarker(nm.type);
+				marker.setAttributes(nm.attributes);
+				changes++;
+			}
+			_markers.clear();
+			_stale.clear();
+			return changes;
+		}
+	}
+	
+	/**
+	 * A marker that is waiting to be created. Two of these are equal if they have the same type and attributes.
+	 */
+	private final static class NewMarker {
+		final String 				type;
+		final Map<String, Object>	attributes;
+		private final int			_hash;
+		
+		NewMarker(String type, Map<String, Object> attributes){
+			this.type = type;
+			this.attributes = attributes;
+			_hash = type.hashCode() * 31 + attributes.hashCode();
+		}
+		
+		@Override
+		public int hashCode() {
+			return _hash;
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)return true;
+			if (!(obj instanceof NewMarker))return false;
+			NewMarker other = (NewMarker)obj;
+			return _hash == other._hash && type.equals(other.type) && attributes.equals(other.attributes);
+		}
+	}
+	
 	/**
 	 * Store the singleton for the MarkerManager. This approach is used to avoid having to synchronize the
 	 * MarkerManager.getDefault() method.
@@ -11,6 +11,7 @@
 
 package org.eclipse.wst.validation.internal;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -51,6 +52,16 @@ public final class Misc {
 		}		
 	}
 	
+	public static void close(Closeable c) {
+		if (c == null)return;
+		try {
+			c.close();
+		}
+		catch (IOException e){
+			// eat it
+		}
+	}
+	
 	public static boolean debugOptionAsBoolean(String option){
 		String opt = Platform.getDebugOption(option);
 		if (opt == null)return false;
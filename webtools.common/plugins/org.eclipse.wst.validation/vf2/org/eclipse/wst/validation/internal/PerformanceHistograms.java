@@ -0,0 +1,383 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation.internal;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.eclipse.wst.validation.PerformanceCounters;
+import org.eclipse.wst.validation.PerformanceSnapshot;
+
+/**
+ * Aggregates performance counters per validator, into totals and latency histograms, without keeping the
+ * individual counters.
+ * <p>
+ * Adding a counter does not take a lock. Every validator has a set of stripes, and each thread adds to the
+ * stripe that its thread id maps to, with atomic increments, so the validation workers rarely touch the same
+ * memory. The stripes are only added together when a snapshot is taken.
+ * </p>
+ * <p>
+ * The histograms are log-linear, in the style of an HDR histogram. The values below 16 have a bucket each,
+ * and every power of two above that is split into 16 buckets, so a percentile is accurate to within about 6%.
+ * The values are in nanoseconds, and anything over 2^40 nanoseconds (about 18 minutes) is counted in the
+ * last bucket.
+ * </p>
+ */
+public final class PerformanceHistograms {
+
+	private static final int SubBucketBits = 4;
+	private static final int SubBuckets = 1 << SubBucketBits;
+	private static final int MaxBits = 40;
+	private static final long MaxValue = (1L << MaxBits) - 1;
+
+	/** The number of buckets in a histogram. */
+	public static final int BucketCount = (MaxBits - SubBucketBits + 1) * SubBuckets;
+
+	/** The first four bytes of a dump, WTPV. */
+	private static final int Magic = 0x57545056;
+	private static final byte Version = 1;
+
+	/** The key is the validator id. */
+	private final ConcurrentHashMap<String, ValidatorStats> _stats = new ConcurrentHashMap<String, ValidatorStats>(40);
+
+	/** The stripe that a thread uses is its thread id masked with this. */
+	private final int _stripeMask;
+
+	/** When the current interval started. */
+	private volatile long _start = System.currentTimeMillis();
+
+	public PerformanceHistograms(){
+		int stripes = 1;
+		int wanted = Math.min(64, Runtime.getRuntime().availableProcessors() * 2);
+		while (stripes < wanted)stripes <<= 1;
+		_stripeMask = stripes - 1;
+	}
+
+	/**
+	 * Add the counters to the totals and the histograms of their validator.
+	 */
+	public void record(PerformanceCounters pc){
+		ValidatorStats stats = _stats.get(pc.getValidatorId());
+		if (stats == null){
+			stats = new ValidatorStats(pc.getValidatorName(), _stripeMask + 1);
+			ValidatorStats old = _stats.putIfAbsent(pc.getValidatorId(), stats);
+			if (old != null)stats = old;
+		}
+		Stripe s = stats.stripe(_stripeMask);
+		s.sums.incrementAndGet(Stripe.Invocations);
+		s.sums.addAndGet(Stripe.Validated, pc.getNumberInvocations());
+		long elapsed = pc.getElapsedNanos();
+		s.sums.addAndGet(Stripe.ElapsedNanos, elapsed);
+		s.elapsed.incrementAndGet(bucket(elapsed));
+		long cpu = pc.getCpuTime();
+		if (cpu >= 0){
+			s.sums.addAndGet(Stripe.CpuNanos, cpu);
+			s.cpu.incrementAndGet(bucket(cpu));
+		}
+		else s.sums.incrementAndGet(Stripe.CpuUnknown);
+	}
+
+	/**
+	 * Add the stripes together.
+	 *
+	 * @param reset if true the counts are moved out of the stripes, so that the next call only answers what
+	 * was recorded after this one. Nothing is lost, a counter that is being recorded at the same time is
+	 * either in this interval or the next one.
+	 *
+	 * @return the totals of every validator that has been recorded in the interval, in validator id order.
+	 */
+	public List<Totals> collect(boolean reset){
+		long now = System.currentTimeMillis();
+		long start = _start;
+		if (reset)_start = now;
+		List<Totals> list = new LinkedList<Totals>();
+		for (Map.Entry<String, ValidatorStats> me : new TreeMap<String, ValidatorStats>(_stats).entrySet()){
+			Totals t = me.getValue().collect(me.getKey(), reset);
+			t.start = start;
+			t.when = now;
+			if (t.invocations > 0)list.add(t);
+		}
+		return list;
+	}
+
+	/**
+	 * Answer a snapshot of every validator that has been recorded.
+	 *
+	 * @param reset should the counts be reset, so that the next snapshot only has the counters that are
+	 * added after this one?
+	 */
+	public List<PerformanceSnapshot> snapshot(boolean reset){
+		List<PerformanceSnapshot> list = new LinkedList<PerformanceSnapshot>();
+		for (Totals t : collect(reset))list.add(t.toSnapshot());
+		return list;
+	}
+
+	/**
+	 * Forget everything that has been recorded.
+	 */
+	public void reset(){
+		_stats.clear();
+		_start = System.currentTimeMillis();
+	}
+
+	/**
+	 * Answer the histogram bucket for the value.
+	 */
+	public static int bucket(long value){
+		if (value < SubBuckets)return value < 0 ? 0 : (int)value;
+		if (value > MaxValue)value = MaxValue;
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SubBucketBits;
+		return (shift + 1) * SubBuckets + (int)((value >>> shift) & (SubBuckets - 1));
+	}
+
+	/**
+	 * Answer the largest value that is counted in the bucket.
+	 */
+	public static long highestValue(int bucket){
+		int shift = bucket / SubBuckets - 1;
+		if (shift <= 0)return bucket;
+		long lowest = ((long)(SubBuckets + bucket % SubBuckets)) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+	/**
+	 * Answer the value at the percentile.
+	 *
+	 * @param counts the histogram.
+	 * @param percentile a number between 0 and 100.
+	 * @return -1 if the histogram is empty.
+	 */
+	public static long percentile(long[] counts, double percentile){
+		long total = 0;
+		for (long c : counts)total += c;
+		if (total == 0)return -1;
+		long rank = (long)Math.ceil(percentile / 100.0 * total);
+		if (rank < 1)rank = 1;
+		long seen = 0;
+		for (int i=0; i<counts.length; i++){
+			seen += counts[i];
+			if (seen >= rank)return highestValue(i);
+		}
+		return highestValue(counts.length - 1);
+	}
+
+	/**
+	 * Write the totals to a compact binary dump. Several dumps can be appended to the same stream, for
+	 * example one for every interval, and they are read back with {@link #read(InputStream)}.
+	 */
+	public static void write(List<Totals> totals, OutputStream out) throws IOException {
+		DataOutputStream dos = new DataOutputStream(out);
+		long start = totals.isEmpty() ? 0 : totals.get(0).start;
+		long when = totals.isEmpty() ? System.currentTimeMillis() : totals.get(0).when;
+		dos.writeInt(Magic);
+		dos.writeByte(Version);
+		dos.writeLong(start);
+		dos.writeLong(when);
+		dos.writeInt(totals.size());
+		for (Totals t : totals){
+			dos.writeUTF(t.id);
+			dos.writeUTF(t.name == null ? "" : t.name); //$NON-NLS-1$
+			dos.writeLong(t.invocations);
+			dos.writeLong(t.validated);
+			dos.writeLong(t.elapsedNanos);
+			dos.writeLong(t.cpuNanos);
+			dos.writeLong(t.cpuUnknown);
+			writeHistogram(dos, t.elapsed);
+			writeHistogram(dos, t.cpu);
+		}
+		dos.flush();
+	}
+
+	/**
+	 * Only the buckets that have counts are written.
+	 */
+	private static void writeHistogram(DataOutputStream dos, long[] counts) throws IOException {
+		int used = 0;
+		for (long c : counts)if (c != 0)used++;
+		dos.writeShort(used);
+		for (int i=0; i<counts.length; i++){
+			if (counts[i] != 0){
+				dos.writeShort(i);
+				dos.writeLong(counts[i]);
+			}
+		}
+	}
+
+	/**
+	 * Read all the dumps in the stream.
+	 *
+	 * @return a list of dumps, each one is the totals of the validators in that dump.
+	 * @throws IOException if the stream is not a dump.
+	 */
+	public static List<List<Totals>> read(InputStream in) throws IOException {
+		DataInputStream dis = new DataInputStream(in);
+		List<List<Totals>> dumps = new LinkedList<List<Totals>>();
+		while (true){
+			int magic;
+			try {
+				magic = dis.readInt();
+			}
+			catch (EOFException e){
+				return dumps;
+			}
+			if (magic != Magic || dis.readByte() != Version)throw new IOException("Not a validation performance dump"); //$NON-NLS-1$
+			long start = dis.readLong();
+			long when = dis.readLong();
+			int count = dis.readInt();
+			List<Totals> list = new LinkedList<Totals>();
+			for (int i=0; i<count; i++){
+				Totals t = new Totals(dis.readUTF());
+				t.name = dis.readUTF();
+				t.start = start;
+				t.when = when;
+				t.invocations = dis.readLong();
+				t.validated = dis.readLong();
+				t.elapsedNanos = dis.readLong();
+				t.cpuNanos = dis.readLong();
+				t.cpuUnknown = dis.readLong();
+				readHistogram(dis, t.elapsed);
+				readHistogram(dis, t.cpu);
+				list.add(t);
+			}
+			dumps.add(list);
+		}
+	}
+
+	private static void readHistogram(DataInputStream dis, long[] counts) throws IOException {
+		int used = dis.readShort();
+		for (int i=0; i<used; i++){
+			int bucket = dis.readShort();
+			if (bucket < 0 || bucket >= counts.length)throw new IOException("Bad histogram bucket " + bucket); //$NON-NLS-1$
+			counts[bucket] = dis.readLong();
+		}
+	}
+
+	/**
+	 * The totals and histograms of one validator, over an interval.
+	 */
+	public static final class Totals {
+		public final String	id;
+		public String		name;
+
+		/** When the interval started and ended. */
+		public long			start;
+		public long			when;
+
+		/** The number of counters that were recorded. */
+		public long			invocations;
+
+		/** The number of resources that were validated. */
+		public long			validated;
+		public long			elapsedNanos;
+		public long			cpuNanos;
+
+		/** The number of counters whose CPU time was not known. */
+		public long			cpuUnknown;
+		public final long[]	elapsed = new long[BucketCount];
+		public final long[]	cpu = new long[BucketCount];
+
+		public Totals(String id){
+			this.id = id;
+		}
+
+		/**
+		 * Add the other totals to these.
+		 */
+		public void add(Totals other){
+			if (other.start < start || start == 0)start = other.start;
+			if (other.when > when)when = other.when;
+			invocations += other.invocations;
+			validated += other.validated;
+			elapsedNanos += other.elapsedNanos;
+			cpuNanos += other.cpuNanos;
+			cpuUnknown += other.cpuUnknown;
+			for (int i=0; i<BucketCount; i++){
+				elapsed[i] += other.elapsed[i];
+				cpu[i] += other.cpu[i];
+			}
+		}
+
+		public PerformanceSnapshot toSnapshot(){
+			return new PerformanceSnapshot(id, name, start, when, invocations, validated, elapsedNanos,
+				cpuUnknown > 0 ? -1 : cpuNanos, elapsed, cpu);
+		}
+	}
+
+	private static final class ValidatorStats {
+		private final String 						_name;
+		private final AtomicReferenceArray<Stripe>	_stripes;
+
+		ValidatorStats(String name, int stripes){
+			_name = name;
+			_stripes = new AtomicReferenceArray<Stripe>(stripes);
+		}
+
+		/**
+		 * Answer the stripe of the current thread. The stripes are created as they are needed, since a
+		 * validator is often only run by a few of the threads.
+		 */
+		Stripe stripe(int mask){
+			int i = (int)Thread.currentThread().getId() & mask;
+			Stripe s = _stripes.get(i);
+			if (s == null){
+				s = new Stripe();
+				if (!_stripes.compareAndSet(i, null, s))s = _stripes.get(i);
+			}
+			return s;
+		}
+
+		Totals collect(String id, boolean reset){
+			Totals t = new Totals(id);
+			t.name = _name;
+			for (int i=0; i<_stripes.length(); i++){
+				Stripe s = _stripes.get(i);
+				if (s == null)continue;
+				t.invocations += take(s.sums, Stripe.Invocations, reset);
+				t.validated += take(s.sums, Stripe.Validated, reset);
+				t.elapsedNanos += take(s.sums, Stripe.ElapsedNanos, reset);
+				t.cpuNanos += take(s.sums, Stripe.CpuNanos, reset);
+				t.cpuUnknown += take(s.sums, Stripe.CpuUnknown, reset);
+				for (int j=0; j<BucketCount; j++){
+					t.elapsed[j] += take(s.elapsed, j, reset);
+					t.cpu[j] += take(s.cpu, j, reset);
+				}
+			}
+			return t;
+		}
+
+		private static long take(AtomicLongArray array, int i, boolean reset){
+			return reset ? array.getAndSet(i, 0) : array.get(i);
+		}
+	}
+
+	private static final class Stripe {
+		static final int Invocations = 0;
+		static final int Validated = 1;
+		static final int ElapsedNanos = 2;
+		static final int CpuNanos = 3;
+		static final int CpuUnknown = 4;
+
+		final AtomicLongArray sums = new AtomicLongArray(5);
+		final AtomicLongArray elapsed = new AtomicLongArray(BucketCount);
+		final AtomicLongArray cpu = new AtomicLongArray(BucketCount);
+	}
+}
@@ -10,8 +10,10 @@
  *******************************************************************************/
 package org.eclipse.wst.validation.internal;
 
+import java.io.BufferedOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
@@ -24,13 +26,20 @@ import java.util.Map;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.wst.validation.IPerformanceMonitor;
 import org.eclipse.wst.validation.PerformanceCounters;
+import org.eclipse.wst.validation.PerformanceSnapshot;
 import org.eclipse.wst.validation.internal.plugin.ValidationPlugin;
 
 public class PerformanceMonitor implements IPerformanceMonitor {
 	
-	private CollectionLevel _level = CollectionLevel.None;
+	private volatile CollectionLevel _level = CollectionLevel.None;
 	private boolean			_summaryOnly;
 	
+	/** The totals and histograms that are collected at the Histogram level. */
+	private final PerformanceHistograms	_histograms = new PerformanceHistograms();
+	
+	/** If this is not null, the histograms are appended to this file when the monitor is shut down. */
+	private String			_histogramFile;
+	
 	/**
 	 * Create a performance monitor.
 	 * 
@@ -45,13 +54,22 @@ public class PerformanceMonitor implements IPerformanceMonitor {
 	 *            Set this to true if you want the times that are logged in the
 	 *            trace file normalized to seconds. Otherwise the default units are used,
 	 *            milliseconds for elapsed time and nanoseconds for cpu time.
+	 *            
+	 * @param histogramFile
+	 *            If this is not null or the empty string, the times are collected into histograms
+	 *            instead, and the histograms are appended to a file with this name when the monitor
+	 *            is shut down.
 	 */
-	public static PerformanceMonitor create(boolean traceTimes, String file, boolean logInSeconds){
+	public static PerformanceMonitor create(boolean traceTimes, String file, boolean logInSeconds, String histogramFile){
 		PerformanceMonitor pm = null;
 		if (file == null || file.length() == 0)pm = new PerformanceMonitor();
 		else pm = new ToFile(file, logInSeconds);
 		
-		if (traceTimes)pm.setCollectionLevel(CollectionLevel.Default);
+		if (histogramFile != null && histogramFile.length() > 0){
+			pm._histogramFile = histogramFile;
+			pm.setCollectionLevel(CollectionLevel.Histogram);
+		}
+		else if (traceTimes)pm.setCollectionLevel(CollectionLevel.Default);
 		
 		return pm;
 	}
@@ -72,6 +90,16 @@ public class PerformanceMonitor implements IPerformanceMonitor {
 
 
 	public void resetPerformanceCounters() {
+		ValidationLedger.getDefault().resetCounters();
+		_histograms.reset();
+	}
+	
+	public long getLedgerHits() {
+		return ValidationLedger.getDefault().getHits();
+	}
+	
+	public long getLedgerMisses() {
+		return ValidationLedger.getDefault().getMisses();
 	}
 
 	public boolean isCollecting() {
@@ -82,10 +110,58 @@ public class PerformanceMonitor implements IPerformanceMonitor {
 		return _summaryOnly;
 	}
 	
-	public void add(PerformanceCounters counters){
+	public final void add(PerformanceCounters counters){
+		if (_level == CollectionLevel.Histogram)_histograms.record(counters);
+		else addEvent(counters);
+	}
+	
+	/**
+	 * Handle a single performance event at the Default collection level.
+	 */
+	protected void addEvent(PerformanceCounters counters){
 		Tracing.write(counters.toString());
 	}
 	
+	public List<PerformanceSnapshot> getSnapshot(boolean reset) {
+		if (_level != CollectionLevel.Histogram)return new LinkedList<PerformanceSnapshot>();
+		return _histograms.snapshot(reset);
+	}
+	
+	/**
+	 * Write the histograms in a compact binary form, that can be read by {@link PerformanceReport}.
+	 * 
+	 * @param out where the histograms are written, it is not closed.
+	 * @param reset should the histograms be reset after they have been written?
+	 */
+	public void dump(OutputStream out, boolean reset) throws IOException {
+		PerformanceHistograms.write(_histograms.collect(reset), out);
+	}
+	
+	/**
+	 * The validation plug-in is stopping. If a histogram file was configured, the histograms are appended to it.
+	 */
+	public void shutdown(){
+		if (_histogramFile == null || _level != CollectionLevel.Histogram)return;
+		OutputStream out = null;
+		try {
+			out = new BufferedOutputStream(new FileOutputStream(_histogramFile, true));
+			dump(out, true);
+		}
+		catch (IOException e){
+			ValidationPlugin.getPlugin().handleException(e);
+		}
+		finally {
+			if (out != null){
+				try {
+					out.close();
+				}
+				catch (IOException e){
+					// eat it
+				}
+			}
+		}
+	}
+	
 	public static class Counters{
 		String	name;
 		int 	numberInvocations;
@@ -95,6 +171,9 @@ public class PerformanceMonitor implements IPerformanceMonitor {
 		
 		/** CPU time in nanoseconds, or -1 if unknown. */
 		long	cpuTime;		
+		
+		/** Number of markers created or deleted, or -1 if these are not marker counters. */
+		int		markerChanges = -1;
 	}
 	
 	public static class ToFile extends PerformanceMonitor {
@@ -112,7 +191,7 @@ public class PerformanceMonitor implements IPerformanceMonitor {
 		}
 		
 		@Override
-		public synchronized void add(PerformanceCounters pc) {
+		protected synchronized void addEvent(PerformanceCounters pc) {
 			try {
 				PrintWriter pw = getWriter();
 				pw.print(_df.format(pc.getWhen()) + Comma + 
@@ -154,7 +233,8 @@ public class PerformanceMonitor implements IPerformanceMonitor {
 	public static class Collecting extends PerformanceMonitor {
 		private List<PerformanceCounters>	_counters = new LinkedList<PerformanceCounters>();
 		
-		public void add(PerformanceCounters counters){
+		@Override
+		protected void addEvent(PerformanceCounters counters){
 			_counters.add(counters);
 		}
 		
@@ -172,11 +252,13 @@ public class PerformanceMonitor implements IPerformanceMonitor {
 					c.elapsedTime += pc.getElapsedTime();
 					if (pc.getCpuTime() != -1)c.cpuTime += pc.getCpuTime();
 					else c.cpuTime = -1;
+					if (pc.getMarkerChanges() != -1)c.markerChanges = Math.max(c.markerChanges, 0) + pc.getMarkerChanges();
 				}
 				List<PerformanceCounters> list = new LinkedList<PerformanceCounters>();
 				for (Map.Entry<String, Counters> me : map.entrySet()){
 					Counters c = me.getValue();
-					list.add(new PerformanceCounters(me.getKey(), c.name, null, c.numberInvocations, c.elapsedTime, c.cpuTime));
+					list.add(new PerformanceCounters(me.getKey(), c.name, null, c.numberInvocations, c.elapsedTime, 
+						c.cpuTime, c.markerChanges));
 				}
 				return list;
 			}
@@ -184,6 +266,7 @@ public class PerformanceMonitor implements IPerformanceMonitor {
 		}
 		
 		public void resetPerformanceCounters() {
+			super.resetPerformanceCounters();
 			_counters.clear();
 		}
 
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation.internal;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.wst.validation.PerformanceSnapshot;
+import org.eclipse.wst.validation.internal.PerformanceHistograms.Totals;
+
+/**
+ * Turns the histogram files that are written by the performance monitor into a text report. The dumps in
+ * the files are added together, so the report covers every session that appended to them.
+ * <p>
+ * It does not need a running workbench, only the validation plug-in on the class path, and is run with:
+ * <pre>
+ * java -cp org.eclipse.wst.validation.jar org.eclipse.wst.validation.internal.PerformanceReport file...
+ * </pre>
+ * </p>
+ */
+public class PerformanceReport {
+
+	private static final String Header =
+		"validator\tinvocations\tvalidated\ttotal ms\tmean us\tp50 us\tp95 us\tp99 us\tmax us\tcpu ms\tcpu p99 us"; //$NON-NLS-1$
+
+	/** The key is the validator id. */
+	private final Map<String, Totals> _totals = new TreeMap<String, Totals>();
+
+	private int	_dumps;
+
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0){
+			System.err.println("Usage: PerformanceReport file..."); //$NON-NLS-1$
+			System.exit(2);
+		}
+		PerformanceReport report = new PerformanceReport();
+		for (String file : args){
+			InputStream in = new BufferedInputStream(new FileInputStream(file));
+			try {
+				report.add(in);
+			}
+			finally {
+				in.close();
+			}
+		}
+		report.print(System.out);
+	}
+
+	/**
+	 * Add all the dumps in the stream to the report.
+	 */
+	public void add(InputStream in) throws IOException {
+		for (List<Totals> dump : PerformanceHistograms.read(in)){
+			_dumps++;
+			for (Totals t : dump){
+				Totals sum = _totals.get(t.id);
+				if (sum == null){
+					sum = new Totals(t.id);
+					sum.name = t.name;
+					_totals.put(t.id, sum);
+				}
+				sum.add(t);
+			}
+		}
+	}
+
+	/**
+	 * Print a tab separated line for every validator, slowest first.
+	 */
+	public void print(PrintStream out){
+		out.println("# " + _dumps + " dumps, " + _totals.size() + " validators"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		out.println(Header);
+		List<Totals> slowest = new ArrayList<Totals>(_totals.values());
+		Collections.sort(slowest, new Comparator<Totals>(){
+			public int compare(Totals a, Totals b) {
+				if (a.elapsedNanos == b.elapsedNanos)return 0;
+				return a.elapsedNanos > b.elapsedNanos ? -1 : 1;
+			}
+		});
+		for (Totals t : slowest){
+			PerformanceSnapshot ps = t.toSnapshot();
+			StringBuffer sb = new StringBuffer(200);
+			sb.append(t.id);
+			sb.append('\t').append(ps.getInvocations());
+			sb.append('\t').append(ps.getNumberValidated());
+			sb.append('\t').append(ps.getElapsedTime());
+			sb.append('\t').append(ps.getInvocations() == 0 ? 0 : ps.getElapsedNanos() / ps.getInvocations() / 1000);
+			sb.append('\t').append(micros(ps.getElapsedPercentile(50)));
+			sb.append('\t').append(micros(ps.getElapsedPercentile(95)));
+			sb.append('\t').append(micros(ps.getElapsedPercentile(99)));
+			sb.append('\t').append(micros(ps.getElapsedPercentile(100)));
+			sb.append('\t').append(ps.getCpuTime() == -1 ? "-" : String.valueOf(ps.getCpuTime() / 1000000)); //$NON-NLS-1$
+			sb.append('\t').append(micros(ps.getCpuPercentile(99)));
+			out.println(sb.toString());
+		}
+	}
+
+	private static String micros(long nanos){
+		if (nanos == -1)return "-"; //$NON-NLS-1$
+		return String.valueOf(nanos / 1000);
+	}
+}
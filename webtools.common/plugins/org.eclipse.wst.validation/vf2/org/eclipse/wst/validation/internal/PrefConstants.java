@@ -112,5 +112,8 @@ public interface PrefConstants {
 	/** global - some global validation settings. */
 	String global = "global"; //$NON-NLS-1$
 	
+	/** poolSize - the number of workers used for build validation. 1 means validate serially. */
+	String poolSize = "poolSize"; //$NON-NLS-1$
+	
 	
 }
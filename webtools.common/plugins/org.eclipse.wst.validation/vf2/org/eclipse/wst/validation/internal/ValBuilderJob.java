@@ -11,8 +11,18 @@
 package org.eclipse.wst.validation.internal;
 
 import java.text.MessageFormat;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
@@ -21,6 +31,7 @@ import org.eclipse.core.resources.IResourceDeltaVisitor;
 import org.eclipse.core.resources.IResourceProxy;
 import org.eclipse.core.resources.IResourceProxyVisitor;
 import org.eclipse.core.resources.IResourceVisitor;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.resources.WorkspaceJob;
 import org.eclipse.core.runtime.CoreException;
@@ -28,9 +39,12 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
-import org.eclipse.wst.validation.DependentResource;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.eclipse.wst.validation.Friend;
 import org.eclipse.wst.validation.IDependencyIndex;
+import org.eclipse.wst.validation.IPerformanceMonitor;
+import org.eclipse.wst.validation.PerformanceCounters;
 import org.eclipse.wst.validation.ValidationEvent;
 import org.eclipse.wst.validation.ValidationFramework;
 import org.eclipse.wst.validation.ValidationState;
@@ -46,6 +60,21 @@ import org.eclipse.wst.validation.internal.plugin.ValidationPlugin;
  * This is the main class for supporting build based validation. When triggered it looks at all of the
  * resource changes and determines what needs to be validated. 
  * </p>
+ * <p>
+ * If the global preferences allow more than one validation worker, the queued requests are fanned out
+ * to a set of project jobs. At most one request per project is ever being validated at the same time.
+ * </p>
+ * <p>
+ * There is at most one waiting request per project. When a project is built again before its waiting
+ * request has started, the new delta is merged into that request, and when the request runs each changed
+ * resource is only validated once, for its newest change. The deltas of a merged request are validated newest
+ * first, so the resources that were changed most recently, which are most likely the ones that are being edited,
+ * are validated before the older changes. (This plug-in does not depend on the UI, so it can not ask which files
+ * are open in an editor.) The waiting requests are not started in the order
+ * that they arrived. Incremental requests go before full builds, and the project that was changed most
+ * recently goes first, since that is most likely the one that is being edited. A request that has waited
+ * longer than MaxWait goes before all of these, so that nothing is starved.
+ * </p>
  * @author karasiuk
  *
  */
@@ -54,6 +83,26 @@ public final class ValBuilderJob extends WorkspaceJob {
 	private static ValBuilderJob _job;
 	private static Queue<ValidationRequest> _work = new LinkedList<ValidationRequest>();
 	
+	/** The requests in _work, by project. A project has at most one waiting request. */
+	private static Map<IProject, ValidationRequest> _waiting = new HashMap<IProject, ValidationRequest>(20);
+	
+	/** The projects that are currently being validated by a project job. */
+	private static Set<IProject> _busy = new HashSet<IProject>(20);
+	
+	/** A request that has waited longer than this, in milliseconds, is started before any other request. */
+	private final static long MaxWait = 10000;
+	
+	/** The id that the time spent waiting in the queue is reported under to the performance monitor. */
+	public static final String PerformanceId = ValidationPlugin.PLUGIN_ID + ".queue"; //$NON-NLS-1$
+	
+	private static long _submitted;
+	private static long _coalesced;
+	private static int	_maxDepth;
+	private static long _started;
+	private static long _totalWait;
+	private static long _maxWait;
+	private static final AtomicLong _superseded = new AtomicLong();
+	
 	private final ValOperation _operation = new ValOperation();
 		
 	/** The types of changes we are interested in. */
@@ -61,7 +110,15 @@ public final class ValBuilderJob extends WorkspaceJob {
 		IResourceDelta.MOVED_FROM | IResourceDelta.MOVED_TO;
 	
 	public static synchronized void validateProject(IProject project, IResourceDelta delta, int buildKind){
+		_submitted++;
+		ValidationRequest waiting = _waiting.get(project);
+		if (waiting != null){
+			waiting.merge(delta, buildKind);
+			_coalesced++;
+			return;
+		}
 		ValidationRequest request = new ValidationRequest(project, delta, buildKind);
+		_waiting.put(project, request);
 		if (_job == null){
 			_job = new ValBuilderJob();
 			_job.add(request);
@@ -70,16 +127,165 @@ public final class ValBuilderJob extends WorkspaceJob {
 		else {
 			_job.add(request);
 		}
+		if (_work.size() > _maxDepth)_maxDepth = _work.size();
 	}
 	
 	private static synchronized ValidationRequest getRequest(){
-		ValidationRequest request = _work.poll();
+		ValidationRequest request = next(false);
 		if (request == null){
 			_job = null;
 		}
 		return request;
 	}
 	
+	/**
+	 * Answer the next request whose project is not already being validated, and mark that project as busy.
+	 * 
+	 * @return null if there aren't any requests that can be started right now.
+	 */
+	private static synchronized ValidationRequest getReadyRequest(){
+		ValidationRequest request = next(true);
+		if (request != null)_busy.add(request.getProject());
+		return request;
+	}
+	
+	/**
+	 * Remove the request that should be started next from the queue.
+	 * 
+	 * @param skipBusy if true, the requests of projects that are being validated are not considered.
+	 * @return null if there isn't one.
+	 */
+	private static ValidationRequest next(boolean skipBusy){
+		long now = System.currentTimeMillis();
+		ValidationRequest best = null;
+		for (ValidationRequest request : _work){
+			if (skipBusy && _busy.contains(request.getProject()))continue;
+			if (best == null || request.isBefore(best, now))best = request;
+		}
+		if (best == null)return null;
+		_work.remove(best);
+		_waiting.remove(best.getProject());
+		
+		long wait = now - best.getQueued();
+		_started++;
+		_totalWait += wait;
+		if (wait > _maxWait)_maxWait = wait;
+		IPerformanceMonitor pm = ValidationFramework.getDefault().getPerformanceMonitor();
+		if (pm.isCollecting()){
+			pm.add(new PerformanceCounters(PerformanceId, ValMessages.LogBuildQueue, best.getProject().getName(), 
+				best.getMerged(), wait, -1));
+		}
+		if (Tracing.isLogging()){
+			Tracing.log("ValBuilderJob-03: " + best.getProject().getName() + " waited " + wait +  //$NON-NLS-1$ //$NON-NLS-2$
+				"ms, requests merged " + best.getMerged() + ", queue depth " + _work.size()); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		return best;
+	}
+	
+	/**
+	 * Answer the number of requests that are waiting to be validated.
+	 */
+	public static synchronized int getQueueDepth(){
+		return _work.size();
+	}
+	
+	/**
+	 * Answer true if there is no build validation job, and no project is being validated.
+	 */
+	public static synchronized boolean isIdle(){
+		return _job == null && _busy.isEmpty();
+	}
+	
+	/**
+	 * Answer the largest number of requests that have been waiting at the same time.
+	 */
+	public static synchronized int getMaxQueueDepth(){
+		return _maxDepth;
+	}
+	
+	/**
+	 * Answer the number of times that the validation builder asked for a project to be validated.
+	 */
+	public static synchronized long getSubmitted(){
+		return _submitted;
+	}
+	
+	/**
+	 * Answer the number of build requests that were merged into a request that was already waiting.
+	 */
+	public static synchronized long getCoalesced(){
+		return _coalesced;
+	}
+	
+	/**
+	 * Answer the number of requests that have been started.
+	 */
+	public static synchronized long getStarted(){
+		return _started;
+	}
+	
+	/**
+	 * Answer the total time, in milliseconds, that the started requests waited in the queue.
+	 */
+	public static synchronized long getTotalWait(){
+		return _totalWait;
+	}
+	
+	/**
+	 * Answer the longest time, in milliseconds, that a request has waited in the queue.
+	 */
+	public static synchronized long getMaxWait(){
+		return _maxWait;
+	}
+	
+	/**
+	 * Answer the number of resource changes that were not validated, because a newer change to the same
+	 * resource had been merged into the same request.
+	 */
+	public static long getSuperseded(){
+		return _superseded.get();
+	}
+	
+	/**
+	 * Reset the queue statistics.
+	 */
+	public static synchronized void resetStatistics(){
+		_submitted = 0;
+		_coalesced = 0;
+		_maxDepth = _work.size();
+		_started = 0;
+		_totalWait = 0;
+		_maxWait = 0;
+		_superseded.set(0);
+	}
+	
+	/**
+	 * Answer true if there is no more work. In that case the job is finished, and the next request will
+	 * need to schedule a new job.
+	 */
+	private static synchronized boolean isDrained(){
+		if (!_work.isEmpty())return false;
+		_job = null;
+		return true;
+	}
+	
+	private static synchronized void projectFinished(IProject project){
+		_busy.remove(project);
+		ValBuilderJob.class.notifyAll();
+	}
+	
+	/**
+	 * Wait a short while for a project job to finish.
+	 */
+	private static synchronized void waitForProject(){
+		try {
+			ValBuilderJob.class.wait(100);
+		}
+		catch (InterruptedException e){
+			Thread.currentThread().interrupt();
+		}
+	}
+	
 	/**
 	 * Each validation run is done in it's own job.
 	 * 
@@ -121,10 +327,15 @@ public final class ValBuilderJob extends WorkspaceJob {
 		try {
 			startingValidation(monitor);
 			
-			ValidationRequest request = getRequest();
-			while(request != null){
-				run(request, monitor);
-				request = getRequest();
+			int poolSize = ValWorkerPool.getDefault().getPoolSize();
+			if (poolSize > 1)runParallel(poolSize, monitor);
+			else {
+				ValidationRequest request = getRequest();
+				while(request != null){
+					setName(MessageFormat.format(ValMessages.JobNameWithProjectName,new Object[] { request.getProject().getName() })); 
+					run(request, monitor);
+					request = getRequest();
+				}
 			}
 		}
 		finally {
@@ -161,24 +372,71 @@ public final class ValBuilderJob extends WorkspaceJob {
 		  ValManager.getDefault().accept(finishedVisitor, null, ValType.Build, getOperation(), monitor);
 	}
 
-	private void run(ValidationRequest request, IProgressMonitor monitor){
-		setName(MessageFormat.format(ValMessages.JobNameWithProjectName,new Object[] { request.getProject().getName() })); 
-		try {		
-	        IValidatorVisitor startingVisitor = new IValidatorVisitor(){
-
-	            public void visit(Validator validator, IProject project, ValType valType, 
-	                ValOperation operation, IProgressMonitor monitor) {
-	                
-	                validator.validationStarting(project, operation.getState(), monitor);                   
-	            }               
-	        };
+	/**
+	 * Fan the requests out to project jobs, running at most poolSize of them at the same time, and wait
+	 * until all of them have finished. Once the monitor is canceled, the project jobs are canceled and the
+	 * remaining requests are drained without doing any work.
+	 */
+	private void runParallel(int poolSize, IProgressMonitor monitor){
+		Semaphore permits = new Semaphore(poolSize);
+		Set<ProjectJob> scheduled = new HashSet<ProjectJob>(poolSize * 2);
+		boolean canceled = false;
+		boolean interrupted = false;
+		while (true){
+			if (!canceled && monitor.isCanceled()){
+				canceled = true;
+				cancel(scheduled);
+			}
+			try {
+				if (!permits.tryAcquire(100, TimeUnit.MILLISECONDS))continue;
+			}
+			catch (InterruptedException e){
+				interrupted = true;
+				canceled = true;
+				cancel(scheduled);
+				continue;
+			}
+			ValidationRequest request = getReadyRequest();
+			if (request == null){
+				permits.release();
+				if (permits.availablePermits() == poolSize && isDrained())break;
+				waitForProject();
+				continue;
+			}
+			if (canceled){
+				// drain the queue without doing any work
+				projectFinished(request.getProject());
+				permits.release();
+				continue;
+			}
+			ProjectJob job = new ProjectJob(request, permits, scheduled);
+			synchronized(scheduled){
+				scheduled.add(job);
+			}
+			job.schedule();
+		}
+		if (interrupted)Thread.currentThread().interrupt();
+	}
+	
+	/**
+	 * Cancel the project jobs that have not finished yet. The ones that have not started will never run,
+	 * but they still give back their project and permit when they are done.
+	 */
+	private static void cancel(Set<ProjectJob> scheduled){
+		ProjectJob[] jobs;
+		synchronized(scheduled){
+			jobs = scheduled.toArray(new ProjectJob[scheduled.size()]);
+		}
+		for (ProjectJob job : jobs)job.cancel();
+	}
 
-	        ValManager.getDefault().accept(startingVisitor, request.getProject(), ValType.Build, getOperation(), monitor);
-		  
-			if (request.getDelta() == null)fullBuild(request, monitor);
+	private void run(ValidationRequest request, IProgressMonitor monitor){
+		ValWorkerPool.Session session = null;
+		try {
+			session = ValWorkerPool.getDefault().openSession(request.getProject(), ValType.Build, getOperation(), monitor);
+			session.start(monitor);
+			if (request.isFullBuild())fullBuild(request, monitor);
 			else deltaBuild(request, monitor);
-
-			
 		}
 		catch (ProjectUnavailableError e){
 			ValidationPlugin.getPlugin().handleProjectUnavailableError(e);
@@ -190,25 +448,22 @@ public final class ValBuilderJob extends WorkspaceJob {
 			ValidationPlugin.getPlugin().handleException(e);
 		}
 		finally {
-		  IValidatorVisitor finishedVisitor = new IValidatorVisitor(){
-
-		    public void visit(Validator validator, IProject project, ValType valType,
-		      ValOperation operation, IProgressMonitor monitor) {
-
-		      validator.validationFinishing(project, operation.getState(), monitor);              
-		    }           
-		  };
-          ValManager.getDefault().accept(finishedVisitor, request.getProject(), ValType.Build, getOperation(), monitor);
+			if (session != null)session.finish(monitor);
 		}
 		
 	}
 
+	/**
+	 * Validate the deltas of the request, newest first. A resource that is in more than one delta is only
+	 * validated for its newest change.
+	 */
 	private void deltaBuild(ValidationRequest request, IProgressMonitor monitor) throws CoreException {
 		ResourceCounter counter = new ResourceCounter();
-		request.getDelta().accept(counter);
+		for (IResourceDelta delta : request.getDeltas())delta.accept(counter);
 		SubMonitor subMonitor = SubMonitor.convert(monitor, counter.getCount());
 		Visitor vistitor = new Visitor(request, subMonitor, monitor, getOperation());
-		request.getDelta().accept(vistitor);		
+		for (IResourceDelta delta : request.getDeltas())delta.accept(vistitor);
+		vistitor.validateDependents();
 	}
 
 	private void fullBuild(ValidationRequest request, IProgressMonitor monitor) throws CoreException {
@@ -223,6 +478,56 @@ public final class ValBuilderJob extends WorkspaceJob {
 	private ValOperation getOperation(){
 		return _operation;
 	}
+	
+	/**
+	 * Validates a single request when the build validation is being run in parallel.
+	 * <p>
+	 * The project and the permit are given back when the job is done, rather than at the end of
+	 * runInWorkspace, since a job that is canceled before it starts is done without ever being run.
+	 * </p>
+	 */
+	private final class ProjectJob extends WorkspaceJob {
+		
+		private final ValidationRequest _request;
+		private final Semaphore			_permits;
+		private final Set<ProjectJob>	_scheduled;
+		private final AtomicBoolean		_finished = new AtomicBoolean();
+		
+		public ProjectJob(ValidationRequest request, Semaphore permits, Set<ProjectJob> scheduled){
+			super(MessageFormat.format(ValMessages.JobNameWithProjectName,new Object[] { request.getProject().getName() }));
+			_request = request;
+			_permits = permits;
+			_scheduled = scheduled;
+			setSystem(true);
+			addJobChangeListener(new JobChangeAdapter(){
+				@Override
+				public void done(IJobChangeEvent event) {
+					finished();
+				}
+			});
+		}
+		
+		@Override
+		public boolean belongsTo(Object family) {
+			return ValBuilderJob.this.belongsTo(family);
+		}
+
+		@Override
+		public IStatus runInWorkspace(IProgressMonitor monitor) {
+			if (monitor.isCanceled())return Status.CANCEL_STATUS;
+			run(_request, monitor);
+			return Status.OK_STATUS;
+		}
+		
+		private void finished(){
+			if (!_finished.compareAndSet(false, true))return;
+			synchronized(_scheduled){
+				_scheduled.remove(this);
+			}
+			projectFinished(_request.getProject());
+			_permits.release();
+		}
+	}
 
 	static final class ResourceCounter implements IResourceProxyVisitor, IResourceDeltaVisitor {
 		
@@ -243,37 +548,105 @@ public final class ValBuilderJob extends WorkspaceJob {
 		}		
 	}
 	
+	/**
+	 * A request to validate a project. While it is waiting, later builds of the same project are merged into
+	 * it. All the merging is done while holding the ValBuilderJob class lock, and a request is not changed
+	 * once it has been taken off the queue.
+	 */
 	static final class ValidationRequest {
 		/** The project that is being built. */
 		private final IProject 			_project;
 		
-		/** The resource delta that triggered the build, it will be null for a full build. */
-		private final IResourceDelta	_delta;
+		/** 
+		 * The resource deltas that triggered the builds, newest first. It will be null for a full build, since
+		 * a full build covers every delta.
+		 */
+		private LinkedList<IResourceDelta>	_deltas;
 		
 		/** 
 		 * The kind of build.
 		 * 
 		 *  @see org.eclipse.core.resources.IncrementalProjectBuilder
 		 */
-		private final int					_buildKind;
+		private int					_buildKind;
+		
+		/** When the first of the merged builds was queued. */
+		private final long			_queued;
+		
+		/** When the newest of the merged builds was queued. */
+		private long				_lastChanged;
+		
+		/** The number of builds that were merged into this request. */
+		private int					_merged = 1;
 		
 		public ValidationRequest(IProject project, IResourceDelta delta, int buildKind){
 			_project = project;
-			_delta = delta;
+			if (delta != null){
+				_deltas = new LinkedList<IResourceDelta>();
+				_deltas.add(delta);
+			}
 			_buildKind = buildKind;
+			_queued = System.currentTimeMillis();
+			_lastChanged = _queued;
+		}
+		
+		/**
+		 * Merge a newer build of the same project into this request.
+		 * 
+		 * @param delta the delta of the newer build, or null if it is a full build.
+		 */
+		void merge(IResourceDelta delta, int buildKind){
+			_merged++;
+			_lastChanged = System.currentTimeMillis();
+			if (delta == null){
+				_deltas = null;
+				_buildKind = buildKind;
+			}
+			else if (_deltas != null){
+				_deltas.addFirst(delta);
+				_buildKind = buildKind;
+			}
+		}
+		
+		/**
+		 * Should this request be started before the other one?
+		 */
+		boolean isBefore(ValidationRequest other, long now){
+			boolean late = now - _queued > MaxWait;
+			if (late != (now - other._queued > MaxWait))return late;
+			if (late)return _queued < other._queued;
+			if (isFullBuild() != other.isFullBuild())return !isFullBuild();
+			if (isFullBuild())return _queued < other._queued;
+			return _lastChanged > other._lastChanged;
 		}
 
 		public IProject getProject() {
 			return _project;
 		}
+		
+		public boolean isFullBuild(){
+			return _deltas == null;
+		}
 
-		public IResourceDelta getDelta() {
-			return _delta;
+		/**
+		 * Answer the deltas to validate, newest first. This is empty for a full build.
+		 */
+		public List<IResourceDelta> getDeltas() {
+			if (_deltas == null)return new LinkedList<IResourceDelta>();
+			return _deltas;
 		}
 
 		public int getBuildKind() {
 			return _buildKind;
 		}
+		
+		public long getQueued() {
+			return _queued;
+		}
+		
+		public int getMerged() {
+			return _merged;
+		}
 	}
 	
 	private final static class Visitor implements IResourceDeltaVisitor, IResourceVisitor{
@@ -283,7 +656,16 @@ public final class ValBuilderJob extends WorkspaceJob {
 		private final IProgressMonitor 		_monitor;
 		private final ValOperation			_operation;
 		
+		/** The resources whose changes have been handled, when there are several deltas. */
+		private final Set<IResource>		_handled;
+		
+		private final IDependencyIndex		_index = ValidationFramework.getDefault().getDependencyIndex();
+		
+		/** The changed resources that other resources depend on, with the delta that changed them. */
+		private final Map<IResource, IResourceDelta> _changed = new LinkedHashMap<IResource, IResourceDelta>();
+		
 		public Visitor(ValidationRequest request, SubMonitor subMonitor, IProgressMonitor monitor, ValOperation operation){
+			_handled = request.getDeltas().size() > 1 ? new HashSet<IResource>(100) : null;
 			_request = request;
 			_subMonitor = subMonitor;
 			_monitor = monitor;
@@ -317,6 +699,12 @@ public final class ValBuilderJob extends WorkspaceJob {
 			boolean isChanged = (kind & IResourceDelta.CHANGED) != 0;
 			if (isChanged &&  (delta.getFlags() & InterestedFlags) == 0)return true;
 			
+			if (_handled != null && !_handled.add(resource)){
+				// a newer delta of the same request has already handled this resource
+				_superseded.incrementAndGet();
+				return true;
+			}
+			
 			// Check for file ADDED and REMOVED events, which means that the file may have moved to a new
 			// project. To be safe we clear it's cached list of validators.
 			if (((kind & (IResourceDelta.ADDED | IResourceDelta.REMOVED)) != 0)	&& resource.getType() == IResource.FILE) {
@@ -339,21 +727,40 @@ public final class ValBuilderJob extends WorkspaceJob {
 				}				
 			}
 					
-			IDependencyIndex index = ValidationFramework.getDefault().getDependencyIndex();
-			if (index.isDependedOn(resource)){
-				MarkerManager mm = MarkerManager.getDefault();
-				for (DependentResource dr : index.get(resource)){
-					Validator val = dr.getValidator();
-					if (Friend.shouldValidate(val, dr.getResource(), ValType.Build, new ContentTypeWrapper())){
-						_operation.getState().put(ValidationState.TriggerResource, resource);
-						ValidationEvent event = new ValidationEvent(dr.getResource(), IResourceDelta.NO_CHANGE, delta);
-						if (val.shouldClearMarkers(event))mm.clearMarker(dr.getResource(), val);
-							ValManager.getDefault().validate(val, _operation, dr.getResource(),
-									IResourceDelta.NO_CHANGE, _monitor, event);
-						}
-					}
-				}
+			if (_index.isDependedOn(resource) && !_changed.containsKey(resource))_changed.put(resource, delta);
 			return true;
 		}
+		
+		/**
+		 * Validate the resources that depend, directly or indirectly, on the changed resources. If there are
+		 * too many of them, the projects that they are in are fully validated instead.
+		 */
+		public void validateDependents(){
+			if (_changed.isEmpty())return;
+			DependencyImpact impact = DependencyImpact.analyze(_index, _changed.keySet(), DependencyImpact.DefaultLimit);
+			if (Tracing.isLogging()){
+				Tracing.log("ValBuilderJob-03: " + _changed.size() + " changed resources, " +  //$NON-NLS-1$//$NON-NLS-2$
+					impact.getValidationCount() + " dependent validations"); //$NON-NLS-1$
+			}
+			if (impact.isOverLimit()){
+				for (IProject project : impact.getProjects()){
+					validateProject(project, null, IncrementalProjectBuilder.FULL_BUILD);
+				}
+				return;
+			}
+			
+			MarkerManager mm = MarkerManager.getDefault();
+			for (DependencyImpact.Target target : impact.getTargets()){
+				if (_monitor.isCanceled())return;
+				Validator val = target.getValidator();
+				IResource resource = target.getResource();
+				if (Friend.shouldValidate(val, resource, ValType.Build, new ContentTypeWrapper())){
+					_operation.getState().put(ValidationState.TriggerResource, target.getTrigger());
+					ValidationEvent event = new ValidationEvent(resource, IResourceDelta.NO_CHANGE, _changed.get(target.getTrigger()));
+					if (val.shouldClearMarkers(event))mm.clearMarker(resource, val);
+					ValManager.getDefault().validate(val, _operation, resource, IResourceDelta.NO_CHANGE, _monitor, event);
+				}
+			}
+		}
 	}
 }
@@ -53,6 +53,7 @@ import org.eclipse.wst.validation.ValidationFramework;
 import org.eclipse.wst.validation.ValidationResult;
 import org.eclipse.wst.validation.ValidationState;
 import org.eclipse.wst.validation.Validator;
+import org.eclipse.wst.validation.ValidatorMessage;
 import org.eclipse.wst.validation.internal.model.GlobalPreferences;
 import org.eclipse.wst.validation.internal.model.GlobalPreferencesValues;
 import org.eclipse.wst.validation.internal.model.IValidatorVisitor;
@@ -85,8 +86,12 @@ public final class ValManager implements IValChangedListener, IFacetedProjectLis
 	 */
 	private final AtomicInteger _configNumber = new AtomicInteger();
 	
-	private final ValidatorIdManager _idManager = new ValidatorIdManager();
+	private final ValidatorIdManager _idManager = ValidatorIdManager.getDefault();
 	private final ValidatorCache 	_cache = new ValidatorCache();
+	
+	/** The compiled filters, see {@link ValidatorFilterIndex}. */
+	private final ConcurrentMap<IProject, ValidatorFilterIndex> _filterIndexes = 
+		new ConcurrentHashMap<IProject, ValidatorFilterIndex>(50);
 		
 	private static final QualifiedName StatusBuild = new QualifiedName(ValidationPlugin.PLUGIN_ID, "sb"); //$NON-NLS-1$
 	private static final QualifiedName StatusManual = new QualifiedName(ValidationPlugin.PLUGIN_ID, "sm"); //$NON-NLS-1$
@@ -543,6 +548,20 @@ public final class ValManager implements IValChangedListener, IFacetedProjectLis
 		_configNumber.incrementAndGet();
 		ValidatorProjectManager.reset();
 		_cache.reset();
+		_filterIndexes.clear();
+	}
+	
+	/**
+	 * Answer the compiled filters for the project's validators, compiling them again if the configuration
+	 * or the validators have changed since they were last compiled.
+	 */
+	private ValidatorFilterIndex getFilterIndex(IProject project, Validator[] validators, int configNumber){
+		ValidatorFilterIndex index = _filterIndexes.get(project);
+		if (index == null || !index.isCurrent(configNumber, validators)){
+			index = ValidatorFilterIndex.compile(project, validators, configNumber);
+			_filterIndexes.put(project, index);
+		}
+		return index;
 	}
 		
 	/**
@@ -647,7 +666,8 @@ public final class ValManager implements IValChangedListener, IFacetedProjectLis
 	public void validate(IProject project, final IResource resource, final int kind, ValType valType, 
 		int buildKind, ValOperation operation, final IProgressMonitor monitor) {
 		
-		MarkerManager.getDefault().deleteMarkers(resource, operation.getStarted(), IResource.DEPTH_ZERO);
+		MarkerManager mm = MarkerManager.getDefault();
+		MarkerManager.Batch batch = mm.beginBatch(resource, operation);
 		
 		IValidatorVisitor visitor = new IValidatorVisitor(){
 
@@ -661,13 +681,21 @@ public final class ValManager implements IValChangedListener, IFacetedProjectLis
 				String task = NLS.bind(ValMessages.LogValStart, validator.getName(), resource.getName());
 				subMonitor.beginTask(task, 1);
 
-				if (project.isOpen())
-					validate(validator, operation, resource, kind, subMonitor.newChild(1), null);
+				if (project.isOpen()){
+					if (vt == ValType.Build && replay(validator, operation, resource))return;
+					long stamp = resource.getModificationStamp();
+					ValidationResult vr = validateResource(validator, operation, resource, kind, subMonitor.newChild(1), null);
+					if (vt == ValType.Build && vr != null)ValidationLedger.getDefault().record(validator, resource, vr, stamp, operation, monitor);
+				}
 			}			
 		};
 		SubMonitor sm = SubMonitor.convert(monitor, getValidators(project).length);
-		accept(visitor, project, resource, valType, operation, sm);
-		
+		try {
+			accept(visitor, project, resource, valType, operation, sm, true);
+		}
+		finally {
+			mm.flush(batch);
+		}
 	}
 	
 	/**
@@ -684,14 +712,49 @@ public final class ValManager implements IValChangedListener, IFacetedProjectLis
 	 */
 	public void validate(Validator validator, ValOperation operation, IResource resource, int kind, 
 			IProgressMonitor monitor, ValidationEvent event){
-		if (operation.isValidated(validator.getId(), resource))return;
+		validateResource(validator, operation, resource, kind, monitor, event);
+	}
+	
+	/**
+	 * If the validation ledger shows that this validator has already validated this exact content with 
+	 * its current configuration, then recreate the recorded markers instead of running the validator.
+	 * 
+	 * @return true if the validation was satisfied from the ledger.
+	 */
+	private boolean replay(Validator validator, ValOperation operation, IResource resource){
+		if (validator.asV2Validator() == null)return false;
+		if (operation.isValidated(validator.getId(), resource))return false;
+		ValidationResult vr = ValidationLedger.getDefault().lookup(validator, resource);
+		if (vr == null)return false;
+		
+		if (Tracing.matchesExtraDetail(validator.getId())){
+			Tracing.log("ValManager-04: replayed from the ledger ", resource); //$NON-NLS-1$
+		}
+		MarkerManager mm = MarkerManager.getDefault();
+		for (ValidatorMessage m : vr.getMessages())mm.createMarker(m, validator.getId(), operation);
+		operation.mergeResults(validator, resource, vr, null);
+		return true;
+	}
+	
+	/**
+	 * Validate a single resource with a single validator, and answer the result.
+	 * 
+	 * @return the validation result, this can be null.
+	 */
+	private ValidationResult validateResource(Validator validator, ValOperation operation, IResource resource, int kind, 
+			IProgressMonitor monitor, ValidationEvent event){
+		if (operation.isValidated(validator.getId(), resource))return null;
 		long time = 0;
 		long cpuTime = -1;
 		String msg1 = NLS.bind(ValMessages.LogValStart, validator.getName(), resource.getName());
 		monitor.subTask(msg1);
 		IPerformanceMonitor pm = ValidationFramework.getDefault().getPerformanceMonitor();
-		if (pm.isCollecting()){
+		// a streaming operation passes the timings on with the results, even if the monitor is not collecting
+		boolean timing = pm.isCollecting() || operation.isStreaming();
+		long nanos = 0;
+		if (timing){
 			time = System.currentTimeMillis();
+			nanos = System.nanoTime();
 			cpuTime = Misc.getCPUTime();
 		}
 		
@@ -701,18 +764,19 @@ public final class ValManager implements IValChangedListener, IFacetedProjectLis
 	
 		if (resource.exists())
 		{	
-			ValidationResult vr = validator.validate(resource, kind, operation, monitor, event);
+			ValidationResult vr = invoke(validator, resource, kind, operation, monitor, event);
 	
-			if (pm.isCollecting()){
+			PerformanceCounters pc = null;
+			if (timing){
 				if (cpuTime != -1){
 					cpuTime = Misc.getCPUTime() - cpuTime;
 				}
 				int num = 0;
 				if (vr != null)num = vr.getNumberOfValidatedResources();
-				PerformanceCounters pc = new PerformanceCounters(validator.getId(), 
+				pc = new PerformanceCounters(validator.getId(), 
 					validator.getName(), resource.getName(),
-					num, System.currentTimeMillis()-time, cpuTime);
-				pm.add(pc);
+					num, System.currentTimeMillis()-time, cpuTime, -1, System.nanoTime()-nanos);
+				if (pm.isCollecting())pm.add(pc);
 			}
 			if (ValidationPlugin.getPlugin().isDebugging() && !pm.isCollecting()){
 				String msg = time != 0 ? 
@@ -722,10 +786,27 @@ public final class ValManager implements IValChangedListener, IFacetedProjectLis
 				Tracing.log("ValManager-01: " + msg); //$NON-NLS-1$
 			}
 			if (vr != null){
-				operation.mergeResults(vr);
+				operation.mergeResults(validator, resource, vr, pc);
 				if (vr.getSuspendValidation() != null)operation.suspendValidation(vr.getSuspendValidation(), validator);
 			}
+			return vr;
 		}
+		return null;
+	}
+	
+	/**
+	 * Call the validator. If validation is running in parallel and the validator is not thread safe, the call
+	 * is serialized with any other calls to the same validator.
+	 */
+	private ValidationResult invoke(final Validator validator, final IResource resource, final int kind, 
+		final ValOperation operation, final IProgressMonitor monitor, final ValidationEvent event){
+		final ValidationResult[] result = new ValidationResult[1];
+		ValWorkerPool.getDefault().run(validator, new Runnable(){
+			public void run() {
+				result[0] = validator.validate(resource, kind, operation, monitor, event);
+			}
+		});
+		return result[0];
 	}
 	
 	/**
@@ -763,8 +844,23 @@ public final class ValManager implements IValChangedListener, IFacetedProjectLis
 	 */
 	public void accept(IValidatorVisitor visitor, IProject project, IResource resource, 
 			ValType valType, ValOperation operation, IProgressMonitor monitor){
+		accept(visitor, project, resource, valType, operation, monitor, false);
+	}
+	
+	/**
+	 * Accept a visitor for all the validators that are enabled for the given project, resource, 
+	 * and validation mode.
+	 * 
+	 * @param valType the type of validation request
+	 * @param concurrent if true, and validation is running in parallel, then the visitor is called
+	 * at the same time (on different threads) for each of the thread safe validators. 
+	 */
+	private void accept(IValidatorVisitor visitor, IProject project, IResource resource, 
+			ValType valType, ValOperation operation, IProgressMonitor monitor, boolean concurrent){
 		
 		if (isDisabled(project))return;
+		List<Validator> deferred = concurrent && ValWorkerPool.getDefault().isParallel() ? 
+			new LinkedList<Validator>() : null;
 		
 		Map<String,IValidatorGroupListener[]> groupListeners = new HashMap<String,IValidatorGroupListener[]>();
 		
@@ -779,25 +875,29 @@ public final class ValManager implements IValChangedListener, IFacetedProjectLis
 					if (v2 != null) {
 						notifyGroupListenersStarting(resource, operation.getState(), monitor, groupListeners, v2);
 					}
-					try {
-						visitor.visit(val, project, valType, operation, monitor);
-					}
-					catch (Exception e){
-						ValidationPlugin.getPlugin().handleException(e);
-					}
+					visit(visitor, val, project, valType, operation, monitor, deferred);
 				}
 			}
+			visitDeferred(visitor, deferred, project, valType, operation, monitor);
 			notifyGroupFinishing(resource, operation.getState(), monitor, groupListeners);
 			return;
 		}
 		
+		int configNumber = _configNumber.get();
 		vp = new ValProperty();
-		vp.setConfigNumber(_configNumber.get());
+		vp.setConfigNumber(configNumber);
 		ContentTypeWrapper ctw = new ContentTypeWrapper();
-		for (Validator val : getValidators(project)){
+		Validator[] validators = getValidators(project);
+		BitSet candidates = new BitSet(validators.length);
+		for (int i=0; i<validators.length; i++){
+			if (ValidatorProjectManager.get().shouldValidate(validators[i], project, valType))candidates.set(i);
+		}
+		BitSet applies = candidates.isEmpty() ? candidates : 
+			getFilterIndex(project, validators, configNumber).match(resource, valType, ctw, candidates);
+		for (int i=0; i<validators.length; i++){
+			Validator val = validators[i];
 			if (!monitor.isCanceled()) {
-				if (!ValidatorProjectManager.get().shouldValidate(val, project, valType))continue;
-				if (Friend.shouldValidate(val, resource, valType, ctw)){
+				if (applies.get(i)){
 					vp.getConfigSet().set(_idManager.getIndex(val.getId()));
 					// we do the suspend check after figuring out if it needs to be validated, because we save
 					// this information for the session.
@@ -806,18 +906,53 @@ public final class ValManager implements IValChangedListener, IFacetedProjectLis
 					if (v2 != null) {
 						notifyGroupListenersStarting(resource, operation.getState(), monitor, groupListeners, v2);
 					}
-					try {
-						visitor.visit(val, project, valType, operation, monitor);
-					}
-					catch (Exception e){
-						ValidationPlugin.getPlugin().handleException(e);
-					}
+					visit(visitor, val, project, valType, operation, monitor, deferred);
 				}
 			}
 		}
+		visitDeferred(visitor, deferred, project, valType, operation, monitor);
 		notifyGroupFinishing(resource, operation.getState(), monitor, groupListeners);
 		putValProperty(vp, resource, valType);
 	}
+	
+	/**
+	 * Visit the validator now, unless it is thread safe and we are collecting the validators that can be
+	 * run concurrently, in which case it is added to the deferred list.
+	 * 
+	 * @param deferred the validators that will be run concurrently. It is null if everything is to be run
+	 * serially.
+	 */
+	private void visit(IValidatorVisitor visitor, Validator val, IProject project, ValType valType, 
+		ValOperation operation, IProgressMonitor monitor, List<Validator> deferred){
+		if (deferred != null && ValWorkerPool.getDefault().isConcurrent(val)){
+			deferred.add(val);
+			return;
+		}
+		try {
+			visitor.visit(val, project, valType, operation, monitor);
+		}
+		catch (Exception e){
+			ValidationPlugin.getPlugin().handleException(e);
+		}
+	}
+	
+	/**
+	 * Run the deferred (thread safe) validators at the same time, and wait for all of them to finish.
+	 */
+	private void visitDeferred(final IValidatorVisitor visitor, List<Validator> deferred, final IProject project, 
+		final ValType valType, final ValOperation operation, IProgressMonitor monitor){
+		if (deferred == null || deferred.isEmpty())return;
+		final IProgressMonitor workerMonitor = ValWorkerPool.cancelOnly(monitor);
+		List<Runnable> tasks = new LinkedList<Runnable>();
+		for (final Validator val : deferred){
+			tasks.add(new Runnable(){
+				public void run() {
+					visitor.visit(val, project, valType, operation, workerMonitor);
+				}
+			});
+		}
+		ValWorkerPool.getDefault().runAll(tasks);
+	}
 
 	/**
 	 * Let the group listeners know that validation might be starting for the group of validators. 
@@ -919,6 +1054,7 @@ public final class ValManager implements IValChangedListener, IFacetedProjectLis
 		ValidatorProjectManager.reset();
 		_projectPreferences.remove(project);
 		_cache.reset(project);
+		_filterIndexes.remove(project);
 	}
 	
 	/**
@@ -966,6 +1102,7 @@ public final class ValManager implements IValChangedListener, IFacetedProjectLis
 			}
 			
 		};
+		ValidationLedger.getDefault().clear(project);
 		accept(visitor, project, ValType.Build, operation, monitor);
 	}
 	
@@ -985,6 +1122,7 @@ public final class ValManager implements IValChangedListener, IFacetedProjectLis
 			
 		};
 		ValidationFramework.getDefault().getDependencyIndex().clear(project);
+		ValidationLedger.getDefault().clear(project);
 		ValOperation operation = new ValOperation();
 		accept(visitor, project, ValType.Build, operation, monitor);
 	}
@@ -1027,38 +1165,6 @@ public final class ValManager implements IValChangedListener, IFacetedProjectLis
 		}
 	}
 	
-	/**
-	 * Map validator id's to an index number on a bit set, so that we can quickly determine if a
-	 * particular validator needs to validate a particular resource.
-	 * @author karasiuk
-	 *
-	 */
-	private final static class ValidatorIdManager {
-		
-		/**
-		 * Map validator id's to Integers. The integers correspond to bits in the ValProperty instances.
-		 */
-		private final Map<String, Integer> _map = new HashMap<String, Integer>(100);
-		
-		/** Next available bit. */
-		private int _next;
-		
-		/**
-		 * Answer the index number for this validator. If we haven't seen it yet allocate a new index number.
-		 * @param id validator id.
-		 * @return index into the validator bit mask.
-		 */
-		public synchronized int getIndex(String id){
-			Integer i = _map.get(id);
-			if (i != null)return i;
-			
-			i = _next++;
-			_map.put(id, i);
-			
-			return i;
-		}				
-	}
-	
 	/**
 	 * This is used to keep track of which validators are enabled with which projects. We want to ensure
 	 * that we don't activate a validator (and it's plug-in) if it has nothing to validate in the workspace.
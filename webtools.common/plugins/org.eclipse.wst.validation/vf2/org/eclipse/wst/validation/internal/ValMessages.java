@@ -26,6 +26,7 @@ public class ValMessages extends NLS {
 	public static String ErrFilterRule;	  
 	public static String ErrGroupName;
 	public static String ErrDependencyVersion;
+	public static String ErrLedgerVersion;
 	
 	public static String ErrGroupNoType;
 	public static String ErrGroupInvalidType;
@@ -54,10 +55,13 @@ public class ValMessages extends NLS {
 	public static String LogValSummary;
 	public static String LogValSummary2;
 	public static String LogSession;
+	public static String LogMarkerFlush;
+	public static String LogBuildQueue;
 	
 	public static String MigrationJobName;
 	
 	public static String RogueValidator;
+	public static String StreamLimit;
 	
 	public static String RuleProjectNature;
 	public static String RuleFileExt;
@@ -88,6 +92,11 @@ public class ValMessages extends NLS {
 	public static String TypeInclude;
 	public static String TypeExclude;
 	
+	public static String AppUsage;
+	public static String AppBadArg;
+	public static String AppNoProject;
+	public static String AppFailed;
+	
 	static {
 		NLS.initializeMessages(BUNDLE_NAME, ValMessages.class);
 	  }
@@ -14,13 +14,19 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 
+import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.wst.validation.PerformanceCounters;
 import org.eclipse.wst.validation.ValidationResult;
 import org.eclipse.wst.validation.ValidationResults;
 import org.eclipse.wst.validation.ValidationState;
 import org.eclipse.wst.validation.Validator;
+import org.eclipse.wst.validation.ValidatorMessage;
 
 /**
  * This represents a validation operation, i.e. the running of a set of validators in response to some change. 
@@ -40,6 +46,16 @@ public final class ValOperation {
 	private final ValidationState 	_state = new ValidationState();
 	private final ValidationResult	_result = new ValidationResult();
 	
+	/**
+	 * Results that have been produced by the validators, but that have not been folded into _result yet.
+	 * When validation is running in parallel, the workers only append to this queue, so that they don't
+	 * contend for the _result lock. The queue is drained whenever somebody asks for the results.
+	 */
+	private final ConcurrentLinkedQueue<ValidationResult> _pending = new ConcurrentLinkedQueue<ValidationResult>();
+	
+	/** Has the operation been canceled? */
+	private volatile boolean _canceled;
+	
 	/**
 	 * Each project can have a set of validators that are suspended for the duration of the validation operation.
 	 * The set contains the validator's id.
@@ -64,8 +80,34 @@ public final class ValOperation {
 	
 	private final Set<IResource>	_validatedProjects = new HashSet<IResource>(20);
 	
+	/**
+	 * The markers that were left in place because a validator reproduced them exactly. They were created
+	 * before the operation started, but they must not be deleted as stale. The key is the resource and
+	 * the value is the set of marker ids.
+	 */
+	private final Map<IResource, Set<Long>>	_keptMarkers = new HashMap<IResource, Set<Long>>(20);
+	
+	/** The marker batches that are being collected by this operation. The key is the resource that is being validated. */
+	private final ConcurrentMap<IResource, MarkerManager.Batch> _batches = new ConcurrentHashMap<IResource, MarkerManager.Batch>(20);
+	
+	/** 
+	 * If this is not null, the results are given to the listener as they are produced, and only their
+	 * counts are kept by the operation. 
+	 */
+	private final IValidationResultListener	_listener;
+	
 	public ValOperation(){
-		_multiProject = false;
+		this(false, null);
+	}
+	
+	/**
+	 * Create an operation that streams its results.
+	 * 
+	 * @param listener the listener that is given every result as it is produced. The messages are not
+	 * kept by the operation, so getResults() will only answer the counts.
+	 */
+	public ValOperation(IValidationResultListener listener){
+		this(false, listener);
 	}
 	
 	/**
@@ -73,7 +115,12 @@ public final class ValOperation {
 	 * @param multiProject Set to true if we could be validating several projects at the same time.
 	 */
 	public ValOperation(boolean multiProject){
+		this(multiProject, null);
+	}
+	
+	private ValOperation(boolean multiProject, IValidationResultListener listener){
 		_multiProject = multiProject;
+		_listener = listener;
 	}
 	
 	public ValidationState getState() {
@@ -86,6 +133,7 @@ public final class ValOperation {
 	 */
 	public ValidationResultSummary getResult() {
 		synchronized(_result){
+			drainPending();
 			ValidationResultSummary vrs = new ValidationResultSummary(_result.getSeverityError(), 
 				_result.getSeverityWarning(), _result.getSeverityInfo());
 			return vrs;
@@ -97,7 +145,21 @@ public final class ValOperation {
 	 * @return
 	 */
 	public ValidationResults getResults(){
-		return new ValidationResults(_result);
+		synchronized(_result){
+			drainPending();
+			return new ValidationResults(_result);
+		}
+	}
+	
+	/**
+	 * Fold any pending results into the main result. The caller must hold the _result lock.
+	 */
+	private void drainPending(){
+		ValidationResult vr = _pending.poll();
+		while (vr != null){
+			_result.mergeResults(vr);
+			vr = _pending.poll();
+		}
 	}
 	
 	/**
@@ -146,6 +208,59 @@ public final class ValOperation {
 		}
 	}
 	
+	/**
+	 * Remember that these markers were reused rather than recreated.
+	 * 
+	 * @param resource the resource that owns the markers.
+	 * @param ids the marker ids.
+	 */
+	public void addKeptMarkers(IResource resource, Set<Long> ids){
+		if (ids.isEmpty())return;
+		synchronized(_keptMarkers){
+			Set<Long> set = _keptMarkers.get(resource);
+			if (set == null){
+				set = new HashSet<Long>(ids.size());
+				_keptMarkers.put(resource, set);
+			}
+			set.addAll(ids);
+		}
+	}
+	
+	/**
+	 * Answer the marker batch that this operation is collecting for the resource.
+	 * 
+	 * @return the batch, or null if the markers for the resource are not being collected.
+	 */
+	public MarkerManager.Batch getBatch(IResource resource){
+		return _batches.get(resource);
+	}
+	
+	/**
+	 * Remember the marker batch for its resource.
+	 * 
+	 * @return false if the operation already has a batch for the resource.
+	 */
+	boolean addBatch(MarkerManager.Batch batch){
+		return _batches.putIfAbsent(batch.getResource(), batch) == null;
+	}
+	
+	/**
+	 * Forget the marker batch, it is being flushed.
+	 */
+	void removeBatch(MarkerManager.Batch batch){
+		_batches.remove(batch.getResource(), batch);
+	}
+	
+	/**
+	 * Answer true if this marker was reused, during this operation, rather than recreated.
+	 */
+	public boolean isKeptMarker(IResource resource, long id){
+		synchronized(_keptMarkers){
+			Set<Long> set = _keptMarkers.get(resource);
+			return set != null && set.contains(id);
+		}
+	}
+	
 	/**
 	 * Answer if this resource has been validated
 	 * 
@@ -188,7 +303,9 @@ public final class ValOperation {
 	void suspendValidation(IProject project, Validator validator) {
 		if (project == null)return;
 		if (validator == null)return;
-		getSuspended(project).add(validator.getId());
+		synchronized(_suspended){
+			getSuspended(project).add(validator.getId());
+		}
 	}
 
 	public long getStarted() {
@@ -206,6 +323,7 @@ public final class ValOperation {
 	 * 		Set to true if it was canceled and false if it was not canceled.
 	 */
 	public void setCanceled(boolean canceled) {
+		_canceled = canceled;
 		synchronized (_result) {
 			_result.setCanceled(canceled);
 		}
@@ -219,14 +337,61 @@ public final class ValOperation {
 	 * @return true if the operation was canceled
 	 */
 	public boolean isCanceled() {
-		synchronized (_result) {
-			return _result.isCanceled();
-		}
+		return _canceled;
 	}
 
+	/**
+	 * Add the results of a single validation to the operation. This is safe to call from several threads
+	 * at the same time, and it does not block.
+	 */
 	public void mergeResults(ValidationResult vr) {
-		synchronized (_result) {
-			_result.mergeResults(vr);
+		if (vr != null)_pending.add(vr);
+	}
+	
+	/**
+	 * Add the results of a single validator on a single resource to the operation. If the operation has
+	 * a listener, it is given the result, and only the counts are kept.
+	 * 
+	 * @param validator the validator that produced the result.
+	 * @param resource the resource that was validated.
+	 * @param vr the result, it can be null.
+	 * @param counters how long the validation took, it can be null.
+	 */
+	public void mergeResults(Validator validator, IResource resource, ValidationResult vr, PerformanceCounters counters){
+		if (vr == null)return;
+		if (_listener == null){
+			_pending.add(vr);
+			return;
+		}
+		_listener.validated(validator, resource, vr, counters);
+		int errors = vr.getSeverityError();
+		int warnings = vr.getSeverityWarning();
+		int infos = vr.getSeverityInfo();
+		for (ValidatorMessage m : vr.getMessages()){
+			switch (m.getAttribute(IMarker.SEVERITY, 0)){
+			case IMarker.SEVERITY_ERROR:
+				errors++;
+				break;
+			case IMarker.SEVERITY_WARNING:
+				warnings++;
+				break;
+			case IMarker.SEVERITY_INFO:
+				infos++;
+				break;
+			}
+		}
+		// only the counts are kept, so that the messages can be garbage collected
+		synchronized(_result){
+			_result.incrementError(errors);
+			_result.incrementWarning(warnings);
+			_result.incrementInfo(infos);
 		}
 	}
+	
+	/**
+	 * Answer true if the results of this operation are being streamed to a listener.
+	 */
+	public boolean isStreaming(){
+		return _listener != null;
+	}
 }
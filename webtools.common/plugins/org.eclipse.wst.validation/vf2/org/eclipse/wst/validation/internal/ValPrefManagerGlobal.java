@@ -203,6 +203,7 @@ public final class ValPrefManagerGlobal {
 		gp.override = pref.getBoolean(PrefConstants.override, GlobalPreferences.DefaultOverride);
 		gp.version = pref.getInt(PrefConstants.frameworkVersion, GlobalPreferences.DefaultFrameworkVersion);
 		gp.stateTimeStamp = pref.getLong(PrefConstants.stateTS, 0);
+		gp.poolSize = pref.getInt(PrefConstants.poolSize, GlobalPreferences.DefaultPoolSize);
 		
 		if (gp.version != frameworkVersion)migrate(gp.version, pref);
 		return new GlobalPreferences(gp);
@@ -513,6 +514,7 @@ public final class ValPrefManagerGlobal {
 		prefs.putLong(PrefConstants.stateTS, gp.getStateTimeStamp());
 		prefs.putBoolean(PrefConstants.confirmDialog, gp.getConfirmDialog());
 		prefs.putBoolean(PrefConstants.override, gp.getOverride());
+		prefs.putInt(PrefConstants.poolSize, gp.getPoolSize());
 		prefs.putInt(PrefConstants.frameworkVersion, ValPrefManagerGlobal.frameworkVersion);
 	}
 
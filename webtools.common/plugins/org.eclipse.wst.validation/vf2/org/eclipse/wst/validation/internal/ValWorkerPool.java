@@ -0,0 +1,352 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation.internal;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.wst.validation.Validator;
+import org.eclipse.wst.validation.internal.model.IValidatorVisitor;
+import org.eclipse.wst.validation.internal.plugin.ValidationPlugin;
+
+/**
+ * The workers that are used when build validation is run in parallel.
+ * <p>
+ * The size of the pool comes from the global preferences. When the size is one (the default) everything
+ * is validated serially, exactly as it has always been.
+ * </p>
+ * <p>
+ * Validators that have not declared themselves to be thread safe are still run in parallel mode, but
+ * they are only ever run by one thread at a time, and only for one project at a time. A project is
+ * validated inside of a {@link Session}, which holds on to these validators from validationStarting until
+ * validationFinishing.
+ * </p>
+ */
+public final class ValWorkerPool {
+
+	private ExecutorService	_executor;
+
+	/** The number of threads in _executor. */
+	private int				_executorSize;
+	
+	/** If this is greater than zero, it is used instead of the pool size from the global preferences. */
+	private volatile int	_poolSizeOverride;
+
+	/**
+	 * The locks that serialize the validators that are not thread safe. The key is the validator id.
+	 */
+	private final ConcurrentMap<String, Object> _locks = new ConcurrentHashMap<String, Object>(50);
+	
+	/**
+	 * The locks that keep the project sessions of the validators that are not thread safe apart. The key
+	 * is the validator id. These are semaphores rather than monitors, since a session can be started on
+	 * one thread and finished on another.
+	 */
+	private final ConcurrentMap<String, Semaphore> _sessionLocks = new ConcurrentHashMap<String, Semaphore>(50);
+
+	public static ValWorkerPool getDefault(){
+		return Singleton.pool;
+	}
+
+	private ValWorkerPool(){}
+
+	/**
+	 * Answer the number of workers that have been configured in the global preferences.
+	 */
+	public int getPoolSize(){
+		int size = _poolSizeOverride;
+		if (size > 0)return size;
+		return ValManager.getDefault().getGlobalPreferences().getPoolSize();
+	}
+	
+	/**
+	 * Use a different number of workers than the one in the global preferences, without changing the
+	 * preferences. This is used by headless validation, where the number of workers is given on the
+	 * command line.
+	 * 
+	 * @param size the number of workers, or zero to go back to using the global preferences.
+	 */
+	public void setPoolSizeOverride(int size){
+		_poolSizeOverride = size;
+	}
+
+	/**
+	 * Answer true if validation should be done in parallel. Work that is already running on one of our
+	 * worker threads is never fanned out a second time, since that could starve the pool.
+	 */
+	public boolean isParallel(){
+		if (Thread.currentThread() instanceof Worker)return false;
+		return getPoolSize() > 1;
+	}
+
+	/**
+	 * Answer true if this validator may be run at the same time as other validators (or itself).
+	 */
+	public boolean isConcurrent(Validator validator){
+		Validator.V2 v2 = validator.asV2Validator();
+		return v2 != null && v2.isThreadSafe();
+	}
+
+	/**
+	 * Run the task on behalf of the validator. If we are in parallel mode and the validator is not thread
+	 * safe, the task is serialized with every other task for the same validator.
+	 */
+	public void run(Validator validator, Runnable task){
+		if (isConcurrent(validator) || getPoolSize() < 2){
+			task.run();
+			return;
+		}
+		synchronized(getLock(validator.getId())){
+			task.run();
+		}
+	}
+
+	private Object getLock(String id){
+		Object lock = _locks.get(id);
+		if (lock == null){
+			Object newLock = new Object();
+			lock = _locks.putIfAbsent(id, newLock);
+			if (lock == null)lock = newLock;
+		}
+		return lock;
+	}
+
+	private Semaphore getSessionLock(String id){
+		Semaphore lock = _sessionLocks.get(id);
+		if (lock == null){
+			Semaphore newLock = new Semaphore(1);
+			lock = _sessionLocks.putIfAbsent(id, newLock);
+			if (lock == null)lock = newLock;
+		}
+		return lock;
+	}
+	
+	/**
+	 * Open a session for validating a project. The session is for the validators that are enabled for the
+	 * project. If validation is running in parallel, this waits until none of the validators that are not
+	 * thread safe are in a session for some other project. The session must always be finished, even if
+	 * the validation is canceled.
+	 * 
+	 * @param project the project that is about to be validated.
+	 * @param valType the type of validation.
+	 * @param operation the operation that the project is being validated in.
+	 * @param monitor this is only used to find the validators.
+	 */
+	public Session openSession(IProject project, ValType valType, ValOperation operation, IProgressMonitor monitor){
+		final List<Validator> validators = new LinkedList<Validator>();
+		IValidatorVisitor visitor = new IValidatorVisitor(){
+			public void visit(Validator validator, IProject project, ValType valType,
+				ValOperation operation, IProgressMonitor monitor) {
+				validators.add(validator);
+			}
+		};
+		ValManager.getDefault().accept(visitor, project, valType, operation, monitor);
+		
+		// the locks are always taken in the order of the validator ids, so that two sessions can never end up
+		// waiting for each other
+		Map<String, Semaphore> locks = new TreeMap<String, Semaphore>();
+		if (getPoolSize() > 1){
+			for (Validator validator : validators){
+				if (!isConcurrent(validator))locks.put(validator.getId(), getSessionLock(validator.getId()));
+			}
+		}
+		Semaphore[] held = locks.values().toArray(new Semaphore[locks.size()]);
+		for (Semaphore lock : held)lock.acquireUninterruptibly();
+		return new Session(project, validators.toArray(new Validator[validators.size()]), operation, held);
+	}
+
+	/**
+	 * Run all of the tasks, and answer once they have all finished. The calling thread runs the first task
+	 * itself, and the rest are given to the workers.
+	 *
+	 * @param tasks the tasks to run. Any exceptions that they throw are logged.
+	 */
+	public void runAll(List<Runnable> tasks){
+		if (tasks.size() == 0)return;
+		if (tasks.size() == 1 || !isParallel()){
+			for (Runnable task : tasks)runSafely(task);
+			return;
+		}
+
+		ExecutorService executor = getExecutor();
+		List<Future<?>> futures = new LinkedList<Future<?>>();
+		boolean first = true;
+		for (final Runnable task : tasks){
+			if (first){
+				first = false;
+				continue;
+			}
+			futures.add(executor.submit(new Runnable(){
+				public void run() {
+					runSafely(task);
+				}
+			}));
+		}
+		runSafely(tasks.get(0));
+
+		for (Future<?> future : futures){
+			try {
+				future.get();
+			}
+			catch (InterruptedException e){
+				Thread.currentThread().interrupt();
+				return;
+			}
+			catch (ExecutionException e){
+				ValidationPlugin.getPlugin().handleException(e.getCause());
+			}
+		}
+	}
+
+	private void runSafely(Runnable task){
+		try {
+			task.run();
+		}
+		catch (Exception e){
+			ValidationPlugin.getPlugin().handleException(e);
+		}
+	}
+
+	/**
+	 * Answer the executor, replacing it if the pool size has changed since it was created. The calling
+	 * thread also does work, so the executor has one thread less than the pool size.
+	 */
+	private synchronized ExecutorService getExecutor(){
+		int size = getPoolSize() - 1;
+		if (size < 1)size = 1;
+		if (_executor == null || size != _executorSize){
+			if (_executor != null)_executor.shutdown();
+			_executor = Executors.newFixedThreadPool(size, new WorkerFactory());
+			_executorSize = size;
+		}
+		return _executor;
+	}
+
+	/**
+	 * Stop the workers. This is called when the plug-in is stopped.
+	 */
+	public synchronized void dispose(){
+		if (_executor != null)_executor.shutdownNow();
+		_executor = null;
+	}
+
+	/**
+	 * Answer a progress monitor that can be used by a worker thread. Progress monitors are not thread safe,
+	 * so the workers only get to see if the original monitor has been canceled.
+	 */
+	public static IProgressMonitor cancelOnly(final IProgressMonitor monitor){
+		return new NullProgressMonitor(){
+			@Override
+			public boolean isCanceled() {
+				return monitor.isCanceled();
+			}
+		};
+	}
+
+	/**
+	 * The validation of one project. The validators are told that the project is starting when the session is
+	 * started, and the same validators are told that it is finishing when the session is finished.
+	 */
+	public final class Session {
+		private final IProject		_project;
+		private final Validator[]	_validators;
+		private final ValOperation	_operation;
+		private final Semaphore[]	_held;
+		
+		/** The number of validators that have been told that the project is starting. */
+		private int					_started;
+		private boolean				_finished;
+		
+		private Session(IProject project, Validator[] validators, ValOperation operation, Semaphore[] held){
+			_project = project;
+			_validators = validators;
+			_operation = operation;
+			_held = held;
+		}
+		
+		/**
+		 * Call validationStarting for each of the validators. This stops early if the monitor is canceled.
+		 */
+		public void start(IProgressMonitor monitor){
+			while (_started < _validators.length){
+				if (monitor.isCanceled())return;
+				call(_validators[_started++], true, monitor);
+			}
+		}
+		
+		/**
+		 * Call validationFinishing for each of the validators that were started, and close the session. The
+		 * validators are called even if the monitor has been canceled.
+		 */
+		public void finish(IProgressMonitor monitor){
+			if (_finished)return;
+			_finished = true;
+			try {
+				for (int i=0; i<_started; i++)call(_validators[i], false, monitor);
+			}
+			finally {
+				for (Semaphore lock : _held)lock.release();
+			}
+		}
+		
+		private void call(final Validator validator, final boolean starting, final IProgressMonitor monitor){
+			try {
+				ValWorkerPool.this.run(validator, new Runnable(){
+					public void run() {
+						if (starting)validator.validationStarting(_project, _operation.getState(), monitor);
+						else validator.validationFinishing(_project, _operation.getState(), monitor);
+					}
+				});
+			}
+			catch (Exception e){
+				ValidationPlugin.getPlugin().handleException(e);
+			}
+		}
+	}
+
+	private static final class Worker extends Thread {
+		public Worker(Runnable r, String name){
+			super(r, name);
+			setDaemon(true);
+		}
+	}
+
+	private static final class WorkerFactory implements ThreadFactory {
+		private final AtomicInteger _counter = new AtomicInteger();
+
+		public Thread newThread(Runnable r) {
+			return new Worker(r, "Validation Worker " + _counter.incrementAndGet()); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Store the singleton for the ValWorkerPool. This approach is used to avoid having to synchronize the
+	 * ValWorkerPool.getDefault() method.
+	 */
+	private static class Singleton {
+		static ValWorkerPool pool = new ValWorkerPool();
+	}
+
+}
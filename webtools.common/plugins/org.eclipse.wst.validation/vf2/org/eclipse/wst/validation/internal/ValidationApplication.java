@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation.internal;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.wst.validation.ValidationFramework;
+
+/**
+ * A headless application that validates a workspace, and writes the results to a machine readable report.
+ * <p>
+ * It is run with <code>-application org.eclipse.wst.validation.validate</code> and supports these arguments:
+ * <dl>
+ * <dt>-projects name,name</dt><dd>The projects to validate. The default is every open project.</dd>
+ * <dt>-report file</dt><dd>Where the report is written. The default is standard out.</dd>
+ * <dt>-format jsonl|sarif</dt><dd>The format of the report. The default is jsonl.</dd>
+ * <dt>-threads n</dt><dd>The number of threads that validate in parallel. The default is the validation
+ * preference. When this is more than one, the resources of each project are validated in parallel.</dd>
+ * <dt>-build</dt><dd>Run the build validators, rather than the manual validators.</dd>
+ * <dt>-refresh</dt><dd>Refresh the projects before they are validated.</dd>
+ * </dl>
+ * The exit code is 0 if there were no errors, 1 if there were errors and 2 if the validation could not be run.
+ * </p>
+ */
+public class ValidationApplication implements IApplication {
+
+	public static final Integer ExitErrors = Integer.valueOf(1);
+	public static final Integer ExitFailed = Integer.valueOf(2);
+
+	public Object start(IApplicationContext context) throws Exception {
+		String[] args = (String[])context.getArguments().get(IApplicationContext.APPLICATION_ARGS);
+		if (args == null)args = new String[0];
+
+		String projectNames = null;
+		String reportFile = null;
+		String format = ValidationReport.FormatJsonLines;
+		int threads = 0;
+		ValType type = ValType.Manual;
+		boolean refresh = false;
+
+		for (int i=0; i<args.length; i++){
+			String arg = args[i];
+			String value = i+1 < args.length ? args[i+1] : null;
+			if ("-projects".equals(arg) && value != null){ //$NON-NLS-1$
+				projectNames = value;
+				i++;
+			}
+			else if ("-report".equals(arg) && value != null){ //$NON-NLS-1$
+				reportFile = value;
+				i++;
+			}
+			else if ("-format".equals(arg) && value != null){ //$NON-NLS-1$
+				format = value;
+				i++;
+			}
+			else if ("-threads".equals(arg) && value != null){ //$NON-NLS-1$
+				try {
+					threads = Integer.parseInt(value);
+				}
+				catch (NumberFormatException e){
+					return usage(value);
+				}
+				if (threads < 1)return usage(value);
+				i++;
+			}
+			else if ("-build".equals(arg))type = ValType.Build; //$NON-NLS-1$
+			else if ("-refresh".equals(arg))refresh = true; //$NON-NLS-1$
+			else return usage(arg);
+		}
+
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		List<IProject> projects = new LinkedList<IProject>();
+		if (projectNames == null){
+			for (IProject project : root.getProjects()){
+				if (project.isOpen())projects.add(project);
+			}
+		}
+		else {
+			for (String name : projectNames.split(",")){ //$NON-NLS-1$
+				name = name.trim();
+				if (name.length() == 0)continue;
+				IProject project = root.getProject(name);
+				if (!project.isOpen()){
+					System.err.println(NLS.bind(ValMessages.AppNoProject, name));
+					return ExitFailed;
+				}
+				projects.add(project);
+			}
+		}
+
+		Writer out = new BufferedWriter(reportFile == null ? new OutputStreamWriter(System.out, "UTF-8") : //$NON-NLS-1$
+			new OutputStreamWriter(new FileOutputStream(reportFile), "UTF-8"), 64*1024); //$NON-NLS-1$
+		ValidationReport report = ValidationReport.create(format, out);
+		if (report == null){
+			out.close();
+			return usage(format);
+		}
+
+		ValWorkerPool pool = ValWorkerPool.getDefault();
+		if (threads > 0)pool.setPoolSizeOverride(threads);
+		try {
+			if (refresh){
+				for (IProject project : projects)project.refreshLocal(IResource.DEPTH_INFINITE, null);
+			}
+			long start = System.currentTimeMillis();
+			ValOperation vo = ValidationRunner.validate(createMap(projects), type, new NullProgressMonitor(), true, report, true);
+			report.finish(vo.isCanceled(), System.currentTimeMillis() - start);
+		}
+		catch (CoreException e){
+			System.err.println(NLS.bind(ValMessages.AppFailed, e.getMessage()));
+			return ExitFailed;
+		}
+		catch (IOException e){
+			System.err.println(NLS.bind(ValMessages.AppFailed, e.getMessage()));
+			return ExitFailed;
+		}
+		finally {
+			if (threads > 0)pool.setPoolSizeOverride(0);
+			if (reportFile == null)out.flush();
+			else out.close();
+		}
+		return report.getErrors() > 0 ? ExitErrors : IApplication.EXIT_OK;
+	}
+
+	public void stop() {
+	}
+
+	private static Integer usage(String badArg){
+		System.err.println(NLS.bind(ValMessages.AppBadArg, badArg));
+		System.err.println(ValMessages.AppUsage);
+		return ExitFailed;
+	}
+
+	/**
+	 * Answer a map of the projects and all of their files and folders.
+	 */
+	private static Map<IProject, Set<IResource>> createMap(List<IProject> projects) throws CoreException {
+		Map<IProject, Set<IResource>> map = new HashMap<IProject, Set<IResource>>(projects.size()*2+1);
+		for (IProject project : projects){
+			Set<IResource> set = new HashSet<IResource>(1000);
+			project.accept(new ValidationFramework.ResourceAdder(set));
+			map.put(project, set);
+		}
+		return map;
+	}
+}
@@ -0,0 +1,576 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ISaveContext;
+import org.eclipse.core.resources.ISaveParticipant;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.wst.validation.Friend;
+import org.eclipse.wst.validation.ValidationResult;
+import org.eclipse.wst.validation.Validator;
+import org.eclipse.wst.validation.ValidatorMessage;
+import org.eclipse.wst.validation.internal.plugin.ValidationPlugin;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.Constants;
+
+/**
+ * A persistent record of which files have been build validated, by which validators, and what the
+ * outcome was. It survives restarts, so that a build after the workbench has been restarted (or after
+ * the workspace has been re-imported) can skip the files whose content, and validator configuration,
+ * have not changed.
+ * <p>
+ * An entry is only recorded when a validator's messages are all about the validated file, and the
+ * validator did not declare any dependencies, since those are the only results that can be replayed.
+ * </p>
+ * <p>
+ * A record is only replayed if the validator has the same configuration fingerprint that it had when the
+ * record was made. The fingerprint covers the validator's filters and version, the version of the bundle
+ * that contributed the validator and the version of the ledger format.
+ * </p>
+ * <p>
+ * The format of the ledger is below. The strings are written as their length followed by their UTF-8
+ * bytes, so that there is no limit on their size.
+ *
+ * <pre>
+ * Version number
+ * Number of files
+ *   file name
+ *   modification stamp
+ *   content hash
+ *   number of validators
+ *     validator id
+ *     configuration fingerprint
+ *     number of errors, warnings and infos
+ *     number of messages
+ *       marker type
+ *       number of attributes
+ *         attribute name, type tag, value
+ * </pre>
+ */
+public final class ValidationLedger implements ISaveParticipant {
+
+	/** Version of the persistent ledger. */
+	private static final int CurrentVersion = 2;
+
+	private static final byte TagString = 0;
+	private static final byte TagInt = 1;
+	private static final byte TagBoolean = 2;
+
+	/** The key is the portable full path of the file. */
+	private Map<String, FileEntry> _files;
+	private boolean _dirty;
+
+	private final AtomicLong _hits = new AtomicLong();
+	private final AtomicLong _misses = new AtomicLong();
+	
+	/** 
+	 * The versions of the bundles that contribute validators. The key is the symbolic name of the bundle,
+	 * and the value is the empty string if the version is not known.
+	 */
+	private final ConcurrentMap<String, String> _bundleVersions = new ConcurrentHashMap<String, String>(20);
+
+	public static ValidationLedger getDefault(){
+		return Singleton.ledger;
+	}
+
+	private ValidationLedger(){}
+
+	/**
+	 * If the ledger shows that this validator has already validated exactly this content, with exactly this
+	 * configuration, replay the recorded result. If the file has been touched since it was recorded, it is read
+	 * to see if its content is still the same. That is done without holding the lock on the ledger, so that the
+	 * validation workers are not serialized on reading files.
+	 *
+	 * @return the recorded result, or null if the file needs to be validated.
+	 */
+	public ValidationResult lookup(Validator validator, IResource resource){
+		if (!(resource instanceof IFile))return null;
+		IFile file = (IFile)resource;
+		String key = key(resource);
+		long stamp = file.getModificationStamp();
+		FileEntry fe;
+		Record r = null;
+		boolean current = false;
+		synchronized(this){
+			init();
+			fe = _files.get(key);
+			if (fe != null){
+				r = fe.validators.get(validator.getId());
+				if (r != null && r.config != fingerprint(validator))r = null;
+				if (r != null)current = fe.stamp == stamp;
+			}
+		}
+		if (r != null && !current && hash(file) == fe.hash){
+			synchronized(this){
+				// the content is the same, unless the file changed again while we were reading it
+				if (_files.get(key) == fe && file.getModificationStamp() == stamp){
+					fe.stamp = stamp;
+					current = true;
+				}
+			}
+		}
+		ValidationResult vr = current ? r.asResult(resource) : null;
+		if (vr == null)_misses.incrementAndGet();
+		else _hits.incrementAndGet();
+		return vr;
+	}
+
+	/**
+	 * Remember the outcome of a validation, if it is one that can be replayed later. A result whose messages
+	 * were streamed can not be replayed, since the messages are not in the result. Nor can the result of a
+	 * validation that was canceled or that failed, since it may be missing messages, or of a file that changed
+	 * while it was being validated.
+	 *
+	 * @param stamp the modification stamp that the file had when the validation started.
+	 */
+	public void record(Validator validator, IResource resource, ValidationResult vr, long stamp,
+		ValOperation operation, IProgressMonitor monitor){
+		if (vr == null || !(resource instanceof IFile) || Friend.isStreamed(vr))return;
+		if (operation.isCanceled() || monitor.isCanceled() || vr.getValidationException() != null)return;
+		IResource[] dependsOn = vr.getDependsOn();
+		if (dependsOn != null && dependsOn.length > 0)return;
+		ValidatorMessage[] msgs = vr.getMessages();
+		for (ValidatorMessage m : msgs){
+			if (!resource.equals(m.getResource()))return;
+		}
+
+		IFile file = (IFile)resource;
+		String key = key(resource);
+		Record r = new Record(fingerprint(validator), vr, msgs);
+		synchronized(this){
+			init();
+			if (file.getModificationStamp() != stamp)return;
+			FileEntry fe = _files.get(key);
+			if (fe != null && fe.stamp == stamp){
+				fe.validators.put(validator.getId(), r);
+				_dirty = true;
+				return;
+			}
+		}
+
+		// read the file without holding the lock
+		long hash = hash(file);
+		if (hash == 0)return;
+		synchronized(this){
+			if (file.getModificationStamp() != stamp)return;
+			FileEntry fe = _files.get(key);
+			if (fe == null || fe.hash != hash){
+				fe = new FileEntry(stamp, hash);
+				_files.put(key, fe);
+			}
+			else fe.stamp = stamp;
+			fe.validators.put(validator.getId(), r);
+			_dirty = true;
+		}
+	}
+
+	/**
+	 * Forget everything that we know about this project. This is done on a clean, so that a clean build
+	 * really does validate everything.
+	 *
+	 * @param project the project to forget, or null to forget the entire workspace.
+	 */
+	public synchronized void clear(IProject project){
+		init();
+		if (project == null){
+			if (_files.size() > 0)_dirty = true;
+			_files.clear();
+			return;
+		}
+		String prefix = project.getFullPath().toPortableString() + IPath.SEPARATOR;
+		for (Iterator<String> it = _files.keySet().iterator(); it.hasNext();){
+			if (it.next().startsWith(prefix)){
+				it.remove();
+				_dirty = true;
+			}
+		}
+	}
+
+	/** Answer the number of validations that were skipped because of the ledger. */
+	public long getHits(){
+		return _hits.get();
+	}
+
+	/** Answer the number of times that the ledger was consulted, but the file needed to be validated. */
+	public long getMisses(){
+		return _misses.get();
+	}
+
+	public void resetCounters(){
+		_hits.set(0);
+		_misses.set(0);
+	}
+
+	private static String key(IResource resource){
+		return resource.getFullPath().toPortableString();
+	}
+
+	/**
+	 * Answer a value that changes whenever the validator's configuration, the bundle that contributed it,
+	 * or the format of the ledger changes.
+	 */
+	private int fingerprint(Validator validator){
+		int h = 31 * validator.hashCodeForConfig() + validator.getVersion();
+		h = 31 * h + getBundleVersion(Friend.getContributor(validator)).hashCode();
+		return 31 * h + CurrentVersion;
+	}
+	
+	/**
+	 * Answer the version of the bundle, or the empty string if it is not known.
+	 */
+	private String getBundleVersion(String symbolicName){
+		if (symbolicName == null)return ""; //$NON-NLS-1$
+		String version = _bundleVersions.get(symbolicName);
+		if (version == null){
+			Bundle bundle = Platform.getBundle(symbolicName);
+			if (bundle != null)version = (String)bundle.getHeaders().get(Constants.BUNDLE_VERSION);
+			if (version == null)version = ""; //$NON-NLS-1$
+			_bundleVersions.put(symbolicName, version);
+		}
+		return version;
+	}
+
+	/**
+	 * Answer a hash of the contents of the file, or 0 if the file could not be read.
+	 */
+	private static long hash(IFile file){
+		InputStream in = null;
+		try {
+			MessageDigest md = MessageDigest.getInstance("SHA-1"); //$NON-NLS-1$
+			in = file.getContents(true);
+			byte[] buffer = new byte[8192];
+			int len = in.read(buffer);
+			while (len != -1){
+				md.update(buffer, 0, len);
+				len = in.read(buffer);
+			}
+			byte[] digest = md.digest();
+			long hash = 0;
+			for (int i=0; i<8; i++)hash = (hash << 8) | (digest[i] & 0xff);
+			return hash == 0 ? 1 : hash;
+		}
+		catch (NoSuchAlgorithmException e){
+			ValidationPlugin.getPlugin().handleException(e);
+		}
+		catch (CoreException e){
+			// the file has gone away, or is out of sync, in either case it needs to be validated
+		}
+		catch (IOException e){
+			// treat it as a miss
+		}
+		finally {
+			Misc.close(in);
+		}
+		return 0;
+	}
+
+	/**
+	 * Restore the ledger. See the class comment for the structure.
+	 */
+	private void init() {
+		if (_files != null)return;
+
+		boolean error = false;
+		File f = getLedgerLocation();
+		if (!f.exists() || f.length() == 0){
+			_files = new HashMap<String, FileEntry>(1000);
+			return;
+		}
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(f)));
+			int version = in.readInt();
+			if (version != CurrentVersion){
+				// an older ledger is simply dropped, the files are validated again
+				error = true;
+				Tracing.log(NLS.bind(ValMessages.ErrLedgerVersion, CurrentVersion));
+				return;
+			}
+			int numFiles = in.readInt();
+			_files = new HashMap<String, FileEntry>(numFiles+1000);
+			for (int i=0; i<numFiles; i++){
+				String path = readString(in);
+				FileEntry fe = new FileEntry(in.readLong(), in.readLong());
+				int numVal = in.readInt();
+				for (int j=0; j<numVal; j++){
+					String id = readString(in);
+					fe.validators.put(id, Record.read(in));
+				}
+				_files.put(path, fe);
+			}
+		}
+		catch (EOFException e){
+			error = true;
+			Tracing.log("Unable to read the validation ledger because of EOF exception");  //$NON-NLS-1$
+		}
+		catch (IOException e){
+			error = true;
+			ValidationPlugin.getPlugin().handleException(e);
+		}
+		finally {
+			Misc.close(in);
+			if (error){
+				_files = new HashMap<String, FileEntry>(1000);
+				f.delete();
+			}
+		}
+	}
+
+	public void doneSaving(ISaveContext context) {
+	}
+
+	public void prepareToSave(ISaveContext context) throws CoreException {
+	}
+
+	public void rollback(ISaveContext context) {
+	}
+
+	/**
+	 * Persist the ledger. Files that no longer exist are dropped. See the class comment for the structure.
+	 */
+	public synchronized void saving(ISaveContext context) throws CoreException {
+		if (!_dirty)return;
+		_dirty = false;
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		for (Iterator<String> it = _files.keySet().iterator(); it.hasNext();){
+			if (root.findMember(Path.fromPortableString(it.next())) == null)it.remove();
+		}
+
+		boolean error = false;
+		DataOutputStream out = null;
+		File f = getLedgerLocation();
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(f)));
+			out.writeInt(CurrentVersion);
+			out.writeInt(_files.size());
+			for (Map.Entry<String, FileEntry> me : _files.entrySet()){
+				FileEntry fe = me.getValue();
+				writeString(out, me.getKey());
+				out.writeLong(fe.stamp);
+				out.writeLong(fe.hash);
+				out.writeInt(fe.validators.size());
+				for (Map.Entry<String, Record> r : fe.validators.entrySet()){
+					writeString(out, r.getKey());
+					r.getValue().write(out);
+				}
+			}
+		}
+		catch (IOException e){
+			error = true;
+			ValidationPlugin.getPlugin().handleException(e);
+		}
+		finally {
+			Misc.close(out);
+			if (error)f.delete();
+		}
+	}
+
+	/**
+	 * Write the string as its length followed by its UTF-8 bytes. Unlike writeUTF, this works for strings of
+	 * any length.
+	 */
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes("UTF-8"); //$NON-NLS-1$
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+	
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0)throw new IOException("Invalid string length in the validation ledger: " + length); //$NON-NLS-1$
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, "UTF-8"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Write the ledger now, and forget it, so that it is read again the next time that it is used. This is
+	 * used by the test cases.
+	 */
+	public synchronized void saveAndReload() throws CoreException {
+		init();
+		_dirty = true;
+		saving(null);
+		_files = null;
+	}
+
+	private File getLedgerLocation() {
+		IPath path = ValidationPlugin.getPlugin().getStateLocation().append("val.ledger"); //$NON-NLS-1$
+		return path.toFile();
+	}
+
+	/**
+	 * What we know about one file.
+	 */
+	private final static class FileEntry {
+
+		/** The modification stamp of the file when its content was last known to have this hash. */
+		long stamp;
+
+		/** A hash of the content of the file. */
+		long hash;
+
+		/** The key is the validator id. */
+		final Map<String, Record> validators = new HashMap<String, Record>(5);
+
+		FileEntry(long stamp, long hash){
+			this.stamp = stamp;
+			this.hash = hash;
+		}
+	}
+
+	/**
+	 * The outcome of one validator on one file.
+	 */
+	private final static class Record {
+		final int config;
+		final int errors;
+		final int warnings;
+		final int infos;
+
+		/** The marker types, one per message. */
+		final String[] types;
+
+		/** The marker attributes, one map per message. */
+		final Map<String, Object>[] attributes;
+
+		@SuppressWarnings("unchecked")
+		Record(int config, ValidationResult vr, ValidatorMessage[] msgs){
+			this.config = config;
+			errors = vr.getSeverityError();
+			warnings = vr.getSeverityWarning();
+			infos = vr.getSeverityInfo();
+			types = new String[msgs.length];
+			attributes = new Map[msgs.length];
+			for (int i=0; i<msgs.length; i++){
+				types[i] = msgs[i].getType();
+				Map<String, Object> map = new HashMap<String, Object>(10);
+				Map attribs = msgs[i].getAttributes();
+				if (attribs != null){
+					for (Iterator it = attribs.entrySet().iterator(); it.hasNext();){
+						Map.Entry me = (Map.Entry)it.next();
+						Object value = me.getValue();
+						if (value instanceof String || value instanceof Integer || value instanceof Boolean)
+							map.put((String)me.getKey(), value);
+					}
+				}
+				attributes[i] = map;
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private Record(int config, int errors, int warnings, int infos, int size){
+			this.config = config;
+			this.errors = errors;
+			this.warnings = warnings;
+			this.infos = infos;
+			types = new String[size];
+			attributes = new Map[size];
+		}
+
+		ValidationResult asResult(IResource resource){
+			ValidationResult vr = new ValidationResult();
+			vr.setSeverityError(errors);
+			vr.setSeverityWarning(warnings);
+			vr.setSeverityInfo(infos);
+			for (int i=0; i<types.length; i++){
+				ValidatorMessage vm = ValidatorMessage.create("", resource); //$NON-NLS-1$
+				vm.setType(types[i]);
+				vm.setAttributes(new HashMap<String, Object>(attributes[i]));
+				vr.add(vm);
+			}
+			return vr;
+		}
+
+		void write(DataOutputStream out) throws IOException {
+			out.writeInt(config);
+			out.writeInt(errors);
+			out.writeInt(warnings);
+			out.writeInt(infos);
+			out.writeInt(types.length);
+			for (int i=0; i<types.length; i++){
+				writeString(out, types[i]);
+				out.writeInt(attributes[i].size());
+				for (Map.Entry<String, Object> me : attributes[i].entrySet()){
+					writeString(out, me.getKey());
+					Object value = me.getValue();
+					if (value instanceof Integer){
+						out.writeByte(TagInt);
+						out.writeInt((Integer)value);
+					}
+					else if (value instanceof Boolean){
+						out.writeByte(TagBoolean);
+						out.writeBoolean((Boolean)value);
+					}
+					else {
+						out.writeByte(TagString);
+						writeString(out, (String)value);
+					}
+				}
+			}
+		}
+
+		static Record read(DataInputStream in) throws IOException {
+			Record r = new Record(in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt());
+			for (int i=0; i<r.types.length; i++){
+				r.types[i] = readString(in);
+				int numAttribs = in.readInt();
+				Map<String, Object> map = new HashMap<String, Object>(numAttribs+2);
+				for (int j=0; j<numAttribs; j++){
+					String name = readString(in);
+					byte tag = in.readByte();
+					if (tag == TagInt)map.put(name, in.readInt());
+					else if (tag == TagBoolean)map.put(name, in.readBoolean());
+					else map.put(name, readString(in));
+				}
+				r.attributes[i] = map;
+			}
+			return r;
+		}
+	}
+
+	/**
+	 * Store the singleton for the ValidationLedger. This approach is used to avoid having to synchronize the
+	 * ValidationLedger.getDefault() method.
+	 */
+	private static class Singleton {
+		static ValidationLedger ledger = new ValidationLedger();
+	}
+}
@@ -0,0 +1,370 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation.internal;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.wst.validation.PerformanceCounters;
+import org.eclipse.wst.validation.ValidationResult;
+import org.eclipse.wst.validation.Validator;
+import org.eclipse.wst.validation.ValidatorMessage;
+import org.eclipse.wst.validation.internal.PerformanceMonitor.Counters;
+
+/**
+ * A machine readable report of a validation operation, that is written as the results are produced.
+ * <p>
+ * The messages are written as soon as a validator has finished with a resource, and they are not kept,
+ * so the memory used by the report does not grow with the number of messages. Only the counts, and the
+ * time that each validator has taken, are kept until the report is finished.
+ * </p>
+ * <p>
+ * Two formats are supported. In the <b>jsonl</b> format every message, every validator timing and the
+ * final summary is a JSON object on a line of its own. The <b>sarif</b> format is a SARIF 2.1.0 log with
+ * a single run.
+ * </p>
+ */
+public abstract class ValidationReport implements IValidationResultListener {
+
+	public static final String FormatJsonLines = "jsonl"; //$NON-NLS-1$
+	public static final String FormatSarif = "sarif"; //$NON-NLS-1$
+
+	protected final Writer	_out;
+
+	private int		_errors;
+	private int		_warnings;
+	private int		_infos;
+
+	/** The time taken by each validator. The key is the validator id. */
+	private final Map<String, Counters>	_timings = new HashMap<String, Counters>(40);
+
+	/** The first problem that we had writing the report. */
+	private IOException	_exception;
+
+	/**
+	 * Answer a new report.
+	 *
+	 * @param format either jsonl or sarif.
+	 * @param out where the report is written. It is not closed by the report.
+	 * @return null if the format is not supported.
+	 */
+	public static ValidationReport create(String format, Writer out){
+		if (FormatJsonLines.equals(format))return new JsonLines(out);
+		if (FormatSarif.equals(format))return new Sarif(out);
+		return null;
+	}
+
+	protected ValidationReport(Writer out){
+		_out = out;
+	}
+
+	public synchronized void validated(Validator validator, IResource resource, ValidationResult result,
+		PerformanceCounters counters) {
+
+		for (ValidatorMessage m : result.getMessages()){
+			int severity = m.getAttribute(IMarker.SEVERITY, 0);
+			switch (severity){
+			case IMarker.SEVERITY_ERROR:
+				_errors++;
+				break;
+			case IMarker.SEVERITY_WARNING:
+				_warnings++;
+				break;
+			case IMarker.SEVERITY_INFO:
+				_infos++;
+				break;
+			}
+			IResource target = m.getResource() != null ? m.getResource() : resource;
+			try {
+				writeMessage(validator, target, severity, m);
+			}
+			catch (IOException e){
+				if (_exception == null)_exception = e;
+			}
+		}
+		_errors += result.getSeverityError();
+		_warnings += result.getSeverityWarning();
+		_infos += result.getSeverityInfo();
+
+		if (counters != null){
+			Counters c = _timings.get(validator.getId());
+			if (c == null){
+				c = new Counters();
+				c.name = validator.getName();
+				_timings.put(validator.getId(), c);
+			}
+			c.numberInvocations++;
+			c.elapsedTime += counters.getElapsedTime();
+			if (counters.getCpuTime() != -1 && c.cpuTime != -1)c.cpuTime += counters.getCpuTime();
+			else c.cpuTime = -1;
+		}
+	}
+
+	/**
+	 * Write the validator timings and the summary, and flush the report.
+	 *
+	 * @param canceled was the validation canceled before it finished?
+	 * @param elapsed how long the validation took, in milliseconds.
+	 * @throws IOException if any part of the report could not be written.
+	 */
+	public synchronized void finish(boolean canceled, long elapsed) throws IOException {
+		if (_exception != null)throw _exception;
+		writeEnd(getTimings(), canceled, elapsed);
+		_out.flush();
+	}
+
+	/**
+	 * Answer the time taken by each validator, in validator id order. The resource name of the counters
+	 * is not used.
+	 */
+	public synchronized List<PerformanceCounters> getTimings(){
+		List<PerformanceCounters> list = new LinkedList<PerformanceCounters>();
+		for (Map.Entry<String, Counters> me : new TreeMap<String, Counters>(_timings).entrySet()){
+			Counters c = me.getValue();
+			list.add(new PerformanceCounters(me.getKey(), c.name, null, c.numberInvocations, c.elapsedTime, c.cpuTime));
+		}
+		return list;
+	}
+
+	public synchronized int getErrors() {
+		return _errors;
+	}
+
+	public synchronized int getWarnings() {
+		return _warnings;
+	}
+
+	public synchronized int getInfos() {
+		return _infos;
+	}
+
+	protected abstract void writeMessage(Validator validator, IResource resource, int severity,
+		ValidatorMessage message) throws IOException;
+
+	protected abstract void writeEnd(List<PerformanceCounters> timings, boolean canceled, long elapsed)
+		throws IOException;
+
+	/**
+	 * Answer the value as a JSON string, including the quotes.
+	 */
+	protected static String quote(String value){
+		if (value == null)return "null"; //$NON-NLS-1$
+		StringBuilder sb = new StringBuilder(value.length() + 2);
+		sb.append('"');
+		for (int i=0; i<value.length(); i++){
+			char c = value.charAt(i);
+			switch (c){
+			case '"':
+				sb.append("\\\""); //$NON-NLS-1$
+				break;
+			case '\\':
+				sb.append("\\\\"); //$NON-NLS-1$
+				break;
+			case '\n':
+				sb.append("\\n"); //$NON-NLS-1$
+				break;
+			case '\r':
+				sb.append("\\r"); //$NON-NLS-1$
+				break;
+			case '\t':
+				sb.append("\\t"); //$NON-NLS-1$
+				break;
+			default:
+				if (c < 0x20){
+					String hex = Integer.toHexString(c);
+					sb.append("\\u"); //$NON-NLS-1$
+					for (int j=hex.length(); j<4; j++)sb.append('0');
+					sb.append(hex);
+				}
+				else sb.append(c);
+			}
+		}
+		sb.append('"');
+		return sb.toString();
+	}
+
+	protected static String severityName(int severity){
+		switch (severity){
+		case IMarker.SEVERITY_ERROR:
+			return "error"; //$NON-NLS-1$
+		case IMarker.SEVERITY_WARNING:
+			return "warning"; //$NON-NLS-1$
+		default:
+			return "info"; //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Every message, timing and summary is a JSON object on a line of its own.
+	 */
+	private static final class JsonLines extends ValidationReport {
+
+		JsonLines(Writer out){
+			super(out);
+		}
+
+		@Override
+		protected void writeMessage(Validator validator, IResource resource, int severity,
+			ValidatorMessage message) throws IOException {
+			StringBuilder sb = new StringBuilder(200);
+			sb.append("{\"kind\":\"message\",\"validator\":").append(quote(validator.getId())); //$NON-NLS-1$
+			sb.append(",\"project\":").append(quote(resource.getProject() == null ? null : resource.getProject().getName())); //$NON-NLS-1$
+			sb.append(",\"resource\":").append(quote(resource.getFullPath().toString())); //$NON-NLS-1$
+			sb.append(",\"severity\":").append(quote(severityName(severity))); //$NON-NLS-1$
+			int line = message.getAttribute(IMarker.LINE_NUMBER, -1);
+			if (line > 0)sb.append(",\"line\":").append(line); //$NON-NLS-1$
+			int start = message.getAttribute(IMarker.CHAR_START, -1);
+			int end = message.getAttribute(IMarker.CHAR_END, -1);
+			if (start >= 0 && end >= start){
+				sb.append(",\"charStart\":").append(start).append(",\"charEnd\":").append(end); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			if (message.getType() != null)sb.append(",\"type\":").append(quote(message.getType())); //$NON-NLS-1$
+			sb.append(",\"message\":").append(quote(message.getAttribute(IMarker.MESSAGE, ""))); //$NON-NLS-1$ //$NON-NLS-2$
+			sb.append("}\n"); //$NON-NLS-1$
+			_out.write(sb.toString());
+		}
+
+		@Override
+		protected void writeEnd(List<PerformanceCounters> timings, boolean canceled, long elapsed) throws IOException {
+			for (PerformanceCounters pc : timings){
+				StringBuilder sb = new StringBuilder(200);
+				sb.append("{\"kind\":\"timing\",\"validator\":").append(quote(pc.getValidatorId())); //$NON-NLS-1$
+				sb.append(",\"name\":").append(quote(pc.getValidatorName())); //$NON-NLS-1$
+				sb.append(",\"invocations\":").append(pc.getNumberInvocations()); //$NON-NLS-1$
+				sb.append(",\"elapsedMs\":").append(pc.getElapsedTime()); //$NON-NLS-1$
+				if (pc.getCpuTime() != -1)sb.append(",\"cpuNs\":").append(pc.getCpuTime()); //$NON-NLS-1$
+				sb.append("}\n"); //$NON-NLS-1$
+				_out.write(sb.toString());
+			}
+			StringBuilder sb = new StringBuilder(120);
+			sb.append("{\"kind\":\"summary\",\"errors\":").append(getErrors()); //$NON-NLS-1$
+			sb.append(",\"warnings\":").append(getWarnings()); //$NON-NLS-1$
+			sb.append(",\"infos\":").append(getInfos()); //$NON-NLS-1$
+			sb.append(",\"elapsedMs\":").append(elapsed); //$NON-NLS-1$
+			sb.append(",\"canceled\":").append(canceled); //$NON-NLS-1$
+			sb.append("}\n"); //$NON-NLS-1$
+			_out.write(sb.toString());
+		}
+	}
+
+	/**
+	 * A SARIF 2.1.0 log with a single run. The results are written first, as they are produced, and the
+	 * tool description (which lists the validators that were run) and the invocation (which has the
+	 * counts and the timings) are written at the end, since the order of the properties of a JSON object
+	 * does not matter.
+	 */
+	private static final class Sarif extends ValidationReport {
+
+		private boolean	_started;
+		private boolean	_firstResult = true;
+
+		/** The validators that produced messages or were timed. The key is the id and the value is the name. */
+		private final Map<String, String> _rules = new TreeMap<String, String>();
+
+		Sarif(Writer out){
+			super(out);
+		}
+
+		private void start() throws IOException {
+			if (_started)return;
+			_started = true;
+			_out.write("{\"$schema\":\"https://json.schemastore.org/sarif-2.1.0.json\",\"version\":\"2.1.0\",\"runs\":[{\"results\":["); //$NON-NLS-1$
+		}
+
+		@Override
+		protected void writeMessage(Validator validator, IResource resource, int severity,
+			ValidatorMessage message) throws IOException {
+			start();
+			_rules.put(validator.getId(), validator.getName());
+			StringBuilder sb = new StringBuilder(300);
+			if (!_firstResult)sb.append(',');
+			_firstResult = false;
+			sb.append("\n{\"ruleId\":").append(quote(validator.getId())); //$NON-NLS-1$
+			sb.append(",\"level\":").append(quote(severity == IMarker.SEVERITY_ERROR ? "error" :  //$NON-NLS-1$ //$NON-NLS-2$
+				severity == IMarker.SEVERITY_WARNING ? "warning" : "note")); //$NON-NLS-1$ //$NON-NLS-2$
+			sb.append(",\"message\":{\"text\":").append(quote(message.getAttribute(IMarker.MESSAGE, ""))).append('}'); //$NON-NLS-1$ //$NON-NLS-2$
+			sb.append(",\"locations\":[{\"physicalLocation\":{\"artifactLocation\":{\"uri\":"); //$NON-NLS-1$
+			sb.append(quote(toURI(resource))).append(",\"uriBaseId\":\"WORKSPACE\"}"); //$NON-NLS-1$
+			int line = message.getAttribute(IMarker.LINE_NUMBER, -1);
+			int start = message.getAttribute(IMarker.CHAR_START, -1);
+			int end = message.getAttribute(IMarker.CHAR_END, -1);
+			boolean hasOffset = start >= 0 && end >= start;
+			if (line > 0 || hasOffset){
+				sb.append(",\"region\":{"); //$NON-NLS-1$
+				if (line > 0)sb.append("\"startLine\":").append(line); //$NON-NLS-1$
+				if (hasOffset){
+					if (line > 0)sb.append(',');
+					sb.append("\"charOffset\":").append(start).append(",\"charLength\":").append(end - start); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+				sb.append('}');
+			}
+			sb.append("}}]}"); //$NON-NLS-1$
+			_out.write(sb.toString());
+		}
+
+		/**
+		 * Answer the workspace relative path of the resource as a relative URI reference.
+		 */
+		private static String toURI(IResource resource){
+			String path = resource.getFullPath().makeRelative().toString();
+			try {
+				return new URI(null, null, path, null).toASCIIString();
+			}
+			catch (URISyntaxException e){
+				return path;
+			}
+		}
+
+		@Override
+		protected void writeEnd(List<PerformanceCounters> timings, boolean canceled, long elapsed) throws IOException {
+			start();
+			for (PerformanceCounters pc : timings)_rules.put(pc.getValidatorId(), pc.getValidatorName());
+
+			StringBuilder sb = new StringBuilder(1000);
+			sb.append("\n],\"tool\":{\"driver\":{\"name\":\"Eclipse Web Tools Platform Validation\",\"rules\":["); //$NON-NLS-1$
+			boolean first = true;
+			for (Map.Entry<String, String> me : _rules.entrySet()){
+				if (!first)sb.append(',');
+				first = false;
+				sb.append("{\"id\":").append(quote(me.getKey())); //$NON-NLS-1$
+				if (me.getValue() != null)sb.append(",\"name\":").append(quote(me.getValue())); //$NON-NLS-1$
+				sb.append('}');
+			}
+			sb.append("]}},\"invocations\":[{\"executionSuccessful\":").append(!canceled); //$NON-NLS-1$
+			sb.append(",\"properties\":{\"errors\":").append(getErrors()); //$NON-NLS-1$
+			sb.append(",\"warnings\":").append(getWarnings()); //$NON-NLS-1$
+			sb.append(",\"infos\":").append(getInfos()); //$NON-NLS-1$
+			sb.append(",\"elapsedMs\":").append(elapsed); //$NON-NLS-1$
+			sb.append(",\"validatorTimings\":["); //$NON-NLS-1$
+			first = true;
+			for (PerformanceCounters pc : timings){
+				if (!first)sb.append(',');
+				first = false;
+				sb.append("{\"id\":").append(quote(pc.getValidatorId())); //$NON-NLS-1$
+				sb.append(",\"invocations\":").append(pc.getNumberInvocations()); //$NON-NLS-1$
+				sb.append(",\"elapsedMs\":").append(pc.getElapsedTime()); //$NON-NLS-1$
+				if (pc.getCpuTime() != -1)sb.append(",\"cpuNs\":").append(pc.getCpuTime()); //$NON-NLS-1$
+				sb.append('}');
+			}
+			sb.append("]}}]}]}\n"); //$NON-NLS-1$
+			_out.write(sb.toString());
+		}
+	}
+}
@@ -12,6 +12,8 @@ package org.eclipse.wst.validation.internal;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -40,9 +42,17 @@ import org.eclipse.wst.validation.internal.model.IValidatorVisitor;
  */
 public final class ValidationRunner implements IWorkspaceRunnable {
 	
+	/** 
+	 * The number of resources in a shard. When validation is run in parallel, the resources of each
+	 * project are split into shards of this size, and the shards are given to the workers.
+	 */
+	private static final int ShardSize = 32;
+	
 	private Map<IProject, Set<IResource>>		_projects;
 	private	ValType			_valType;
 	private ValOperation	_valOperation;
+	private IValidationResultListener	_listener;
+	private boolean			_parallel;
 	
 	/**
 	 * Validate the selected projects and/or resources.
@@ -63,7 +73,62 @@ public final class ValidationRunner implements IWorkspaceRunnable {
 	 */
 	public static ValOperation validate(Map<IProject, Set<IResource>> projects, ValType valType, 
 		IProgressMonitor monitor, boolean atomic) throws CoreException{
-		ValidationRunner me = new ValidationRunner(projects, valType);
+		return validate(projects, valType, monitor, atomic, null);
+	}
+	
+	/**
+	 * Validate the selected projects and/or resources, streaming the results to a listener.
+	 * 
+	 * @param projects
+	 *            The selected projects. The key is an IProject and the value is
+	 *            the Set of IResources that were selected.
+	 * 
+	 * @param valType
+	 *            The type of validation that has been requested.
+	 * 
+	 * @param monitor
+	 *            Progress monitor.
+	 * 
+	 * @param atomic
+	 *            Run as an atomic workspace operation?
+	 * 
+	 * @param listener
+	 *            If this is not null, it is given every result as it is produced, and the
+	 *            returned operation only has the counts of the messages.
+	 */
+	public static ValOperation validate(Map<IProject, Set<IResource>> projects, ValType valType, 
+		IProgressMonitor monitor, boolean atomic, IValidationResultListener listener) throws CoreException{
+		return validate(projects, valType, monitor, atomic, listener, false);
+	}
+	
+	/**
+	 * Validate the selected projects and/or resources, streaming the results to a listener.
+	 * 
+	 * @param projects
+	 *            The selected projects. The key is an IProject and the value is
+	 *            the Set of IResources that were selected.
+	 * 
+	 * @param valType
+	 *            The type of validation that has been requested.
+	 * 
+	 * @param monitor
+	 *            Progress monitor.
+	 * 
+	 * @param atomic
+	 *            Run as an atomic workspace operation?
+	 * 
+	 * @param listener
+	 *            If this is not null, it is given every result as it is produced, and the
+	 *            returned operation only has the counts of the messages.
+	 * 
+	 * @param parallel
+	 *            If this is true and the worker pool has more than one worker, the resources of
+	 *            each project are validated in parallel. The projects are still validated one
+	 *            after the other. This is used by headless validation.
+	 */
+	public static ValOperation validate(Map<IProject, Set<IResource>> projects, ValType valType, 
+		IProgressMonitor monitor, boolean atomic, IValidationResultListener listener, boolean parallel) throws CoreException{
+		ValidationRunner me = new ValidationRunner(projects, valType, listener, parallel);
 		if (atomic)ResourcesPlugin.getWorkspace().run(me, null, IWorkspace.AVOID_UPDATE, monitor);
 		else me.execute(monitor);
 		return me._valOperation;
@@ -94,14 +159,16 @@ public final class ValidationRunner implements IWorkspaceRunnable {
 	    return validate(map, valType, monitor, atomic);		
 	}
 	
-	private ValidationRunner(Map<IProject, Set<IResource>> projects, ValType valType){
+	private ValidationRunner(Map<IProject, Set<IResource>> projects, ValType valType, 
+		IValidationResultListener listener, boolean parallel){
 		_projects = projects;
 		_valType = valType;
-		
+		_listener = listener;
+		_parallel = parallel;
 	}
 	
 	private ValOperation execute(IProgressMonitor monitor){
-		_valOperation = new ValOperation();
+		_valOperation = _listener == null ? new ValOperation() : new ValOperation(_listener);
 		ValManager manager = ValManager.getDefault();
 		
 		IValidatorVisitor startingVisitor = new IValidatorVisitor(){
@@ -121,6 +188,16 @@ public final class ValidationRunner implements IWorkspaceRunnable {
 		};
 		
 		manager.accept(startingVisitor, null, _valType, _valOperation, monitor);
+		
+		if (_parallel && ValWorkerPool.getDefault().isParallel()){
+			executeParallel(monitor);
+			if (monitor.isCanceled()){
+				_valOperation.setCanceled(true);
+				return _valOperation;
+			}
+			manager.accept(finishedVisitor, null, _valType, _valOperation, monitor);
+			return _valOperation;
+		}
 				
 		for (Map.Entry<IProject, Set<IResource>> me : _projects.entrySet()){
 			if (monitor.isCanceled()){
@@ -144,8 +221,68 @@ public final class ValidationRunner implements IWorkspaceRunnable {
 		return _valOperation;
 	}
 
+	/**
+	 * Validate the projects one after the other, splitting the resources of each project into shards that
+	 * are validated on the workers. Each project is validated in its own session, so the validators are told
+	 * that the project is starting before any of its shards are validated, and that it is finishing after the
+	 * last of them has been validated, even if the validation is canceled. A validator that is not thread safe
+	 * is only called by one worker at a time, and never sees two projects at the same time.
+	 */
+	private void executeParallel(IProgressMonitor monitor){
+		ValWorkerPool pool = ValWorkerPool.getDefault();
+		IProgressMonitor workerMonitor = ValWorkerPool.cancelOnly(monitor);
+		for (Map.Entry<IProject, Set<IResource>> me : _projects.entrySet()){
+			if (monitor.isCanceled())return;
+			IProject project = me.getKey();
+			ValWorkerPool.Session session = null;
+			try {
+				session = pool.openSession(project, _valType, _valOperation, monitor);
+				session.start(monitor);
+				IResource[] resources = me.getValue().toArray(new IResource[me.getValue().size()]);
+				List<Runnable> tasks = new LinkedList<Runnable>();
+				for (int from=0; from<resources.length; from += ShardSize){
+					tasks.add(new Shard(project, resources, from, Math.min(resources.length, from+ShardSize), workerMonitor));
+				}
+				pool.runAll(tasks);
+			}
+			finally {
+				if (session != null)session.finish(monitor);
+			}
+		}
+	}
+
 	public void run(IProgressMonitor monitor) throws CoreException {
 		execute(monitor);		
 	}
+	
+	private final class Shard implements Runnable {
+		private final IProject			_project;
+		private final IResource[]		_resources;
+		private final int				_from;
+		private final int				_to;
+		private final IProgressMonitor	_monitor;
+		
+		Shard(IProject project, IResource[] resources, int from, int to, IProgressMonitor monitor){
+			_project = project;
+			_resources = resources;
+			_from = from;
+			_to = to;
+			_monitor = monitor;
+		}
+		
+		public void run() {
+			ValManager manager = ValManager.getDefault();
+			for (int i=_from; i<_to; i++){
+				if (_monitor.isCanceled())return;
+				try {
+					manager.validate(_project, _resources[i], IResourceDelta.NO_CHANGE, _valType, 
+						IncrementalProjectBuilder.AUTO_BUILD, _valOperation, _monitor);
+				}
+				catch (ResourceUnavailableError error){
+					// if the resource is no longer available, we can't validate it, so we should just move on. 
+				}
+			}
+		}
+	}
 
 }
@@ -176,6 +176,7 @@ public class ValidatorExtensionReader {
 			v.setMarkerId(validator.getAttribute(ExtensionConstants.markerId));
 			v.setVersion(getAttribute(validator, ExtensionConstants.version, 1));
 			v.setSourceId(validator.getAttribute(ExtensionConstants.sourceId));
+			v.setThreadSafe(getAttribute(validator, ExtensionConstants.threadSafe, false));
 			IConfigurationElement[] children = validator.getChildren();
 			for (IConfigurationElement child : children)processIncludeAndExcludeElement(v, child);
 		}
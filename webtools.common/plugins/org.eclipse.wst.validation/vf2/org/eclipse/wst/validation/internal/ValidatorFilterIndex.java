@@ -0,0 +1,466 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation.internal;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.wst.validation.Friend;
+import org.eclipse.wst.validation.Validator;
+import org.eclipse.wst.validation.internal.model.FilterGroup;
+import org.eclipse.wst.validation.internal.model.FilterRule;
+
+/**
+ * All the filters of all the validators of a project, compiled into one structure, so that we can answer
+ * which validators apply to a resource without asking each validator in turn.
+ * <p>
+ * The project level rules (facets, natures and target runtimes) are evaluated once, when the index is
+ * built. The file extension rules are found with a hash table and the file, folder and full path rules are
+ * found by walking a prefix tree, so each resource is only looked at once no matter how many validators
+ * there are. The regular expressions are shared between validators that use the same expression, and along
+ * with the content type rules they are only evaluated when the cheaper rules have not already decided the
+ * outcome.
+ * </p>
+ * <p>
+ * Version 1 validators, and any validator that uses a rule that the index does not understand, are asked
+ * directly, as they always have been.
+ * </p>
+ * <p>
+ * An index is immutable, and it is only good for the configuration number and validators that it was
+ * built with, see {@link #isCurrent(int, Validator[])}.
+ * </p>
+ */
+public final class ValidatorFilterIndex {
+
+	private final Validator[] 	_validators;
+	private final int			_configNumber;
+
+	/** The compiled filters, parallel to _validators. It is null for the validators that must be asked directly. */
+	private final CompiledValidator[]	_compiled;
+
+	/**
+	 * The file extension rules. The key is the extension in lower case, and the value is the rule numbers
+	 * of the rules that might match.
+	 */
+	private final Map<String, int[]> _extensions;
+
+	/** The file extension rules, by rule number. */
+	private final FilterRule.FileExt[] _extRules;
+
+	/** The file name rules, indexed by the FilterRule.File.FileTypeXX constants, case sensitive first. */
+	private final Trie[] _tries = new Trie[8];
+
+	/** The distinct regular expression rules. */
+	private final FilterRule[] _patterns;
+
+	/** The distinct content type rules. */
+	private final FilterRule[] _contentTypes;
+
+	/** The number of extension and file rules, these are the rules that get matched up front. */
+	private final int _cheapRules;
+
+	/**
+	 * Compile the filters for these validators.
+	 * @param project the project that the validators belong to.
+	 * @param validators the validators, from {@link ValManager#getValidators(IProject)}.
+	 * @param configNumber the configuration number at the time that the validators were retrieved.
+	 */
+	public static ValidatorFilterIndex compile(IProject project, Validator[] validators, int configNumber){
+		return new Compiler(project, validators, configNumber).build();
+	}
+
+	private ValidatorFilterIndex(Compiler c){
+		_validators = c.validators;
+		_configNumber = c.configNumber;
+		_compiled = c.compiled;
+		_extensions = c.extensions;
+		_extRules = c.extRules.toArray(new FilterRule.FileExt[c.extRules.size()]);
+		for (int i=0; i<_tries.length; i++)_tries[i] = c.tries[i].isEmpty() ? null : c.tries[i];
+		_patterns = c.patterns.toArray(new FilterRule[c.patterns.size()]);
+		_contentTypes = c.contentTypes.toArray(new FilterRule[c.contentTypes.size()]);
+		_cheapRules = c.cheapRules;
+	}
+
+	/**
+	 * Answer true if this index can still be used.
+	 */
+	public boolean isCurrent(int configNumber, Validator[] validators){
+		return _configNumber == configNumber && _validators == validators;
+	}
+
+	/**
+	 * Answer which of the validators, based on their filters, should validate this resource. This does
+	 * not check whether validation has been suspended, or whether the validator is enabled for the
+	 * project.
+	 *
+	 * @param resource a resource in the project.
+	 * @param valType the type of validation.
+	 * @param contentTypeWrapper used to remember the content type, if one is needed.
+	 * @param candidates the validators that need to be checked, the bits correspond to the validators
+	 * that the index was built with.
+	 * @return a bit set, where the bits correspond to the validators that the index was built with.
+	 */
+	public BitSet match(IResource resource, ValType valType, ContentTypeWrapper contentTypeWrapper, BitSet candidates){
+		BitSet result = new BitSet(_validators.length);
+		Match m = null;
+		boolean derived = false;
+		boolean derivedKnown = false;
+		for (int i = candidates.nextSetBit(0); i >= 0 && i < _validators.length; i = candidates.nextSetBit(i+1)){
+			Validator v = _validators[i];
+			CompiledValidator cv = _compiled[i];
+			if (cv == null || Tracing.matchesExtraDetail(v.getId())){
+				if (Friend.shouldValidate(v, resource, valType, contentTypeWrapper))result.set(i);
+				continue;
+			}
+			if (valType == ValType.Manual && !v.isManualValidation())continue;
+			if (valType == ValType.Build && !v.isBuildValidation())continue;
+			if (!derivedKnown){
+				derived = resource.isDerived();
+				derivedKnown = true;
+			}
+			if (derived)continue;
+			if (m == null)m = new Match(resource, contentTypeWrapper);
+			if (cv.shouldValidate(m))result.set(i);
+		}
+		return result;
+	}
+
+	/**
+	 * Answer the validators that this index was built for.
+	 */
+	public Validator[] getValidators(){
+		return _validators;
+	}
+
+	/**
+	 * The rules that match one resource. The cheap rules are all matched at once, the others are matched on
+	 * demand and remembered.
+	 */
+	private final class Match {
+		private final IResource 			_resource;
+		private final ContentTypeWrapper	_ctw;
+		private final BitSet				_cheap = new BitSet(_cheapRules);
+		private Boolean[]					_patternMatches;
+		private Boolean[]					_contentTypeMatches;
+
+		Match(IResource resource, ContentTypeWrapper ctw){
+			_resource = resource;
+			_ctw = ctw;
+			matchExtension();
+			matchNames();
+		}
+
+		private void matchExtension(){
+			if (_extRules.length == 0)return;
+			String ext = _resource.getFileExtension();
+			if (ext == null)return;
+			int[] rules = _extensions.get(ext.toLowerCase(Locale.ENGLISH));
+			if (rules == null)return;
+			for (int r : rules){
+				FilterRule.FileExt rule = _extRules[r];
+				if (!rule.isCaseSensitive() || rule.getPattern().equals(ext))_cheap.set(r);
+			}
+		}
+
+		private void matchNames(){
+			for (int type = FilterRule.File.FileTypeFile; type <= FilterRule.File.FileTypeFull; type++){
+				Trie sensitive = _tries[type];
+				Trie insensitive = _tries[type+4];
+				if (sensitive == null && insensitive == null)continue;
+				String name = null;
+				switch (type){
+				case FilterRule.File.FileTypeFile:
+					name = _resource.getName();
+					break;
+
+				case FilterRule.File.FileTypeFolder:
+					name = _resource.getProjectRelativePath().removeLastSegments(1).toString() + "/"; //$NON-NLS-1$
+					break;
+
+				case FilterRule.File.FileTypeFull:
+					name = _resource.getProjectRelativePath().toPortableString();
+					break;
+				}
+				if (name == null)continue;
+				if (sensitive != null)sensitive.match(name, _cheap);
+				if (insensitive != null)insensitive.match(name.toLowerCase(Locale.ENGLISH), _cheap);
+			}
+		}
+
+		boolean isCheap(int rule){
+			return _cheap.get(rule);
+		}
+
+		boolean isPattern(int pattern){
+			if (_patternMatches == null)_patternMatches = new Boolean[_patterns.length];
+			Boolean b = _patternMatches[pattern];
+			if (b == null){
+				b = _patterns[pattern].matchesResource(_resource, _ctw);
+				if (b == null)b = Boolean.FALSE;
+				_patternMatches[pattern] = b;
+			}
+			return b;
+		}
+
+		boolean isContentType(int rule){
+			if (_contentTypeMatches == null)_contentTypeMatches = new Boolean[_contentTypes.length];
+			Boolean b = _contentTypeMatches[rule];
+			if (b == null){
+				b = _contentTypes[rule].matchesResource(_resource, _ctw);
+				if (b == null)b = Boolean.FALSE;
+				_contentTypeMatches[rule] = b;
+			}
+			return b;
+		}
+	}
+
+	/**
+	 * The filters of one validator.
+	 */
+	private final static class CompiledValidator {
+		private final CompiledGroup[] _groups;
+
+		CompiledValidator(CompiledGroup[] groups){
+			_groups = groups;
+		}
+
+		boolean shouldValidate(Match m){
+			for (CompiledGroup g : _groups){
+				if (!g.shouldValidate(m))return false;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * One filter group, with its rules split by how expensive they are to evaluate. This follows the
+	 * logic in {@link FilterGroup#shouldValidate(IProject, IResource, ContentTypeWrapper)}.
+	 */
+	private final static class CompiledGroup {
+		private final boolean	_exclude;
+
+		/** Did any of the project level rules match? */
+		private final boolean	_projectMatch;
+
+		/** Does the group have any rules at all? */
+		private final boolean	_hasRules;
+
+		private final int[]		_cheap;
+		private final int[]		_patterns;
+		private final int[]		_contentTypes;
+
+		CompiledGroup(boolean exclude, boolean projectMatch, boolean hasRules, int[] cheap, int[] patterns,
+			int[] contentTypes){
+			_exclude = exclude;
+			_projectMatch = projectMatch;
+			_hasRules = hasRules;
+			_cheap = cheap;
+			_patterns = patterns;
+			_contentTypes = contentTypes;
+		}
+
+		boolean shouldValidate(Match m){
+			boolean matched = matches(m);
+			if (_exclude)return !matched;
+			return matched || !_hasRules;
+		}
+
+		private boolean matches(Match m){
+			if (_projectMatch)return true;
+			for (int r : _cheap){
+				if (m.isCheap(r))return true;
+			}
+			for (int p : _patterns){
+				if (m.isPattern(p))return true;
+			}
+			for (int c : _contentTypes){
+				if (m.isContentType(c))return true;
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * A prefix tree of file rules. A rule matches a name if its pattern is a prefix of the name.
+	 */
+	private final static class Trie {
+		private final Map<Character, Trie> 	_children = new HashMap<Character, Trie>(4);
+		private int[]						_rules;
+
+		void add(String pattern, int rule){
+			Trie node = this;
+			for (int i=0; i<pattern.length(); i++){
+				Character c = pattern.charAt(i);
+				Trie child = node._children.get(c);
+				if (child == null){
+					child = new Trie();
+					node._children.put(c, child);
+				}
+				node = child;
+			}
+			node._rules = append(node._rules, rule);
+		}
+
+		void match(String name, BitSet matches){
+			Trie node = this;
+			int i = 0;
+			while (node != null){
+				if (node._rules != null){
+					for (int r : node._rules)matches.set(r);
+				}
+				if (i == name.length())break;
+				node = node._children.get(name.charAt(i++));
+			}
+		}
+
+		boolean isEmpty(){
+			return _rules == null && _children.isEmpty();
+		}
+	}
+
+	private static int[] append(int[] array, int value){
+		if (array == null)return new int[]{value};
+		int[] result = new int[array.length+1];
+		System.arraycopy(array, 0, result, 0, array.length);
+		result[array.length] = value;
+		return result;
+	}
+
+	private static int[] toArray(List<Integer> list){
+		int[] result = new int[list.size()];
+		for (int i=0; i<result.length; i++)result[i] = list.get(i);
+		return result;
+	}
+
+	/**
+	 * Builds the index.
+	 */
+	private final static class Compiler {
+		final IProject		project;
+		final Validator[]	validators;
+		final int			configNumber;
+		final CompiledValidator[] compiled;
+
+		final Map<String, int[]> extensions = new HashMap<String, int[]>(50);
+		final List<FilterRule.FileExt> extRules = new ArrayList<FilterRule.FileExt>(50);
+		final Trie[] tries = new Trie[8];
+		final List<FilterRule> patterns = new ArrayList<FilterRule>(10);
+		final List<FilterRule> contentTypes = new ArrayList<FilterRule>(10);
+		int cheapRules;
+
+		/** The key is the pattern and case sensitivity, the value is the pattern number. */
+		private final Map<String, Integer> _patternNumbers = new HashMap<String, Integer>(10);
+
+		/** A rule that is used by more than one group only gets one rule number. */
+		private final Map<FilterRule, Integer> _ruleNumbers = new HashMap<FilterRule, Integer>(100);
+
+		Compiler(IProject project, Validator[] validators, int configNumber){
+			this.project = project;
+			this.validators = validators;
+			this.configNumber = configNumber;
+			compiled = new CompiledValidator[validators.length];
+			for (int i=0; i<tries.length; i++)tries[i] = new Trie();
+		}
+
+		ValidatorFilterIndex build(){
+			for (int i=0; i<validators.length; i++){
+				Validator.V2 v2 = validators[i].asV2Validator();
+				if (v2 != null)compiled[i] = compile(v2);
+			}
+			return new ValidatorFilterIndex(this);
+		}
+
+		/**
+		 * Answer the compiled filters, or null if the validator uses a rule that we don't understand.
+		 */
+		private CompiledValidator compile(Validator.V2 v){
+			FilterGroup[] groups = v.getGroups();
+			CompiledGroup[] cg = new CompiledGroup[groups.length];
+			for (int i=0; i<groups.length; i++){
+				cg[i] = compile(groups[i]);
+				if (cg[i] == null)return null;
+			}
+			return new CompiledValidator(cg);
+		}
+
+		private CompiledGroup compile(FilterGroup group){
+			if (!group.isInclude() && !group.isExclude())return null;
+			FilterRule[] rules = group.getRules();
+			boolean projectMatch = false;
+			List<Integer> cheap = new ArrayList<Integer>(rules.length);
+			List<Integer> pats = new ArrayList<Integer>(2);
+			List<Integer> cts = new ArrayList<Integer>(2);
+			for (FilterRule rule : rules){
+				if (rule instanceof FilterRule.ProjectNature || rule instanceof FilterRule.Facet ||
+					rule instanceof FilterRule.TargetRuntime){
+					if (Boolean.TRUE.equals(rule.matchesProject(project)))projectMatch = true;
+				}
+				else if (rule instanceof FilterRule.FileExt){
+					if (rule.getPattern() == null)return null;
+					cheap.add(addExtension((FilterRule.FileExt)rule));
+				}
+				else if (rule instanceof FilterRule.File){
+					if (rule.getPattern() == null)return null;
+					cheap.add(addFile((FilterRule.File)rule));
+				}
+				else if (rule instanceof FilterRule.FilePattern){
+					pats.add(addPattern((FilterRule.FilePattern)rule));
+				}
+				else if (rule instanceof FilterRule.ContentType){
+					cts.add(contentTypes.size());
+					contentTypes.add(rule);
+				}
+				else return null;
+			}
+			return new CompiledGroup(group.isExclude(), projectMatch, rules.length > 0, toArray(cheap),
+				toArray(pats), toArray(cts));
+		}
+
+		private int addExtension(FilterRule.FileExt rule){
+			Integer n = _ruleNumbers.get(rule);
+			if (n != null)return n;
+			n = cheapRules++;
+			_ruleNumbers.put(rule, n);
+			while (extRules.size() < n)extRules.add(null);
+			extRules.add(rule);
+			String key = rule.getPattern().toLowerCase(Locale.ENGLISH);
+			extensions.put(key, append(extensions.get(key), n));
+			return n;
+		}
+
+		private int addFile(FilterRule.File rule){
+			Integer n = _ruleNumbers.get(rule);
+			if (n != null)return n;
+			n = cheapRules++;
+			_ruleNumbers.put(rule, n);
+			int type = rule.getFileType();
+			if (rule.isCaseSensitive())tries[type].add(rule.getPattern(), n);
+			else tries[type+4].add(rule.getPattern().toLowerCase(Locale.ENGLISH), n);
+			return n;
+		}
+
+		private int addPattern(FilterRule.FilePattern rule){
+			String key = rule.isCaseSensitive() + rule.getPattern();
+			Integer n = _patternNumbers.get(key);
+			if (n != null)return n;
+			n = patterns.size();
+			patterns.add(rule);
+			_patternNumbers.put(key, n);
+			return n;
+		}
+	}
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation.internal;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Map validator id's to an index number on a bit set, so that we can quickly determine if a
+ * particular validator needs to validate a particular resource, and so that the dependency index
+ * does not need to hold on to a set of strings for every dependency.
+ * <p>
+ * The index numbers are only valid for the current session, they must never be persisted.
+ * </p>
+ */
+public final class ValidatorIdManager {
+
+	/**
+	 * Map validator id's to Integers. The integers correspond to bits in the ValProperty instances.
+	 */
+	private final ConcurrentMap<String, Integer> _map = new ConcurrentHashMap<String, Integer>(100);
+
+	/** The validator id's, in index order. The array is replaced (never changed) when it grows. */
+	private volatile String[] _ids = new String[0];
+
+	public static ValidatorIdManager getDefault(){
+		return Singleton.manager;
+	}
+
+	private ValidatorIdManager(){}
+
+	/**
+	 * Answer the index number for this validator. If we haven't seen it yet allocate a new index number.
+	 * @param id validator id.
+	 * @return index into the validator bit mask.
+	 */
+	public int getIndex(String id){
+		Integer i = _map.get(id);
+		if (i != null)return i;
+		return allocate(id);
+	}
+
+	private synchronized int allocate(String id){
+		Integer i = _map.get(id);
+		if (i != null)return i;
+
+		String[] ids = new String[_ids.length+1];
+		System.arraycopy(_ids, 0, ids, 0, _ids.length);
+		i = _ids.length;
+		ids[i] = id.intern();
+		_ids = ids;
+		_map.put(ids[i], i);
+		return i;
+	}
+
+	/**
+	 * Answer the validator id for this index number.
+	 * @param index an index that was previously returned by {@link #getIndex(String)}.
+	 * @return the validator id, or null if the index has not been allocated.
+	 */
+	public String getId(int index){
+		String[] ids = _ids;
+		if (index < 0 || index >= ids.length)return null;
+		return ids[index];
+	}
+
+	/**
+	 * Store the singleton for the ValidatorIdManager. This approach is used to avoid having to synchronize the
+	 * ValidatorIdManager.getDefault() method.
+	 */
+	private static class Singleton {
+		static ValidatorIdManager manager = new ValidatorIdManager();
+	}
+}
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.wst.validation.internal.model;
 
+import java.util.Locale;
 import java.util.regex.Pattern;
 
 import org.eclipse.core.resources.IFile;
@@ -341,7 +342,7 @@ public abstract class FilterRule implements IAdaptable {
 		private  File(String pattern, boolean caseSensitive, int type){			
 			super(pattern, caseSensitive);
 			_type = type;
-			_patternAsLowercase = pattern == null ? null : pattern.toLowerCase();
+			_patternAsLowercase = pattern == null ? null : pattern.toLowerCase(Locale.ENGLISH);
 		}
 				
 		public String getType() {
@@ -357,6 +358,11 @@ public abstract class FilterRule implements IAdaptable {
 		public void setData(IConfigurationElement rule) {
 		}
 		
+		/** Answer one of the FileTypeXX constants. */
+		public int getFileType() {
+			return _type;
+		}
+		
 		public String toString() {
 			if (isCaseSensitive())return NLS.bind(ValMessages.FileExtWithCase, getDisplayableType(), _pattern);
 			return NLS.bind(ValMessages.FileExtWithoutCase, getDisplayableType(), _pattern);
@@ -380,7 +386,7 @@ public abstract class FilterRule implements IAdaptable {
 			
 			if (name == null)return Boolean.FALSE;
 			if (isCaseSensitive())return name.startsWith(_pattern);
-			return name.toLowerCase().startsWith(_patternAsLowercase);
+			return name.toLowerCase(Locale.ENGLISH).startsWith(_patternAsLowercase);
 		}
 								
 		@Override
@@ -31,6 +31,9 @@ public final class GlobalPreferences {
 	/** 2 - The version of the framework meta data, if an explicit version isn't found. */
 	public static final int DefaultFrameworkVersion = 2;
 	
+	/** 1 - Default number of validation workers, which means that validation is done serially. */
+	public static final int DefaultPoolSize = 1;
+	
 	/** Bit masks for what has changed. */
 	public final static int ConfirmDialogMask = 1;
 	public final static int DisableAllValidationMask = 2;
@@ -38,6 +41,7 @@ public final class GlobalPreferences {
 	public final static int SaveAutomaticallyMask = 8;
 	public final static int StateTimeStampMask = 16;
 	public final static int VersionMask = 32;
+	public final static int PoolSizeMask = 64;
 	
 	/**
 	 * The changes that could affect what gets validated.
@@ -55,6 +59,9 @@ public final class GlobalPreferences {
 	
 	/** The incoming version of the framework. This is used to determine if a migration is needed.*/
 	private final int		_version;
+	
+	/** The number of workers that can validate at the same time. */
+	private final int		_poolSize;
 			
 	/**
 	 * The only valid way to get the global preferences is through the ValManager.
@@ -68,6 +75,7 @@ public final class GlobalPreferences {
 		_saveAutomatically = gp.saveAutomatically;
 		_stateTimeStamp = gp.stateTimeStamp;
 		_version = gp.version;
+		_poolSize = gp.poolSize < 1 ? 1 : gp.poolSize;
 	}
 	
 	/**
@@ -82,6 +90,7 @@ public final class GlobalPreferences {
 		gp.saveAutomatically = _saveAutomatically;
 		gp.stateTimeStamp = _stateTimeStamp;
 		gp.version = _version;
+		gp.poolSize = _poolSize;
 		return gp;
 	}
 
@@ -113,6 +122,14 @@ public final class GlobalPreferences {
 	public int getVersion() {
 		return _version;
 	}
+	
+	/**
+	 * Answer the number of workers that build validation may use. A value of 1 means that the
+	 * projects, and the validators for each resource, are validated one at a time.
+	 */
+	public int getPoolSize() {
+		return _poolSize;
+	}
 
 	/**
 	 * Compare yourself to the other global preferences and answer a bitmask with the differences.
@@ -127,6 +144,7 @@ public final class GlobalPreferences {
 		if (_saveAutomatically != gp.getSaveAutomatically())changes |= SaveAutomaticallyMask;
 		if (_stateTimeStamp != gp.getStateTimeStamp())changes |= StateTimeStampMask;
 		if (_version != gp.getVersion())changes |= VersionMask;
+		if (_poolSize != gp.getPoolSize())changes |= PoolSizeMask;
 		return changes;
 	}
 
@@ -28,6 +28,9 @@ public class GlobalPreferencesValues {
 	/** The incoming version of the framework. This is used to determine if a migration is needed.*/
 	public int		version;
 	
+	/** The number of workers that build validation may use. */
+	public int		poolSize = GlobalPreferences.DefaultPoolSize;
+	
 	public GlobalPreferencesValues(){
 		
 	}